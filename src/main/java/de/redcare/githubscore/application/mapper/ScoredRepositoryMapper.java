@@ -12,7 +12,7 @@ public class ScoredRepositoryMapper {
                 repository.language(),
                 repository.stars(),
                 repository.forks(),
-                repository.lastUpdated(),
+                repository.lastUpdatedEpochSecond(),
                 score
         );
     }
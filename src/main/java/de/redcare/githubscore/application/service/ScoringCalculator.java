@@ -1,7 +1,11 @@
 package de.redcare.githubscore.application.service;
 
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.exceptions.UnsupportedScoringException;
 import de.redcare.githubscore.domain.model.Repository;
 
+import java.util.List;
+
 /**
  * Strategy interface for calculating a popularity score for a GitHub repository.
  * <p>
@@ -20,4 +24,39 @@ public interface ScoringCalculator {
      * @return the calculated popularity score
      */
     float calculatePopularityScore(Repository repository);
+
+    /**
+     * Calculates the popularity scores of a batch of repositories, e.g. a whole ranking.
+     * <p>
+     * Implementations may score the batch at once; the default scores one repository at a time.
+     *
+     * @param repositories the repositories to score
+     * @return the score of {@code repositories.get(i)} at index {@code i}
+     */
+    default float[] calculatePopularityScores(List<Repository> repositories) {
+        float[] scores = new float[repositories.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = calculatePopularityScore(repositories.get(i));
+        }
+        return scores;
+    }
+
+    /**
+     * Returns a calculator scoring with other settings, e.g. the overrides of a single request.
+     *
+     * @param config the scoring settings
+     * @return a calculator scoring with {@code config}
+     * @throws UnsupportedScoringException if the calculator cannot score with {@code config}
+     */
+    ScoringCalculator withConfig(ScoringProperties config);
+
+    /**
+     * Returns a number that changes whenever the formula of this calculator is replaced, so scores
+     * can be cached under it.
+     *
+     * @return the generation of the formula in use; {@code 0} if the formula never changes
+     */
+    default long formulaGeneration() {
+        return 0;
+    }
 }
@@ -4,6 +4,7 @@ import de.redcare.githubscore.domain.model.ScoredRepository;
 import de.redcare.githubscore.web.dto.RepositorySearchRequest;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Service interface for calculating and retrieving scored GitHub repositories.
@@ -23,4 +24,21 @@ public interface ScoringService {
      * @return a list of repositories enriched with popularity scores
      */
     List<ScoredRepository> fetchRepositoriesScores(RepositorySearchRequest repositorySearchRequest);
+
+    /**
+     * Returns the scored repositories of the search request in consecutive chunks, so that a caller
+     * can write each of them out before the whole page is scored.
+     * <p>
+     * The first chunk is ready when this method returns, so a caller knows whether it was built from
+     * stale data before writing anything. Later chunks may still be fetched while the stream is
+     * consumed; closing the stream stops fetching them. The default implementation returns the result
+     * of {@link #fetchRepositoriesScores} as one chunk.
+     *
+     * @param repositorySearchRequest request containing search parameters such as
+     *                                keywords, language, sorting, and pagination
+     * @return the scored repositories in order, to be closed once consumed
+     */
+    default Stream<List<ScoredRepository>> streamRepositoriesScores(RepositorySearchRequest repositorySearchRequest) {
+        return Stream.of(fetchRepositoriesScores(repositorySearchRequest));
+    }
 }
@@ -0,0 +1,50 @@
+package de.redcare.githubscore.domain.cache;
+
+import java.time.Duration;
+
+/**
+ * A second cache tier behind the in-heap entries of a {@link StaleWhileRevalidateCache}.
+ * <p>
+ * Writes may be applied asynchronously, and a store may ignore keys or values it cannot keep.
+ */
+public interface CacheStore {
+
+    /**
+     * A store that keeps nothing.
+     */
+    CacheStore NONE = new CacheStore() {
+        @Override
+        public StoredValue load(Object key) {
+            return null;
+        }
+
+        @Override
+        public void store(Object key, Object value) {
+        }
+
+        @Override
+        public void remove(Object key) {
+        }
+
+        @Override
+        public void clear() {
+        }
+    };
+
+    /**
+     * @return the stored value of the key, or {@code null} if there is none or it has expired
+     */
+    StoredValue load(Object key);
+
+    void store(Object key, Object value);
+
+    void remove(Object key);
+
+    void clear();
+
+    /**
+     * A stored value and how long ago it was written.
+     */
+    record StoredValue(Object value, Duration age) {
+    }
+}
@@ -0,0 +1,453 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps GitHub search pages in an append-only file, so a restarted service starts with the pages
+ * it had cached before.
+ * <p>
+ * Every write appends a checksummed record holding the {@link SearchKey}, the write time, the
+ * expiry time and the repositories of the page; an eviction appends a removal record. Only an index
+ * of the latest record per key is kept on the heap, pages are read back from the file when asked
+ * for. The index is rebuilt from the file in the background after startup, and until then every
+ * page is a miss, so startup does not wait for the disk. A torn record at the end of the file, left
+ * by a crash, is cut off.
+ * <p>
+ * When the file outgrows {@code maxBytes}, or more than half of it is overwritten or removed
+ * records, it is compacted: the live pages are copied to a new file, newest first, up to half of
+ * {@code maxBytes}; expired and older pages are dropped. Appends and compaction run on a single
+ * writer thread, reads on the calling thread.
+ */
+public class FilePageStore implements CacheStore, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FilePageStore.class);
+
+    static final String FILE_NAME = "repositories.log";
+    private static final int MAGIC = 0x47485332; // "GHS2"
+    private static final int HEADER_BYTES = Integer.BYTES;
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+    private static final long MIN_COMPACTION_BYTES = 1024 * 1024;
+    private static final int WRITE_QUEUE = 1024;
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+
+    private final Path file;
+    private final long maxBytes;
+    private final long expireAfterMillis;
+    private final Clock clock;
+    private final ThreadPoolExecutor writer;
+    private final ReentrantReadWriteLock channelLock = new ReentrantReadWriteLock();
+    private final Map<SearchKey, Slot> index = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> loaded = new CompletableFuture<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter compactions;
+
+    // Replaced under the write lock of channelLock
+    private FileChannel channel;
+    // Written by the writer thread only
+    private volatile long end;
+    private long liveBytes;
+
+    /**
+     * Opens the store in {@code directory} and starts indexing its file in the background.
+     *
+     * @param expireAfter how long a page is kept after it was written
+     */
+    public FilePageStore(Path directory, long maxBytes, Duration expireAfter, MeterRegistry meterRegistry) {
+        this(directory, maxBytes, expireAfter, meterRegistry, Clock.systemUTC());
+    }
+
+    FilePageStore(Path directory, long maxBytes, Duration expireAfter, MeterRegistry meterRegistry, Clock clock) {
+        this.file = directory.resolve(FILE_NAME);
+        this.maxBytes = maxBytes;
+        this.expireAfterMillis = expireAfter.toMillis();
+        this.clock = clock;
+        this.writer = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(WRITE_QUEUE),
+                Thread.ofPlatform().name("cache-disk-writer").daemon().factory(),
+                new ThreadPoolExecutor.DiscardPolicy());
+        this.hits = counter(meterRegistry, "cache.disk.hits", "Pages answered from the disk cache");
+        this.misses = counter(meterRegistry, "cache.disk.misses", "Pages not found in the disk cache");
+        this.compactions = counter(meterRegistry, "cache.disk.compactions", "Rewrites of the disk cache file");
+        Gauge.builder("cache.disk.size", this, store -> store.end)
+                .description("Size of the disk cache file")
+                .baseUnit("bytes")
+                .tag("cache", "repositories")
+                .register(meterRegistry);
+        Gauge.builder("cache.disk.entries", index, Map::size)
+                .description("Pages in the disk cache")
+                .tag("cache", "repositories")
+                .register(meterRegistry);
+        writer.execute(() -> open(directory));
+    }
+
+    @Override
+    public StoredValue load(Object key) {
+        if (!(key instanceof SearchKey searchKey) || !loaded.isDone() || loaded.isCompletedExceptionally()) {
+            return null;
+        }
+        long now = clock.millis();
+        ReentrantReadWriteLock.ReadLock lock = channelLock.readLock();
+        lock.lock();
+        try {
+            Slot slot = index.get(searchKey);
+            if (slot == null || slot.expiresAt() <= now) {
+                misses.increment();
+                return null;
+            }
+            Record record = decode(read(slot), true);
+            if (!searchKey.equals(record.key())) {
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return new StoredValue(record.repositories(), Duration.ofMillis(Math.max(0, now - record.writtenAt())));
+        } catch (IOException e) {
+            logger.warn("Reading {} from the disk cache failed: {}", key, e.getMessage());
+            misses.increment();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void store(Object key, Object value) {
+        if (!PageCodec.isPage(key, value)) {
+            return;
+        }
+        SearchKey searchKey = (SearchKey) key;
+        @SuppressWarnings("unchecked")
+        List<Repository> repositories = (List<Repository>) value;
+        long writtenAt = clock.millis();
+        submit(() -> append(new Record(PUT, writtenAt, writtenAt + expireAfterMillis, searchKey, repositories)));
+    }
+
+    @Override
+    public void remove(Object key) {
+        if (key instanceof SearchKey searchKey) {
+            long now = clock.millis();
+            submit(() -> append(new Record(REMOVE, now, now, searchKey, List.of())));
+        }
+    }
+
+    @Override
+    public void clear() {
+        submit(this::truncate);
+    }
+
+    /**
+     * Stops the writer after the queued writes and closes the file.
+     */
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channelLock.writeLock().lock();
+        try {
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            logger.warn("Closing the disk cache failed: {}", e.getMessage());
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Waits until the file is indexed and every write queued so far is applied.
+     */
+    void flush() throws InterruptedException, ExecutionException {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        writer.execute(() -> done.complete(null));
+        done.get();
+    }
+
+    long fileSize() {
+        return end;
+    }
+
+    private void submit(Runnable write) {
+        try {
+            writer.execute(() -> {
+                if (loaded.isDone() && !loaded.isCompletedExceptionally()) {
+                    write.run();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Closed, the page is simply not persisted
+        }
+    }
+
+    private void open(Path directory) {
+        long started = clock.millis();
+        try {
+            Files.createDirectories(directory);
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() < HEADER_BYTES || readInt(channel, 0) != MAGIC) {
+                if (channel.size() > 0) {
+                    logger.warn("{} is not a disk cache file of this version, starting empty", file);
+                }
+                channel.truncate(0);
+                write(channel, ByteBuffer.allocate(HEADER_BYTES).putInt(0, MAGIC), 0);
+                end = HEADER_BYTES;
+            } else {
+                end = scan();
+            }
+            if (end > maxBytes || needsCompaction()) {
+                compact();
+            }
+            loaded.complete(null);
+            logger.info("Disk cache {} holds {} pages ({} bytes), indexed in {} ms",
+                    file, index.size(), end, clock.millis() - started);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Disk cache {} is unavailable, running without it: {}", file, e.getMessage());
+            loaded.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Rebuilds the index from the file and cuts off a torn record at its end.
+     *
+     * @return the end of the last complete record
+     */
+    private long scan() throws IOException {
+        long size = channel.size();
+        long position = HEADER_BYTES;
+        while (position + Integer.BYTES <= size) {
+            int bodyLength = readInt(channel, position);
+            long length = Integer.BYTES + (long) bodyLength + Integer.BYTES;
+            if (bodyLength <= 0 || bodyLength > MAX_RECORD_BYTES || position + length > size) {
+                break;
+            }
+            Slot slot = new Slot(position, (int) length, 0, 0);
+            Record record;
+            try {
+                record = decode(read(slot), false);
+            } catch (IOException e) {
+                break;
+            }
+            index(record, position, (int) length);
+            position += length;
+        }
+        if (position < size) {
+            logger.warn("Cutting off {} bytes of a torn record at the end of {}", size - position, file);
+            channel.truncate(position);
+        }
+        return position;
+    }
+
+    private void append(Record record) {
+        try {
+            byte[] bytes = encode(record);
+            write(channel, ByteBuffer.wrap(bytes), end);
+            index(record, end, bytes.length);
+            end += bytes.length;
+            if (end > maxBytes || needsCompaction()) {
+                compact();
+            }
+        } catch (IOException e) {
+            logger.warn("Writing {} to the disk cache failed: {}", record.key(), e.getMessage());
+        }
+    }
+
+    private void index(Record record, long offset, int length) {
+        Slot previous = record.type() == PUT
+                ? index.put(record.key(), new Slot(offset, length, record.writtenAt(), record.expiresAt()))
+                : index.remove(record.key());
+        if (previous != null) {
+            liveBytes -= previous.length();
+        }
+        if (record.type() == PUT) {
+            liveBytes += length;
+        }
+    }
+
+    private boolean needsCompaction() {
+        return end > MIN_COMPACTION_BYTES && liveBytes < (end - HEADER_BYTES) / 2;
+    }
+
+    /**
+     * Copies the live pages, newest first, into a new file of at most half of {@code maxBytes} and
+     * swaps it in.
+     */
+    private void compact() throws IOException {
+        long now = clock.millis();
+        List<Map.Entry<SearchKey, Slot>> live = new ArrayList<>(index.entrySet());
+        live.removeIf(entry -> entry.getValue().expiresAt() <= now);
+        live.sort(Comparator.comparingLong((Map.Entry<SearchKey, Slot> entry) -> entry.getValue().writtenAt()).reversed());
+
+        Path compacted = file.resolveSibling(FILE_NAME + ".compact");
+        Map<SearchKey, Slot> kept = new HashMap<>();
+        long position = HEADER_BYTES;
+        try (FileChannel out = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            write(out, ByteBuffer.allocate(HEADER_BYTES).putInt(0, MAGIC), 0);
+            for (Map.Entry<SearchKey, Slot> entry : live) {
+                Slot slot = entry.getValue();
+                if (position + slot.length() > maxBytes / 2) {
+                    break;
+                }
+                write(out, read(slot), position);
+                kept.put(entry.getKey(), new Slot(position, slot.length(), slot.writtenAt(), slot.expiresAt()));
+                position += slot.length();
+            }
+            out.force(true);
+        }
+
+        channelLock.writeLock().lock();
+        try {
+            channel.close();
+            Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            index.clear();
+            index.putAll(kept);
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+        logger.debug("Compacted {} from {} to {} bytes, {} of {} pages kept", file, end, position, kept.size(), live.size());
+        end = position;
+        liveBytes = position - HEADER_BYTES;
+        compactions.increment();
+    }
+
+    private void truncate() {
+        channelLock.writeLock().lock();
+        try {
+            channel.truncate(HEADER_BYTES);
+            index.clear();
+            end = HEADER_BYTES;
+            liveBytes = 0;
+        } catch (IOException e) {
+            logger.warn("Clearing the disk cache failed: {}", e.getMessage());
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+    }
+
+    private ByteBuffer read(Slot slot) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(slot.length());
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, slot.offset() + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of " + file);
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static int readInt(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+        return buffer.getInt(0);
+    }
+
+    private static void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    // Record layout: int body length | body | int CRC32 of body
+    // Body: byte type | long writtenAt | long expiresAt | key | repositories (PUT only)
+
+    private static byte[] encode(Record record) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(256 + record.repositories().size() * 128);
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeByte(record.type());
+        out.writeLong(record.writtenAt());
+        out.writeLong(record.expiresAt());
+        PageCodec.writeKey(out, record.key());
+        if (record.type() == PUT) {
+            PageCodec.writeRepositories(out, record.repositories());
+        }
+        out.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(body.toByteArray());
+        ByteBuffer bytes = ByteBuffer.allocate(Integer.BYTES + body.size() + Integer.BYTES);
+        bytes.putInt(body.size()).put(body.toByteArray()).putInt((int) crc.getValue());
+        return bytes.array();
+    }
+
+    /**
+     * @param withRepositories whether to decode the repositories or only the key of a page
+     */
+    private static Record decode(ByteBuffer bytes, boolean withRepositories) throws IOException {
+        int bodyLength = bytes.getInt(0);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.slice(Integer.BYTES, bodyLength));
+        if ((int) crc.getValue() != bytes.getInt(Integer.BYTES + bodyLength)) {
+            throw new IOException("Checksum mismatch");
+        }
+        DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(bytes.array(), bytes.arrayOffset() + Integer.BYTES, bodyLength));
+        byte type = in.readByte();
+        long writtenAt = in.readLong();
+        long expiresAt = in.readLong();
+        SearchKey key = PageCodec.readKey(in);
+        if (type != PUT || !withRepositories) {
+            return new Record(type, writtenAt, expiresAt, key, List.of());
+        }
+        return new Record(type, writtenAt, expiresAt, key, PageCodec.readRepositories(in));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("cache", "repositories")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Position and lifetime of the latest record of a key in the file.
+     */
+    private record Slot(long offset, int length, long writtenAt, long expiresAt) {
+    }
+
+    private record Record(byte type, long writtenAt, long expiresAt, SearchKey key, List<Repository> repositories) {
+    }
+}
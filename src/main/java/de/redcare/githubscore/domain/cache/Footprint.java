@@ -0,0 +1,75 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+/**
+ * Estimates the retained heap size of cached keys and values on a 64-bit JVM with compressed
+ * references. The estimates are meant for sizing caches, not for exact accounting; objects shared
+ * between values are not counted.
+ */
+public final class Footprint {
+
+    private static final int OBJECT_HEADER = 12;
+    private static final int REFERENCE = 4;
+    private static final int ARRAY_HEADER = 16;
+    private static final long STRING = align(OBJECT_HEADER + REFERENCE + 2 * Integer.BYTES + 1);
+    private static final long LOCAL_DATE = align(OBJECT_HEADER + Integer.BYTES + 2 * Short.BYTES);
+    private static final long REPOSITORY = align(OBJECT_HEADER + 4 * Long.BYTES + 3 * REFERENCE);
+    private static final long SEARCH_KEY = align(OBJECT_HEADER + 5 * REFERENCE + 2 * Integer.BYTES);
+    private static final long LIST = align(OBJECT_HEADER + REFERENCE);
+
+    /**
+     * Assumed size of a value of a type the estimate does not know.
+     */
+    static final long UNKNOWN = 1024;
+
+    private Footprint() {
+    }
+
+    /**
+     * @return the estimated retained size of a cache key or value in bytes
+     */
+    public static long of(Object value) {
+        return switch (value) {
+            case null -> 0;
+            case String string -> of(string);
+            case Repository repository -> of(repository);
+            case SearchKey key -> SEARCH_KEY + of(key.query()) + of(key.language()) + of(key.sortBy())
+                    + of(key.sortOrder()) + (key.createdAfter() != null ? LOCAL_DATE : 0);
+            case LocalDate ignored -> LOCAL_DATE;
+            case long[] ids -> ofLongs(ids.length);
+            case Collection<?> collection -> {
+                long size = LIST + align(ARRAY_HEADER + (long) collection.size() * REFERENCE);
+                for (Object element : collection) {
+                    size += of(element);
+                }
+                yield size;
+            }
+            default -> UNKNOWN;
+        };
+    }
+
+    public static long of(Repository repository) {
+        return REPOSITORY + of(repository.name()) + of(repository.url()) + of(repository.language());
+    }
+
+    public static long of(String string) {
+        if (string == null) {
+            return 0;
+        }
+        boolean latin1 = string.chars().allMatch(c -> c <= 0xFF);
+        return STRING + align(ARRAY_HEADER + (long) string.length() * (latin1 ? 1 : 2));
+    }
+
+    public static long ofLongs(int length) {
+        return align(ARRAY_HEADER + (long) length * Long.BYTES);
+    }
+
+    static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,250 @@
+package de.redcare.githubscore.domain.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.github.benmanes.caffeine.cache.Ticker;
+import de.redcare.githubscore.domain.config.CacheProperties;
+import de.redcare.githubscore.domain.repository.GithubRepository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import de.redcare.githubscore.infrastructure.client.github.ratelimit.OutboundPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Warms the {@code repositories} cache with the page a client is likely to ask for next.
+ * <p>
+ * Every served page registers its successor as awaited for {@code followWindow}. Whether the
+ * successor is asked for in time is counted per {@link Shape query shape} (sort, page size and
+ * which filters are set), which gives the probability that a client pages on. Once a shape has
+ * been observed {@code minSamples} times and that probability reaches {@code threshold}, the next
+ * page is fetched in the background. Prefetches run with {@link OutboundPriority#BACKGROUND}, so the
+ * rate limiter drops them before they can take budget from client requests.
+ * <p>
+ * A prefetched page that is asked for within the window counts as {@code cache.prefetch.hit},
+ * one that is not as {@code cache.prefetch.wasted}.
+ */
+@Component
+public class NextPagePrefetcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(NextPagePrefetcher.class);
+
+    /**
+     * GitHub search returns at most this many results per query.
+     */
+    static final int GITHUB_MAX_RESULTS = 1000;
+    static final int MAX_AWAITED_PAGES = 10_000;
+    private static final long DECAY_AFTER = 1000;
+
+    private final GithubRepository githubRepository;
+    private final org.springframework.cache.Cache repositories;
+    private final CacheProperties.Prefetch settings;
+    private final Executor executor;
+    private final Cache<SearchKey, AwaitedPage> awaitedPages;
+    private final Map<Shape, FollowRate> followRates = new ConcurrentHashMap<>();
+    private final Counter issued;
+    private final Counter hit;
+    private final Counter wasted;
+    private final Counter failed;
+    private final Counter dropped;
+
+    @Autowired
+    public NextPagePrefetcher(GithubRepository githubRepository,
+                              CacheManager cacheManager,
+                              CacheProperties properties,
+                              @Qualifier("cacheRefreshExecutor") ExecutorService executor,
+                              MeterRegistry meterRegistry) {
+        this(githubRepository, cacheManager.getCache("repositories"), properties.prefetch(), executor, meterRegistry,
+                Ticker.systemTicker(), Scheduler.systemScheduler());
+    }
+
+    NextPagePrefetcher(GithubRepository githubRepository,
+                       org.springframework.cache.Cache repositories,
+                       CacheProperties.Prefetch settings,
+                       Executor executor,
+                       MeterRegistry meterRegistry,
+                       Ticker ticker,
+                       Scheduler scheduler) {
+        this.githubRepository = githubRepository;
+        this.repositories = repositories;
+        this.settings = settings;
+        this.executor = executor;
+        this.awaitedPages = Caffeine.newBuilder()
+                .expireAfterWrite(settings.followWindow())
+                .maximumSize(MAX_AWAITED_PAGES)
+                .ticker(ticker)
+                .scheduler(scheduler)
+                .executor(Runnable::run)
+                .removalListener(this::onNotFollowed)
+                .build();
+        this.issued = counter(meterRegistry, "cache.prefetch.issued", "Next pages fetched ahead of a request");
+        this.hit = counter(meterRegistry, "cache.prefetch.hit", "Prefetched pages that were requested afterwards");
+        this.wasted = counter(meterRegistry, "cache.prefetch.wasted", "Prefetched pages nobody requested within the follow window");
+        this.failed = counter(meterRegistry, "cache.prefetch.failed", "Prefetches that failed or were refused by the rate limiter");
+        this.dropped = counter(meterRegistry, "cache.prefetch.dropped", "Prefetches not started because the background queue was full");
+    }
+
+    /**
+     * Records that a page was served and prefetches its successor when clients of this query shape
+     * usually ask for it.
+     *
+     * @param page  the served page
+     * @param items number of repositories on the page; a short page is the last one
+     */
+    public void pageServed(SearchKey page, int items) {
+        if (!settings.enabled()) {
+            return;
+        }
+        AwaitedPage awaited = awaitedPages.asMap().remove(page);
+        if (awaited != null) {
+            followRate(awaited.shape()).observe(true);
+            if (awaited.prefetched()) {
+                hit.increment();
+            }
+        }
+
+        if (items < page.perPage() || (long) (page.page() + 1) * page.perPage() > GITHUB_MAX_RESULTS) {
+            return;
+        }
+        SearchKey next = new SearchKey(page.query(), page.language(), page.sortBy(), page.sortOrder(),
+                page.page() + 1, page.perPage(), page.createdAfter());
+        Shape shape = Shape.of(page);
+        boolean prefetch = followRate(shape).probability() >= settings.threshold()
+                && !cached(next)
+                && !awaitedPages.asMap().containsKey(next);
+        awaitedPages.put(next, new AwaitedPage(shape, prefetch && prefetch(next)));
+    }
+
+    /**
+     * @return the observed probability that the next page of this shape is requested, or {@code -1}
+     * while fewer than {@code minSamples} pages of the shape have been observed
+     */
+    double probability(Shape shape) {
+        return followRate(shape).probability();
+    }
+
+    void cleanUp() {
+        awaitedPages.cleanUp();
+    }
+
+    /**
+     * Runs on the request thread, so only the heap is checked: a page held by the disk or peer tier is
+     * prefetched again rather than read from there here.
+     */
+    private boolean cached(SearchKey next) {
+        return repositories instanceof StaleWhileRevalidateCache cache
+                ? cache.isFreshOnHeap(next)
+                : repositories.get(next) != null;
+    }
+
+    private boolean prefetch(SearchKey next) {
+        try {
+            executor.execute(() -> {
+                try {
+                    OutboundPriority.BACKGROUND.run(() -> githubRepository.fetchRepositories(next.query(), next.language(),
+                            next.sortBy(), next.sortOrder(), next.page(), next.perPage(), next.createdAfter()));
+                } catch (RuntimeException e) {
+                    failed.increment();
+                    awaitedPages.asMap().computeIfPresent(next, (key, awaited) -> new AwaitedPage(awaited.shape(), false));
+                    logger.debug("Prefetching {} failed: {}", next, e.getMessage());
+                } finally {
+                    Staleness.consume();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+            return false;
+        }
+        issued.increment();
+        return true;
+    }
+
+    private void onNotFollowed(SearchKey next, AwaitedPage awaited, RemovalCause cause) {
+        if (awaited == null || !cause.wasEvicted()) {
+            return;
+        }
+        followRate(awaited.shape()).observe(false);
+        if (awaited.prefetched()) {
+            wasted.increment();
+        }
+    }
+
+    private FollowRate followRate(Shape shape) {
+        return followRates.computeIfAbsent(shape, ignored -> new FollowRate(settings.minSamples()));
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("cache", "repositories")
+                .register(meterRegistry);
+    }
+
+    /**
+     * What a next-page probability is learned for: searches that only differ in their text and page
+     * tend to be paged through alike.
+     */
+    record Shape(String sortBy, String sortOrder, int perPage, boolean language, boolean createdAfter) {
+
+        static Shape of(SearchKey key) {
+            return new Shape(key.sortBy(), key.sortOrder(), key.perPage(), key.language() != null, key.createdAfter() != null);
+        }
+    }
+
+    private record AwaitedPage(Shape shape, boolean prefetched) {
+    }
+
+    /**
+     * How often the next page of a shape was requested. Counts are halved every {@value #DECAY_AFTER}
+     * observations, so the rate follows changes in client behaviour.
+     */
+    private static final class FollowRate {
+        private final int minSamples;
+        private final ReentrantLock lock = new ReentrantLock();
+        private double followed;
+        private double observed;
+
+        private FollowRate(int minSamples) {
+            this.minSamples = minSamples;
+        }
+
+        void observe(boolean wasFollowed) {
+            lock.lock();
+            try {
+                if (observed >= DECAY_AFTER) {
+                    followed /= 2;
+                    observed /= 2;
+                }
+                observed++;
+                if (wasFollowed) {
+                    followed++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        double probability() {
+            lock.lock();
+            try {
+                return observed < minSamples ? -1 : followed / observed;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary form of {@link SearchKey search keys} and search pages, shared by the disk cache file and
+ * the transfer of pages between peers.
+ */
+public final class PageCodec {
+
+    private static final byte VERSION = 2;
+
+    private PageCodec() {
+    }
+
+    /**
+     * @return whether {@code key} and {@code value} are a search page this codec can encode
+     */
+    public static boolean isPage(Object key, Object value) {
+        return key instanceof SearchKey && value instanceof List<?> list && list.stream().allMatch(Repository.class::isInstance);
+    }
+
+    public static byte[] encodeKey(SearchKey key) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            writeKey(out, key);
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException if {@code bytes} is not a key of this version
+     */
+    public static SearchKey decodeKey(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        readVersion(in);
+        return readKey(in);
+    }
+
+    public static byte[] encode(Page page) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + page.repositories().size() * 128);
+        try {
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(VERSION);
+            writeKey(out, page.key());
+            out.writeLong(page.age().toMillis());
+            writeRepositories(out, page.repositories());
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * @throws IOException if {@code bytes} is not a page of this version
+     */
+    public static Page decode(byte[] bytes) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        readVersion(in);
+        return new Page(readKey(in), Duration.ofMillis(in.readLong()), readRepositories(in));
+    }
+
+    static void writeKey(DataOutput out, SearchKey key) throws IOException {
+        writeString(out, key.query());
+        writeString(out, key.language());
+        writeString(out, key.sortBy());
+        writeString(out, key.sortOrder());
+        out.writeInt(key.page());
+        out.writeInt(key.perPage());
+        out.writeBoolean(key.createdAfter() != null);
+        if (key.createdAfter() != null) {
+            out.writeLong(key.createdAfter().toEpochDay());
+        }
+    }
+
+    static SearchKey readKey(DataInput in) throws IOException {
+        return new SearchKey(readString(in), readString(in), readString(in), readString(in),
+                in.readInt(), in.readInt(), in.readBoolean() ? LocalDate.ofEpochDay(in.readLong()) : null);
+    }
+
+    static void writeRepositories(DataOutput out, List<Repository> repositories) throws IOException {
+        out.writeInt(repositories.size());
+        for (Repository repository : repositories) {
+            writeRepository(out, repository);
+        }
+    }
+
+    static List<Repository> readRepositories(DataInput in) throws IOException {
+        int size = in.readInt();
+        List<Repository> repositories = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            repositories.add(readRepository(in));
+        }
+        return List.copyOf(repositories);
+    }
+
+    private static void writeRepository(DataOutput out, Repository repository) throws IOException {
+        out.writeLong(repository.id());
+        writeString(out, repository.name());
+        writeString(out, repository.url());
+        out.writeLong(repository.stars());
+        out.writeLong(repository.forks());
+        writeString(out, repository.language());
+        out.writeLong(repository.lastUpdatedEpochSecond());
+    }
+
+    private static Repository readRepository(DataInput in) throws IOException {
+        long id = in.readLong();
+        String name = readString(in);
+        String url = readString(in);
+        long stars = in.readLong();
+        long forks = in.readLong();
+        String language = readString(in);
+        long lastUpdatedEpochSecond = in.readLong();
+        return new Repository(id, name, url, stars, forks, language, lastUpdatedEpochSecond);
+    }
+
+    private static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void readVersion(DataInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported page format version " + version);
+        }
+    }
+
+    /**
+     * A search page and how long ago it was fetched from GitHub.
+     */
+    public record Page(SearchKey key, Duration age, List<Repository> repositories) {
+    }
+}
@@ -0,0 +1,228 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Shares search pages between the replicas of the service, in front of a local {@link CacheStore}.
+ * <p>
+ * Every page is owned by one peer of a static member list, chosen by a {@link PeerRing}. A page
+ * missing locally is asked for at its owner, which answers from its own cache without calling
+ * GitHub; a page this replica loaded from GitHub is handed to its owner in the background, so the
+ * next replica asking for it gets it from there. A peer that fails to answer within
+ * {@code timeout} is skipped for {@link #PEER_BACKOFF}, and any failure is a plain miss: GitHub is
+ * always the fallback.
+ * <p>
+ * Requests of peers are served through {@link #servePeer(Supplier)}, which keeps them to the local
+ * tiers, so pages never travel further than one hop even when members disagree on the ring. Every
+ * call carries the shared secret in {@link #SECRET_HEADER}, without which a peer refuses it.
+ */
+public class PeerCacheStore implements CacheStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(PeerCacheStore.class);
+
+    /**
+     * Path of the peer endpoint below the base URL of a peer.
+     */
+    public static final String PATH = "/internal/cache/repositories";
+    public static final String LOOKUP_PATH = PATH + "/lookup";
+    /**
+     * Header carrying the shared secret of the peers.
+     */
+    public static final String SECRET_HEADER = "X-Cache-Peer-Secret";
+    static final Duration PEER_BACKOFF = Duration.ofSeconds(10);
+    private static final int MAX_PUSHES_IN_FLIGHT = 64;
+    private static final String CONTENT_TYPE = "application/octet-stream";
+    private static final ThreadLocal<Boolean> SERVING_PEER = ThreadLocal.withInitial(() -> false);
+
+    private final String self;
+    private final String secret;
+    private final PeerRing ring;
+    private final Duration timeout;
+    private final CacheStore local;
+    private final HttpClient httpClient;
+    private final Semaphore pushes = new Semaphore(MAX_PUSHES_IN_FLIGHT);
+    private final Map<String, Long> downUntil = new ConcurrentHashMap<>();
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter errors;
+    private final Counter pushed;
+
+    /**
+     * @param self    base URL under which the other peers reach this replica
+     * @param members base URLs of the peers; {@code self} is added if missing
+     * @param secret  shared secret sent with every call to a peer
+     */
+    public PeerCacheStore(String self, List<String> members, String secret, Duration timeout, CacheStore local,
+                          MeterRegistry meterRegistry) {
+        this.self = normalize(self);
+        this.secret = secret;
+        this.ring = new PeerRing(Stream.concat(Stream.of(this.self), members.stream().map(PeerCacheStore::normalize))
+                .distinct()
+                .sorted()
+                .toList());
+        this.timeout = timeout;
+        this.local = local;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        this.hits = counter(meterRegistry, "cache.peer.hits", "Pages answered by the owning peer");
+        this.misses = counter(meterRegistry, "cache.peer.misses", "Pages the owning peer did not have");
+        this.errors = counter(meterRegistry, "cache.peer.errors", "Peer calls that failed or timed out");
+        this.pushed = counter(meterRegistry, "cache.peer.pushes", "Pages handed to their owning peer");
+    }
+
+    /**
+     * Runs {@code call} on behalf of a peer: while it runs, the store answers from and writes to the
+     * local tiers only.
+     */
+    public static <T> T servePeer(Supplier<T> call) {
+        boolean previous = SERVING_PEER.get();
+        SERVING_PEER.set(true);
+        try {
+            return call.get();
+        } finally {
+            SERVING_PEER.set(previous);
+        }
+    }
+
+    @Override
+    public StoredValue load(Object key) {
+        StoredValue stored = local.load(key);
+        if (stored != null || !(key instanceof SearchKey searchKey) || SERVING_PEER.get()) {
+            return stored;
+        }
+        String owner = remoteOwner(searchKey);
+        if (owner == null) {
+            return null;
+        }
+        HttpRequest request = HttpRequest.newBuilder(URI.create(owner + LOOKUP_PATH))
+                .timeout(timeout)
+                .header("Content-Type", CONTENT_TYPE)
+                .header(SECRET_HEADER, secret)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(PageCodec.encodeKey(searchKey)))
+                .build();
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() == 404) {
+                misses.increment();
+                return null;
+            }
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            PageCodec.Page page = PageCodec.decode(response.body());
+            if (!searchKey.equals(page.key())) {
+                throw new IOException("Answer for a different key");
+            }
+            hits.increment();
+            return new StoredValue(page.repositories(), page.age());
+        } catch (IOException e) {
+            failed(owner, "Looking up " + key, e);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    @Override
+    public void store(Object key, Object value) {
+        local.store(key, value);
+        if (SERVING_PEER.get() || !PageCodec.isPage(key, value)) {
+            return;
+        }
+        SearchKey searchKey = (SearchKey) key;
+        String owner = remoteOwner(searchKey);
+        if (owner == null || !pushes.tryAcquire()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Repository> repositories = (List<Repository>) value;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(owner + PATH))
+                .timeout(timeout)
+                .header("Content-Type", CONTENT_TYPE)
+                .header(SECRET_HEADER, secret)
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(
+                        PageCodec.encode(new PageCodec.Page(searchKey, Duration.ZERO, repositories))))
+                .build();
+        httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    pushes.release();
+                    if (failure != null) {
+                        failed(owner, "Handing over " + key, failure);
+                    } else if (response.statusCode() / 100 != 2) {
+                        failed(owner, "Handing over " + key, new IOException("HTTP " + response.statusCode()));
+                    } else {
+                        pushed.increment();
+                    }
+                });
+    }
+
+    /**
+     * Removes the page locally only; the copy of its owner expires on its own.
+     */
+    @Override
+    public void remove(Object key) {
+        local.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        local.clear();
+    }
+
+    /**
+     * @return the owner of {@code key} if it is another peer that is not backing off, otherwise {@code null}
+     */
+    private String remoteOwner(SearchKey key) {
+        String owner = ring.owner(key);
+        if (owner.equals(self)) {
+            return null;
+        }
+        Long until = downUntil.get(owner);
+        if (until != null) {
+            if (System.nanoTime() - until < 0) {
+                return null;
+            }
+            downUntil.remove(owner, until);
+        }
+        return owner;
+    }
+
+    private void failed(String peer, String action, Throwable failure) {
+        errors.increment();
+        downUntil.put(peer, System.nanoTime() + PEER_BACKOFF.toNanos());
+        logger.warn("{} at peer {} failed, skipping it for {}: {}", action, peer, PEER_BACKOFF, failure.toString());
+    }
+
+    private static String normalize(String baseUrl) {
+        String trimmed = baseUrl.trim();
+        return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String description) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("cache", "repositories")
+                .register(meterRegistry);
+    }
+}
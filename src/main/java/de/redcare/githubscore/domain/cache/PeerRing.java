@@ -0,0 +1,57 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.repository.SearchKey;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Assigns every {@link SearchKey} to one peer by consistent hashing.
+ * <p>
+ * Each peer is placed on a hash ring at {@link #VIRTUAL_NODES} points; a key belongs to the peer at
+ * the first point at or after the hash of its {@link PageCodec binary form}. Every replica with the
+ * same member list computes the same owner, and adding or removing a peer only moves the keys of
+ * that peer.
+ */
+final class PeerRing {
+
+    static final int VIRTUAL_NODES = 128;
+
+    private final NavigableMap<Long, String> ring = new TreeMap<>();
+
+    /**
+     * @param members base URLs of all peers, this replica included
+     */
+    PeerRing(List<String> members) {
+        if (members.isEmpty()) {
+            throw new IllegalArgumentException("A peer ring needs at least one member");
+        }
+        for (String member : members) {
+            for (int i = 0; i < VIRTUAL_NODES; i++) {
+                ring.put(hash((member + "#" + i).getBytes(StandardCharsets.UTF_8)), member);
+            }
+        }
+    }
+
+    /**
+     * @return the base URL of the peer owning {@code key}
+     */
+    String owner(SearchKey key) {
+        Map.Entry<Long, String> point = ring.ceilingEntry(hash(PageCodec.encodeKey(key)));
+        return point != null ? point.getValue() : ring.firstEntry().getValue();
+    }
+
+    private static long hash(byte[] bytes) {
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("MD5").digest(bytes)).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
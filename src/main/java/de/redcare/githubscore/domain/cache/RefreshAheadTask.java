@@ -0,0 +1,50 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.config.CacheProperties;
+import de.redcare.githubscore.domain.repository.GithubRepository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.stereotype.Component;
+
+/**
+ * Lets the {@code repositories} cache reload its hot pages every {@code scan-period}, before they
+ * turn stale. Pages are reloaded from their {@link SearchKey} through {@link GithubRepository#reload},
+ * like the {@link NextPagePrefetcher} fetches them.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cache.refresh-ahead", name = "enabled", havingValue = "true")
+public class RefreshAheadTask implements SchedulingConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshAheadTask.class);
+
+    private final CacheManager cacheManager;
+    private final GithubRepository githubRepository;
+    private final CacheProperties properties;
+
+    public RefreshAheadTask(CacheManager cacheManager, GithubRepository githubRepository, CacheProperties properties) {
+        this.cacheManager = cacheManager;
+        this.githubRepository = githubRepository;
+        this.properties = properties;
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.addFixedDelayTask(this::refreshHotPages, properties.refreshAhead().scanPeriod());
+    }
+
+    void refreshHotPages() {
+        Cache cache = cacheManager.getCache("repositories");
+        if (cache instanceof StaleWhileRevalidateCache repositories) {
+            int started = repositories.refreshAhead(key -> githubRepository.reload((SearchKey) key));
+            if (started > 0) {
+                logger.debug("Reloading {} hot pages ahead of their expiry", started);
+            }
+        }
+    }
+}
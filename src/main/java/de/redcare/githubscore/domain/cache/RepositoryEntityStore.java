@@ -0,0 +1,170 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.model.Repository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Normalizes cached search pages: every repository is kept once, by id, and a page is kept as the
+ * array of its repository ids.
+ * <p>
+ * A repository on many cached pages therefore costs its strings and dates once, and the data of the
+ * latest page it was fetched with is what every page shows. Each repository counts the cached pages
+ * referring to it, including the pages kept for revalidation, and is dropped when the last one
+ * leaves. A page whose repository was dropped in the meantime cannot be rebuilt and reads as a
+ * miss.
+ * <p>
+ * {@code cache.footprint} estimates the heap held by the pages and repositories together.
+ * {@link #weigh(Object) A page's weight} counts its ids and its share of each of its repositories,
+ * split among the pages referring to it when the page is weighed. Pages overlapping with pages
+ * already cached are therefore light, and a budget on page weights holds more of them; the weights
+ * add up to about the footprint rather than bounding it from above.
+ */
+public class RepositoryEntityStore implements ValueCodec {
+
+    /**
+     * A map entry, its boxed key and the {@link Entity} holding the repository.
+     */
+    private static final long ENTITY_OVERHEAD = 32 + 16 + 24;
+    private static final long PAGE_OVERHEAD = 16;
+
+    private final Map<Long, Entity> entities = new ConcurrentHashMap<>();
+    private final AtomicLong entityBytes = new AtomicLong();
+    private final AtomicLong pageBytes = new AtomicLong();
+
+    public RepositoryEntityStore(String cacheName, MeterRegistry meterRegistry) {
+        Gauge.builder("cache.entities", entities, Map::size)
+                .description("Distinct repositories referenced by the cached pages")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+        Gauge.builder("cache.footprint", this, RepositoryEntityStore::footprint)
+                .description("Estimated heap held by the cached pages and their repositories")
+                .baseUnit("bytes")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Object encode(Object value) {
+        if (!(value instanceof List<?> list) || !list.stream().allMatch(Repository.class::isInstance)) {
+            return value;
+        }
+        long[] ids = new long[list.size()];
+        for (int i = 0; i < ids.length; i++) {
+            Repository repository = (Repository) list.get(i);
+            ids[i] = repository.id();
+            entities.compute(repository.id(), (id, entity) -> {
+                Entity updated = new Entity(repository, entity == null ? 1 : entity.pages() + 1, weigh(repository));
+                entityBytes.addAndGet(updated.bytes() - (entity == null ? 0 : entity.bytes()));
+                return updated;
+            });
+        }
+        pageBytes.addAndGet(weighIds(ids));
+        return new PageIds(ids);
+    }
+
+    @Override
+    public Object decode(Object stored) {
+        if (!(stored instanceof PageIds page)) {
+            return stored;
+        }
+        Repository[] repositories = new Repository[page.ids().length];
+        for (int i = 0; i < repositories.length; i++) {
+            Entity entity = entities.get(page.ids()[i]);
+            if (entity == null) {
+                return null;
+            }
+            repositories[i] = entity.repository();
+        }
+        return List.of(repositories);
+    }
+
+    @Override
+    public void release(Object stored) {
+        if (stored instanceof PageIds page) {
+            for (long id : page.ids()) {
+                entities.computeIfPresent(id, (ignored, entity) -> {
+                    if (entity.pages() > 1) {
+                        return new Entity(entity.repository(), entity.pages() - 1, entity.bytes());
+                    }
+                    entityBytes.addAndGet(-entity.bytes());
+                    return null;
+                });
+            }
+            pageBytes.addAndGet(-weighIds(page.ids()));
+        }
+    }
+
+    @Override
+    public long weigh(Object stored) {
+        if (!(stored instanceof PageIds page)) {
+            return Footprint.of(stored);
+        }
+        long bytes = weighIds(page.ids());
+        for (long id : page.ids()) {
+            Entity entity = entities.get(id);
+            bytes += entity != null ? entity.bytes() / entity.pages() : 0;
+        }
+        return bytes;
+    }
+
+    /**
+     * @return the estimated heap held by the pages and the repositories they refer to
+     */
+    public long footprint() {
+        return entityBytes.get() + pageBytes.get();
+    }
+
+    private static long weigh(Repository repository) {
+        return ENTITY_OVERHEAD + Footprint.of(repository);
+    }
+
+    private static long weighIds(long[] ids) {
+        return PAGE_OVERHEAD + Footprint.ofLongs(ids.length);
+    }
+
+    /**
+     * @return the cached data of a repository, or {@code null} if no cached page refers to it
+     */
+    public Repository get(long id) {
+        Entity entity = entities.get(id);
+        return entity != null ? entity.repository() : null;
+    }
+
+    int size() {
+        return entities.size();
+    }
+
+    /**
+     * A cached page as the ids of its repositories, in page order.
+     */
+    public record PageIds(long[] ids) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof PageIds page && Arrays.equals(ids, page.ids);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(ids);
+        }
+
+        @Override
+        public String toString() {
+            return "PageIds" + Arrays.toString(ids);
+        }
+    }
+
+    /**
+     * A repository, the number of cached pages referring to it and its estimated heap size.
+     */
+    private record Entity(Repository repository, int pages, long bytes) {
+    }
+}
@@ -0,0 +1,76 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.application.service.ScoringCalculator;
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps scored and sorted search pages in the {@code scores} cache, so a repeated request skips
+ * scoring and sorting.
+ * <p>
+ * Recency scores move by the day, so a scored page is keyed by its {@link SearchKey}, the order of a
+ * score sort, the current UTC day, the scoring configuration of the request, including its
+ * overrides, and the {@link ScoringCalculator#formulaGeneration() generation} of the formula: a new
+ * day, another configuration or a replaced formula is a miss and is scored afresh. Pages built from stale data are not kept,
+ * so they are scored again once their refresh has landed.
+ */
+@Component
+public class ScoredPageCache {
+
+    private final Cache scores;
+    private final Clock clock;
+    private final LongSupplier formulaGeneration;
+
+    @Autowired
+    public ScoredPageCache(CacheManager cacheManager, Clock clock, ScoringCalculator scoringCalculator) {
+        this(cacheManager.getCache("scores"), clock, scoringCalculator::formulaGeneration);
+    }
+
+    ScoredPageCache(Cache scores, Clock clock, LongSupplier formulaGeneration) {
+        this.scores = scores;
+        this.clock = clock;
+        this.formulaGeneration = formulaGeneration;
+    }
+
+    /**
+     * Returns the scored page, computing and caching it on a miss.
+     *
+     * @param page       the search page
+     * @param scoreOrder the order of a score sort, or {@code null} if the page keeps the GitHub order
+     * @param scoring    the scoring configuration of the request
+     * @param scorer     fetches and scores the page
+     */
+    public List<ScoredRepository> get(SearchKey page, String scoreOrder, ScoringProperties scoring,
+                                      Supplier<List<ScoredRepository>> scorer) {
+        Key key = new Key(page, scoreOrder, LocalDate.now(clock).toEpochDay(), scoring, formulaGeneration.getAsLong());
+        @SuppressWarnings("unchecked")
+        List<ScoredRepository> cached = scores.get(key, List.class);
+        if (cached != null) {
+            return cached;
+        }
+        List<ScoredRepository> scored = scorer.get();
+        if (!Staleness.isMarked()) {
+            scores.put(key, scored);
+        }
+        return scored;
+    }
+
+    /**
+     * @param day               the UTC epoch day the page was scored on
+     * @param scoring           the scoring configuration the page was scored with
+     * @param formulaGeneration the generation of the formula, read before scoring
+     */
+    record Key(SearchKey page, String scoreOrder, long day, ScoringProperties scoring, long formulaGeneration) {
+    }
+}
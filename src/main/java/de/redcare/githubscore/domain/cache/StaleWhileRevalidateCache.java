@@ -0,0 +1,358 @@
+package de.redcare.githubscore.domain.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Ticker;
+import de.redcare.githubscore.domain.repository.SingleFlight;
+import de.redcare.githubscore.infrastructure.client.github.ratelimit.OutboundPriority;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+
+/**
+ * A cache that keeps entries for a grace window past their time to live and serves them while
+ * they are refreshed.
+ * <p>
+ * Within the time to live an entry is fresh. During the following grace window a
+ * {@link #get(Object, Callable) loading read} returns the stale entry immediately, marks the
+ * request through {@link Staleness} and reloads the entry in the background, once per key at a
+ * time. When the reload fails (GitHub down, rate limit exhausted) the stale entry stays in place
+ * until the grace window ends, so callers keep getting the last good answer instead of an error.
+ * Plain lookups without a loader see fresh entries only.
+ * <p>
+ * With {@link RefreshAhead refresh-ahead}, {@link #refreshAhead(Function)} reloads entries that are older
+ * than {@code after} but were read within the last {@code hotWindow} in the background, so hot entries
+ * are replaced before they turn stale; entries nobody reads just expire. Only the time of the last read
+ * is kept per key, the reload is made from the key alone, so no loader of a read outlives it.
+ * <p>
+ * Entries are also written to a second-level {@link CacheStore}, which answers misses of the heap
+ * tier with its age preserved, e.g. after a restart. Concurrent misses of a key share one load from
+ * the second level, so a slow one, e.g. a call to a peer, is made once rather than by every reader.
+ * On the heap, values are kept in the form of a {@link ValueCodec}, e.g. pages normalized by a
+ * {@link RepositoryEntityStore}, and bounded by their estimated size in bytes ({@link Footprint})
+ * rather than their number.
+ * <p>
+ * Loads run outside of any lock, so a slow upstream never blocks other keys or pins virtual threads.
+ */
+public class StaleWhileRevalidateCache extends AbstractValueAdaptingCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(StaleWhileRevalidateCache.class);
+
+    /**
+     * The {@link Entry} and the Caffeine node holding it.
+     */
+    private static final long ENTRY_OVERHEAD = 24 + 64;
+
+    private final String name;
+    private final Cache<Object, Entry> entries;
+    private final long ttlNanos;
+    private final Ticker ticker;
+    private final Executor refreshExecutor;
+    private final CacheStore secondLevel;
+    private final SingleFlight<Object, Entry> secondLevelLoads;
+    private final ValueCodec codec;
+    private final RefreshAhead refreshAhead;
+    private final Set<Object> refreshing = ConcurrentHashMap.newKeySet();
+    private final Map<Object, Long> lastReads = new ConcurrentHashMap<>();
+    private final Counter staleServed;
+    private final Counter refreshFailed;
+    private final Counter refreshedAhead;
+
+    public StaleWhileRevalidateCache(String name, Duration ttl, Duration staleGrace, long maximumWeight,
+                                     RefreshAhead refreshAhead, Executor refreshExecutor, CacheStore secondLevel,
+                                     ValueCodec codec, MeterRegistry meterRegistry) {
+        this(name, ttl, staleGrace, maximumWeight, refreshAhead, refreshExecutor, secondLevel, codec, meterRegistry,
+                Ticker.systemTicker());
+    }
+
+    StaleWhileRevalidateCache(String name, Duration ttl, Duration staleGrace, long maximumWeight,
+                              RefreshAhead refreshAhead, Executor refreshExecutor, CacheStore secondLevel,
+                              ValueCodec codec, MeterRegistry meterRegistry, Ticker ticker) {
+        super(false);
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+        this.refreshExecutor = refreshExecutor;
+        this.refreshAhead = refreshAhead;
+        this.secondLevel = secondLevel;
+        this.secondLevelLoads = new SingleFlight<>(meterRegistry, "cache.second.level.loads");
+        this.codec = codec;
+        this.entries = Caffeine.newBuilder()
+                .expireAfter(expiry(ttl.plus(staleGrace).toNanos()))
+                .maximumWeight(maximumWeight)
+                .weigher((Object key, Entry entry) -> weigh(key, entry, codec))
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .removalListener((Object key, Entry entry, RemovalCause cause) -> {
+                    if (entry != null) {
+                        codec.release(entry.value());
+                    }
+                    if (cause != RemovalCause.REPLACED) {
+                        lastReads.remove(key);
+                    }
+                })
+                .recordStats()
+                .build();
+        this.staleServed = Counter.builder("cache.stale.served")
+                .description("Reads answered with an expired entry inside the grace window")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.refreshFailed = Counter.builder("cache.stale.refresh.failed")
+                .description("Background refreshes of stale entries that failed")
+                .tag("cache", name)
+                .register(meterRegistry);
+        this.refreshedAhead = Counter.builder("cache.refresh.ahead")
+                .description("Background reloads of hot entries before they turned stale")
+                .tag("cache", name)
+                .register(meterRegistry);
+        Gauge.builder("cache.weight", entries, cache -> cache.policy().eviction().orElseThrow().weightedSize().orElse(0))
+                .description("Estimated bytes of the cached entries, counted against the heap budget")
+                .baseUnit("bytes")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Cache<Object, Entry> getNativeCache() {
+        return entries;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Entry entry = entry(key);
+        return entry != null && entry.isFresh(ticker.read(), ttlNanos) ? entry.value() : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Entry entry = entry(key);
+        if (refreshAhead.enabled()) {
+            lastReads.put(key, ticker.read());
+        }
+        if (entry != null) {
+            if (!entry.isFresh(ticker.read(), ttlNanos)) {
+                staleServed.increment();
+                Staleness.markStale();
+                refreshInBackground(key, valueLoader);
+            }
+            return (T) fromStoreValue(entry.value());
+        }
+
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        entries.put(key, new Entry(codec.encode(storeValue), ticker.read()));
+        secondLevel.store(key, storeValue);
+    }
+
+    @Override
+    public void evict(Object key) {
+        entries.invalidate(key);
+        secondLevel.remove(key);
+    }
+
+    @Override
+    public void clear() {
+        entries.invalidateAll();
+        secondLevel.clear();
+    }
+
+    /**
+     * Returns the value of the key, fresh or stale, with its age, without loading it.
+     *
+     * @return the stored value, or {@code null} if the key is not cached
+     */
+    public CacheStore.StoredValue peek(Object key) {
+        Entry entry = entry(key);
+        return entry == null ? null
+                : new CacheStore.StoredValue(fromStoreValue(entry.value()), Duration.ofNanos(ticker.read() - entry.writtenAt()));
+    }
+
+    /**
+     * Tells whether the heap holds a fresh entry for the key. Neither the second-level store is asked
+     * nor the entry decoded, and the check does not count as a read.
+     */
+    public boolean isFreshOnHeap(Object key) {
+        Entry entry = entries.policy().getIfPresentQuietly(key);
+        return entry != null && entry.isFresh(ticker.read(), ttlNanos);
+    }
+
+    /**
+     * Returns the decoded entry of the key, falling back to the second-level store.
+     */
+    private Entry entry(Object key) {
+        Entry entry = entries.getIfPresent(key);
+        if (entry != null) {
+            Object value = codec.decode(entry.value());
+            if (value != null) {
+                return new Entry(value, entry.writtenAt());
+            }
+            entries.asMap().remove(key, entry);
+        }
+        return secondLevel == CacheStore.NONE ? null : secondLevelLoads.execute(key, () -> loadSecondLevel(key));
+    }
+
+    /**
+     * Loads the key from the second-level store onto the heap, with its age preserved.
+     */
+    private Entry loadSecondLevel(Object key) {
+        CacheStore.StoredValue stored = secondLevel.load(key);
+        if (stored == null) {
+            return null;
+        }
+        long writtenAt = ticker.read() - stored.age().toNanos();
+        entries.put(key, new Entry(codec.encode(stored.value()), writtenAt));
+        return new Entry(stored.value(), writtenAt);
+    }
+
+    /**
+     * Estimates the heap held by an entry, in bytes, capped at {@link Integer#MAX_VALUE}.
+     */
+    private static int weigh(Object key, Entry entry, ValueCodec codec) {
+        return (int) Math.min(Integer.MAX_VALUE, ENTRY_OVERHEAD + Footprint.of(key) + codec.weigh(entry.value()));
+    }
+
+    /**
+     * Expires an entry at the end of its grace window, counted from when it was written, which for
+     * an entry from the second-level store lies before it entered the heap.
+     */
+    private static Expiry<Object, Entry> expiry(long expireAfterNanos) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Object key, Entry entry, long currentTime) {
+                return Math.max(0, expireAfterNanos - (currentTime - entry.writtenAt()));
+            }
+
+            @Override
+            public long expireAfterUpdate(Object key, Entry entry, long currentTime, long currentDuration) {
+                return expireAfterCreate(key, entry, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Object key, Entry entry, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+
+    /**
+     * Reloads, in the background, every entry that is older than {@code after} and was read within
+     * the last {@code hotWindow}.
+     *
+     * @param loader loads the current value of a key, bypassing this cache
+     * @return the number of reloads started
+     */
+    public int refreshAhead(Function<Object, ?> loader) {
+        if (!refreshAhead.enabled()) {
+            return 0;
+        }
+        long now = ticker.read();
+        long afterNanos = refreshAhead.after().toNanos();
+        long hotWindowNanos = refreshAhead.hotWindow().toNanos();
+        int started = 0;
+        for (Map.Entry<Object, Long> read : lastReads.entrySet()) {
+            Object key = read.getKey();
+            Entry entry = entries.getIfPresent(key);
+            if (entry == null) {
+                lastReads.remove(key, read.getValue());
+            } else if (now - entry.writtenAt() >= afterNanos && now - read.getValue() <= hotWindowNanos
+                    && refreshInBackground(key, () -> loader.apply(key))) {
+                refreshedAhead.increment();
+                started++;
+            }
+        }
+        return started;
+    }
+
+    private boolean refreshInBackground(Object key, Callable<?> valueLoader) {
+        if (!refreshing.add(key)) {
+            return false;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(key, OutboundPriority.BACKGROUND.run(() -> call(valueLoader)));
+                } catch (RuntimeException e) {
+                    refreshFailed.increment();
+                    logger.warn("Refreshing entry {} of cache {} failed, keeping the current entry: {}",
+                            key, name, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            logger.debug("Refresh queue of cache {} is full, {} is not refreshed for now", name, key);
+            return false;
+        }
+    }
+
+    private static Object call(Callable<?> valueLoader) {
+        try {
+            return valueLoader.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A cached value and the {@link Ticker} time it was written at.
+     */
+    public record Entry(Object value, long writtenAt) {
+
+        boolean isFresh(long now, long ttlNanos) {
+            return now - writtenAt < ttlNanos;
+        }
+    }
+
+    /**
+     * Settings of refresh-ahead.
+     *
+     * @param after     age from which a hot entry is reloaded, below the time to live
+     * @param hotWindow how recently an entry must have been read to count as hot
+     */
+    public record RefreshAhead(Duration after, Duration hotWindow) {
+
+        /**
+         * Entries are only reloaded once they are stale.
+         */
+        public static final RefreshAhead DISABLED = new RefreshAhead(null, null);
+
+        public boolean enabled() {
+            return after != null;
+        }
+    }
+}
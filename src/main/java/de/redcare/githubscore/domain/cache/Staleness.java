@@ -0,0 +1,68 @@
+package de.redcare.githubscore.domain.cache;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Records whether the work of the current request was answered with stale data.
+ * <p>
+ * The mark is bound to the calling thread. Work handed to another thread can report into the
+ * caller's mark by running through {@link #propagate(Supplier)}.
+ */
+public final class Staleness {
+
+    private static final ThreadLocal<AtomicBoolean> CURRENT = ThreadLocal.withInitial(AtomicBoolean::new);
+
+    private Staleness() {
+    }
+
+    /**
+     * Marks the current request as served with stale data.
+     */
+    public static void markStale() {
+        CURRENT.get().set(true);
+    }
+
+    /**
+     * @return whether stale data was served since the last {@link #consume()}, keeping the mark
+     */
+    public static boolean isMarked() {
+        return CURRENT.get().get();
+    }
+
+    /**
+     * @return whether stale data was served since the last call, clearing the mark
+     */
+    public static boolean consume() {
+        boolean stale = CURRENT.get().getAndSet(false);
+        CURRENT.remove();
+        return stale;
+    }
+
+    /**
+     * Returns a view of the current mark that keeps seeing the marks of work that runs through
+     * {@link #propagate(Supplier)} and outlives the current request, also after {@link #consume()}.
+     */
+    public static BooleanSupplier observe() {
+        AtomicBoolean mark = CURRENT.get();
+        return mark::get;
+    }
+
+    /**
+     * Wraps {@code call} so that a stale mark set while it runs, on whatever thread, is reported to
+     * the thread calling this method.
+     */
+    public static <T> Supplier<T> propagate(Supplier<T> call) {
+        AtomicBoolean caller = CURRENT.get();
+        return () -> {
+            AtomicBoolean previous = CURRENT.get();
+            CURRENT.set(caller);
+            try {
+                return call.get();
+            } finally {
+                CURRENT.set(previous);
+            }
+        };
+    }
+}
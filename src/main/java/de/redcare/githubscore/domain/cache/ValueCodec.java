@@ -0,0 +1,53 @@
+package de.redcare.githubscore.domain.cache;
+
+/**
+ * Converts values between the form callers see and the form a {@link StaleWhileRevalidateCache}
+ * keeps on the heap.
+ */
+public interface ValueCodec {
+
+    /**
+     * Keeps values as they are.
+     */
+    ValueCodec IDENTITY = new ValueCodec() {
+        @Override
+        public Object encode(Object value) {
+            return value;
+        }
+
+        @Override
+        public Object decode(Object stored) {
+            return stored;
+        }
+
+        @Override
+        public void release(Object stored) {
+        }
+
+        @Override
+        public long weigh(Object stored) {
+            return Footprint.of(stored);
+        }
+    };
+
+    /**
+     * @return the form of the value to keep in the cache
+     */
+    Object encode(Object value);
+
+    /**
+     * @return the value of a kept entry, or {@code null} if it can no longer be rebuilt
+     */
+    Object decode(Object stored);
+
+    /**
+     * Called once a kept entry has left the cache.
+     */
+    void release(Object stored);
+
+    /**
+     * @return the estimated heap size of a kept value in bytes, counting data it shares with other
+     * values in full
+     */
+    long weigh(Object stored);
+}
@@ -0,0 +1,23 @@
+package de.redcare.githubscore.domain.config;
+
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for searching several queries in one request.
+ *
+ * @param maxQueries    upper bound of queries per batch
+ * @param parallelism   number of distinct queries of a batch searched concurrently
+ * @param maxThreads    platform threads shared by all batches in progress
+ * @param queueCapacity batch workers waiting for one of those threads; further workers are rejected
+ */
+@Validated
+@ConfigurationProperties(prefix = "batch")
+public record BatchProperties(
+        @Positive int maxQueries,
+        @Positive int parallelism,
+        @Positive int maxThreads,
+        @Positive int queueCapacity
+) {
+}
@@ -1,26 +1,134 @@
 package de.redcare.githubscore.domain.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import de.redcare.githubscore.domain.cache.CacheStore;
+import de.redcare.githubscore.domain.cache.FilePageStore;
+import de.redcare.githubscore.domain.cache.PeerCacheStore;
+import de.redcare.githubscore.domain.cache.RepositoryEntityStore;
+import de.redcare.githubscore.domain.cache.StaleWhileRevalidateCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableCaching
+@EnableScheduling
 public class CacheConfig {
 
+    static final String REPOSITORIES = "repositories";
+    static final String SCORES = "scores";
+    static final String RANKINGS = "rankings";
+    private static final int REFRESH_QUEUE = 1024;
+    private static final int MAX_RANKINGS = 100;
+
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("repositories");
+    public CacheManager cacheManager(CacheProperties properties,
+                                     @Qualifier("cacheRefreshExecutor") ExecutorService refreshExecutor,
+                                     CacheStore repositoriesDiskStore,
+                                     RepositoryEntityStore repositoryEntityStore,
+                                     MeterRegistry meterRegistry) {
+        CacheProperties.Repositories repositories = properties.repositories();
+        CacheProperties.Scores scores = properties.scores();
+        CacheProperties.Peers peers = properties.peers();
+        CacheStore secondLevel = peers.enabled()
+                ? new PeerCacheStore(peers.self(), peers.members(), peers.secret(), peers.timeout(), repositoriesDiskStore, meterRegistry)
+                : repositoriesDiskStore;
+        StaleWhileRevalidateCache.RefreshAhead refreshAhead = properties.refreshAhead().enabled()
+                ? new StaleWhileRevalidateCache.RefreshAhead(properties.refreshAhead().after(), properties.refreshAhead().hotWindow())
+                : StaleWhileRevalidateCache.RefreshAhead.DISABLED;
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected Cache createCaffeineCache(String name) {
+                if (REPOSITORIES.equals(name)) {
+                    return new StaleWhileRevalidateCache(name, repositories.ttl(), repositories.staleGrace(),
+                            repositories.heapBudget().toBytes(), refreshAhead, refreshExecutor, secondLevel,
+                            repositoryEntityStore, meterRegistry);
+                }
+                if (SCORES.equals(name)) {
+                    return new CaffeineCache(name, Caffeine.newBuilder()
+                            .maximumSize(scores.maxEntries())
+                            .expireAfterWrite(scores.ttl())
+                            .recordStats()
+                            .buildAsync(), false);
+                }
+                if (RANKINGS.equals(name)) {
+                    // Like scored pages, a ranking must not outlive the refresh of its pages for long
+                    return new CaffeineCache(name, Caffeine.newBuilder()
+                            .maximumSize(MAX_RANKINGS)
+                            .expireAfterWrite(scores.ttl())
+                            .recordStats()
+                            .buildAsync(), false);
+                }
+                return super.createCaffeineCache(name);
+            }
+        };
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .maximumSize(100)
                 .expireAfterWrite(1, TimeUnit.HOURS)
                 .recordStats());
         cacheManager.setAsyncCacheMode(true);
+        cacheManager.setCacheNames(List.of(REPOSITORIES, SCORES, RANKINGS));
         return cacheManager;
     }
-}
\ No newline at end of file
+
+    /**
+     * Keeps the repositories of the {@code repositories} cache once by id; the revalidation store
+     * refers to the same repositories.
+     */
+    @Bean
+    public RepositoryEntityStore repositoryEntityStore(MeterRegistry meterRegistry) {
+        return new RepositoryEntityStore(REPOSITORIES, meterRegistry);
+    }
+
+    /**
+     * Refreshes stale and hot cache entries in the background. The queue is bounded; when it is full
+     * an entry is simply served again and refreshed by a later read or scan.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService cacheRefreshExecutor(CacheProperties properties) {
+        CacheProperties.Repositories repositories = properties.repositories();
+        return new ThreadPoolExecutor(repositories.refreshThreads(), repositories.refreshThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(REFRESH_QUEUE),
+                Thread.ofPlatform().name("cache-refresh-", 0).daemon().factory());
+    }
+
+    /**
+     * Keeps search pages on disk behind the heap cache, so they survive a restart. Pages are kept
+     * as long as they may be served, fresh or stale.
+     */
+    @Bean
+    public CacheStore repositoriesDiskStore(CacheProperties properties, MeterRegistry meterRegistry) {
+        CacheProperties.Disk disk = properties.disk();
+        if (!disk.enabled()) {
+            return CacheStore.NONE;
+        }
+        CacheProperties.Repositories repositories = properties.repositories();
+        return new FilePageStore(disk.directory(), disk.maxSize().toBytes(),
+                repositories.ttl().plus(repositories.staleGrace()), meterRegistry);
+    }
+
+    /**
+     * Publishes the Caffeine statistics of the stale-while-revalidate cache like those of the
+     * plain Caffeine caches.
+     */
+    @Bean
+    public CacheMeterBinderProvider<StaleWhileRevalidateCache> staleWhileRevalidateCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getNativeCache(), cache.getName(), tags);
+    }
+}
@@ -0,0 +1,119 @@
+package de.redcare.githubscore.domain.config;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the application caches.
+ *
+ * @param repositories the cache of GitHub search pages
+ * @param scores       the cache of scored search pages
+ * @param refreshAhead background reloading of hot search pages before they turn stale
+ * @param prefetch     speculative fetching of the next search page
+ * @param disk         the on-disk second tier of the {@code repositories} cache
+ * @param peers        sharing of the {@code repositories} cache between replicas
+ */
+@Validated
+@ConfigurationProperties(prefix = "cache")
+public record CacheProperties(
+        @Valid @NotNull Repositories repositories,
+        @Valid @NotNull Scores scores,
+        @Valid @NotNull RefreshAhead refreshAhead,
+        @Valid @NotNull Prefetch prefetch,
+        @Valid @NotNull Disk disk,
+        @Valid @NotNull Peers peers
+) {
+
+    /**
+     * @param ttl            how long a page is served as fresh
+     * @param staleGrace     how long past {@code ttl} a page is still served while it is refreshed in the
+     *                       background, or while GitHub is unavailable
+     * @param heapBudget     estimated heap the cached pages may take; the least valuable pages are
+     *                       evicted beyond it
+     * @param refreshThreads threads refreshing stale pages in the background
+     */
+    public record Repositories(
+            @NotNull Duration ttl,
+            @NotNull Duration staleGrace,
+            @NotNull DataSize heapBudget,
+            @Positive int refreshThreads
+    ) {
+    }
+
+    /**
+     * @param ttl        how long a scored page is kept; a page is rescored on a new day regardless
+     * @param maxEntries scored pages kept at most
+     */
+    public record Scores(
+            @NotNull Duration ttl,
+            @Positive long maxEntries
+    ) {
+    }
+
+    /**
+     * @param enabled    whether hot pages are reloaded before they turn stale
+     * @param after      age from which a hot page is reloaded, below {@code ttl}
+     * @param hotWindow  how recently a page must have been read to be reloaded
+     * @param scanPeriod how often the cache is scanned for pages to reload
+     */
+    public record RefreshAhead(
+            boolean enabled,
+            @NotNull Duration after,
+            @NotNull Duration hotWindow,
+            @NotNull Duration scanPeriod
+    ) {
+    }
+
+    /**
+     * @param enabled      whether next pages are prefetched
+     * @param threshold    probability that the next page of a query shape is requested above which it
+     *                     is prefetched
+     * @param minSamples   pages of a query shape observed before its probability is trusted
+     * @param followWindow how long after a page its successor still counts as requested next
+     */
+    public record Prefetch(
+            boolean enabled,
+            @DecimalMin("0.0") @DecimalMax("1.0") double threshold,
+            @Positive int minSamples,
+            @NotNull Duration followWindow
+    ) {
+    }
+
+    /**
+     * @param enabled   whether search pages are also kept on disk and survive restarts
+     * @param directory directory of the cache file
+     * @param maxSize   size of the cache file above which it is compacted down to half of it
+     */
+    public record Disk(
+            boolean enabled,
+            @NotNull Path directory,
+            @NotNull DataSize maxSize
+    ) {
+    }
+
+    /**
+     * @param enabled whether pages are shared with the other replicas
+     * @param self    base URL under which the other replicas reach this one
+     * @param members base URLs of all replicas; every replica must list the same ones
+     * @param secret  shared secret every replica sends to and requires from its peers
+     * @param timeout how long a peer may take to answer before the page is fetched from GitHub
+     */
+    public record Peers(
+            boolean enabled,
+            @NotNull String self,
+            @NotNull List<String> members,
+            @NotNull String secret,
+            @NotNull Duration timeout
+    ) {
+    }
+}
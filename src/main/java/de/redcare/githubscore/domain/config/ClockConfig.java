@@ -0,0 +1,18 @@
+package de.redcare.githubscore.domain.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+
+@Configuration
+public class ClockConfig {
+
+    /**
+     * The time scores are computed against; tests replace it to score against a fixed day.
+     */
+    @Bean
+    public Clock clock() {
+        return Clock.systemUTC();
+    }
+}
@@ -0,0 +1,63 @@
+package de.redcare.githubscore.domain.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class ConcurrencyConfig {
+
+    /**
+     * Executor used to fetch several GitHub result pages concurrently.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService githubFanOutExecutor(RankingProperties properties) {
+        return Executors.newFixedThreadPool(properties.parallelism(),
+                Thread.ofPlatform().name("github-fan-out-", 0).factory());
+    }
+
+    /**
+     * Virtual-thread variant of the fan-out executor, active with {@code spring.threads.virtual.enabled}.
+     * Concurrency towards GitHub is bounded by the Feign client bulkhead instead of a pool size.
+     */
+    @Bean(name = "githubFanOutExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualGithubFanOutExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("github-fan-out-", 0).factory());
+    }
+
+    /**
+     * Executor running the queries of batch searches. Each batch bounds its own concurrency to
+     * {@code batch.parallelism}; all batches together hold at most {@code batch.max-threads} threads,
+     * created as batches need them and released when idle. Workers beyond those wait in a queue of
+     * {@code batch.queue-capacity} and are rejected once it is full.
+     */
+    @Bean(destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ExecutorService batchExecutor(BatchProperties properties) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.maxThreads(), properties.maxThreads(),
+                60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(properties.queueCapacity()),
+                Thread.ofPlatform().name("batch-", 0).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Virtual-thread variant of the batch executor, active with {@code spring.threads.virtual.enabled}.
+     */
+    @Bean(name = "batchExecutor", destroyMethod = "shutdown")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService virtualBatchExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("batch-", 0).factory());
+    }
+}
@@ -0,0 +1,23 @@
+package de.redcare.githubscore.domain.config;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Settings for ranking repositories by score across all result pages.
+ *
+ * @param global        when {@code true}, {@code sortBy=score} is served from a ranking of the
+ *                      whole candidate set instead of sorting the requested page only
+ * @param maxCandidates upper bound of repositories fetched per query (GitHub caps search at 1000)
+ * @param parallelism   number of result pages fetched from GitHub concurrently
+ */
+@Validated
+@ConfigurationProperties(prefix = "ranking")
+public record RankingProperties(
+        boolean global,
+        @Positive @Max(1000) int maxCandidates,
+        @Positive int parallelism
+) {
+}
@@ -4,16 +4,30 @@ package de.redcare.githubscore.domain.config;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Positive;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.ConstructorBinding;
 import org.springframework.validation.annotation.Validated;
 
+/**
+ * @param formula an expression replacing the weighted sum of stars, forks and recency (see
+ *                {@code FormulaCompiler}), or blank for the weighted sum
+ */
 @Validated
 @ConfigurationProperties(prefix = "scoring")
 public record ScoringProperties(
         @Valid Weights weights,
         @Valid Maximums maximums,
-        boolean normalize
+        boolean normalize,
+        String formula
 ) {
 
+    @ConstructorBinding
+    public ScoringProperties {
+    }
+
+    public ScoringProperties(Weights weights, Maximums maximums, boolean normalize) {
+        this(weights, maximums, normalize, null);
+    }
+
     public record Weights(
             @Positive float stars,
             @Positive float forks,
@@ -0,0 +1,24 @@
+package de.redcare.githubscore.domain.config;
+
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import de.redcare.githubscore.domain.repository.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+public class SearchConfig {
+
+    /**
+     * Coalesces concurrent GitHub searches for the same page. Shared by the blocking and the reactive
+     * repository, so a page missing from the cache is searched once whichever endpoints ask for it,
+     * and {@code github.search.executed} and {@code github.search.coalesced} count the calls of both.
+     */
+    @Bean
+    public SingleFlight<SearchKey, List<Repository>> githubSearches(MeterRegistry meterRegistry) {
+        return new SingleFlight<>(meterRegistry, "github.search");
+    }
+}
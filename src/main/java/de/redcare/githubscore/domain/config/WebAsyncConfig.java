@@ -0,0 +1,34 @@
+package de.redcare.githubscore.domain.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Hands asynchronous request processing to the {@code responseStreamingExecutor}. The application
+ * defines its own executors, so Spring Boot does not provide one and Spring MVC would otherwise fall
+ * back to a new platform thread per task.
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    /**
+     * Executor on which Spring MVC writes the elements of streamed reactive responses, such as the
+     * NDJSON lines of the reactive endpoint. A write may block on a slow client, so each one gets a
+     * virtual thread.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService responseStreamingExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("response-streaming-", 0).factory());
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(responseStreamingExecutor()));
+    }
+}
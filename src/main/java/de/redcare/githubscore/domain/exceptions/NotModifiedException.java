@@ -0,0 +1,14 @@
+package de.redcare.githubscore.domain.exceptions;
+
+/**
+ * Signals a {@code 304 Not Modified} answer to a conditional GitHub request.
+ * <p>
+ * This is an expected outcome of revalidation rather than a failure, so the exception
+ * carries no stack trace.
+ */
+public class NotModifiedException extends RuntimeException {
+
+    public NotModifiedException(String requestUrl) {
+        super("Not modified: " + requestUrl, null, false, false);
+    }
+}
@@ -0,0 +1,12 @@
+package de.redcare.githubscore.domain.exceptions;
+
+/**
+ * Exception thrown when the scoring settings of a request cannot be applied, e.g. overridden weights
+ * while a scoring formula is in use.
+ */
+public class UnsupportedScoringException extends RuntimeException {
+
+    public UnsupportedScoringException(String message) {
+        super(message);
+    }
+}
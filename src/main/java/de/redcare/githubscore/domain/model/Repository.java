@@ -1,7 +1,8 @@
 package de.redcare.githubscore.domain.model;
 
-import java.time.ZonedDateTime;
-
+/**
+ * @param lastUpdatedEpochSecond the last update in seconds since the epoch, as precise as GitHub reports it
+ */
 public record Repository(
         long id,
         String name,
@@ -9,7 +10,7 @@ public record Repository(
         long stars,
         long forks,
         String language,
-        ZonedDateTime lastUpdated
+        long lastUpdatedEpochSecond
 ) {}
 
 
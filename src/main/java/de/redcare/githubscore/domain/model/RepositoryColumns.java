@@ -0,0 +1,45 @@
+package de.redcare.githubscore.domain.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The scoring inputs of a batch of repositories as primitive columns, index {@code i} describing the
+ * {@code i}-th repository.
+ *
+ * @param stars           stargazers per repository
+ * @param forks           forks per repository
+ * @param daysSinceUpdate whole days between the last update and the scoring time
+ * @param size            number of repositories; the arrays may be longer
+ */
+public record RepositoryColumns(float[] stars, float[] forks, int[] daysSinceUpdate, int size) {
+
+    private static final long SECONDS_PER_DAY = 86_400;
+
+    /**
+     * Splits {@code repositories} into columns, with the days since update counted up to {@code now}.
+     */
+    public static RepositoryColumns of(List<Repository> repositories, Instant now) {
+        int size = repositories.size();
+        float[] stars = new float[size];
+        float[] forks = new float[size];
+        int[] daysSinceUpdate = new int[size];
+        long nowSeconds = now.getEpochSecond();
+        for (int i = 0; i < size; i++) {
+            Repository repository = repositories.get(i);
+            stars[i] = repository.stars();
+            forks[i] = repository.forks();
+            daysSinceUpdate[i] = (int) daysSinceUpdate(repository.lastUpdatedEpochSecond(), nowSeconds);
+        }
+        return new RepositoryColumns(stars, forks, daysSinceUpdate, size);
+    }
+
+    /**
+     * Counts the whole days from {@code lastUpdatedEpochSecond} to {@code nowSeconds} like
+     * {@link java.time.Duration#toDays()} does; the fraction of a second of the current time cannot
+     * complete a day, as the last update is a whole second.
+     */
+    public static long daysSinceUpdate(long lastUpdatedEpochSecond, long nowSeconds) {
+        return (nowSeconds - lastUpdatedEpochSecond) / SECONDS_PER_DAY;
+    }
+}
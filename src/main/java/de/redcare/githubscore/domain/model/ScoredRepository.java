@@ -1,7 +1,8 @@
 package de.redcare.githubscore.domain.model;
 
-import java.time.ZonedDateTime;
-
+/**
+ * @param lastUpdatedEpochSecond the last update in seconds since the epoch
+ */
 public record ScoredRepository(
         long id,
         String name,
@@ -9,7 +10,7 @@ public record ScoredRepository(
         String language,
         long stars,
         long forks,
-        ZonedDateTime lastUpdated,
+        long lastUpdatedEpochSecond,
         float score
 ) {
 }
@@ -1,10 +1,15 @@
 package de.redcare.githubscore.domain.repository;
 
+import de.redcare.githubscore.domain.exceptions.NotModifiedException;
 import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.RevalidationStore.ValidatedPage;
 import de.redcare.githubscore.infrastructure.client.github.client.GitHubFeignClient;
-import de.redcare.githubscore.infrastructure.client.github.models.GitHubRepositoryDto;
 import de.redcare.githubscore.infrastructure.client.github.models.GitHubSearchResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
@@ -13,39 +18,90 @@ import java.util.List;
 @Component
 public class GithubRepository {
     private final GitHubFeignClient gitHubFeignClient;
+    private final RevalidationStore revalidationStore;
+    private final SingleFlight<SearchKey, List<Repository>> inFlightSearches;
+    private final Counter notModified;
 
-    public GithubRepository(GitHubFeignClient gitHubFeignClient) {
+    public GithubRepository(GitHubFeignClient gitHubFeignClient,
+                            RevalidationStore revalidationStore,
+                            SingleFlight<SearchKey, List<Repository>> githubSearches,
+                            MeterRegistry meterRegistry) {
         this.gitHubFeignClient = gitHubFeignClient;
+        this.revalidationStore = revalidationStore;
+        this.inFlightSearches = githubSearches;
+        this.notModified = Counter.builder("github.search.not-modified")
+                .description("Searches answered with 304 Not Modified and served from the previous page")
+                .register(meterRegistry);
     }
 
-    @Cacheable(value = "repositories", key = "{#query,#language,#sortBy,#sortOrder,#page,#perPage, #createdAfter}")
+    /**
+     * Fetches one page of repositories. Concurrent cache misses for the same page share
+     * a single GitHub call. Within the grace window of an expired page, the stale page is
+     * returned while it is refreshed in the background.
+     */
+    @Cacheable(value = "repositories", sync = true,
+            key = "new de.redcare.githubscore.domain.repository.SearchKey(#query,#language,#sortBy,#sortOrder,#page,#perPage,#createdAfter)")
     public List<Repository> fetchRepositories(String query, String language, String sortBy, String sortOrder, int page, int perPage, LocalDate createdAfter) {
         if (query == null || query.isBlank()) {
             throw new IllegalArgumentException("Query must not be null or empty");
         }
 
-        GitHubSearchResponse response = gitHubFeignClient.searchRepositories(
-                createSearchQuery(query, language, createdAfter).toString(), sortBy, sortOrder, page, perPage);
-        return response.items().stream().map(this::toDomainRepository).toList();
+        SearchKey key = new SearchKey(query, language, sortBy, sortOrder, page, perPage, createdAfter);
+        return inFlightSearches.execute(key, () -> search(key));
+    }
+
+    /**
+     * Fetches one page of repositories from GitHub, bypassing the cache, e.g. to replace a cached page
+     * before it expires. A call in flight for the same page is shared.
+     */
+    public List<Repository> reload(SearchKey key) {
+        return inFlightSearches.execute(key, () -> search(key));
+    }
 
+    /**
+     * Searches GitHub, revalidating the previous page of the same key when one is known.
+     */
+    private List<Repository> search(SearchKey key) {
+        ValidatedPage previous = revalidationStore.get(key);
+        ResponseEntity<GitHubSearchResponse> response;
+        try {
+            response = gitHubFeignClient.searchRepositories(
+                    createSearchQuery(key.query(), key.language(), key.createdAfter()).toString(),
+                    key.sortBy(), key.sortOrder(), key.page(), key.perPage(),
+                    previous != null ? previous.etag() : null,
+                    previous != null ? previous.lastModified() : null);
+        } catch (NotModifiedException e) {
+            if (previous == null) {
+                throw e;
+            }
+            notModified.increment();
+            revalidationStore.put(key, previous);
+            return previous.repositories();
+        }
+
+        return pageOf(key, response, revalidationStore);
     }
 
-    private static StringBuilder createSearchQuery(String query, String language, LocalDate createdAfter) {
+    /**
+     * Takes the repositories of a search response, keeping them with the validators GitHub sent.
+     */
+    static List<Repository> pageOf(SearchKey key, ResponseEntity<GitHubSearchResponse> response,
+                                   RevalidationStore revalidationStore) {
+        GitHubSearchResponse body = response.getBody();
+        List<Repository> repositories = body == null || body.items() == null ? List.of() : body.items();
+
+        HttpHeaders headers = response.getHeaders();
+        if (headers.getETag() != null || headers.getFirst(HttpHeaders.LAST_MODIFIED) != null) {
+            revalidationStore.put(key, new ValidatedPage(
+                    headers.getETag(), headers.getFirst(HttpHeaders.LAST_MODIFIED), repositories));
+        }
+        return repositories;
+    }
+
+    static StringBuilder createSearchQuery(String query, String language, LocalDate createdAfter) {
         StringBuilder searchQuery = new StringBuilder(query);
         if (language != null) searchQuery.append(" language:").append(language);
         if (createdAfter != null) searchQuery.append(" created:>").append(createdAfter);
         return searchQuery;
     }
-
-    private Repository toDomainRepository(GitHubRepositoryDto dto) {
-        return new Repository(
-                dto.id(),
-                dto.name(),
-                dto.url(),
-                dto.stars(),
-                dto.forksCount(),
-                dto.language(),
-                dto.updated_at()
-        );
-    }
 }
\ No newline at end of file
@@ -0,0 +1,91 @@
+package de.redcare.githubscore.domain.repository;
+
+import de.redcare.githubscore.domain.exceptions.NotModifiedException;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.RevalidationStore.ValidatedPage;
+import de.redcare.githubscore.infrastructure.client.github.client.GitHubWebClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of {@link GithubRepository}, fetching pages with the {@link GitHubWebClient}.
+ * <p>
+ * Pages are read from and written to the same {@code repositories} cache under the same
+ * {@link SearchKey}, so a page fetched by either stack is served to both, and the validators of the
+ * {@link RevalidationStore} let either one revalidate a page with {@code 304 Not Modified}.
+ * Concurrent misses of one page share a single call, also with a blocking search of the same page in
+ * flight, as both repositories coalesce through the same {@link SingleFlight}. A lookup sees fresh pages only; serving stale
+ * pages while they are refreshed is left to the blocking stack. The cache tiers (heap, disk, peers)
+ * are blocking, so lookups and writes run on the bounded elastic scheduler, never on an event loop.
+ */
+@Component
+public class ReactiveGithubRepository {
+
+    private final GitHubWebClient gitHubWebClient;
+    private final RevalidationStore revalidationStore;
+    private final Cache repositories;
+    private final SingleFlight<SearchKey, List<Repository>> inFlightSearches;
+    private final Counter notModified;
+
+    public ReactiveGithubRepository(GitHubWebClient gitHubWebClient,
+                                    RevalidationStore revalidationStore,
+                                    CacheManager cacheManager,
+                                    SingleFlight<SearchKey, List<Repository>> githubSearches,
+                                    MeterRegistry meterRegistry) {
+        this.gitHubWebClient = gitHubWebClient;
+        this.revalidationStore = revalidationStore;
+        this.repositories = cacheManager.getCache("repositories");
+        this.inFlightSearches = githubSearches;
+        this.notModified = Counter.builder("github.search.not-modified")
+                .description("Searches answered with 304 Not Modified and served from the previous page")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetches one page of repositories, like {@link GithubRepository#fetchRepositories}.
+     */
+    @SuppressWarnings("unchecked")
+    public Mono<List<Repository>> fetchRepositories(String query, String language, String sortBy, String sortOrder,
+                                                    int page, int perPage, LocalDate createdAfter) {
+        if (query == null || query.isBlank()) {
+            return Mono.error(new IllegalArgumentException("Query must not be null or empty"));
+        }
+
+        SearchKey key = new SearchKey(query, language, sortBy, sortOrder, page, perPage, createdAfter);
+        return Mono.fromCallable(() -> repositories.get(key))
+                .subscribeOn(Schedulers.boundedElastic())
+                .map(cached -> (List<Repository>) cached.get())
+                .switchIfEmpty(Mono.defer(() -> inFlightSearches.executeAsync(key, () -> search(key)
+                        .publishOn(Schedulers.boundedElastic())
+                        .doOnNext(fetched -> repositories.put(key, fetched)))));
+    }
+
+    /**
+     * Searches GitHub, revalidating the previous page of the same key when one is known.
+     */
+    private Mono<List<Repository>> search(SearchKey key) {
+        ValidatedPage previous = revalidationStore.get(key);
+        return gitHubWebClient.searchRepositories(
+                        GithubRepository.createSearchQuery(key.query(), key.language(), key.createdAfter()).toString(),
+                        key.sortBy(), key.sortOrder(), key.page(), key.perPage(),
+                        previous != null ? previous.etag() : null,
+                        previous != null ? previous.lastModified() : null)
+                .map(response -> GithubRepository.pageOf(key, response, revalidationStore))
+                .onErrorResume(NotModifiedException.class, e -> {
+                    if (previous == null) {
+                        return Mono.error(e);
+                    }
+                    notModified.increment();
+                    revalidationStore.put(key, previous);
+                    return Mono.just(previous.repositories());
+                });
+    }
+}
@@ -0,0 +1,85 @@
+package de.redcare.githubscore.domain.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import de.redcare.githubscore.domain.cache.Footprint;
+import de.redcare.githubscore.domain.cache.RepositoryEntityStore;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the validators of fetched search pages together with the ids of the page's repositories.
+ * <p>
+ * Entries outlive the {@code repositories} cache, so when a cached page expires the next
+ * fetch can be sent as a conditional request and a {@code 304 Not Modified} answer reuses
+ * the already decoded repositories.
+ * <p>
+ * The repositories themselves live in the {@link RepositoryEntityStore} shared with the
+ * {@code repositories} cache: an entry refers to them like a cached page does, so a repository
+ * is kept once however many cached and revalidatable pages show it, and is counted in
+ * {@code cache.footprint}. Entries are weighed with their repositories in full and bounded by
+ * {@code github.api.revalidation.heap-budget}.
+ */
+@Component
+public class RevalidationStore {
+
+    private final RepositoryEntityStore entities;
+    private final Cache<SearchKey, Validators> pages;
+
+    public RevalidationStore(GitHubApiProperties properties, RepositoryEntityStore repositoryEntityStore) {
+        this.entities = repositoryEntityStore;
+        this.pages = Caffeine.newBuilder()
+                .expireAfterWrite(properties.revalidation().retention())
+                .maximumWeight(properties.revalidation().heapBudget().toBytes())
+                .weigher((SearchKey key, Validators validators) -> (int) Math.min(Integer.MAX_VALUE,
+                        Footprint.of(key) + Footprint.of(validators.etag())
+                                + Footprint.of(validators.lastModified()) + entities.weigh(validators.page())))
+                .executor(Runnable::run)
+                .removalListener((SearchKey key, Validators validators, RemovalCause cause) -> {
+                    if (validators != null) {
+                        entities.release(validators.page());
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * @return the page last fetched for the key with its validators, or {@code null} if none is
+     * kept or its repositories can no longer be rebuilt
+     */
+    @SuppressWarnings("unchecked")
+    public ValidatedPage get(SearchKey key) {
+        Validators validators = pages.getIfPresent(key);
+        if (validators == null) {
+            return null;
+        }
+        List<Repository> repositories = (List<Repository>) entities.decode(validators.page());
+        return repositories != null
+                ? new ValidatedPage(validators.etag(), validators.lastModified(), repositories)
+                : null;
+    }
+
+    public void put(SearchKey key, ValidatedPage page) {
+        pages.put(key, new Validators(page.etag(), page.lastModified(), entities.encode(page.repositories())));
+    }
+
+    /**
+     * A decoded search page and the validators GitHub sent with it.
+     *
+     * @param etag         the {@code ETag} header, may be {@code null}
+     * @param lastModified the {@code Last-Modified} header, may be {@code null}
+     * @param repositories the decoded page
+     */
+    public record ValidatedPage(String etag, String lastModified, List<Repository> repositories) {
+    }
+
+    /**
+     * A kept entry: the validators and the page in the form of the {@link RepositoryEntityStore}.
+     */
+    private record Validators(String etag, String lastModified, Object page) {
+    }
+}
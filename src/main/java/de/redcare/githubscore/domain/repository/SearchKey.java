@@ -0,0 +1,18 @@
+package de.redcare.githubscore.domain.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Identity of a single GitHub search page, shared by the {@code repositories} cache
+ * and the coalescing of in-flight searches.
+ */
+public record SearchKey(
+        String query,
+        String language,
+        String sortBy,
+        String sortOrder,
+        int page,
+        int perPage,
+        LocalDate createdAfter
+) {
+}
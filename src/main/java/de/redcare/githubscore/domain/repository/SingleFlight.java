@@ -0,0 +1,109 @@
+package de.redcare.githubscore.domain.repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into a single execution.
+ * <p>
+ * The first caller for a key runs the call; every caller arriving while it is in flight
+ * waits for the same outcome, either its result or its exception. The call itself runs
+ * outside of any lock, so slow calls never block unrelated keys.
+ *
+ * @param <K> the key identifying equivalent calls
+ * @param <V> the result type
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter executed;
+    private final Counter coalesced;
+
+    /**
+     * @param registry registry for the {@code <name>.executed} and {@code <name>.coalesced} counters
+     * @param name     metric name prefix
+     */
+    public SingleFlight(MeterRegistry registry, String name) {
+        this.executed = Counter.builder(name + ".executed")
+                .description("Calls that were executed")
+                .register(registry);
+        this.coalesced = Counter.builder(name + ".coalesced")
+                .description("Calls that joined an identical call already in flight")
+                .register(registry);
+    }
+
+    /**
+     * Runs {@code call} unless a call for {@code key} is already in flight, in which case
+     * its outcome is shared.
+     *
+     * @throws RuntimeException the exception thrown by the executing call
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return await(existing);
+        }
+
+        executed.increment();
+        try {
+            V result = call.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute}: subscribes to {@code call} unless a call for
+     * {@code key} is already in flight, in which case its outcome is shared. The call runs to its
+     * end even when every subscriber cancels, as joined callers may still need it.
+     *
+     * @return the outcome of the call, or an empty result if it completed without a value
+     */
+    public Mono<V> executeAsync(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                coalesced.increment();
+                return Mono.fromFuture(existing, true);
+            }
+
+            executed.increment();
+            flight.whenComplete((result, failure) -> inFlight.remove(key, flight));
+            try {
+                call.get().subscribe(flight::complete, flight::completeExceptionally, () -> flight.complete(null));
+            } catch (RuntimeException | Error e) {
+                flight.completeExceptionally(e);
+            }
+            return Mono.fromFuture(flight, true);
+        });
+    }
+
+    private V await(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
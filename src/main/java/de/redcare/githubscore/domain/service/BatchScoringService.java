@@ -0,0 +1,102 @@
+package de.redcare.githubscore.domain.service;
+
+import de.redcare.githubscore.application.service.ScoringService;
+import de.redcare.githubscore.domain.cache.Staleness;
+import de.redcare.githubscore.domain.config.BatchProperties;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Searches several queries at once with the {@link ScoringService}, so they share its caches and
+ * request coalescing like separate requests would.
+ * <p>
+ * Identical queries of a batch are searched once. The distinct ones are taken in order by at most
+ * {@code batch.parallelism} workers, so a large batch neither holds more threads nor opens more GitHub
+ * calls than that. Each query completes or fails on its own, and stale data served to any of them is
+ * reported to the calling request. When the executor rejects some workers the batch runs with fewer;
+ * when it rejects all of them every query fails with the {@link RejectedExecutionException}.
+ */
+@Service
+public class BatchScoringService {
+
+    private final ScoringService scoringService;
+    private final BatchProperties properties;
+    private final Executor executor;
+    private final Counter deduplicated;
+
+    public BatchScoringService(ScoringService scoringService,
+                               BatchProperties properties,
+                               @Qualifier("batchExecutor") Executor executor,
+                               MeterRegistry meterRegistry) {
+        this.scoringService = scoringService;
+        this.properties = properties;
+        this.executor = executor;
+        this.deduplicated = Counter.builder("batch.queries.deduplicated")
+                .description("Queries of batches answered by an identical query of the same batch")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts searching the queries of a batch.
+     *
+     * @param requests the queries, in the order of the batch
+     * @return one future per query, in the same order, completing with its scored repositories or the
+     * exception it failed with; identical queries share one future
+     * @throws IllegalArgumentException if the batch has more than {@code batch.max-queries} queries
+     */
+    public List<CompletableFuture<List<ScoredRepository>>> fetchRepositoriesScores(
+            List<RepositorySearchRequest> requests) {
+        if (requests.size() > properties.maxQueries()) {
+            throw new IllegalArgumentException(
+                    "A batch takes at most " + properties.maxQueries() + " queries, got " + requests.size());
+        }
+
+        Map<RepositorySearchRequest, CompletableFuture<List<ScoredRepository>>> distinct = new LinkedHashMap<>();
+        List<CompletableFuture<List<ScoredRepository>>> results = new ArrayList<>(requests.size());
+        for (RepositorySearchRequest request : requests) {
+            results.add(distinct.computeIfAbsent(request, key -> new CompletableFuture<>()));
+        }
+        deduplicated.increment(requests.size() - distinct.size());
+
+        List<Map.Entry<RepositorySearchRequest, CompletableFuture<List<ScoredRepository>>>> queue =
+                List.copyOf(distinct.entrySet());
+        AtomicInteger next = new AtomicInteger();
+        Supplier<Void> worker = Staleness.propagate(() -> {
+            for (int i = next.getAndIncrement(); i < queue.size(); i = next.getAndIncrement()) {
+                var query = queue.get(i);
+                try {
+                    query.getValue().complete(scoringService.fetchRepositoriesScores(query.getKey()));
+                } catch (Throwable e) {
+                    query.getValue().completeExceptionally(e);
+                }
+            }
+            return null;
+        });
+        int workers = Math.min(properties.parallelism(), queue.size());
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(worker::get);
+            } catch (RejectedExecutionException e) {
+                if (i == 0) {
+                    distinct.values().forEach(result -> result.completeExceptionally(e));
+                }
+                break;
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,66 @@
+package de.redcare.githubscore.domain.service;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.RepositoryColumns;
+
+/**
+ * Scores {@link RepositoryColumns} in one loop over primitive arrays, with the same arithmetic as
+ * the {@link ScoringFormula} of {@link DefaultScoringCalculator}, so every implementation yields
+ * the same scores to the bit.
+ */
+public interface ColumnScorer {
+
+    /**
+     * Only compiled with the {@code vector} Maven profile, so the default build does not depend on the
+     * incubating module.
+     */
+    String VECTOR_SCORER = "de.redcare.githubscore.domain.service.VectorColumnScorer";
+
+    /**
+     * Writes the score of the {@code i}-th repository of {@code columns} to {@code scores[i]}.
+     */
+    void score(RepositoryColumns columns, float[] scores);
+
+    /**
+     * @return a {@code VectorColumnScorer} for {@code config} if {@link #isVectorSupported() supported},
+     * otherwise a {@link ScalarColumnScorer}
+     */
+    static ColumnScorer of(ScoringProperties config) {
+        return isVectorSupported() ? vector(config) : new ScalarColumnScorer(config);
+    }
+
+    /**
+     * @return a {@code VectorColumnScorer} for {@code config}
+     * @throws IllegalStateException if the Vector API is not {@link #isVectorSupported() supported}
+     */
+    static ColumnScorer vector(ScoringProperties config) {
+        if (!isVectorSupported()) {
+            throw new IllegalStateException(
+                    "Build with -Pvector and run with --add-modules jdk.incubator.vector to score with the Vector API");
+        }
+        try {
+            return (ColumnScorer) Class.forName(VECTOR_SCORER)
+                    .getConstructor(ScoringProperties.class)
+                    .newInstance(config);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create " + VECTOR_SCORER, e);
+        }
+    }
+
+    /**
+     * @return whether the Vector API can be used, i.e. the {@code VectorColumnScorer} was built with
+     * the {@code vector} Maven profile and the JVM runs with {@code --add-modules jdk.incubator.vector}
+     */
+    static boolean isVectorSupported() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            // Not initialized, so no Vector API class is loaded yet
+            Class.forName(VECTOR_SCORER, false, ColumnScorer.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+}
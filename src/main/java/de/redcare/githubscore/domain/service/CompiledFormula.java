@@ -0,0 +1,21 @@
+package de.redcare.githubscore.domain.service;
+
+/**
+ * A popularity formula from configuration, compiled by {@link FormulaCompiler} into a class of its own.
+ */
+public interface CompiledFormula {
+
+    /**
+     * @param stars    the stars of the repository
+     * @param forks    the forks of the repository
+     * @param days     whole days since the last update of the repository
+     * @param language the language of the repository, may be {@code null}
+     * @return the popularity score
+     */
+    float score(float stars, float forks, float days, String language);
+
+    /**
+     * @return the expression the formula was compiled from
+     */
+    String expression();
+}
@@ -1,38 +1,153 @@
 package de.redcare.githubscore.domain.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import de.redcare.githubscore.application.service.ScoringCalculator;
 import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.exceptions.UnsupportedScoringException;
 import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.model.RepositoryColumns;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
-import java.time.ZonedDateTime;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Scores repositories by weighted, optionally normalized stars and forks plus a recency score that
+ * falls linearly to zero over {@code recencyDays}.
+ * <p>
+ * Recency is counted in whole days from the epoch seconds of the last update to a snapshot of the
+ * {@link Clock}, taken once per call and once per batch, so every repository of a batch is scored
+ * against the same instant. Scoring a repository does not allocate.
+ * <p>
+ * A {@code scoring.formula} replaces the weighted sum with a {@link CompiledFormula}, which
+ * {@link #useFormula(String)} swaps at runtime. Batches scored with a formula are scored one
+ * repository at a time.
+ */
 @Component
 public class DefaultScoringCalculator implements ScoringCalculator {
 
+    private static final Logger logger = LoggerFactory.getLogger(DefaultScoringCalculator.class);
+    private static final int MAX_VARIANTS = 16;
+
     private final ScoringProperties config;
+    private final Clock clock;
+    private final ScoringFormula formula;
+    private final ColumnScorer columnScorer;
+    private final Cache<ScoringProperties, DefaultScoringCalculator> variants = Caffeine.newBuilder()
+            .maximumSize(MAX_VARIANTS)
+            .build();
+    private volatile CompiledFormula compiled;
+    private final AtomicLong formulaGeneration = new AtomicLong();
 
     public DefaultScoringCalculator(ScoringProperties config) {
+        this(config, Clock.systemUTC());
+    }
+
+    @Autowired
+    public DefaultScoringCalculator(ScoringProperties config, Clock clock) {
         this.config = config;
+        this.clock = clock;
+        this.formula = new ScoringFormula(config);
+        this.columnScorer = ColumnScorer.of(config);
+        logger.debug("Scoring batches with {}", columnScorer.getClass().getSimpleName());
+        this.compiled = compile(config.formula());
+    }
+
+    /**
+     * Returns a calculator with the same clock scoring with the weighted sum of {@code config}.
+     * Calculators of the most recently used configurations are kept, as they hold a recency table each.
+     *
+     * @throws UnsupportedScoringException if {@code config} differs from the configured settings while
+     *                                     a formula is in use, as a formula has no weights or maximums
+     */
+    @Override
+    public DefaultScoringCalculator withConfig(ScoringProperties config) {
+        if (config.equals(this.config)) {
+            return this;
+        }
+        CompiledFormula current = compiled;
+        if (current != null) {
+            throw new UnsupportedScoringException(
+                    "Scoring settings cannot be overridden while scoring with formula '" + current.expression() + "'");
+        }
+        // The formula of the settings may have been replaced since, the weighted sum is what is in use
+        return variants.get(config, variant -> new DefaultScoringCalculator(
+                new ScoringProperties(variant.weights(), variant.maximums(), variant.normalize()), clock));
+    }
+
+    /**
+     * Compiles {@code expression} and scores with it from now on.
+     *
+     * @param expression the formula, or {@code null} or blank for the weighted sum
+     * @throws IllegalArgumentException if the expression is not a valid formula; the current formula is kept
+     */
+    public void useFormula(String expression) {
+        compiled = compile(expression);
+        // Bumped after the swap: whoever reads the new generation also scores with the new formula
+        formulaGeneration.incrementAndGet();
+        logger.info("Scoring with {}", compiled == null ? "the weighted sum" : "formula '" + compiled.expression() + "'");
+    }
+
+    private static CompiledFormula compile(String expression) {
+        return expression == null || expression.isBlank() ? null : FormulaCompiler.compile(expression.strip());
+    }
+
+    /**
+     * @return the number of times {@link #useFormula(String)} replaced the formula
+     */
+    @Override
+    public long formulaGeneration() {
+        return formulaGeneration.get();
+    }
+
+    /**
+     * @return the formula scores are computed with, or {@code null} for the weighted sum
+     */
+    public String formula() {
+        CompiledFormula current = compiled;
+        return current == null ? null : current.expression();
     }
 
     @Override
     public float calculatePopularityScore(Repository repo) {
-        float stars = score(repo.stars(), config.maximums().stars(), config.weights().stars());
-        float forks = score(repo.forks(), config.maximums().forks(), config.weights().forks());
-        float recency = scoreRecency(repo.lastUpdated());
-        return stars + forks + recency;
+        return calculatePopularityScore(repo, clock.instant());
     }
 
-    private float score(float value, float max, float weight) {
-        float ratio = config.normalize() ? Math.min(value / max, 1.0f) : value;
-        return ratio * weight;
+    /**
+     * Scores {@code repo} as of {@code now}.
+     */
+    public float calculatePopularityScore(Repository repo, Instant now) {
+        long days = RepositoryColumns.daysSinceUpdate(repo.lastUpdatedEpochSecond(), now.getEpochSecond());
+        CompiledFormula current = compiled;
+        if (current != null) {
+            return current.score(repo.stars(), repo.forks(), days, repo.language());
+        }
+        return formula.score(repo.stars(), repo.forks(), days);
     }
 
-    private float scoreRecency(ZonedDateTime lastUpdated) {
-        long days = Duration.between(lastUpdated, ZonedDateTime.now()).toDays();
-        float ratio = 1 - Math.min(days / (float) config.maximums().recencyDays(), 1.0f);
-        return ratio * config.weights().recency();
+    /**
+     * Scores the batch as {@link RepositoryColumns} with the {@link ColumnScorer}, giving the same
+     * scores as {@link #calculatePopularityScore(Repository, Instant)} at one snapshot of the clock.
+     */
+    @Override
+    public float[] calculatePopularityScores(List<Repository> repositories) {
+        if (compiled != null) {
+            Instant now = clock.instant();
+            float[] scores = new float[repositories.size()];
+            for (int i = 0; i < scores.length; i++) {
+                scores[i] = calculatePopularityScore(repositories.get(i), now);
+            }
+            return scores;
+        }
+        RepositoryColumns columns = RepositoryColumns.of(repositories, clock.instant());
+        float[] scores = new float[columns.size()];
+        columnScorer.score(columns, scores);
+        return scores;
     }
 }
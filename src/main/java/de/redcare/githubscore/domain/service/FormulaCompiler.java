@@ -0,0 +1,468 @@
+package de.redcare.githubscore.domain.service;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles popularity formulas written as expressions into bytecode.
+ * <p>
+ * A formula is an expression over {@code stars}, {@code forks} and {@code days} (whole days since
+ * the last update) with numbers, {@code + - * / ^}, parentheses, the comparisons
+ * {@code < <= > >= == !=} (1 if true, otherwise 0) and the functions {@code log}, {@code log10},
+ * {@code log1p}, {@code sqrt}, {@code exp}, {@code abs}, {@code min}, {@code max} and {@code pow} of
+ * {@link Math}. {@code language == 'Java'} is 1 for repositories of that language, ignoring case, so
+ * a language boost reads {@code 0.1 * (language == 'Rust')}. The built-in formula with the default
+ * settings is
+ * <pre>
+ * 0.5 * min(stars / 1000, 1) + 0.3 * min(forks / 50000, 1) + 0.2 * max(1 - days / 365, 0)
+ * </pre>
+ * The expression is parsed once and emitted as the {@code score} method of a hidden class, computing
+ * in {@code float} like the built-in formula ({@code double} within the functions that only exist
+ * for it), which the JIT compiles and inlines like hand-written code. A hidden class is
+ * unloaded once its formula is no longer referenced, so formulas can be replaced at runtime.
+ */
+public final class FormulaCompiler {
+
+    private static final String MATH = "java/lang/Math";
+    private static final String SELF = Type.getInternalName(FormulaCompiler.class);
+    private static final Map<String, Function> FUNCTIONS = Map.of(
+            "log", Function.ofDouble("log", 1),
+            "log10", Function.ofDouble("log10", 1),
+            "log1p", Function.ofDouble("log1p", 1),
+            "sqrt", Function.ofDouble("sqrt", 1),
+            "exp", Function.ofDouble("exp", 1),
+            "pow", Function.ofDouble("pow", 2),
+            "abs", Function.ofFloat(MATH, "abs", 1),
+            "min", Function.ofFloat(MATH, "min", 2),
+            "max", Function.ofFloat(MATH, "max", 2));
+    private static final Map<String, Function> COMPARISONS = Map.of(
+            "<", Function.ofFloat(SELF, "lt", 2),
+            "<=", Function.ofFloat(SELF, "le", 2),
+            ">", Function.ofFloat(SELF, "gt", 2),
+            ">=", Function.ofFloat(SELF, "ge", 2),
+            "==", Function.ofFloat(SELF, "eq", 2),
+            "!=", Function.ofFloat(SELF, "ne", 2));
+    private static final int STARS = 1;
+    private static final int FORKS = 2;
+    private static final int DAYS = 3;
+    private static final int LANGUAGE = 4;
+
+    private FormulaCompiler() {
+    }
+
+    /**
+     * @param expression the formula
+     * @return the compiled formula
+     * @throws IllegalArgumentException if the expression is not a valid formula
+     */
+    public static CompiledFormula compile(String expression) {
+        Node root = new Parser(expression).parse();
+        String className = SELF.substring(0, SELF.lastIndexOf('/') + 1) + "Formula";
+        try {
+            Class<?> formula = MethodHandles.lookup()
+                    .defineHiddenClass(generate(className, expression, root), true)
+                    .lookupClass();
+            return (CompiledFormula) formula.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not load the compiled formula '" + expression + "'", e);
+        }
+    }
+
+    private static byte[] generate(String className, String expression, Node root) {
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(Opcodes.V17, Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER, className, null,
+                "java/lang/Object", new String[]{Type.getInternalName(CompiledFormula.class)});
+
+        MethodVisitor constructor = writer.visitMethod(Opcodes.ACC_PUBLIC, "<init>", "()V", null, null);
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, "java/lang/Object", "<init>", "()V", false);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        MethodVisitor score = writer.visitMethod(Opcodes.ACC_PUBLIC, "score", "(FFFLjava/lang/String;)F", null, null);
+        score.visitCode();
+        emit(root, score);
+        score.visitInsn(Opcodes.FRETURN);
+        score.visitMaxs(0, 0);
+        score.visitEnd();
+
+        MethodVisitor source = writer.visitMethod(Opcodes.ACC_PUBLIC, "expression", "()Ljava/lang/String;", null, null);
+        source.visitCode();
+        source.visitLdcInsn(expression);
+        source.visitInsn(Opcodes.ARETURN);
+        source.visitMaxs(0, 0);
+        source.visitEnd();
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    private static void emit(Node node, MethodVisitor method) {
+        switch (node) {
+            case Literal literal -> method.visitLdcInsn(literal.value());
+            case Variable variable -> method.visitVarInsn(Opcodes.FLOAD, variable.slot());
+            case Negate negate -> {
+                emit(negate.operand(), method);
+                method.visitInsn(Opcodes.FNEG);
+            }
+            case Arithmetic arithmetic -> {
+                emit(arithmetic.left(), method);
+                emit(arithmetic.right(), method);
+                method.visitInsn(arithmetic.opcode());
+            }
+            case Call call -> {
+                Function function = call.function();
+                for (Node argument : call.arguments()) {
+                    emit(argument, method);
+                    if (function.widened()) {
+                        method.visitInsn(Opcodes.F2D);
+                    }
+                }
+                method.visitMethodInsn(Opcodes.INVOKESTATIC, function.owner(), function.name(), function.descriptor(), false);
+                if (function.widened()) {
+                    method.visitInsn(Opcodes.D2F);
+                }
+            }
+            case LanguageIs languageIs -> {
+                method.visitLdcInsn(languageIs.language());
+                method.visitVarInsn(Opcodes.ALOAD, LANGUAGE);
+                method.visitMethodInsn(Opcodes.INVOKEVIRTUAL, "java/lang/String", "equalsIgnoreCase",
+                        "(Ljava/lang/String;)Z", false);
+                if (!languageIs.equal()) {
+                    method.visitInsn(Opcodes.ICONST_1);
+                    method.visitInsn(Opcodes.IXOR);
+                }
+                method.visitInsn(Opcodes.I2F);
+            }
+            case Text text -> throw new IllegalStateException("String outside of a language comparison");
+            case Language language -> throw new IllegalStateException("Language outside of a comparison");
+        }
+    }
+
+    // Comparisons called by compiled formulas
+
+    static float lt(float left, float right) {
+        return left < right ? 1 : 0;
+    }
+
+    static float le(float left, float right) {
+        return left <= right ? 1 : 0;
+    }
+
+    static float gt(float left, float right) {
+        return left > right ? 1 : 0;
+    }
+
+    static float ge(float left, float right) {
+        return left >= right ? 1 : 0;
+    }
+
+    static float eq(float left, float right) {
+        return left == right ? 1 : 0;
+    }
+
+    static float ne(float left, float right) {
+        return left != right ? 1 : 0;
+    }
+
+    /**
+     * @param widened whether the arguments are widened to {@code double} and the result narrowed back
+     */
+    private record Function(String owner, String name, String descriptor, int arity, boolean widened) {
+
+        static Function ofFloat(String owner, String name, int arity) {
+            return new Function(owner, name, "(" + "F".repeat(arity) + ")F", arity, false);
+        }
+
+        static Function ofDouble(String name, int arity) {
+            return new Function(MATH, name, "(" + "D".repeat(arity) + ")D", arity, true);
+        }
+    }
+
+    private sealed interface Node permits Literal, Variable, Negate, Arithmetic, Call, LanguageIs, Text, Language {
+    }
+
+    private record Literal(float value) implements Node {
+    }
+
+    private record Variable(int slot) implements Node {
+    }
+
+    private record Negate(Node operand) implements Node {
+    }
+
+    private record Arithmetic(int opcode, Node left, Node right) implements Node {
+    }
+
+    private record Call(Function function, List<Node> arguments) implements Node {
+    }
+
+    private record LanguageIs(String language, boolean equal) implements Node {
+    }
+
+    private record Text(String value, int position) implements Node {
+    }
+
+    private record Language(int position) implements Node {
+    }
+
+    /**
+     * Recursive descent over comparison, additive, multiplicative, unary, power and primary
+     * expressions, from the loosest to the tightest binding.
+     */
+    private static final class Parser {
+
+        private final String source;
+        private int position;
+
+        Parser(String source) {
+            this.source = source;
+        }
+
+        Node parse() {
+            Node root = number(comparison());
+            skipWhitespace();
+            if (position < source.length()) {
+                throw error("Unexpected '" + source.charAt(position) + "'");
+            }
+            return root;
+        }
+
+        private Node comparison() {
+            Node left = additive();
+            skipWhitespace();
+            int at = position;
+            String operator = comparisonOperator();
+            if (operator == null) {
+                return left;
+            }
+            Node right = additive();
+            if (isString(left) || isString(right)) {
+                return languageIs(left, operator, right, at);
+            }
+            return new Call(COMPARISONS.get(operator), List.of(left, right));
+        }
+
+        private String comparisonOperator() {
+            for (String operator : List.of("<=", ">=", "==", "!=", "<", ">")) {
+                if (source.startsWith(operator, position)) {
+                    position += operator.length();
+                    return operator;
+                }
+            }
+            return null;
+        }
+
+        private Node languageIs(Node left, String operator, Node right, int at) {
+            boolean equality = operator.equals("==") || operator.equals("!=");
+            Text text = left instanceof Text l ? l : right instanceof Text r ? r : null;
+            boolean language = left instanceof Language || right instanceof Language;
+            if (!equality || text == null || !language) {
+                position = at;
+                throw error("'language' can only be compared to a string with == or !=");
+            }
+            return new LanguageIs(text.value(), operator.equals("=="));
+        }
+
+        private Node additive() {
+            Node left = multiplicative();
+            while (true) {
+                skipWhitespace();
+                if (accept('+')) {
+                    left = new Arithmetic(Opcodes.FADD, number(left), number(multiplicative()));
+                } else if (accept('-')) {
+                    left = new Arithmetic(Opcodes.FSUB, number(left), number(multiplicative()));
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Node multiplicative() {
+            Node left = unary();
+            while (true) {
+                skipWhitespace();
+                if (accept('*')) {
+                    left = new Arithmetic(Opcodes.FMUL, number(left), number(unary()));
+                } else if (accept('/')) {
+                    left = new Arithmetic(Opcodes.FDIV, number(left), number(unary()));
+                } else {
+                    return left;
+                }
+            }
+        }
+
+        private Node unary() {
+            skipWhitespace();
+            if (accept('-')) {
+                return new Negate(number(unary()));
+            }
+            return power();
+        }
+
+        private Node power() {
+            Node base = primary();
+            skipWhitespace();
+            if (accept('^')) {
+                return new Call(FUNCTIONS.get("pow"), List.of(number(base), number(unary())));
+            }
+            return base;
+        }
+
+        private Node primary() {
+            skipWhitespace();
+            if (position >= source.length()) {
+                throw error("Unexpected end of formula");
+            }
+            char c = source.charAt(position);
+            if (accept('(')) {
+                Node inner = comparison();
+                expect(')');
+                return inner;
+            }
+            if (Character.isDigit(c) || c == '.') {
+                return literal();
+            }
+            if (c == '\'' || c == '"') {
+                return text(c);
+            }
+            if (Character.isLetter(c)) {
+                return identifier();
+            }
+            throw error("Expected a number, variable, function or '('");
+        }
+
+        private Node literal() {
+            int start = position;
+            while (position < source.length() && (Character.isDigit(source.charAt(position)) || source.charAt(position) == '.')) {
+                position++;
+            }
+            if (position < source.length() && (source.charAt(position) == 'e' || source.charAt(position) == 'E')) {
+                position++;
+                if (position < source.length() && (source.charAt(position) == '+' || source.charAt(position) == '-')) {
+                    position++;
+                }
+                while (position < source.length() && Character.isDigit(source.charAt(position))) {
+                    position++;
+                }
+            }
+            String number = source.substring(start, position);
+            try {
+                return new Literal(Float.parseFloat(number));
+            } catch (NumberFormatException e) {
+                position = start;
+                throw error("Invalid number '" + number + "'");
+            }
+        }
+
+        private Node text(char quote) {
+            int start = position++;
+            int end = source.indexOf(quote, position);
+            if (end < 0) {
+                position = start;
+                throw error("Unterminated string");
+            }
+            position = end + 1;
+            return new Text(source.substring(start + 1, end), start);
+        }
+
+        private Node identifier() {
+            int start = position;
+            while (position < source.length()
+                    && (Character.isLetterOrDigit(source.charAt(position)) || source.charAt(position) == '_')) {
+                position++;
+            }
+            String name = source.substring(start, position);
+            skipWhitespace();
+            if (accept('(')) {
+                return call(name, start);
+            }
+            return switch (name) {
+                case "stars" -> new Variable(STARS);
+                case "forks" -> new Variable(FORKS);
+                case "days" -> new Variable(DAYS);
+                case "language" -> new Language(start);
+                default -> {
+                    position = start;
+                    throw error("Unknown variable '" + name + "'");
+                }
+            };
+        }
+
+        private Node call(String name, int start) {
+            Function function = FUNCTIONS.get(name);
+            if (function == null) {
+                position = start;
+                throw error("Unknown function '" + name + "'");
+            }
+            List<Node> arguments = new ArrayList<>(2);
+            skipWhitespace();
+            if (!accept(')')) {
+                do {
+                    arguments.add(number(comparison()));
+                    skipWhitespace();
+                } while (accept(','));
+                expect(')');
+            }
+            if (arguments.size() != function.arity()) {
+                position = start;
+                throw error("'" + name + "' takes " + function.arity() + " argument(s), not " + arguments.size());
+            }
+            return new Call(function, arguments);
+        }
+
+        /**
+         * @return {@code node} if it is numeric
+         */
+        private Node number(Node node) {
+            if (node instanceof Text text) {
+                position = text.position();
+                throw error("A string can only be compared to 'language'");
+            }
+            if (node instanceof Language language) {
+                position = language.position();
+                throw error("'language' can only be compared to a string with == or !=");
+            }
+            return node;
+        }
+
+        private static boolean isString(Node node) {
+            return node instanceof Text || node instanceof Language;
+        }
+
+        private void expect(char c) {
+            skipWhitespace();
+            if (!accept(c)) {
+                throw error("Expected '" + c + "'");
+            }
+        }
+
+        private boolean accept(char c) {
+            if (position < source.length() && source.charAt(position) == c) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+
+        private void skipWhitespace() {
+            while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+                position++;
+            }
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(
+                    message + " at position " + (position + 1) + " of formula '" + source + "'");
+        }
+    }
+}
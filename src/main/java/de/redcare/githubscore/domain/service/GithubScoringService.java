@@ -3,21 +3,43 @@ package de.redcare.githubscore.domain.service;
 import de.redcare.githubscore.application.mapper.ScoredRepositoryMapper;
 import de.redcare.githubscore.application.service.ScoringCalculator;
 import de.redcare.githubscore.application.service.ScoringService;
+import de.redcare.githubscore.domain.cache.NextPagePrefetcher;
+import de.redcare.githubscore.domain.cache.ScoredPageCache;
+import de.redcare.githubscore.domain.cache.Staleness;
+import de.redcare.githubscore.domain.config.RankingProperties;
+import de.redcare.githubscore.domain.config.ScoringProperties;
 import de.redcare.githubscore.domain.model.Repository;
 import de.redcare.githubscore.domain.model.ScoredRepository;
 import de.redcare.githubscore.domain.repository.GithubRepository;
+import de.redcare.githubscore.domain.repository.SearchKey;
 import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static de.redcare.githubscore.domain.service.GlobalRankingService.GITHUB_MAX_PAGE_SIZE;
 
 /**
  * Service implementation that fetches GitHub repositories and calculates popularity scores.
  * <p>
  * If {@code sortBy=score} is provided, sorting is handled manually after score calculation.
- * Otherwise, sorting is delegated to GitHub API.
+ * With {@code ranking.global} enabled, the score order spans every result page of the query
+ * and the requested page is cut from the cached ranking. Otherwise, sorting is delegated to GitHub API
+ * and the next page may be prefetched while the client reads the current one. Scored pages are
+ * cached, so a repeated request is answered without fetching or scoring the page again.
  */
 @Service
 public class GithubScoringService implements ScoringService {
@@ -26,17 +48,41 @@ public class GithubScoringService implements ScoringService {
 
     private final GithubRepository githubRepository;
     private final ScoringCalculator scoringCalculator;
+    private final GlobalRankingService globalRankingService;
+    private final RankingProperties rankingProperties;
+    private final NextPagePrefetcher nextPagePrefetcher;
+    private final ScoredPageCache scoredPageCache;
+    private final ScoringProperties scoringProperties;
+    private final Executor fanOutExecutor;
 
     /**
      * Constructs a new {@link GithubScoringService} instance.
      *
-     * @param githubRepository  client to fetch repositories from GitHub
-     * @param scoringCalculator scoring logic to compute popularity
+     * @param githubRepository     client to fetch repositories from GitHub
+     * @param scoringCalculator    scoring logic to compute popularity
+     * @param globalRankingService ranking of the whole candidate set, used for global score sorting
+     * @param rankingProperties    ranking mode settings
+     * @param nextPagePrefetcher   speculative fetching of the page after the requested one
+     * @param scoredPageCache      cache of scored pages
+     * @param scoringProperties    the configured scoring settings, which requests may override
+     * @param fanOutExecutor       executor fetching the GitHub pages of a streamed page in parallel
      */
     public GithubScoringService(GithubRepository githubRepository,
-                                ScoringCalculator scoringCalculator) {
+                                ScoringCalculator scoringCalculator,
+                                GlobalRankingService globalRankingService,
+                                RankingProperties rankingProperties,
+                                NextPagePrefetcher nextPagePrefetcher,
+                                ScoredPageCache scoredPageCache,
+                                ScoringProperties scoringProperties,
+                                @Qualifier("githubFanOutExecutor") Executor fanOutExecutor) {
         this.githubRepository = githubRepository;
         this.scoringCalculator = scoringCalculator;
+        this.globalRankingService = globalRankingService;
+        this.rankingProperties = rankingProperties;
+        this.nextPagePrefetcher = nextPagePrefetcher;
+        this.scoredPageCache = scoredPageCache;
+        this.scoringProperties = scoringProperties;
+        this.fanOutExecutor = fanOutExecutor;
     }
 
     /**
@@ -44,6 +90,8 @@ public class GithubScoringService implements ScoringService {
      * <p>
      * If sorting by score is requested, this method applies in-memory sorting after scoring.
      * For other sort fields (e.g. stars, forks, updated), it relies on GitHub's native sorting.
+     * Scoring overrides of the request re-score the cached GitHub pages; they are part of the keys of
+     * the scored pages and rankings.
      *
      * @param request the repository search parameters
      * @return a list of repositories enriched with popularity scores
@@ -53,9 +101,14 @@ public class GithubScoringService implements ScoringService {
         final String sortBy = request.sortBy().name().toLowerCase();
         final boolean sortByScore = SCORE_SORT.equals(sortBy);
         final String sortOrder = request.sortOrder().name().toLowerCase();
+        final ScoringProperties scoring = scoringOf(request);
+
+        if (sortByScore && rankingProperties.global()) {
+            return rankedPage(request, "desc".equals(sortOrder), scoring);
+        }
 
         // Fetch raw repositories from GitHub API with sorting (unless sorting by score)
-        List<Repository> repositories = githubRepository.fetchRepositories(
+        SearchKey page = new SearchKey(
                 request.searchQuery(),
                 request.language(),
                 sortByScore ? null : sortBy,
@@ -64,25 +117,172 @@ public class GithubScoringService implements ScoringService {
                 request.pageSize(),
                 request.createdAfter()
         );
+        ScoringCalculator calculator = calculatorFor(scoring);
+        List<ScoredRepository> scored = scoredPageCache.get(page, sortByScore ? sortOrder : null, scoring,
+                () -> scorePage(page, sortByScore, sortOrder, calculator));
+        nextPagePrefetcher.pageServed(page, scored.size());
+        return scored;
+    }
 
-        // Map each repository to a scored repository
-        Stream<ScoredRepository> scoredStream = repositories.stream()
-                .map(repo ->
-                        ScoredRepositoryMapper.toScoredRepository(
-                                repo,
-                                scoringCalculator.calculatePopularityScore(repo)
+    /**
+     * Returns the scored repositories of the request in chunks of at most one GitHub page.
+     * <p>
+     * A page larger than a GitHub page is fetched as several GitHub pages, each through the scored page
+     * cache: the first one on the calling thread before this method returns and, when it is full, the
+     * others in parallel on the fan-out executor. Each of them is handed over by the stream as soon as it
+     * and the ones before it have arrived; closing the stream cancels those not yet arrived. Score order
+     * without global ranking needs the whole page and returns it at once; with global ranking, the page
+     * is returned in slices of the ranking.
+     *
+     * @param request the repository search parameters
+     * @return consecutive parts of the page, in order
+     */
+    @Override
+    public Stream<List<ScoredRepository>> streamRepositoriesScores(RepositorySearchRequest request) {
+        final String sortBy = request.sortBy().name().toLowerCase();
+        final boolean sortByScore = SCORE_SORT.equals(sortBy);
+        final String sortOrder = request.sortOrder().name().toLowerCase();
+        final long from = (long) (request.pageNumber() - 1) * request.pageSize();
+        final long to = from + request.pageSize();
+
+        if (sortByScore && rankingProperties.global()) {
+            Ranking ranking = rank(request, scoringOf(request));
+            long end = Math.min(to, ranking.size());
+            List<List<ScoredRepository>> slices = new ArrayList<>();
+            for (long position = from; position < end; position += GITHUB_MAX_PAGE_SIZE) {
+                slices.add(ranking.page(position, (int) Math.min(GITHUB_MAX_PAGE_SIZE, end - position),
+                        "desc".equals(sortOrder)));
+            }
+            return slices.stream();
+        }
+        if (request.pageSize() <= GITHUB_MAX_PAGE_SIZE) {
+            return Stream.of(fetchRepositoriesScores(request));
+        }
+
+        final ScoringProperties scoring = scoringOf(request);
+        final ScoringCalculator calculator = calculatorFor(scoring);
+        final int firstPage = (int) (from / GITHUB_MAX_PAGE_SIZE) + 1;
+        final int lastPage = (int) ((to - 1) / GITHUB_MAX_PAGE_SIZE) + 1;
+        IntFunction<List<ScoredRepository>> fetch = pageNumber -> {
+            SearchKey page = new SearchKey(
+                    request.searchQuery(),
+                    request.language(),
+                    sortByScore ? null : sortBy,
+                    sortByScore ? null : sortOrder,
+                    pageNumber,
+                    GITHUB_MAX_PAGE_SIZE,
+                    request.createdAfter());
+            return scoredPageCache.get(page, null, scoring, () -> scorePage(page, false, sortOrder, calculator));
+        };
 
-                        ));
+        // Like a global ranking, fetch the remaining pages in parallel only when the first one is full
+        List<ScoredRepository> first = fetch.apply(firstPage);
+        List<CompletableFuture<List<ScoredRepository>>> pages = new ArrayList<>(lastPage - firstPage + 1);
+        pages.add(CompletableFuture.completedFuture(first));
+        if (first.size() == GITHUB_MAX_PAGE_SIZE) {
+            for (int pageNumber = firstPage + 1; pageNumber <= lastPage; pageNumber++) {
+                final int next = pageNumber;
+                pages.add(CompletableFuture.supplyAsync(Staleness.propagate(() -> fetch.apply(next)), fanOutExecutor));
+            }
+        }
+        Runnable cancel = () -> pages.forEach(page -> page.cancel(false));
+
+        Iterator<List<ScoredRepository>> slices = new Iterator<>() {
+            private int index;
+            private boolean last;
+
+            @Override
+            public boolean hasNext() {
+                return !last && index < pages.size();
+            }
+
+            @Override
+            public List<ScoredRepository> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<ScoredRepository> page = GlobalRankingService.join(pages.get(index));
+                long start = (long) (firstPage + index - 1) * GITHUB_MAX_PAGE_SIZE;
+                index++;
+                // The last page of the results
+                last = page.size() < GITHUB_MAX_PAGE_SIZE;
+                return page.subList(
+                        (int) Math.min(page.size(), Math.max(0, from - start)),
+                        (int) Math.min(page.size(), to - start));
+            }
+        };
 
-        // If sort by score is requested, sort manually based on calculated score
         if (sortByScore) {
-            Comparator<ScoredRepository> comparator = Comparator.comparing(ScoredRepository::score);
-            if ("desc".equals(sortOrder)) {
-                comparator = comparator.reversed();
+            List<ScoredRepository> window = new ArrayList<>(request.pageSize());
+            try {
+                slices.forEachRemaining(window::addAll);
+            } finally {
+                cancel.run();
             }
-            scoredStream = scoredStream.sorted(comparator);
+            return Stream.of(orderByScore(window, "desc".equals(sortOrder)));
+        }
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(slices, Spliterator.ORDERED), false)
+                .onClose(cancel);
+    }
+
+    private ScoringProperties scoringOf(RepositorySearchRequest request) {
+        return request.scoring() == null ? scoringProperties : request.scoring().applyTo(scoringProperties);
+    }
+
+    private ScoringCalculator calculatorFor(ScoringProperties scoring) {
+        return scoring.equals(scoringProperties) ? scoringCalculator : scoringCalculator.withConfig(scoring);
+    }
+
+    static List<ScoredRepository> orderByScore(List<ScoredRepository> repositories, boolean descending) {
+        float[] scores = new float[repositories.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = repositories.get(i).score();
         }
+        return Arrays.stream(TopKSelector.select(scores, scores.length, descending))
+                .mapToObj(repositories::get)
+                .toList();
+    }
+
+    private List<ScoredRepository> scorePage(SearchKey page, boolean sortByScore, String sortOrder,
+                                             ScoringCalculator calculator) {
+        List<Repository> repositories = githubRepository.fetchRepositories(
+                page.query(), page.language(), page.sortBy(), page.sortOrder(),
+                page.page(), page.perPage(), page.createdAfter());
+        return score(repositories, calculator, sortByScore, "desc".equals(sortOrder));
+    }
 
-        return scoredStream.toList();
+    /**
+     * Scores a page as one batch, against one point in time.
+     *
+     * @param sortByScore whether to order the page by score, otherwise it keeps GitHub's order
+     */
+    static List<ScoredRepository> score(List<Repository> repositories, ScoringCalculator calculator,
+                                        boolean sortByScore, boolean descending) {
+        float[] scores = calculator.calculatePopularityScores(repositories);
+
+        // If sort by score is requested, order the indices by the primitive scores, otherwise keep GitHub's order
+        IntStream order = sortByScore
+                ? Arrays.stream(TopKSelector.select(scores, scores.length, descending))
+                : IntStream.range(0, scores.length);
+
+        return order
+                .mapToObj(i -> ScoredRepositoryMapper.toScoredRepository(repositories.get(i), scores[i]))
+                .toList();
+    }
+
+    private List<ScoredRepository> rankedPage(RepositorySearchRequest request, boolean descending,
+                                              ScoringProperties scoring) {
+        Ranking ranking = rank(request, scoring);
+
+        long from = (long) (request.pageNumber() - 1) * request.pageSize();
+        return ranking.page(from, request.pageSize(), descending);
+    }
+
+    private Ranking rank(RepositorySearchRequest request, ScoringProperties scoring) {
+        return globalRankingService.rank(
+                request.searchQuery(),
+                request.language(),
+                request.createdAfter(),
+                scoring.equals(scoringProperties) ? null : scoring);
     }
 }
@@ -0,0 +1,148 @@
+package de.redcare.githubscore.domain.service;
+
+import de.redcare.githubscore.application.service.ScoringCalculator;
+import de.redcare.githubscore.domain.cache.Staleness;
+import de.redcare.githubscore.domain.config.RankingProperties;
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.GithubRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds a score ranking over the whole candidate set of a query.
+ * <p>
+ * The first result page is fetched on the calling thread; when it is full, the remaining
+ * pages up to {@link RankingProperties#maxCandidates()} are fetched in parallel. All candidates
+ * are scored as one batch, and the scored {@link Ranking} is cached in {@code rankings}, so every
+ * later page of the same query is served from it without calling GitHub again. It is ordered only
+ * as deep as the pages asked for. A ranking built from stale pages is not cached, so it is built
+ * again once their refresh has landed.
+ */
+@Component
+public class GlobalRankingService {
+
+    /**
+     * Largest page size accepted by the GitHub search API.
+     */
+    static final int GITHUB_MAX_PAGE_SIZE = 100;
+
+    private final GithubRepository githubRepository;
+    private final ScoringCalculator scoringCalculator;
+    private final RankingProperties properties;
+    private final ExecutorService fanOutExecutor;
+    private final Clock clock;
+
+    public GlobalRankingService(GithubRepository githubRepository,
+                                ScoringCalculator scoringCalculator,
+                                RankingProperties properties,
+                                @Qualifier("githubFanOutExecutor") ExecutorService fanOutExecutor,
+                                Clock clock) {
+        this.githubRepository = githubRepository;
+        this.scoringCalculator = scoringCalculator;
+        this.properties = properties;
+        this.fanOutExecutor = fanOutExecutor;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns all candidates of the query with their scores.
+     * <p>
+     * A ranking with other scoring settings fetches its candidates through the {@code repositories}
+     * cache like the first one did, so it re-scores the cached pages without calling GitHub again.
+     *
+     * @param query        the search text
+     * @param language     the language filter (optional)
+     * @param createdAfter the creation date filter (optional)
+     * @param scoring      the scoring settings of the request, or {@code null} for the configured ones
+     * @return the ranking of the candidates
+     */
+    @Cacheable(value = "rankings", key = "{#query,#language,#createdAfter,#scoring,#root.target.scoringDay(),#root.target.formulaGeneration()}",
+            unless = "T(de.redcare.githubscore.domain.cache.Staleness).isMarked()")
+    public Ranking rank(String query, String language, LocalDate createdAfter, ScoringProperties scoring) {
+        List<Repository> candidates = fetchCandidates(query, language, createdAfter);
+        ScoringCalculator calculator = scoring == null ? scoringCalculator : scoringCalculator.withConfig(scoring);
+
+        return new Ranking(candidates, calculator.calculatePopularityScores(candidates));
+    }
+
+    /**
+     * @return the current UTC epoch day, part of the cache key of rankings as recency scores move by
+     * the day, so a ranking built before midnight is not served after it
+     */
+    public long scoringDay() {
+        return LocalDate.now(clock).toEpochDay();
+    }
+
+    /**
+     * @return the generation of the formula rankings are scored with, part of their cache key so that a
+     * ranking scored while the formula was replaced is not served afterwards
+     */
+    public long formulaGeneration() {
+        return scoringCalculator.formulaGeneration();
+    }
+
+    private List<Repository> fetchCandidates(String query, String language, LocalDate createdAfter) {
+        int pageSize = Math.min(GITHUB_MAX_PAGE_SIZE, properties.maxCandidates());
+        int pageCount = Math.ceilDiv(properties.maxCandidates(), pageSize);
+
+        List<Repository> firstPage = fetchPage(query, language, createdAfter, 1, pageSize);
+        if (firstPage.size() < pageSize || pageCount == 1) {
+            return firstPage;
+        }
+
+        List<CompletableFuture<List<Repository>>> pages = new ArrayList<>(pageCount - 1);
+        for (int page = 2; page <= pageCount; page++) {
+            final int pageNumber = page;
+            pages.add(CompletableFuture.supplyAsync(
+                    Staleness.propagate(() -> fetchPage(query, language, createdAfter, pageNumber, pageSize)),
+                    fanOutExecutor));
+        }
+
+        // Result sets can shift between page requests, so drop repositories seen on an earlier page
+        Set<Long> seen = new HashSet<>();
+        List<Repository> candidates = new ArrayList<>(pageCount * pageSize);
+        addUnseen(firstPage, seen, candidates);
+        for (CompletableFuture<List<Repository>> page : pages) {
+            addUnseen(join(page), seen, candidates);
+        }
+        return candidates;
+    }
+
+    private List<Repository> fetchPage(String query, String language, LocalDate createdAfter, int page, int pageSize) {
+        return githubRepository.fetchRepositories(query, language, null, null, page, pageSize, createdAfter);
+    }
+
+    private static void addUnseen(List<Repository> page, Set<Long> seen, List<Repository> target) {
+        for (Repository repository : page) {
+            if (seen.add(repository.id())) {
+                target.add(repository);
+            }
+        }
+    }
+
+    /**
+     * Waits for a page fetched on the fan-out executor, rethrowing its failure unwrapped.
+     */
+    static <T> List<T> join(CompletableFuture<List<T>> page) {
+        try {
+            return page.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
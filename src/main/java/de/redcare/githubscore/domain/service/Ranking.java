@@ -0,0 +1,83 @@
+package de.redcare.githubscore.domain.service;
+
+import de.redcare.githubscore.application.mapper.ScoredRepositoryMapper;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.IntStream;
+
+/**
+ * The scored candidates of a query, ordered by score only as deep as pages have been asked for.
+ * <p>
+ * Each order keeps a sorted prefix of candidate indices, selected with {@link TopKSelector}. A page
+ * within the prefix is a slice of it; a deeper page selects a new prefix of at least twice the
+ * length, so paging through all candidates sorts them a logarithmic number of times. Equal scores
+ * keep the order in which the candidates were fetched.
+ */
+public final class Ranking {
+
+    private final List<Repository> candidates;
+    private final float[] scores;
+    private final ReentrantLock lock = new ReentrantLock();
+    private int[] descending = new int[0];
+    private int[] ascending = new int[0];
+
+    /**
+     * @param candidates the candidates
+     * @param scores     the score of {@code candidates.get(i)} at index {@code i}
+     */
+    public Ranking(List<Repository> candidates, float[] scores) {
+        if (candidates.size() != scores.length) {
+            throw new IllegalArgumentException(
+                    "Got " + scores.length + " scores for " + candidates.size() + " candidates");
+        }
+        this.candidates = List.copyOf(candidates);
+        this.scores = scores;
+    }
+
+    /**
+     * @return the number of candidates
+     */
+    public int size() {
+        return scores.length;
+    }
+
+    /**
+     * @param from       the position of the first candidate of the page
+     * @param count      the page size
+     * @param descending whether the highest scores come first
+     * @return the candidates at positions {@code from} to {@code from + count} of the order, fewer at
+     * its end and none beyond it
+     */
+    public List<ScoredRepository> page(long from, int count, boolean descending) {
+        if (from >= scores.length) {
+            return List.of();
+        }
+        int to = (int) Math.min(from + count, scores.length);
+        int[] order = prefix(to, descending);
+        return IntStream.range((int) from, to)
+                .map(position -> order[position])
+                .mapToObj(index -> ScoredRepositoryMapper.toScoredRepository(candidates.get(index), scores[index]))
+                .toList();
+    }
+
+    private int[] prefix(int length, boolean descending) {
+        lock.lock();
+        try {
+            int[] order = descending ? this.descending : this.ascending;
+            if (order.length < length) {
+                order = TopKSelector.select(scores, Math.max(length, 2 * order.length), descending);
+                if (descending) {
+                    this.descending = order;
+                } else {
+                    this.ascending = order;
+                }
+            }
+            return order;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
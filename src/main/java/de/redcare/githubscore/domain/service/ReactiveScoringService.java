@@ -0,0 +1,120 @@
+package de.redcare.githubscore.domain.service;
+
+import de.redcare.githubscore.application.service.ScoringCalculator;
+import de.redcare.githubscore.domain.config.RankingProperties;
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.repository.ReactiveGithubRepository;
+import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+
+import static de.redcare.githubscore.domain.service.GlobalRankingService.GITHUB_MAX_PAGE_SIZE;
+
+/**
+ * Non-blocking counterpart of {@link GithubScoringService}: fetches pages with the
+ * {@link ReactiveGithubRepository} and scores them with the same {@link ScoringCalculator}, so no
+ * thread waits for GitHub.
+ * <p>
+ * A page larger than a GitHub page is fetched as several GitHub pages: the first one alone and, when
+ * it is full, the others up to {@code ranking.parallelism} at a time, emitted in order and only as
+ * fast as the subscriber requests them. Score order without global ranking collects the whole page
+ * first. With {@code ranking.global}, the page is cut from the cached ranking of
+ * {@link GlobalRankingService}, which is built off the event loops as it fetches with blocking calls.
+ */
+@Service
+public class ReactiveScoringService {
+
+    private static final String SCORE_SORT = "score";
+
+    private final ReactiveGithubRepository githubRepository;
+    private final ScoringCalculator scoringCalculator;
+    private final GlobalRankingService globalRankingService;
+    private final RankingProperties rankingProperties;
+    private final ScoringProperties scoringProperties;
+
+    public ReactiveScoringService(ReactiveGithubRepository githubRepository,
+                                  ScoringCalculator scoringCalculator,
+                                  GlobalRankingService globalRankingService,
+                                  RankingProperties rankingProperties,
+                                  ScoringProperties scoringProperties) {
+        this.githubRepository = githubRepository;
+        this.scoringCalculator = scoringCalculator;
+        this.globalRankingService = globalRankingService;
+        this.rankingProperties = rankingProperties;
+        this.scoringProperties = scoringProperties;
+    }
+
+    /**
+     * Fetches and scores the repositories of the request, like {@link GithubScoringService#fetchRepositoriesScores}.
+     *
+     * @param request the repository search parameters
+     * @return the scored repositories of the page, in order
+     */
+    public Flux<ScoredRepository> fetchRepositoriesScores(RepositorySearchRequest request) {
+        final String sortBy = request.sortBy().name().toLowerCase();
+        final boolean sortByScore = SCORE_SORT.equals(sortBy);
+        final String sortOrder = request.sortOrder().name().toLowerCase();
+        final boolean descending = "desc".equals(sortOrder);
+        final ScoringProperties scoring = request.scoring() == null
+                ? scoringProperties
+                : request.scoring().applyTo(scoringProperties);
+        final boolean overridden = !scoring.equals(scoringProperties);
+        final long from = (long) (request.pageNumber() - 1) * request.pageSize();
+
+        if (sortByScore && rankingProperties.global()) {
+            return Mono.fromCallable(() -> globalRankingService.rank(
+                            request.searchQuery(), request.language(), request.createdAfter(), overridden ? scoring : null))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapIterable(ranking -> ranking.page(from, request.pageSize(), descending));
+        }
+
+        final ScoringCalculator calculator = overridden ? scoringCalculator.withConfig(scoring) : scoringCalculator;
+        if (request.pageSize() <= GITHUB_MAX_PAGE_SIZE) {
+            // The same page as the blocking stack fetches, so both share its cache entry
+            return fetch(request, sortByScore, sortBy, sortOrder, request.pageNumber(), request.pageSize())
+                    .flatMapIterable(page -> GithubScoringService.score(page, calculator, sortByScore, descending));
+        }
+
+        final long to = from + request.pageSize();
+        final int firstPage = (int) (from / GITHUB_MAX_PAGE_SIZE) + 1;
+        final int lastPage = (int) ((to - 1) / GITHUB_MAX_PAGE_SIZE) + 1;
+        Flux<List<Repository>> pages = fetch(request, sortByScore, sortBy, sortOrder, firstPage, GITHUB_MAX_PAGE_SIZE)
+                .flatMapMany(first -> first.size() < GITHUB_MAX_PAGE_SIZE || firstPage == lastPage
+                        ? Flux.just(first)
+                        : Flux.concat(Mono.just(first), Flux.range(firstPage + 1, lastPage - firstPage)
+                        .flatMapSequential(pageNumber -> fetch(request, sortByScore, sortBy, sortOrder,
+                                pageNumber, GITHUB_MAX_PAGE_SIZE), rankingProperties.parallelism())))
+                // The last page of the results
+                .takeUntil(page -> page.size() < GITHUB_MAX_PAGE_SIZE);
+
+        Flux<ScoredRepository> window = pages.index().concatMapIterable(indexed -> {
+            List<Repository> page = indexed.getT2();
+            long start = (firstPage + indexed.getT1() - 1) * GITHUB_MAX_PAGE_SIZE;
+            List<Repository> slice = page.subList(
+                    (int) Math.min(page.size(), Math.max(0, from - start)),
+                    (int) Math.min(page.size(), to - start));
+            return GithubScoringService.score(slice, calculator, false, descending);
+        });
+        return sortByScore
+                ? window.collectList().flatMapIterable(scored -> GithubScoringService.orderByScore(scored, descending))
+                : window;
+    }
+
+    private Mono<List<Repository>> fetch(RepositorySearchRequest request, boolean sortByScore, String sortBy,
+                                         String sortOrder, int pageNumber, int perPage) {
+        return githubRepository.fetchRepositories(
+                request.searchQuery(),
+                request.language(),
+                sortByScore ? null : sortBy,
+                sortByScore ? null : sortOrder,
+                pageNumber,
+                perPage,
+                request.createdAfter());
+    }
+}
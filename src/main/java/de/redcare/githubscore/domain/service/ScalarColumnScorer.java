@@ -0,0 +1,37 @@
+package de.redcare.githubscore.domain.service;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.RepositoryColumns;
+
+/**
+ * Scores columns one repository at a time with the {@link ScoringFormula}.
+ */
+public final class ScalarColumnScorer implements ColumnScorer {
+
+    private final ScoringFormula formula;
+
+    public ScalarColumnScorer(ScoringProperties config) {
+        this(new ScoringFormula(config));
+    }
+
+    ScalarColumnScorer(ScoringFormula formula) {
+        this.formula = formula;
+    }
+
+    @Override
+    public void score(RepositoryColumns columns, float[] scores) {
+        score(columns, scores, 0);
+    }
+
+    /**
+     * Scores the repositories from index {@code from} on; the vector scorer finishes its tail here.
+     */
+    void score(RepositoryColumns columns, float[] scores, int from) {
+        float[] stars = columns.stars();
+        float[] forks = columns.forks();
+        int[] days = columns.daysSinceUpdate();
+        for (int i = from; i < columns.size(); i++) {
+            scores[i] = formula.score(stars[i], forks[i], days[i]);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package de.redcare.githubscore.domain.service;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+
+/**
+ * The popularity formula over primitive inputs, with the scoring settings read once.
+ * <p>
+ * The recency score of every day up to {@code recencyDays} is computed up front into a lookup
+ * table, so scoring a repository is a few float operations and one array read, without
+ * allocating. The table holds exactly what the arithmetic gives, so scores match those of
+ * {@code VectorColumnScorer}, which computes recency lane by lane.
+ */
+final class ScoringFormula {
+
+    /**
+     * Recency scores beyond this many days are computed rather than looked up.
+     */
+    static final int MAX_TABLE_DAYS = 100_000;
+
+    final boolean normalize;
+    final float maxStars;
+    final float maxForks;
+    final float recencyDays;
+    final float starsWeight;
+    final float forksWeight;
+    final float recencyWeight;
+    private final float[] recencyScores;
+
+    ScoringFormula(ScoringProperties config) {
+        this.normalize = config.normalize();
+        this.maxStars = config.maximums().stars();
+        this.maxForks = config.maximums().forks();
+        this.recencyDays = config.maximums().recencyDays();
+        this.starsWeight = config.weights().stars();
+        this.forksWeight = config.weights().forks();
+        this.recencyWeight = config.weights().recency();
+        this.recencyScores = new float[Math.min(config.maximums().recencyDays(), MAX_TABLE_DAYS) + 1];
+        for (int days = 0; days < recencyScores.length; days++) {
+            recencyScores[days] = computeRecency(days);
+        }
+    }
+
+    float score(float stars, float forks, long daysSinceUpdate) {
+        float starsScore = (normalize ? Math.min(stars / maxStars, 1.0f) : stars) * starsWeight;
+        float forksScore = (normalize ? Math.min(forks / maxForks, 1.0f) : forks) * forksWeight;
+        return starsScore + forksScore + recency(daysSinceUpdate);
+    }
+
+    float recency(long daysSinceUpdate) {
+        if (daysSinceUpdate >= 0 && daysSinceUpdate < recencyScores.length) {
+            return recencyScores[(int) daysSinceUpdate];
+        }
+        return daysSinceUpdate >= recencyDays ? 0.0f : computeRecency(daysSinceUpdate);
+    }
+
+    private float computeRecency(long daysSinceUpdate) {
+        return (1 - Math.min(daysSinceUpdate / recencyDays, 1.0f)) * recencyWeight;
+    }
+}
@@ -0,0 +1,64 @@
+package de.redcare.githubscore.domain.service;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Shows and replaces the scoring formula at {@code /actuator/scoringformula} without a restart.
+ * <p>
+ * A new formula is compiled before it replaces the current one, so an invalid formula is rejected
+ * with {@code 400} and scoring continues unchanged. Scored pages and rankings are cached under the
+ * generation of the formula, so none computed with the old one is served afterwards; they are evicted
+ * to free their memory. The change applies to this replica only and lasts until it restarts.
+ */
+@Component
+@Endpoint(id = "scoringformula")
+public class ScoringFormulaEndpoint {
+
+    private static final List<String> SCORED_CACHES = List.of("scores", "rankings");
+
+    private final DefaultScoringCalculator calculator;
+    private final CacheManager cacheManager;
+
+    public ScoringFormulaEndpoint(DefaultScoringCalculator calculator, CacheManager cacheManager) {
+        this.calculator = calculator;
+        this.cacheManager = cacheManager;
+    }
+
+    @ReadOperation
+    public Formula formula() {
+        return new Formula(calculator.formula());
+    }
+
+    /**
+     * @param expression the new formula, or an empty string for the weighted sum of {@code scoring.weights}
+     */
+    @WriteOperation
+    public Formula update(String expression) {
+        try {
+            calculator.useFormula(expression);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        for (String name : SCORED_CACHES) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.clear();
+            }
+        }
+        return formula();
+    }
+
+    /**
+     * @param expression the formula in use, {@code null} for the weighted sum
+     */
+    public record Formula(String expression) {
+    }
+}
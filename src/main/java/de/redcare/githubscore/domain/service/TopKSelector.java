@@ -0,0 +1,117 @@
+package de.redcare.githubscore.domain.service;
+
+import java.util.Arrays;
+
+/**
+ * Selects the best {@code k} entries of a score array without sorting all of it.
+ * <p>
+ * A bounded binary heap of indices keeps the best {@code k} seen so far with the worst of them at
+ * the root, so most candidates of a large set cost one comparison, and the heap is sorted in place
+ * at the end: {@code O(n log k)} instead of {@code O(n log n)}, without boxing. A selection of more
+ * than a quarter of the candidates, such as ordering a whole page, sorts all of them as primitive
+ * keys instead, which is faster there. Equal scores keep the order of their indices, as a stable
+ * sort would.
+ */
+public final class TopKSelector {
+
+    /**
+     * Selections deeper than this fraction of the candidates sort all of them instead.
+     */
+    private static final int FULL_SORT_DIVISOR = 4;
+
+    private TopKSelector() {
+    }
+
+    /**
+     * @param scores     the scores of all candidates
+     * @param k          how many candidates to select
+     * @param descending whether the highest scores are the best, otherwise the lowest
+     * @return the indices of the best {@code min(k, scores.length)} candidates, best first
+     */
+    public static int[] select(float[] scores, int k, boolean descending) {
+        int size = Math.max(0, Math.min(k, scores.length));
+        if (size > scores.length / FULL_SORT_DIVISOR) {
+            return sortAll(scores, size, descending);
+        }
+        int[] heap = new int[size];
+        if (size == 0) {
+            return heap;
+        }
+        int count = 0;
+        for (int i = 0; i < scores.length; i++) {
+            if (count < size) {
+                heap[count] = i;
+                siftUp(heap, count++, scores, descending);
+            } else if (worse(heap[0], i, scores, descending)) {
+                heap[0] = i;
+                siftDown(heap, 0, count, scores, descending);
+            }
+        }
+        // Move the worst remaining entry behind the heap until it is sorted best first
+        for (int end = count - 1; end > 0; end--) {
+            int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(heap, 0, end, scores, descending);
+        }
+        return heap;
+    }
+
+    /**
+     * Sorts all candidates by keys packing the score, in an order comparable as {@code long}, above the index.
+     */
+    private static int[] sortAll(float[] scores, int size, boolean descending) {
+        long[] keys = new long[scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            int bits = Float.floatToIntBits(scores[i]);
+            // Flip the magnitude of negative floats, so that signed int order matches Float.compare
+            bits ^= (bits >> 31) & 0x7fffffff;
+            keys[i] = ((long) (descending ? ~bits : bits) << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static void siftUp(int[] heap, int position, float[] scores, boolean descending) {
+        int entry = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!worse(entry, heap[parent], scores, descending)) {
+                break;
+            }
+            heap[position] = heap[parent];
+            position = parent;
+        }
+        heap[position] = entry;
+    }
+
+    private static void siftDown(int[] heap, int position, int count, float[] scores, boolean descending) {
+        int entry = heap[position];
+        int half = count >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < count && worse(heap[right], heap[child], scores, descending)) {
+                child = right;
+            }
+            if (!worse(heap[child], entry, scores, descending)) {
+                break;
+            }
+            heap[position] = heap[child];
+            position = child;
+        }
+        heap[position] = entry;
+    }
+
+    /**
+     * @return whether the candidate at index {@code a} ranks behind the one at {@code b}
+     */
+    private static boolean worse(int a, int b, float[] scores, boolean descending) {
+        int comparison = descending ? Float.compare(scores[a], scores[b]) : Float.compare(scores[b], scores[a]);
+        return comparison < 0 || (comparison == 0 && a > b);
+    }
+}
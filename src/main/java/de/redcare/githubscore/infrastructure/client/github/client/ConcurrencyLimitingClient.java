@@ -0,0 +1,42 @@
+package de.redcare.githubscore.infrastructure.client.github.client;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caps the number of concurrent GitHub requests.
+ * <p>
+ * With virtual threads the servlet container no longer bounds how many requests reach the
+ * GitHub client at once, so this bulkhead takes over that role. Waiting callers park on a
+ * {@link Semaphore}, which unmounts a virtual thread instead of pinning its carrier.
+ */
+public class ConcurrencyLimitingClient implements Client {
+
+    private final Client delegate;
+    private final Semaphore permits;
+
+    public ConcurrencyLimitingClient(Client delegate, int maxConcurrentRequests) {
+        this.delegate = delegate;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a GitHub request slot");
+        }
+        try {
+            return delegate.execute(request, options);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package de.redcare.githubscore.infrastructure.client.github.client;
 
 import de.redcare.githubscore.domain.exceptions.GitHubApiException;
+import de.redcare.githubscore.domain.exceptions.NotModifiedException;
 import de.redcare.githubscore.domain.exceptions.RateLimitExceededException;
 import feign.Response;
 import feign.codec.ErrorDecoder;
@@ -19,11 +20,16 @@ public class GitHubErrorDecoder implements ErrorDecoder {
     private static final Logger logger = LoggerFactory.getLogger(GitHubErrorDecoder.class);
     private static final String NO_BODY = "<no response body>";
     private static final String BODY_READ_ERROR = "<failed to read response body>";
+    private static final int NOT_MODIFIED = 304;
+    private static final int TOO_MANY_REQUESTS = 429;
 
     private final ErrorDecoder defaultDecoder = new Default();
 
     @Override
     public Exception decode(String methodKey, Response response) {
+        if (response.status() == NOT_MODIFIED) {
+            return new NotModifiedException(response.request().url());
+        }
         try {
             final int status = response.status();
             final String requestUrl = response.request().url();
@@ -32,12 +38,8 @@ public class GitHubErrorDecoder implements ErrorDecoder {
 
             logErrorDetails(requestUrl, status, headers, responseBody);
 
-            if (isRateLimitError(status, responseBody)) {
-                return createRateLimitException(status, requestUrl, responseBody, headers);
-            }
-
             if (isClientOrServerError(status)) {
-                return createGitHubApiException(methodKey, status, requestUrl, responseBody, headers);
+                return toException(methodKey, status, requestUrl, responseBody, headers);
             }
 
             return defaultDecoder.decode(methodKey, response);
@@ -46,7 +48,22 @@ public class GitHubErrorDecoder implements ErrorDecoder {
         }
     }
 
-    private void logErrorDetails(String url, int status, Map<String, String> headers, String body) {
+    /**
+     * Classifies an error response of GitHub, also for clients other than Feign.
+     *
+     * @param methodKey the called operation, for the message
+     * @param status    a status of at least 400
+     * @return a {@link RateLimitExceededException} for an exhausted rate limit, otherwise a {@link GitHubApiException}
+     */
+    static GitHubApiException toException(String methodKey, int status, String requestUrl, String responseBody,
+                                          Map<String, String> headers) {
+        if (isRateLimitError(status, responseBody)) {
+            return createRateLimitException(status, requestUrl, responseBody, headers);
+        }
+        return createGitHubApiException(methodKey, status, requestUrl, responseBody, headers);
+    }
+
+    static void logErrorDetails(String url, int status, Map<String, String> headers, String body) {
         if (logger.isErrorEnabled()) {
             logger.error("GitHub API request failed - URL: {}, Status: {}", url, status);
             logger.debug("Response headers: {}", headers);
@@ -54,8 +71,8 @@ public class GitHubErrorDecoder implements ErrorDecoder {
         }
     }
 
-    private boolean isRateLimitError(int status, String responseBody) {
-        return status == 403 &&
+    private static boolean isRateLimitError(int status, String responseBody) {
+        return status == TOO_MANY_REQUESTS || status == 403 &&
                 (responseBody.contains("API rate limit exceeded") ||
                         responseBody.contains("rate limit"));
     }
@@ -64,7 +81,7 @@ public class GitHubErrorDecoder implements ErrorDecoder {
         return status >= 400;
     }
 
-    private RateLimitExceededException createRateLimitException(
+    private static RateLimitExceededException createRateLimitException(
             int status, String url, String body, Map<String, String> headers) {
         long resetTime = parseResetTime(headers.get("x-ratelimit-reset"));
         return new RateLimitExceededException(
@@ -77,7 +94,7 @@ public class GitHubErrorDecoder implements ErrorDecoder {
         );
     }
 
-    private GitHubApiException createGitHubApiException(
+    private static GitHubApiException createGitHubApiException(
             String methodKey, int status, String url, String body, Map<String, String> headers) {
         String errorMessage = String.format(
                 "GitHub API request failed [%s] - Status: %d",
@@ -92,7 +109,7 @@ public class GitHubErrorDecoder implements ErrorDecoder {
         );
     }
 
-    private long parseResetTime(String resetHeader) {
+    private static long parseResetTime(String resetHeader) {
         try {
             return resetHeader != null ? Long.parseLong(resetHeader) : 0;
         } catch (NumberFormatException e) {
@@ -4,18 +4,31 @@ package de.redcare.githubscore.infrastructure.client.github.client;
 import de.redcare.githubscore.infrastructure.client.github.config.GitHubFeignConfig;
 import de.redcare.githubscore.infrastructure.client.github.models.GitHubSearchResponse;
 import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 
-@FeignClient( name = "GitHubApiClient", url = "${github.api.base-url}", configuration = GitHubFeignConfig.class, fallback = GitHubFallback.class)
+@FeignClient( name = "GitHubApiClient", url = "${github.api.base-url}", configuration = GitHubFeignConfig.class)
 public interface GitHubFeignClient {
 
+    /**
+     * Searches repositories. When a validator is passed, GitHub answers an unchanged result with
+     * {@code 304 Not Modified}, which surfaces as a
+     * {@link de.redcare.githubscore.domain.exceptions.NotModifiedException}.
+     *
+     * @param ifNoneMatch     the {@code ETag} of a previous response, or {@code null}
+     * @param ifModifiedSince the {@code Last-Modified} of a previous response, or {@code null}
+     */
     @GetMapping("/search/repositories")
-    GitHubSearchResponse searchRepositories(
+    ResponseEntity<GitHubSearchResponse> searchRepositories(
             @RequestParam("q") String query,
             @RequestParam("sort") String sort,
             @RequestParam("order") String order,
             @RequestParam("page") int page,
-            @RequestParam("perPage") int perPage
+            @RequestParam("per_page") int perPage,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince
     );
 }
\ No newline at end of file
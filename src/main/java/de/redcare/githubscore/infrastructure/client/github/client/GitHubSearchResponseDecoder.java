@@ -0,0 +1,123 @@
+package de.redcare.githubscore.infrastructure.client.github.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.infrastructure.client.github.models.GitHubSearchResponse;
+import feign.FeignException;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Decodes {@link GitHubSearchResponse} from the JSON token stream without binding the full payload.
+ * <p>
+ * A search item carries dozens of fields (owner, license, topics, a few dozen URLs) of which only
+ * seven are scored. The decoder reads those seven straight into a {@link Repository} and skips every
+ * other subtree token by token, so nothing else of the payload is materialized. The last update is
+ * kept as epoch seconds, a missing one as the epoch. Any other return type is handed to the delegate.
+ */
+public class GitHubSearchResponseDecoder implements Decoder {
+
+    private final JsonFactory jsonFactory;
+    private final Decoder delegate;
+
+    public GitHubSearchResponseDecoder(JsonFactory jsonFactory, Decoder delegate) {
+        this.jsonFactory = jsonFactory;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException, FeignException {
+        if (type != GitHubSearchResponse.class) {
+            return delegate.decode(response, type);
+        }
+        if (response.body() == null) {
+            return null;
+        }
+        try (InputStream body = response.body().asInputStream();
+             JsonParser parser = jsonFactory.createParser(body)) {
+            return readSearchResponse(parser);
+        } catch (DateTimeParseException | IllegalStateException e) {
+            throw new DecodeException(response.status(), "Malformed GitHub search response: " + e.getMessage(),
+                    response.request(), e);
+        }
+    }
+
+    /**
+     * Reads a search response from a parser positioned before its root object.
+     */
+    public static GitHubSearchResponse readSearchResponse(JsonParser parser) throws IOException {
+        expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+        int totalCount = 0;
+        boolean incompleteResults = false;
+        List<Repository> items = List.of();
+
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "total_count" -> totalCount = parser.getValueAsInt();
+                case "incomplete_results" -> incompleteResults = parser.getValueAsBoolean();
+                case "items" -> items = value == JsonToken.START_ARRAY ? readItems(parser) : List.of();
+                default -> parser.skipChildren();
+            }
+        }
+        return new GitHubSearchResponse(totalCount, incompleteResults, items);
+    }
+
+    private static List<Repository> readItems(JsonParser parser) throws IOException {
+        List<Repository> items = new ArrayList<>(100);
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            expect(token, JsonToken.START_OBJECT);
+            items.add(readRepository(parser));
+        }
+        return items;
+    }
+
+    private static Repository readRepository(JsonParser parser) throws IOException {
+        long id = 0;
+        String name = null;
+        String url = null;
+        long stars = 0;
+        long forks = 0;
+        String language = null;
+        long updatedAt = 0;
+
+        String field;
+        while ((field = parser.nextFieldName()) != null) {
+            parser.nextToken();
+            switch (field) {
+                case "id" -> id = parser.getValueAsLong();
+                case "name" -> name = parser.getValueAsString();
+                case "url" -> url = parser.getValueAsString();
+                case "stargazers_count" -> stars = parser.getValueAsLong();
+                case "forks_count" -> forks = parser.getValueAsLong();
+                case "language" -> language = parser.getValueAsString();
+                case "updated_at" -> {
+                    String text = parser.getValueAsString();
+                    updatedAt = text != null ? Instant.parse(text).getEpochSecond() : 0;
+                }
+                default -> parser.skipChildren();
+            }
+        }
+        return new Repository(id, name, url, stars, forks, language, updatedAt);
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new IllegalStateException("Expected " + expected + " but found " + actual);
+        }
+    }
+}
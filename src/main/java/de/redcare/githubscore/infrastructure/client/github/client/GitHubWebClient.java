@@ -0,0 +1,178 @@
+package de.redcare.githubscore.infrastructure.client.github.client;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.redcare.githubscore.domain.exceptions.NotModifiedException;
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
+import de.redcare.githubscore.infrastructure.client.github.models.GitHubSearchResponse;
+import de.redcare.githubscore.infrastructure.client.github.ratelimit.GitHubCredentialPool;
+import de.redcare.githubscore.infrastructure.client.github.ratelimit.GitHubRateLimiter;
+import io.netty.channel.ChannelOption;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking counterpart of {@link GitHubFeignClient}: searches repositories with a
+ * {@link WebClient} on Reactor Netty, so a call waiting for GitHub holds no thread.
+ * <p>
+ * Calls share the {@link GitHubRateLimiter} and the tokens of the Feign client, and their responses
+ * are decoded by {@link GitHubSearchResponseDecoder#readSearchResponse(JsonParser)}. At most
+ * {@code max-concurrent-requests} calls are open at a time; further calls wait for a connection
+ * without blocking. Connection failures are retried like the Feign client does.
+ */
+@Component
+public class GitHubWebClient {
+
+    private static final int CONNECTION_TIMEOUT_MS = 1500;
+    private static final int READ_TIMEOUT_MS = 3000;
+    private static final String METHOD_KEY = "GitHubWebClient#searchRepositories";
+    /**
+     * Largest response buffered for decoding. A search page of 100 repositories with their
+     * descriptions, topics and owners exceeds the 256 KB WebClient buffers by default.
+     */
+    private static final int MAX_RESPONSE_BYTES = 16 * 1024 * 1024;
+
+    private final WebClient webClient;
+    private final GitHubRateLimiter rateLimiter;
+    private final JsonFactory jsonFactory;
+    private final GitHubApiProperties.Retry retry;
+    private final String baseUrl;
+
+    public GitHubWebClient(WebClient.Builder builder,
+                           GitHubApiProperties properties,
+                           GitHubRateLimiter rateLimiter,
+                           ObjectMapper objectMapper) {
+        HttpClient httpClient = HttpClient.create(ConnectionProvider.builder("github")
+                        .maxConnections(properties.maxConcurrentRequests())
+                        .pendingAcquireMaxCount(-1)
+                        .maxIdleTime(properties.transport().idleTimeout())
+                        .build())
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Math.min(properties.timeout(), CONNECTION_TIMEOUT_MS))
+                .responseTimeout(Duration.ofMillis(Math.min(properties.maxTimeout(), READ_TIMEOUT_MS)));
+        this.webClient = builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(MAX_RESPONSE_BYTES))
+                .build();
+        this.rateLimiter = rateLimiter;
+        this.jsonFactory = objectMapper.getFactory();
+        this.retry = properties.retry();
+        this.baseUrl = properties.baseUrl();
+    }
+
+    /**
+     * Searches repositories, like {@link GitHubFeignClient#searchRepositories}.
+     *
+     * @param ifNoneMatch     the {@code ETag} of a previous response, or {@code null}
+     * @param ifModifiedSince the {@code Last-Modified} of a previous response, or {@code null}
+     * @return the page with its headers; fails with {@link NotModifiedException} when GitHub answers
+     * {@code 304 Not Modified}, and with a {@link de.redcare.githubscore.domain.exceptions.GitHubApiException}
+     * for an error status
+     */
+    public Mono<ResponseEntity<GitHubSearchResponse>> searchRepositories(String query, String sort, String order,
+                                                                         int page, int perPage,
+                                                                         String ifNoneMatch, String ifModifiedSince) {
+        URI uri = UriComponentsBuilder.fromUriString(baseUrl)
+                .path("/search/repositories")
+                .queryParam("q", query)
+                .queryParamIfPresent("sort", Optional.ofNullable(sort))
+                .queryParamIfPresent("order", Optional.ofNullable(order))
+                .queryParam("page", page)
+                .queryParam("per_page", perPage)
+                .encode()
+                .build()
+                .toUri();
+        return Mono.defer(() -> send(uri, ifNoneMatch, ifModifiedSince))
+                .retryWhen(Retry.backoff(Math.max(0, retry.maxAttempts() - 1), Duration.ofMillis(retry.backoffDelayMs()))
+                        .maxBackoff(Duration.ofMillis(retry.backoffDelayMs() * 2))
+                        .filter(WebClientRequestException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private Mono<ResponseEntity<GitHubSearchResponse>> send(URI uri, String ifNoneMatch, String ifModifiedSince) {
+        // Leasing a token may wait for a pacing slot, which must not happen on an event loop
+        return Mono.fromCallable(() -> rateLimiter.acquire(uri.toString()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(credential -> webClient.get()
+                        .uri(uri)
+                        .headers(headers -> {
+                            if (credential.token() != null) {
+                                headers.setBearerAuth(credential.token());
+                            }
+                            if (ifNoneMatch != null) {
+                                headers.setIfNoneMatch(ifNoneMatch);
+                            }
+                            if (ifModifiedSince != null) {
+                                headers.set(HttpHeaders.IF_MODIFIED_SINCE, ifModifiedSince);
+                            }
+                        })
+                        .exchangeToMono(response -> response.toEntity(byte[].class))
+                        .doOnError(e -> rateLimiter.release(credential))
+                        .doOnCancel(() -> rateLimiter.release(credential))
+                        .map(response -> complete(credential, uri.toString(), response)));
+    }
+
+    private ResponseEntity<GitHubSearchResponse> complete(GitHubCredentialPool.Credential credential, String url,
+                                                          ResponseEntity<byte[]> response) {
+        int status = response.getStatusCode().value();
+        // Feign hands headers over with lower-case names, which the credential pool looks up
+        rateLimiter.update(credential, status, response.getHeaders().entrySet().stream()
+                .collect(Collectors.toMap(
+                        entry -> entry.getKey().toLowerCase(Locale.ROOT),
+                        entry -> (Collection<String>) entry.getValue(),
+                        (first, second) -> first)));
+
+        if (status == HttpStatus.NOT_MODIFIED.value()) {
+            throw new NotModifiedException(url);
+        }
+        byte[] body = response.getBody() == null ? new byte[0] : response.getBody();
+        if (status >= 400) {
+            String responseBody = new String(body, StandardCharsets.UTF_8);
+            Map<String, String> headers = flatten(response.getHeaders());
+            GitHubErrorDecoder.logErrorDetails(url, status, headers, responseBody);
+            throw GitHubErrorDecoder.toException(METHOD_KEY, status, url, responseBody, headers);
+        }
+        return new ResponseEntity<>(decode(body), response.getHeaders(), response.getStatusCode());
+    }
+
+    private GitHubSearchResponse decode(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return GitHubSearchResponseDecoder.readSearchResponse(parser);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Malformed GitHub search response", e);
+        }
+    }
+
+    private static Map<String, String> flatten(HttpHeaders headers) {
+        return headers.entrySet().stream()
+                .collect(Collectors.toMap(
+                        entry -> entry.getKey().toLowerCase(Locale.ROOT),
+                        entry -> String.join(", ", entry.getValue()),
+                        (first, second) -> first));
+    }
+}
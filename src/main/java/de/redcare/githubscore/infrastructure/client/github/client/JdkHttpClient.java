@@ -0,0 +1,163 @@
+package de.redcare.githubscore.infrastructure.client.github.client;
+
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Feign transport on the JDK {@link HttpClient}.
+ * <p>
+ * Unlike {@link Client.Default}, which opens an {@code HttpURLConnection} per call, the client keeps
+ * connections alive and, with HTTP/2, multiplexes concurrent calls (page fan-out, coalesced
+ * searches) as streams over one connection per host, so parallel fetches do not pay a TLS
+ * handshake each.
+ * <p>
+ * The JDK has no per-client pool: its settings are the JVM-wide {@code jdk.httpclient.*} system
+ * properties, read once when the first {@link HttpClient} of the JVM is built, whoever builds it. So
+ * {@link GitHubApiProperties.Transport} is applied there only where a property is not set yet; a
+ * property that is already set, by a {@code -D} flag or an earlier client with other settings, wins
+ * and the conflict is logged. The client does not expose its connections, so metrics are
+ * recorded per negotiated protocol: {@code github.http.client.requests} times calls by protocol and
+ * status, {@code github.http.client.in-flight} counts the streams currently open.
+ */
+@Lazy
+@Component
+public class JdkHttpClient implements Client {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdkHttpClient.class);
+
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("connection", "content-length", "expect", "host", "upgrade");
+
+    private final GitHubApiProperties.Transport transport;
+    private final MeterRegistry meterRegistry;
+    private final Map<ClientSettings, HttpClient> clients = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public JdkHttpClient(GitHubApiProperties properties, MeterRegistry meterRegistry) {
+        this.transport = properties.transport();
+        this.meterRegistry = meterRegistry;
+        configurePool(transport);
+        meterRegistry.gauge("github.http.client.in-flight", inFlight);
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        HttpClient client = clients.computeIfAbsent(
+                new ClientSettings(options.connectTimeoutMillis(), options.isFollowRedirects()), this::newHttpClient);
+
+        long start = System.nanoTime();
+        inFlight.incrementAndGet();
+        try {
+            HttpResponse<InputStream> response = client.send(toHttpRequest(request, options),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            Timer.builder("github.http.client.requests")
+                    .description("GitHub calls by negotiated protocol")
+                    .tag("protocol", response.version().name())
+                    .tag("status", String.valueOf(response.statusCode()))
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(System.nanoTime() - start));
+            return toFeignResponse(request, response);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while calling " + request.url());
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        clients.values().forEach(HttpClient::close);
+    }
+
+    private HttpClient newHttpClient(ClientSettings settings) {
+        return HttpClient.newBuilder()
+                .version(transport.http2() ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(settings.connectTimeoutMillis()))
+                .followRedirects(settings.followRedirects() ? HttpClient.Redirect.NORMAL : HttpClient.Redirect.NEVER)
+                .build();
+    }
+
+    private static HttpRequest toHttpRequest(Request request, Request.Options options) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(request.url()))
+                .timeout(Duration.ofMillis(options.readTimeoutMillis()))
+                .method(request.httpMethod().name(), request.body() == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(request.body()));
+        request.headers().forEach((name, values) -> {
+            if (!RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                values.forEach(value -> builder.header(name, value));
+            }
+        });
+        return builder.build();
+    }
+
+    private static Response toFeignResponse(Request request, HttpResponse<InputStream> response) throws IOException {
+        Map<String, List<String>> headers = response.headers().map();
+        InputStream body = response.body();
+        String encoding = response.headers().firstValue("content-encoding").orElse("");
+        if (encoding.equalsIgnoreCase("gzip")) {
+            body = new GZIPInputStream(body);
+        } else if (encoding.equalsIgnoreCase("deflate")) {
+            body = new InflaterInputStream(body);
+        }
+        Integer length = encoding.isEmpty()
+                ? response.headers().firstValueAsLong("content-length").stream().mapToObj(Math::toIntExact).findFirst().orElse(null)
+                : null;
+
+        return Response.builder()
+                .status(response.statusCode())
+                .headers(Map.<String, Collection<String>>copyOf(headers))
+                .body(body, length)
+                .request(request)
+                .protocolVersion(response.version() == HttpClient.Version.HTTP_2
+                        ? Request.ProtocolVersion.HTTP_2
+                        : Request.ProtocolVersion.HTTP_1_1)
+                .build();
+    }
+
+    private static void configurePool(GitHubApiProperties.Transport transport) {
+        String idleSeconds = String.valueOf(Math.max(1, transport.idleTimeout().toSeconds()));
+        setIfAbsent("jdk.httpclient.connectionPoolSize", String.valueOf(transport.maxIdleConnections()));
+        setIfAbsent("jdk.httpclient.keepalive.timeout", idleSeconds);
+        setIfAbsent("jdk.httpclient.keepalive.timeout.h2", idleSeconds);
+    }
+
+    private static synchronized void setIfAbsent(String property, String value) {
+        String current = System.getProperty(property);
+        if (current == null) {
+            System.setProperty(property, value);
+        } else if (!current.equals(value)) {
+            logger.warn("Keeping {}={} instead of {} from github.api.transport, the HTTP client pool is JVM-wide",
+                    property, current, value);
+        }
+    }
+
+    private record ClientSettings(int connectTimeoutMillis, boolean followRedirects) {
+    }
+}
@@ -1,6 +1,10 @@
 package de.redcare.githubscore.infrastructure.client.github.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.List;
 
 @ConfigurationProperties(prefix = "github.api")
 public record GitHubApiProperties(
@@ -8,8 +12,64 @@ public record GitHubApiProperties(
         String baseUrl,
         int timeout,          // connection timeout (ms)
         int maxTimeout,       // response timeout (ms)
-        Retry retry
+        int maxConcurrentRequests,
+        Retry retry,
+        Revalidation revalidation,
+        RateLimit rateLimit,
+        Transport transport,
+        Hedging hedging,
+        List<String> tokens   // personal access tokens to spread calls over; none for anonymous calls
 ) {
     public record Retry(int maxAttempts, long backoffDelayMs) {
     }
+
+    /**
+     * Conditional request settings.
+     *
+     * @param retention  how long ETag/Last-Modified validators and their pages are kept after a fetch
+     * @param heapBudget estimated heap the kept pages may take, counting their repositories in full
+     */
+    public record Revalidation(Duration retention, DataSize heapBudget) {
+    }
+
+    /**
+     * Outbound pacing driven by the {@code X-RateLimit-*} response headers.
+     *
+     * @param backgroundReserve share of the rate limit kept for interactive calls; background calls
+     *                          are rejected once the remaining budget falls to this share
+     * @param paceBelow         share of the rate limit below which interactive calls are spread
+     *                          evenly over the time left until the limit resets
+     * @param maxWait           longest an interactive call may be queued before it is rejected
+     */
+    public record RateLimit(double backgroundReserve, double paceBelow, Duration maxWait) {
+    }
+
+    /**
+     * HTTP transport of the GitHub client.
+     *
+     * @param type               {@code URL_CONNECTION} for one {@code HttpURLConnection} per call, {@code HTTP_CLIENT}
+     *                           for the pooled JDK {@code HttpClient}
+     * @param http2              whether the {@code HTTP_CLIENT} transport negotiates HTTP/2, multiplexing concurrent
+     *                           calls over one connection per host
+     * @param maxIdleConnections HTTP/1.1 connections kept alive for reuse, {@code 0} for no limit
+     * @param idleTimeout        how long an unused connection is kept open before it is evicted
+     */
+    public record Transport(Type type, boolean http2, int maxIdleConnections, Duration idleTimeout) {
+        public enum Type {
+            URL_CONNECTION,
+            HTTP_CLIENT
+        }
+    }
+
+    /**
+     * Hedged GitHub calls: a call that is still pending after the hedge delay gets a duplicate, the
+     * first answer wins and the other call is cancelled.
+     *
+     * @param enabled    whether calls are hedged at all
+     * @param percentile latency percentile of recent calls used as the hedge delay, e.g. {@code 0.95}
+     * @param minDelay   lower bound of the hedge delay
+     * @param budget     share of the calls that may be duplicated, e.g. {@code 0.05} for at most 5 %
+     */
+    public record Hedging(boolean enabled, double percentile, Duration minDelay, double budget) {
+    }
 }
@@ -1,11 +1,28 @@
 package de.redcare.githubscore.infrastructure.client.github.config;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.redcare.githubscore.infrastructure.client.github.client.ConcurrencyLimitingClient;
 import de.redcare.githubscore.infrastructure.client.github.client.GitHubErrorDecoder;
+import de.redcare.githubscore.infrastructure.client.github.client.GitHubSearchResponseDecoder;
+import de.redcare.githubscore.infrastructure.client.github.client.JdkHttpClient;
+import de.redcare.githubscore.infrastructure.client.github.hedging.HedgingClient;
+import de.redcare.githubscore.infrastructure.client.github.hedging.HedgingPolicy;
+import de.redcare.githubscore.infrastructure.client.github.ratelimit.GitHubRateLimiter;
+import de.redcare.githubscore.infrastructure.client.github.ratelimit.RateLimitAwareClient;
+import feign.Client;
 import feign.Logger;
 import feign.Request;
 import feign.Retryer;
+import feign.codec.Decoder;
 import feign.codec.ErrorDecoder;
+import feign.optionals.OptionalDecoder;
+import org.springframework.beans.factory.ObjectFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.HttpMessageConverterCustomizer;
+import org.springframework.cloud.openfeign.support.ResponseEntityDecoder;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,9 +34,18 @@ public class GitHubFeignConfig {
     private static final int READ_TIMEOUT_MS = 3000;
 
     private final GitHubApiProperties properties;
+    private final GitHubRateLimiter rateLimiter;
+    private final ObjectProvider<JdkHttpClient> jdkHttpClient;
+    private final HedgingPolicy hedgingPolicy;
 
-    public GitHubFeignConfig(GitHubApiProperties properties) {
+    public GitHubFeignConfig(GitHubApiProperties properties,
+                             GitHubRateLimiter rateLimiter,
+                             ObjectProvider<JdkHttpClient> jdkHttpClient,
+                             HedgingPolicy hedgingPolicy) {
         this.properties = properties;
+        this.rateLimiter = rateLimiter;
+        this.jdkHttpClient = jdkHttpClient;
+        this.hedgingPolicy = hedgingPolicy;
     }
 
     @Bean
@@ -33,6 +59,33 @@ public class GitHubFeignConfig {
         );
     }
 
+    @Bean
+    public Client feignClient() {
+        Client transport = switch (properties.transport().type()) {
+            case URL_CONNECTION -> new Client.Default(null, null);
+            case HTTP_CLIENT -> jdkHttpClient.getObject();
+        };
+        Client client = new RateLimitAwareClient(
+                new ConcurrencyLimitingClient(transport, properties.maxConcurrentRequests()),
+                rateLimiter
+        );
+        return hedgingPolicy.enabled() ? new HedgingClient(client, hedgingPolicy) : client;
+    }
+
+    /**
+     * Streams search responses straight into domain repositories; everything else goes through
+     * the usual Spring message converters.
+     */
+    @Bean
+    public Decoder feignDecoder(ObjectMapper objectMapper,
+                                ObjectFactory<HttpMessageConverters> messageConverters,
+                                ObjectProvider<HttpMessageConverterCustomizer> customizers) {
+        return new OptionalDecoder(new ResponseEntityDecoder(new GitHubSearchResponseDecoder(
+                objectMapper.getFactory(),
+                new SpringDecoder(messageConverters, customizers)
+        )));
+    }
+
     @Bean
     public Logger.Level feignLoggerLevel() {
         return properties.isDebug() ? Logger.Level.FULL : Logger.Level.BASIC;
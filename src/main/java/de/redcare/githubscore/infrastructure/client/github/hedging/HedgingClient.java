@@ -0,0 +1,178 @@
+package de.redcare.githubscore.infrastructure.client.github.hedging;
+
+import de.redcare.githubscore.infrastructure.client.github.ratelimit.OutboundPriority;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cuts the latency tail of GitHub calls by hedging: a {@code GET} that has not been answered within
+ * the {@link HedgingPolicy} delay is sent a second time, the first response wins and the other call is
+ * interrupted and its response, if any, closed.
+ * <p>
+ * Both attempts run on virtual threads with the {@link OutboundPriority} of the caller, and each one
+ * passes the wrapped client on its own, so a hedge takes its own rate-limit slot. Failures are not
+ * hedged: a call failing before the delay fails right away and is left to the retryer.
+ */
+public class HedgingClient implements Client {
+
+    private final Client delegate;
+    private final HedgingPolicy policy;
+    private final ExecutorService executor;
+
+    public HedgingClient(Client delegate, HedgingPolicy policy) {
+        this(delegate, policy, Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("github-hedge-", 0).factory()));
+    }
+
+    HedgingClient(Client delegate, HedgingPolicy policy, ExecutorService executor) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.executor = executor;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        if (!policy.enabled() || request.httpMethod() != Request.HttpMethod.GET) {
+            return delegate.execute(request, options);
+        }
+        long delayNanos = policy.admit();
+        if (delayNanos < 0) {
+            long start = System.nanoTime();
+            Response response = delegate.execute(request, options);
+            policy.record(System.nanoTime() - start);
+            return response;
+        }
+
+        OutboundPriority priority = OutboundPriority.current();
+        Attempt primary = send(request, options, priority);
+        try {
+            return primary.result().get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // Slower than the hedge delay, hedge below
+        } catch (InterruptedException e) {
+            primary.cancel();
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+        if (!policy.tryHedge()) {
+            return await(primary.result(), request, primary);
+        }
+
+        Attempt hedge = send(request, options, priority);
+        CompletableFuture<Response> first = firstSuccessful(primary, hedge);
+        try {
+            Response response = await(first, request, primary, hedge);
+            if (hedge.result().isDone() && !hedge.result().isCompletedExceptionally() && hedge.result().join() == response) {
+                primary.cancel();
+                policy.hedgeWon();
+            } else {
+                hedge.cancel();
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            primary.cancel();
+            hedge.cancel();
+            throw e;
+        }
+    }
+
+    private Attempt send(Request request, Request.Options options, OutboundPriority priority) {
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        Future<?> task = executor.submit(() -> {
+            long start = System.nanoTime();
+            try {
+                Response response = priority.run(() -> {
+                    try {
+                        return delegate.execute(request, options);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                policy.record(System.nanoTime() - start);
+                if (!result.complete(response)) {
+                    response.close();
+                }
+            } catch (UncheckedIOException e) {
+                result.completeExceptionally(e.getCause());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return new Attempt(result, task);
+    }
+
+    /**
+     * Completes with the first response of either attempt, or with the failure of the primary attempt
+     * once both failed. A response arriving after the winner is closed.
+     */
+    private static CompletableFuture<Response> firstSuccessful(Attempt primary, Attempt hedge) {
+        CompletableFuture<Response> first = new CompletableFuture<>();
+        AtomicInteger failed = new AtomicInteger();
+        for (Attempt attempt : new Attempt[]{primary, hedge}) {
+            attempt.result().whenComplete((response, error) -> {
+                if (error == null) {
+                    if (!first.complete(response)) {
+                        response.close();
+                    }
+                } else if (failed.incrementAndGet() == 2) {
+                    primary.result().whenComplete((ignored, primaryError) -> first.completeExceptionally(primaryError));
+                }
+            });
+        }
+        return first;
+    }
+
+    private static Response await(CompletableFuture<Response> result, Request request, Attempt... attempts)
+            throws IOException {
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            for (Attempt attempt : attempts) {
+                attempt.cancel();
+            }
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + request.url());
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IOException(cause);
+    }
+
+    private record Attempt(CompletableFuture<Response> result, Future<?> task) {
+
+        /**
+         * Interrupts the call; a response it still produces is closed by whoever loses the race.
+         */
+        void cancel() {
+            task.cancel(true);
+            result.thenAccept(Response::close);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package de.redcare.githubscore.infrastructure.client.github.hedging;
+
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Decides when a GitHub call gets a hedge, i.e. a duplicate sent while the first one is still pending.
+ * <p>
+ * The hedge delay is the configured percentile of the latencies of the last {@value #WINDOW}
+ * calls, but never below {@code minDelay}; until {@value #MIN_SAMPLES} calls have been measured
+ * nothing is hedged. Hedges are paid from a token bucket that every call refills by {@code budget}
+ * tokens, so at most that share of the traffic is duplicated and bursts stay below
+ * {@value #MAX_BURST} hedges.
+ */
+@Component
+public class HedgingPolicy {
+
+    static final int WINDOW = 1024;
+    static final int MIN_SAMPLES = 20;
+    static final double MAX_BURST = 10;
+    private static final int RECOMPUTE_EVERY = 32;
+
+    private final GitHubApiProperties.Hedging settings;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter sent;
+    private final Counter won;
+    private final Counter budgetExhausted;
+
+    // Guarded by lock
+    private final long[] latencies = new long[WINDOW];
+    private int samples;
+    private int next;
+    private long delayNanos = -1;
+    private double tokens;
+
+    @Autowired
+    public HedgingPolicy(GitHubApiProperties properties, MeterRegistry meterRegistry) {
+        this(properties.hedging(), meterRegistry);
+    }
+
+    HedgingPolicy(GitHubApiProperties.Hedging settings, MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.sent = Counter.builder("github.hedge.sent")
+                .description("Duplicate calls sent because the first call was slower than the hedge delay")
+                .register(meterRegistry);
+        this.won = Counter.builder("github.hedge.won")
+                .description("Hedged calls answered by the duplicate before the first call")
+                .register(meterRegistry);
+        this.budgetExhausted = Counter.builder("github.hedge.budget-exhausted")
+                .description("Slow calls that were not hedged because the hedge budget was used up")
+                .register(meterRegistry);
+        Gauge.builder("github.hedge.delay", this, policy -> policy.delayNanos() / 1_000_000.0)
+                .description("Current hedge delay in milliseconds, -1 while not enough latencies are known")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    public boolean enabled() {
+        return settings.enabled();
+    }
+
+    /**
+     * Counts a call towards the hedge budget.
+     *
+     * @return how long to wait for the call before hedging it, or {@code -1} if it must not be hedged
+     */
+    public long admit() {
+        lock.lock();
+        try {
+            tokens = Math.min(MAX_BURST, tokens + settings.budget());
+            return delayNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes one hedge from the budget.
+     *
+     * @return {@code false} if the budget is used up
+     */
+    public boolean tryHedge() {
+        lock.lock();
+        try {
+            if (tokens < 1) {
+                budgetExhausted.increment();
+                return false;
+            }
+            tokens--;
+            sent.increment();
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Counts a hedge that answered before the call it duplicated.
+     */
+    public void hedgeWon() {
+        won.increment();
+    }
+
+    /**
+     * Records the latency of a completed call.
+     */
+    public void record(long nanos) {
+        lock.lock();
+        try {
+            latencies[next] = nanos;
+            next = (next + 1) % WINDOW;
+            samples = Math.min(samples + 1, WINDOW);
+            if (samples >= MIN_SAMPLES && (delayNanos < 0 || next % RECOMPUTE_EVERY == 0)) {
+                long[] sorted = Arrays.copyOf(latencies, samples);
+                Arrays.sort(sorted);
+                int index = (int) Math.min(samples - 1, Math.ceil(samples * settings.percentile()) - 1);
+                delayNanos = Math.max(sorted[Math.max(0, index)], settings.minDelay().toNanos());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long delayNanos() {
+        lock.lock();
+        try {
+            return delayNanos;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -1,10 +1,16 @@
 package de.redcare.githubscore.infrastructure.client.github.models;
 
+import de.redcare.githubscore.domain.model.Repository;
+
 import java.util.List;
 
+/**
+ * One page of the GitHub repository search. The items are decoded straight into domain
+ * {@link Repository} instances by {@link de.redcare.githubscore.infrastructure.client.github.client.GitHubSearchResponseDecoder}.
+ */
 public record GitHubSearchResponse(
         int total_count,
         boolean incomplete_results,
-        List<GitHubRepositoryDto> items
+        List<Repository> items
 ) {
 }
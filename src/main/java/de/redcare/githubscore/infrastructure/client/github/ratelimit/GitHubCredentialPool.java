@@ -0,0 +1,284 @@
+package de.redcare.githubscore.infrastructure.client.github.ratelimit;
+
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The GitHub identities calls are made with, each with its own rate-limit quota.
+ * <p>
+ * Every configured token is tracked separately from the {@code X-RateLimit-*} headers of the
+ * responses it received. A call is routed to the token with the most headroom left; a token whose
+ * quota is used up (or that GitHub asked to back off via {@code Retry-After}) is quarantined until
+ * its window resets. Without configured tokens the pool holds a single anonymous identity.
+ */
+@Component
+public class GitHubCredentialPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitHubCredentialPool.class);
+
+    static final String LIMIT_HEADER = "x-ratelimit-limit";
+    static final String REMAINING_HEADER = "x-ratelimit-remaining";
+    static final String RESET_HEADER = "x-ratelimit-reset";
+    static final String RETRY_AFTER_HEADER = "retry-after";
+
+    private final List<Credential> credentials;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    @Autowired
+    public GitHubCredentialPool(GitHubApiProperties properties) {
+        this(properties.tokens(), Clock.systemUTC());
+    }
+
+    GitHubCredentialPool(List<String> tokens, Clock clock) {
+        this.clock = clock;
+        List<Credential> configured = new ArrayList<>();
+        if (tokens != null) {
+            for (String token : tokens) {
+                if (token != null && !token.isBlank()) {
+                    configured.add(new Credential("token-" + (configured.size() + 1), token.trim()));
+                }
+            }
+        }
+        if (configured.isEmpty()) {
+            configured.add(new Credential("anonymous", null));
+        }
+        this.credentials = List.copyOf(configured);
+    }
+
+    /**
+     * Combined quota of the tokens that are not quarantined. When every token is quarantined,
+     * nothing is available until the earliest of them resets.
+     */
+    public Quota quota() {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            long limit = 0;
+            long remaining = 0;
+            int inFlight = 0;
+            long nextResetMillis = Long.MAX_VALUE;
+            for (Credential credential : credentials) {
+                credential.refresh(now);
+                if (credential.limit < 0) {
+                    return Quota.UNKNOWN;
+                }
+                long resetMillis = credential.isQuarantined(now)
+                        ? credential.quarantinedUntilMillis
+                        : credential.resetEpochSecond * 1000;
+                if (resetMillis > now) {
+                    nextResetMillis = Math.min(nextResetMillis, resetMillis);
+                }
+                if (credential.isQuarantined(now)) {
+                    continue;
+                }
+                limit += credential.limit;
+                remaining += credential.remaining;
+                inFlight += credential.inFlight;
+            }
+            long reset = nextResetMillis == Long.MAX_VALUE ? now / 1000 : Math.ceilDiv(nextResetMillis, 1000);
+            return new Quota(limit, remaining, inFlight, reset);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Leases the token with the most headroom for one call. Tokens that have not been used yet come
+     * first, so their quota gets known. When every token is quarantined, the one released first is
+     * leased. Every lease must be returned through {@link #update} or {@link #release}.
+     */
+    public Credential lease() {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            Credential best = null;
+            for (Credential credential : credentials) {
+                credential.refresh(now);
+                if (best == null || credential.compareTo(best, now) > 0) {
+                    best = credential;
+                }
+            }
+            best.inFlight++;
+            return best;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a leased token with the status and headers of its response.
+     */
+    public void update(Credential credential, int status, Map<String, Collection<String>> headers) {
+        Long limit = header(headers, LIMIT_HEADER);
+        Long remaining = header(headers, REMAINING_HEADER);
+        Long reset = header(headers, RESET_HEADER);
+        Long retryAfter = status == 403 || status == 429 ? header(headers, RETRY_AFTER_HEADER) : null;
+
+        lock.lock();
+        try {
+            long now = clock.millis();
+            credential.inFlight = Math.max(0, credential.inFlight - 1);
+            if (limit != null && remaining != null && reset != null) {
+                credential.limit = limit;
+                credential.remaining = remaining;
+                credential.resetEpochSecond = reset;
+                if (remaining == 0 && reset * 1000 > now) {
+                    quarantine(credential, reset * 1000);
+                }
+            }
+            if (retryAfter != null) {
+                quarantine(credential, now + retryAfter * 1000);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a leased token whose call produced no response.
+     */
+    public void release(Credential credential) {
+        lock.lock();
+        try {
+            credential.inFlight = Math.max(0, credential.inFlight - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the quota of every token, without the tokens themselves
+     */
+    public List<CredentialStatus> status() {
+        lock.lock();
+        try {
+            long now = clock.millis();
+            return credentials.stream()
+                    .peek(credential -> credential.refresh(now))
+                    .map(credential -> new CredentialStatus(
+                            credential.label,
+                            credential.limit,
+                            credential.limit < 0 ? -1 : credential.remaining,
+                            credential.limit < 0 ? null : Instant.ofEpochSecond(credential.resetEpochSecond),
+                            credential.inFlight,
+                            credential.isQuarantined(now) ? Instant.ofEpochMilli(credential.quarantinedUntilMillis) : null))
+                    .toList();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void quarantine(Credential credential, long untilMillis) {
+        if (untilMillis > credential.quarantinedUntilMillis) {
+            credential.quarantinedUntilMillis = untilMillis;
+            logger.warn("GitHub {} quarantined until {}", credential.label, Instant.ofEpochMilli(untilMillis));
+        }
+    }
+
+    private static Long header(Map<String, Collection<String>> headers, String name) {
+        Collection<String> values = headers.get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(values.iterator().next().trim());
+        } catch (NumberFormatException e) {
+            logger.warn("Ignoring malformed {} header: {}", name, values);
+            return null;
+        }
+    }
+
+    /**
+     * One GitHub identity. Its quota is guarded by the pool's lock.
+     */
+    public static final class Credential {
+        private final String label;
+        private final String token;
+
+        private long limit = -1;
+        private long remaining;
+        private long resetEpochSecond;
+        private int inFlight;
+        private long quarantinedUntilMillis;
+
+        private Credential(String label, String token) {
+            this.label = label;
+            this.token = token;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        /**
+         * @return the token to authenticate with, or {@code null} for anonymous calls
+         */
+        public String token() {
+            return token;
+        }
+
+        private void refresh(long now) {
+            if (limit >= 0 && now >= resetEpochSecond * 1000) {
+                remaining = limit;
+            }
+        }
+
+        private boolean isQuarantined(long now) {
+            return now < quarantinedUntilMillis;
+        }
+
+        private long headroom() {
+            return limit < 0 ? Long.MAX_VALUE - inFlight : remaining - inFlight;
+        }
+
+        private int compareTo(Credential other, long now) {
+            boolean quarantined = isQuarantined(now);
+            if (quarantined != other.isQuarantined(now)) {
+                return quarantined ? -1 : 1;
+            }
+            if (quarantined) {
+                return Long.compare(other.quarantinedUntilMillis, quarantinedUntilMillis);
+            }
+            return Long.compare(headroom(), other.headroom());
+        }
+    }
+
+    /**
+     * Combined quota of the available tokens.
+     *
+     * @param limit            requests allowed per window, or {@code -1} while a token's quota is unknown
+     * @param remaining        requests left in the current windows
+     * @param inFlight         calls currently using the quota
+     * @param resetEpochSecond when the earliest window resets or quarantine ends
+     */
+    public record Quota(long limit, long remaining, int inFlight, long resetEpochSecond) {
+        static final Quota UNKNOWN = new Quota(-1, 0, 0, 0);
+
+        public boolean isKnown() {
+            return limit >= 0;
+        }
+
+        public long available() {
+            return remaining - inFlight;
+        }
+    }
+
+    /**
+     * Quota of one token as shown by the {@code githubtokens} actuator endpoint.
+     */
+    public record CredentialStatus(String label, long limit, long remaining, Instant reset, int inFlight,
+                                   Instant quarantinedUntil) {
+    }
+}
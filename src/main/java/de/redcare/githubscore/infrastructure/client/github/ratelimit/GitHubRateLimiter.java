@@ -0,0 +1,183 @@
+package de.redcare.githubscore.infrastructure.client.github.ratelimit;
+
+import de.redcare.githubscore.domain.exceptions.RateLimitExceededException;
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket over the GitHub rate limit, fed by the {@code X-RateLimit-*} headers of every response.
+ * <p>
+ * The bucket holds the remaining requests of the current windows of all available tokens in the
+ * {@link GitHubCredentialPool}, minus the calls still in flight. Before a call is sent,
+ * {@link #acquire(String)} decides whether it may go now, has to wait for a slot, or is rejected right away:
+ * <ul>
+ *     <li>while the budget is above {@code paceBelow}, interactive calls go immediately;</li>
+ *     <li>below it, interactive calls are queued and spread evenly over the time left until the next reset;</li>
+ *     <li>background calls are rejected once the budget falls to {@code backgroundReserve} or interactive
+ *     calls are queued, so they never take a slot from a client request;</li>
+ *     <li>a call whose slot lies further away than {@code maxWait} is rejected with
+ *     {@link RateLimitExceededException} instead of being sent to GitHub to fail.</li>
+ * </ul>
+ * Until every token has seen a response the budget is unknown and every call is let through.
+ */
+@Component
+public class GitHubRateLimiter {
+
+    private final GitHubCredentialPool credentials;
+    private final GitHubApiProperties.RateLimit settings;
+    private final Clock clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter delayed;
+    private final Counter rejectedInteractive;
+    private final Counter rejectedBackground;
+
+    // Guarded by lock
+    private int queuedInteractive;
+    private long nextSlotMillis;
+
+    @Autowired
+    public GitHubRateLimiter(GitHubCredentialPool credentials, GitHubApiProperties properties, MeterRegistry meterRegistry) {
+        this(credentials, properties.rateLimit(), meterRegistry, Clock.systemUTC());
+    }
+
+    GitHubRateLimiter(GitHubCredentialPool credentials, GitHubApiProperties.RateLimit settings,
+                      MeterRegistry meterRegistry, Clock clock) {
+        this.credentials = credentials;
+        this.settings = settings;
+        this.clock = clock;
+        this.delayed = Counter.builder("github.ratelimit.delayed")
+                .description("Calls queued to stay within the GitHub rate limit")
+                .register(meterRegistry);
+        this.rejectedInteractive = rejectedCounter(meterRegistry, OutboundPriority.INTERACTIVE);
+        this.rejectedBackground = rejectedCounter(meterRegistry, OutboundPriority.BACKGROUND);
+        Gauge.builder("github.ratelimit.remaining", this, GitHubRateLimiter::remaining)
+                .description("Requests left in the current GitHub rate-limit windows of all available tokens")
+                .register(meterRegistry);
+        Gauge.builder("github.ratelimit.limit", credentials, pool -> pool.quota().limit())
+                .description("Requests allowed per GitHub rate-limit window over all available tokens")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Waits until the current thread may send a call, according to its {@link OutboundPriority}, and
+     * leases the token to send it with. Every lease must be returned through
+     * {@link #update(GitHubCredentialPool.Credential, int, Map)} or {@link #release(GitHubCredentialPool.Credential)}.
+     *
+     * @param requestUrl the URL of the call, reported in a rejection
+     * @throws RateLimitExceededException if the call cannot be sent within the allowed wait
+     */
+    public GitHubCredentialPool.Credential acquire(String requestUrl) {
+        OutboundPriority priority = OutboundPriority.current();
+        GitHubCredentialPool.Credential credential;
+        long waitMillis;
+
+        lock.lock();
+        try {
+            GitHubCredentialPool.Quota quota = credentials.quota();
+            if (!quota.isKnown()) {
+                return credentials.lease();
+            }
+            long now = clock.millis();
+            long resetMillis = quota.resetEpochSecond() * 1000;
+            long available = quota.available();
+
+            if (priority == OutboundPriority.BACKGROUND) {
+                if (available <= Math.ceil(quota.limit() * settings.backgroundReserve())
+                        || queuedInteractive > 0 || now < nextSlotMillis) {
+                    rejectedBackground.increment();
+                    throw rejection(requestUrl, "GitHub rate-limit budget is reserved for interactive calls", quota);
+                }
+                return credentials.lease();
+            }
+
+            long slot;
+            long nextSlot;
+            if (available > 0) {
+                slot = Math.max(now, nextSlotMillis);
+                long spacing = available < quota.limit() * settings.paceBelow() ? Math.max(0, resetMillis - now) / available : 0;
+                nextSlot = slot + spacing;
+            } else {
+                slot = Math.max(resetMillis, nextSlotMillis);
+                nextSlot = slot;
+            }
+            waitMillis = slot - now;
+            if (waitMillis > settings.maxWait().toMillis()) {
+                rejectedInteractive.increment();
+                throw rejection(requestUrl, "GitHub API rate limit exceeded", quota);
+            }
+            nextSlotMillis = nextSlot;
+            credential = credentials.lease();
+            if (waitMillis > 0) {
+                queuedInteractive++;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (waitMillis > 0) {
+            awaitSlot(credential, waitMillis);
+        }
+        return credential;
+    }
+
+    /**
+     * Completes a call with the status and headers of its response.
+     */
+    public void update(GitHubCredentialPool.Credential credential, int status, Map<String, Collection<String>> headers) {
+        credentials.update(credential, status, headers);
+    }
+
+    /**
+     * Completes a call that produced no response.
+     */
+    public void release(GitHubCredentialPool.Credential credential) {
+        credentials.release(credential);
+    }
+
+    /**
+     * @return the requests left in the current windows of all available tokens, or {@code -1} while unknown
+     */
+    public long remaining() {
+        GitHubCredentialPool.Quota quota = credentials.quota();
+        return quota.isKnown() ? quota.remaining() : -1;
+    }
+
+    private void awaitSlot(GitHubCredentialPool.Credential credential, long waitMillis) {
+        delayed.increment();
+        try {
+            Thread.sleep(waitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            release(credential);
+            throw rejection(null, "Interrupted while waiting for the GitHub rate limit", credentials.quota());
+        } finally {
+            lock.lock();
+            try {
+                queuedInteractive--;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static RateLimitExceededException rejection(String requestUrl, String message, GitHubCredentialPool.Quota quota) {
+        return new RateLimitExceededException(429, message, requestUrl, null, Collections.emptyMap(), quota.resetEpochSecond());
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, OutboundPriority priority) {
+        return Counter.builder("github.ratelimit.rejected")
+                .description("Calls rejected before reaching GitHub to protect the rate limit")
+                .tag("priority", priority.name().toLowerCase())
+                .register(meterRegistry);
+    }
+}
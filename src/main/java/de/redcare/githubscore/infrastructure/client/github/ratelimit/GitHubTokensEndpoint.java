@@ -0,0 +1,27 @@
+package de.redcare.githubscore.infrastructure.client.github.ratelimit;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Shows the rate-limit quota of every GitHub token at {@code /actuator/githubtokens}. Tokens are
+ * listed by label only, never by value.
+ */
+@Component
+@Endpoint(id = "githubtokens")
+public class GitHubTokensEndpoint {
+
+    private final GitHubCredentialPool credentials;
+
+    public GitHubTokensEndpoint(GitHubCredentialPool credentials) {
+        this.credentials = credentials;
+    }
+
+    @ReadOperation
+    public List<GitHubCredentialPool.CredentialStatus> tokens() {
+        return credentials.status();
+    }
+}
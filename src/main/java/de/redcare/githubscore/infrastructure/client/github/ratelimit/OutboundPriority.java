@@ -0,0 +1,37 @@
+package de.redcare.githubscore.infrastructure.client.github.ratelimit;
+
+import java.util.function.Supplier;
+
+/**
+ * Priority of an outbound GitHub call, bound to the calling thread.
+ * <p>
+ * Calls made on behalf of a client request are {@link #INTERACTIVE}. Cache warming, prefetching
+ * and other background work runs as {@link #BACKGROUND} and is the first to give way when the
+ * rate-limit budget runs low.
+ */
+public enum OutboundPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<OutboundPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    /**
+     * @return the priority of calls made by the current thread
+     */
+    public static OutboundPriority current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code call} with this priority and restores the previous priority afterwards.
+     */
+    public <T> T run(Supplier<T> call) {
+        OutboundPriority previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package de.redcare.githubscore.infrastructure.client.github.ratelimit;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.springframework.http.HttpHeaders;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends every GitHub call through the {@link GitHubRateLimiter}: the call waits for its slot, is
+ * authenticated with the token that has the most headroom, and the {@code X-RateLimit-*} headers of
+ * its response refill that token's budget.
+ */
+public class RateLimitAwareClient implements Client {
+
+    private final Client delegate;
+    private final GitHubRateLimiter rateLimiter;
+
+    public RateLimitAwareClient(Client delegate, GitHubRateLimiter rateLimiter) {
+        this.delegate = delegate;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        GitHubCredentialPool.Credential credential = rateLimiter.acquire(request.url());
+        Response response;
+        try {
+            response = delegate.execute(authenticate(request, credential), options);
+        } catch (IOException | RuntimeException e) {
+            rateLimiter.release(credential);
+            throw e;
+        }
+        rateLimiter.update(credential, response.status(), response.headers());
+        return response;
+    }
+
+    private static Request authenticate(Request request, GitHubCredentialPool.Credential credential) {
+        if (credential.token() == null) {
+            return request;
+        }
+        Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        headers.put(HttpHeaders.AUTHORIZATION, List.of("Bearer " + credential.token()));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+                request.requestTemplate());
+    }
+}
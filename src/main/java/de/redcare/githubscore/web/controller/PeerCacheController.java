@@ -0,0 +1,178 @@
+package de.redcare.githubscore.web.controller;
+
+import de.redcare.githubscore.domain.cache.CacheStore;
+import de.redcare.githubscore.domain.cache.PageCodec;
+import de.redcare.githubscore.domain.cache.PeerCacheStore;
+import de.redcare.githubscore.domain.cache.StaleWhileRevalidateCache;
+import de.redcare.githubscore.domain.config.CacheProperties;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import io.swagger.v3.oas.annotations.Hidden;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Serves the {@code repositories} cache of this replica to its peers (see {@link PeerCacheStore}).
+ * <p>
+ * Both operations stay local: a lookup never calls GitHub or another peer, and a handed-over page is
+ * not forwarded again. Keys and pages travel in the binary form of {@link PageCodec}.
+ * <p>
+ * Only peers are served: a call must carry {@code cache.peers.secret} in
+ * {@link PeerCacheStore#SECRET_HEADER} and come from an address of one of the {@code members},
+ * otherwise it is refused with {@code 403 Forbidden}. Without it, anyone reaching the service could
+ * read the pages of other queries or plant made-up pages that would be served to all users. The
+ * member host names are resolved at startup and again every {@link #MEMBER_ADDRESSES_TTL}, by one
+ * call while the others check against the previous addresses, so calls never wait for DNS.
+ */
+@Hidden
+@RestController
+@ConditionalOnProperty(prefix = "cache.peers", name = "enabled", havingValue = "true")
+public class PeerCacheController {
+
+    static final Duration MEMBER_ADDRESSES_TTL = Duration.ofSeconds(30);
+
+    private final CacheManager cacheManager;
+    private final byte[] secret;
+    private final List<String> memberHosts;
+    private final AtomicBoolean resolving = new AtomicBoolean();
+    private volatile MemberAddresses memberAddresses;
+
+    public PeerCacheController(CacheManager cacheManager, CacheProperties properties) {
+        CacheProperties.Peers peers = properties.peers();
+        if (peers.secret().isBlank()) {
+            throw new IllegalStateException("cache.peers.secret must be set when cache.peers.enabled is true");
+        }
+        this.cacheManager = cacheManager;
+        this.secret = peers.secret().getBytes(StandardCharsets.UTF_8);
+        this.memberHosts = peers.members().stream()
+                .map(member -> URI.create(member.trim()).getHost())
+                .filter(Objects::nonNull)
+                .toList();
+        this.memberAddresses = resolve(memberHosts);
+    }
+
+    /**
+     * Answers the cached page of a key with its age, fresh or stale, or {@code 404}.
+     */
+    @PostMapping(path = PeerCacheStore.LOOKUP_PATH,
+            consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE, produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<byte[]> lookup(@RequestHeader(name = PeerCacheStore.SECRET_HEADER, required = false) String secret,
+                                         @RequestBody byte[] body, HttpServletRequest request) {
+        if (!isPeer(secret, request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        SearchKey key;
+        try {
+            key = PageCodec.decodeKey(body);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        CacheStore.StoredValue stored = PeerCacheStore.servePeer(() -> repositories().peek(key));
+        if (stored == null || !PageCodec.isPage(key, stored.value())) {
+            return ResponseEntity.notFound().build();
+        }
+        @SuppressWarnings("unchecked")
+        List<Repository> repositories = (List<Repository>) stored.value();
+        return ResponseEntity.ok(PageCodec.encode(new PageCodec.Page(key, stored.age(), repositories)));
+    }
+
+    /**
+     * Takes over a page another replica fetched from GitHub.
+     */
+    @PutMapping(path = PeerCacheStore.PATH, consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> store(@RequestHeader(name = PeerCacheStore.SECRET_HEADER, required = false) String secret,
+                                      @RequestBody byte[] body, HttpServletRequest request) {
+        if (!isPeer(secret, request.getRemoteAddr())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        PageCodec.Page page;
+        try {
+            page = PageCodec.decode(body);
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        PeerCacheStore.servePeer(() -> {
+            repositories().put(page.key(), page.repositories());
+            return null;
+        });
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * @return whether the call carries the shared secret, compared in constant time, and comes from
+     * an address the host name of a member resolves to
+     */
+    private boolean isPeer(String secret, String remoteAddress) {
+        if (secret == null || !MessageDigest.isEqual(this.secret, secret.getBytes(StandardCharsets.UTF_8))) {
+            return false;
+        }
+        try {
+            // The remote address is a literal, so this does not query DNS
+            return memberAddresses().contains(InetAddress.getByName(remoteAddress));
+        } catch (UnknownHostException e) {
+            return false;
+        }
+    }
+
+    private Set<InetAddress> memberAddresses() {
+        MemberAddresses current = memberAddresses;
+        if (System.nanoTime() - current.resolvedAt() >= MEMBER_ADDRESSES_TTL.toNanos()
+                && resolving.compareAndSet(false, true)) {
+            try {
+                current = resolve(memberHosts);
+                memberAddresses = current;
+            } finally {
+                resolving.set(false);
+            }
+        }
+        return current.addresses();
+    }
+
+    /**
+     * Resolves every member host; a host that does not resolve is left out until the next resolution.
+     */
+    private static MemberAddresses resolve(List<String> hosts) {
+        Set<InetAddress> addresses = new HashSet<>();
+        for (String host : hosts) {
+            try {
+                addresses.addAll(List.of(InetAddress.getAllByName(host)));
+            } catch (UnknownHostException e) {
+                // Not resolvable for now, e.g. a replica that is not up yet
+            }
+        }
+        return new MemberAddresses(Set.copyOf(addresses), System.nanoTime());
+    }
+
+    private StaleWhileRevalidateCache repositories() {
+        return (StaleWhileRevalidateCache) cacheManager.getCache("repositories");
+    }
+
+    /**
+     * The addresses the member host names resolved to, and the {@link System#nanoTime()} they were
+     * resolved at.
+     */
+    private record MemberAddresses(Set<InetAddress> addresses, long resolvedAt) {
+    }
+}
@@ -0,0 +1,68 @@
+package de.redcare.githubscore.web.controller;
+
+import de.redcare.githubscore.web.dto.RepositoryResponse;
+import de.redcare.githubscore.web.dto.SortBy;
+import de.redcare.githubscore.web.dto.SortOrder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * Non-blocking variant of {@link RepositoryRankingApi}: the same parameters and repositories,
+ * fetched from GitHub without holding a thread while a call is in flight.
+ */
+public interface ReactiveRepositoryRankingApi {
+
+    /**
+     * Fetches the same repositories as {@link RepositoryRankingApi#getRepositories}. As JSON the
+     * array is written once complete; as {@code application/x-ndjson} every repository is written
+     * as soon as it is scored, and GitHub pages are fetched only as fast as the client reads.
+     *
+     * @return the scored and sorted repositories
+     */
+    @Operation(
+            summary = "Get scored repositories without blocking",
+            parameters = {
+                    @Parameter(name = "searchQuery", in = ParameterIn.QUERY, required = true),
+                    @Parameter(name = "language", in = ParameterIn.QUERY),
+                    @Parameter(name = "sortBy", in = ParameterIn.QUERY, schema = @Schema(allowableValues = {"stars", "forks", "score"}, defaultValue = "stars")),
+                    @Parameter(name = "sortOrder", in = ParameterIn.QUERY, schema = @Schema(allowableValues = {"asc", "desc"}, defaultValue = "desc")),
+                    @Parameter(name = "pageNumber", in = ParameterIn.QUERY, schema = @Schema(defaultValue = "1")),
+                    @Parameter(name = "pageSize", in = ParameterIn.QUERY, description = "Up to 1000, fetched as concurrent GitHub pages", schema = @Schema(defaultValue = "10")),
+                    @Parameter(name = "createdAfter", in = ParameterIn.QUERY, description = "Only include repositories created after this date (YYYY-MM-DD)"),
+                    @Parameter(name = "starsWeight", in = ParameterIn.QUERY, description = "Overrides the stars weight; give all three weights, summing to 1.0"),
+                    @Parameter(name = "forksWeight", in = ParameterIn.QUERY, description = "Overrides the forks weight"),
+                    @Parameter(name = "recencyWeight", in = ParameterIn.QUERY, description = "Overrides the recency weight"),
+                    @Parameter(name = "maxStars", in = ParameterIn.QUERY, description = "Overrides the stars of a full stars score"),
+                    @Parameter(name = "maxForks", in = ParameterIn.QUERY, description = "Overrides the forks of a full forks score"),
+                    @Parameter(name = "maxRecencyDays", in = ParameterIn.QUERY, description = "Overrides the days until the recency score is zero")
+            }
+    )
+    Flux<RepositoryResponse> getRepositories(
+            @NotBlank @RequestParam(name = "searchQuery") String searchQuery,
+            @RequestParam(name = "language", required = false) String language,
+            @RequestParam(name = "sortBy", required = false, defaultValue = "STARS") SortBy sortBy,
+            @RequestParam(name = "sortOrder", required = false, defaultValue = "DESC") SortOrder sortOrder,
+            @Min(1) @RequestParam(name = "pageNumber", required = false, defaultValue = "1") Integer pageNumber,
+            @Min(1) @Max(1000) @RequestParam(name = "pageSize", required = false, defaultValue = "10") Integer pageSize,
+            @Schema(description = "Only include repositories created after this date (YYYY-MM-DD)", example = "2023-01-01")
+            @RequestParam(name = "createdAfter", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdAfter,
+            @Positive @RequestParam(name = "starsWeight", required = false) Float starsWeight,
+            @Positive @RequestParam(name = "forksWeight", required = false) Float forksWeight,
+            @Positive @RequestParam(name = "recencyWeight", required = false) Float recencyWeight,
+            @Positive @RequestParam(name = "maxStars", required = false) Float maxStars,
+            @Positive @RequestParam(name = "maxForks", required = false) Float maxForks,
+            @Positive @RequestParam(name = "maxRecencyDays", required = false) Integer maxRecencyDays
+    );
+
+}
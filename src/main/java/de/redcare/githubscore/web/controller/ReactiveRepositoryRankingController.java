@@ -0,0 +1,52 @@
+package de.redcare.githubscore.web.controller;
+
+import de.redcare.githubscore.domain.service.ReactiveScoringService;
+import de.redcare.githubscore.web.dto.RepositoryResponse;
+import de.redcare.githubscore.web.dto.SortBy;
+import de.redcare.githubscore.web.dto.SortOrder;
+import de.redcare.githubscore.web.mappers.RepositoryMapper;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+
+/**
+ * REST controller that implements {@link ReactiveRepositoryRankingApi}. The request thread is
+ * released as soon as the {@link Flux} is returned, and the response is written when GitHub answers.
+ */
+@RestController
+@RequestMapping("/api/v1/reactive/repos")
+public class ReactiveRepositoryRankingController implements ReactiveRepositoryRankingApi {
+
+    private final ReactiveScoringService reactiveScoringService;
+
+    public ReactiveRepositoryRankingController(ReactiveScoringService reactiveScoringService) {
+        this.reactiveScoringService = reactiveScoringService;
+    }
+
+    @Override
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<RepositoryResponse> getRepositories(
+            String searchQuery,
+            String language,
+            SortBy sortBy,
+            SortOrder sortOrder,
+            Integer pageNumber,
+            Integer pageSize,
+            LocalDate createdAfter,
+            Float starsWeight,
+            Float forksWeight,
+            Float recencyWeight,
+            Float maxStars,
+            Float maxForks,
+            Integer maxRecencyDays
+    ) {
+        return reactiveScoringService.fetchRepositoriesScores(RepositoryRankingController.searchRequest(
+                        searchQuery, language, sortBy, sortOrder, pageNumber, pageSize, createdAfter,
+                        starsWeight, forksWeight, recencyWeight, maxStars, maxForks, maxRecencyDays))
+                .map(RepositoryMapper::toResponse);
+    }
+}
@@ -0,0 +1,31 @@
+package de.redcare.githubscore.web.controller;
+
+import de.redcare.githubscore.web.dto.BatchSearchQuery;
+import de.redcare.githubscore.web.dto.BatchSearchResult;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
+
+/**
+ * API contract for searching several queries in one request.
+ */
+public interface RepositoryBatchApi {
+
+    /**
+     * Searches several queries at once. Identical queries are searched once, and a query that fails
+     * is reported in its own result without failing the others.
+     *
+     * @param queries the queries, each with the parameters of {@code GET /api/v1/repos}
+     * @return one result per query, in the same order
+     */
+    @Operation(
+            summary = "Get scored repositories of several queries",
+            description = "Answers 200 with one result per query, in order; each carries the status, repositories "
+                    + "or error the query would have been answered with on its own"
+    )
+    List<BatchSearchResult> searchBatch(@RequestBody @NotEmpty List<@NotNull @Valid BatchSearchQuery> queries);
+}
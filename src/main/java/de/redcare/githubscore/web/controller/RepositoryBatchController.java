@@ -0,0 +1,74 @@
+package de.redcare.githubscore.web.controller;
+
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.service.BatchScoringService;
+import de.redcare.githubscore.web.dto.BatchSearchQuery;
+import de.redcare.githubscore.web.dto.BatchSearchResult;
+import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import de.redcare.githubscore.web.exception.GlobalExceptionHandler;
+import de.redcare.githubscore.web.mappers.RepositoryMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * REST controller that implements {@link RepositoryBatchApi}. Malformed queries reject the whole
+ * batch with {@code 400 Bad Request}; queries failing while they are searched are reported in their
+ * results with the error {@link GlobalExceptionHandler} would have answered them with.
+ */
+@RestController
+@RequestMapping("/api/v1/repos")
+public class RepositoryBatchController implements RepositoryBatchApi {
+
+    private final BatchScoringService batchScoringService;
+    private final GlobalExceptionHandler exceptionHandler;
+
+    public RepositoryBatchController(BatchScoringService batchScoringService, GlobalExceptionHandler exceptionHandler) {
+        this.batchScoringService = batchScoringService;
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    @Override
+    @PostMapping("/batch")
+    public List<BatchSearchResult> searchBatch(List<BatchSearchQuery> queries) {
+        List<RepositorySearchRequest> requests = new ArrayList<>(queries.size());
+        for (int i = 0; i < queries.size(); i++) {
+            try {
+                requests.add(queries.get(i).toSearchRequest());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Query " + i + ": " + e.getMessage(), e);
+            }
+        }
+
+        List<CompletableFuture<List<ScoredRepository>>> results;
+        try {
+            results = batchScoringService.fetchRepositoriesScores(requests);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+        return results.stream()
+                .map(this::toResult)
+                .toList();
+    }
+
+    private BatchSearchResult toResult(CompletableFuture<List<ScoredRepository>> result) {
+        try {
+            return BatchSearchResult.succeeded(result.join()
+                    .stream()
+                    .map(RepositoryMapper::toResponse)
+                    .toList());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                return BatchSearchResult.failed(exceptionHandler.handle(cause).getBody());
+            }
+            throw e;
+        }
+    }
+}
@@ -11,8 +11,11 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -32,6 +35,12 @@ public interface RepositoryRankingApi {
      * @param pageNumber   the page number for pagination (starting from 1).
      * @param pageSize     the number of repositories per page.
      * @param createdAfter filter for repositories created after the given date (optional).
+     * @param starsWeight    weight of stars for this request; the three weights are given together and sum to 1.0 (optional).
+     * @param forksWeight    weight of forks for this request (optional).
+     * @param recencyWeight  weight of recency for this request (optional).
+     * @param maxStars       stars of a full stars score for this request (optional).
+     * @param maxForks       forks of a full forks score for this request (optional).
+     * @param maxRecencyDays days until the recency score is zero for this request (optional).
      * @return a list of scored and sorted repositories.
      */
     @Operation(
@@ -43,7 +52,13 @@ public interface RepositoryRankingApi {
                     @Parameter(name = "sortOrder", in = ParameterIn.QUERY, schema = @Schema(allowableValues = {"asc", "desc"}, defaultValue = "desc")),
                     @Parameter(name = "pageNumber", in = ParameterIn.QUERY, schema = @Schema(defaultValue = "1")),
                     @Parameter(name = "pageSize", in = ParameterIn.QUERY, schema = @Schema(defaultValue = "10")),
-                    @Parameter(name = "createdAfter", in = ParameterIn.QUERY, description = "Only include repositories created after this date (YYYY-MM-DD)")
+                    @Parameter(name = "createdAfter", in = ParameterIn.QUERY, description = "Only include repositories created after this date (YYYY-MM-DD)"),
+                    @Parameter(name = "starsWeight", in = ParameterIn.QUERY, description = "Overrides the stars weight; give all three weights, summing to 1.0"),
+                    @Parameter(name = "forksWeight", in = ParameterIn.QUERY, description = "Overrides the forks weight"),
+                    @Parameter(name = "recencyWeight", in = ParameterIn.QUERY, description = "Overrides the recency weight"),
+                    @Parameter(name = "maxStars", in = ParameterIn.QUERY, description = "Overrides the stars of a full stars score"),
+                    @Parameter(name = "maxForks", in = ParameterIn.QUERY, description = "Overrides the forks of a full forks score"),
+                    @Parameter(name = "maxRecencyDays", in = ParameterIn.QUERY, description = "Overrides the days until the recency score is zero")
             }
     )
     List<RepositoryResponse> getRepositories(
@@ -54,7 +69,57 @@ public interface RepositoryRankingApi {
             @Min(1) @RequestParam(name = "pageNumber", required = false, defaultValue = "1") Integer pageNumber,
             @Min(1) @Max(100) @RequestParam(name = "pageSize", required = false, defaultValue = "10") Integer pageSize,
             @Schema(description = "Only include repositories created after this date (YYYY-MM-DD)", example = "2023-01-01")
-            @RequestParam(name = "createdAfter", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdAfter
+            @RequestParam(name = "createdAfter", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdAfter,
+            @Positive @RequestParam(name = "starsWeight", required = false) Float starsWeight,
+            @Positive @RequestParam(name = "forksWeight", required = false) Float forksWeight,
+            @Positive @RequestParam(name = "recencyWeight", required = false) Float recencyWeight,
+            @Positive @RequestParam(name = "maxStars", required = false) Float maxStars,
+            @Positive @RequestParam(name = "maxForks", required = false) Float maxForks,
+            @Positive @RequestParam(name = "maxRecencyDays", required = false) Integer maxRecencyDays
+    );
+
+    /**
+     * Streams the same repositories as {@link #getRepositories} as newline-delimited JSON, one
+     * repository per line, writing each part of the page as soon as it is scored. Pages may be larger
+     * than a GitHub page; their GitHub pages are fetched in parallel and flushed in order. The first part
+     * is fetched before the headers are sent, so a response built from stale data carries
+     * {@code X-Cache: STALE}; later parts arriving stale set it as a trailer where trailers are supported.
+     *
+     * @return a body writing one {@link RepositoryResponse} per line
+     */
+    @Operation(
+            summary = "Stream scored repositories as NDJSON",
+            parameters = {
+                    @Parameter(name = "searchQuery", in = ParameterIn.QUERY, required = true),
+                    @Parameter(name = "language", in = ParameterIn.QUERY),
+                    @Parameter(name = "sortBy", in = ParameterIn.QUERY, schema = @Schema(allowableValues = {"stars", "forks", "score"}, defaultValue = "stars")),
+                    @Parameter(name = "sortOrder", in = ParameterIn.QUERY, schema = @Schema(allowableValues = {"asc", "desc"}, defaultValue = "desc")),
+                    @Parameter(name = "pageNumber", in = ParameterIn.QUERY, schema = @Schema(defaultValue = "1")),
+                    @Parameter(name = "pageSize", in = ParameterIn.QUERY, description = "Up to 1000, fetched as parallel GitHub pages", schema = @Schema(defaultValue = "10")),
+                    @Parameter(name = "createdAfter", in = ParameterIn.QUERY, description = "Only include repositories created after this date (YYYY-MM-DD)"),
+                    @Parameter(name = "starsWeight", in = ParameterIn.QUERY, description = "Overrides the stars weight; give all three weights, summing to 1.0"),
+                    @Parameter(name = "forksWeight", in = ParameterIn.QUERY, description = "Overrides the forks weight"),
+                    @Parameter(name = "recencyWeight", in = ParameterIn.QUERY, description = "Overrides the recency weight"),
+                    @Parameter(name = "maxStars", in = ParameterIn.QUERY, description = "Overrides the stars of a full stars score"),
+                    @Parameter(name = "maxForks", in = ParameterIn.QUERY, description = "Overrides the forks of a full forks score"),
+                    @Parameter(name = "maxRecencyDays", in = ParameterIn.QUERY, description = "Overrides the days until the recency score is zero")
+            }
+    )
+    ResponseEntity<StreamingResponseBody> streamRepositories(
+            @NotBlank @RequestParam(name = "searchQuery") String searchQuery,
+            @RequestParam(name = "language", required = false) String language,
+            @RequestParam(name = "sortBy", required = false, defaultValue = "STARS") SortBy sortBy,
+            @RequestParam(name = "sortOrder", required = false, defaultValue = "DESC") SortOrder sortOrder,
+            @Min(1) @RequestParam(name = "pageNumber", required = false, defaultValue = "1") Integer pageNumber,
+            @Min(1) @Max(1000) @RequestParam(name = "pageSize", required = false, defaultValue = "10") Integer pageSize,
+            @Schema(description = "Only include repositories created after this date (YYYY-MM-DD)", example = "2023-01-01")
+            @RequestParam(name = "createdAfter", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate createdAfter,
+            @Positive @RequestParam(name = "starsWeight", required = false) Float starsWeight,
+            @Positive @RequestParam(name = "forksWeight", required = false) Float forksWeight,
+            @Positive @RequestParam(name = "recencyWeight", required = false) Float recencyWeight,
+            @Positive @RequestParam(name = "maxStars", required = false) Float maxStars,
+            @Positive @RequestParam(name = "maxForks", required = false) Float maxForks,
+            @Positive @RequestParam(name = "maxRecencyDays", required = false) Integer maxRecencyDays
     );
 }
 
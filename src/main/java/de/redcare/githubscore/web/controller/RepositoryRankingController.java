@@ -1,30 +1,53 @@
 package de.redcare.githubscore.web.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import de.redcare.githubscore.application.service.ScoringService;
+import de.redcare.githubscore.domain.cache.Staleness;
+import de.redcare.githubscore.domain.model.ScoredRepository;
 import de.redcare.githubscore.web.dto.RepositoryResponse;
 import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import de.redcare.githubscore.web.dto.ScoringOverrides;
 import de.redcare.githubscore.web.dto.SortBy;
 import de.redcare.githubscore.web.dto.SortOrder;
 import de.redcare.githubscore.web.mappers.RepositoryMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
 
 /**
  * REST controller that implements {@link RepositoryRankingApi} to expose endpoints for
  * retrieving scored GitHub repositories based on various filters and sorting options.
+ * With {@code Accept: application/x-ndjson} the repositories are streamed one per line.
  */
 @RestController
 @RequestMapping("/api/v1/repos")
 public class RepositoryRankingController implements RepositoryRankingApi {
 
     private final ScoringService githubScoringService;
+    private final ObjectMapper objectMapper;
 
-    public RepositoryRankingController(ScoringService githubScoringService) {
+    public RepositoryRankingController(ScoringService githubScoringService, ObjectMapper objectMapper) {
         this.githubScoringService = githubScoringService;
+        this.objectMapper = objectMapper;
     }
 
     @Override
@@ -36,22 +59,124 @@ public class RepositoryRankingController implements RepositoryRankingApi {
             SortOrder sortOrder,
             Integer pageNumber,
             Integer pageSize,
-            LocalDate createdAfter
+            LocalDate createdAfter,
+            Float starsWeight,
+            Float forksWeight,
+            Float recencyWeight,
+            Float maxStars,
+            Float maxForks,
+            Integer maxRecencyDays
     ) {
+        RepositorySearchRequest searchRequest = searchRequest(searchQuery, language, sortBy, sortOrder, pageNumber,
+                pageSize, createdAfter, starsWeight, forksWeight, recencyWeight, maxStars, maxForks, maxRecencyDays);
 
+        return githubScoringService.fetchRepositoriesScores(searchRequest)
+                .stream()
+                .map(RepositoryMapper::toResponse)
+                .toList();
+    }
+
+    @Override
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamRepositories(
+            String searchQuery,
+            String language,
+            SortBy sortBy,
+            SortOrder sortOrder,
+            Integer pageNumber,
+            Integer pageSize,
+            LocalDate createdAfter,
+            Float starsWeight,
+            Float forksWeight,
+            Float recencyWeight,
+            Float maxStars,
+            Float maxForks,
+            Integer maxRecencyDays
+    ) {
+        RepositorySearchRequest searchRequest = searchRequest(searchQuery, language, sortBy, sortOrder, pageNumber,
+                pageSize, createdAfter, starsWeight, forksWeight, recencyWeight, maxStars, maxForks, maxRecencyDays);
 
-        RepositorySearchRequest searchRequest = new RepositorySearchRequest(
+        // The first chunk is fetched here, so a stale mark can still become X-Cache
+        BooleanSupplier staleLater = Staleness.observe();
+        Stream<List<ScoredRepository>> chunks = githubScoringService.streamRepositoriesScores(searchRequest);
+        boolean stale = Staleness.consume();
+        boolean trailer = !stale && staleTrailer(staleLater);
+
+        StreamingResponseBody body = out -> {
+            ObjectWriter writer = objectMapper.writerFor(RepositoryResponse.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            try (chunks; JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                chunks.forEach(chunk -> writeLines(generator, writer, chunk));
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON);
+        if (stale) {
+            response.header(StaleResponseAdvice.CACHE_HEADER, StaleResponseAdvice.STALE);
+        } else if (trailer) {
+            response.header(HttpHeaders.TRAILER, StaleResponseAdvice.CACHE_HEADER);
+        }
+        return response.body(body);
+    }
+
+    /**
+     * Reports GitHub pages arriving stale after the headers are sent as an {@code X-Cache: STALE}
+     * trailer, where the connection supports trailers (chunked HTTP/1.1 and HTTP/2).
+     *
+     * @return whether the trailer is sent if a later page is stale
+     */
+    private static boolean staleTrailer(BooleanSupplier staleLater) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+                || attributes.getResponse() == null) {
+            return false;
+        }
+        try {
+            attributes.getResponse().setTrailerFields(() -> staleLater.getAsBoolean()
+                    ? Map.of(StaleResponseAdvice.CACHE_HEADER, StaleResponseAdvice.STALE)
+                    : Map.of());
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes one repository per line and flushes them to the client.
+     */
+    private static void writeLines(JsonGenerator generator, ObjectWriter writer, List<ScoredRepository> chunk) {
+        try {
+            for (ScoredRepository repository : chunk) {
+                writer.writeValue(generator, RepositoryMapper.toResponse(repository));
+                generator.writeRaw('\n');
+            }
+            generator.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static RepositorySearchRequest searchRequest(String searchQuery, String language, SortBy sortBy,
+                                                 SortOrder sortOrder, Integer pageNumber, Integer pageSize,
+                                                 LocalDate createdAfter, Float starsWeight, Float forksWeight,
+                                                 Float recencyWeight, Float maxStars, Float maxForks,
+                                                 Integer maxRecencyDays) {
+        ScoringOverrides scoring;
+        try {
+            scoring = ScoringOverrides.of(starsWeight, forksWeight, recencyWeight, maxStars, maxForks, maxRecencyDays);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
+        return new RepositorySearchRequest(
                 searchQuery,
                 language,
                 sortBy,
                 sortOrder,
                 pageNumber,
                 pageSize,
-                createdAfter);
-
-        return githubScoringService.fetchRepositoriesScores(searchRequest)
-                .stream()
-                .map(RepositoryMapper::toResponse)
-                .toList();
+                createdAfter,
+                scoring);
     }
 }
@@ -0,0 +1,36 @@
+package de.redcare.githubscore.web.controller;
+
+import de.redcare.githubscore.domain.cache.Staleness;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds {@code X-Cache: STALE} to responses that were built from cached GitHub data past its time
+ * to live, i.e. while the data is being refreshed or GitHub is unavailable.
+ */
+@RestControllerAdvice
+public class StaleResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    static final String CACHE_HEADER = "X-Cache";
+    static final String STALE = "STALE";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (Staleness.consume()) {
+            response.getHeaders().set(CACHE_HEADER, STALE);
+        }
+        return body;
+    }
+}
@@ -0,0 +1,48 @@
+package de.redcare.githubscore.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * One query of a batch search, with the parameters and defaults of {@code GET /api/v1/repos}.
+ */
+@Schema(description = "Query of a batch search, with the parameters of GET /api/v1/repos")
+public record BatchSearchQuery(
+        @NotBlank String searchQuery,
+        String language,
+        @Schema(defaultValue = "stars") SortBy sortBy,
+        @Schema(defaultValue = "desc") SortOrder sortOrder,
+        @Min(1) @Schema(defaultValue = "1") Integer pageNumber,
+        @Min(1) @Max(100) @Schema(defaultValue = "10") Integer pageSize,
+        @Schema(description = "Only include repositories created after this date (YYYY-MM-DD)", example = "2023-01-01")
+        LocalDate createdAfter,
+        @Positive Float starsWeight,
+        @Positive Float forksWeight,
+        @Positive Float recencyWeight,
+        @Positive Float maxStars,
+        @Positive Float maxForks,
+        @Positive Integer maxRecencyDays
+) {
+
+    /**
+     * @return the search request of this query, with the defaults of {@code GET /api/v1/repos} for omitted parameters
+     * @throws IllegalArgumentException if only some weights are given or they do not sum to 1.0
+     */
+    public RepositorySearchRequest toSearchRequest() {
+        return new RepositorySearchRequest(
+                searchQuery,
+                language,
+                Objects.requireNonNullElse(sortBy, SortBy.STARS),
+                Objects.requireNonNullElse(sortOrder, SortOrder.DESC),
+                Objects.requireNonNullElse(pageNumber, 1),
+                Objects.requireNonNullElse(pageSize, 10),
+                createdAfter,
+                ScoringOverrides.of(starsWeight, forksWeight, recencyWeight, maxStars, maxForks, maxRecencyDays));
+    }
+}
@@ -0,0 +1,31 @@
+package de.redcare.githubscore.web.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import de.redcare.githubscore.web.exception.error.ErrorResponse;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Outcome of one query of a batch search.
+ *
+ * @param status       the HTTP status the query would have been answered with on its own
+ * @param repositories the scored repositories, if the query succeeded
+ * @param error        the error the query would have been answered with on its own, if it failed
+ */
+@Schema(description = "Outcome of one query of a batch search")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchSearchResult(
+        int status,
+        List<RepositoryResponse> repositories,
+        ErrorResponse error
+) {
+
+    public static BatchSearchResult succeeded(List<RepositoryResponse> repositories) {
+        return new BatchSearchResult(200, repositories, null);
+    }
+
+    public static BatchSearchResult failed(ErrorResponse error) {
+        return new BatchSearchResult(error.status(), null, error);
+    }
+}
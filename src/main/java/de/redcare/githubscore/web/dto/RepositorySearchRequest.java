@@ -2,6 +2,9 @@ package de.redcare.githubscore.web.dto;
 
 import java.time.LocalDate;
 
+/**
+ * @param scoring the scoring overrides of the request, or {@code null} to score with the configured settings
+ */
 public record RepositorySearchRequest(
         String searchQuery,
         String language,
@@ -11,7 +14,13 @@ public record RepositorySearchRequest(
 
 
         Integer pageSize,
-        LocalDate createdAfter
+        LocalDate createdAfter,
+        ScoringOverrides scoring
 ) {
+
+    public RepositorySearchRequest(String searchQuery, String language, SortBy sortBy, SortOrder sortOrder,
+                                   Integer pageNumber, Integer pageSize, LocalDate createdAfter) {
+        this(searchQuery, language, sortBy, sortOrder, pageNumber, pageSize, createdAfter, null);
+    }
 }
 
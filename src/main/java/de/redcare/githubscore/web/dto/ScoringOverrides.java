@@ -0,0 +1,57 @@
+package de.redcare.githubscore.web.dto;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+
+/**
+ * Scoring settings of a single request, replacing the configured ones.
+ *
+ * @param weights        the weights, or {@code null} for the configured ones
+ * @param maxStars       the stars of a full stars score, or {@code null} for the configured maximum
+ * @param maxForks       the forks of a full forks score, or {@code null} for the configured maximum
+ * @param maxRecencyDays the days until the recency score is zero, or {@code null} for the configured maximum
+ */
+public record ScoringOverrides(
+        ScoringProperties.Weights weights,
+        Float maxStars,
+        Float maxForks,
+        Integer maxRecencyDays
+) {
+
+    /**
+     * Collects the overrides of a request. Weights are given all three or none and must sum to 1.0,
+     * as checked by {@link ScoringProperties.Weights}.
+     *
+     * @return the overrides, or {@code null} if none is given
+     * @throws IllegalArgumentException if only some weights are given or they do not sum to 1.0
+     */
+    public static ScoringOverrides of(Float starsWeight, Float forksWeight, Float recencyWeight,
+                                      Float maxStars, Float maxForks, Integer maxRecencyDays) {
+        ScoringProperties.Weights weights = null;
+        if (starsWeight != null || forksWeight != null || recencyWeight != null) {
+            if (starsWeight == null || forksWeight == null || recencyWeight == null) {
+                throw new IllegalArgumentException("starsWeight, forksWeight and recencyWeight must be given together");
+            }
+            weights = new ScoringProperties.Weights(starsWeight, forksWeight, recencyWeight);
+        }
+        if (weights == null && maxStars == null && maxForks == null && maxRecencyDays == null) {
+            return null;
+        }
+        return new ScoringOverrides(weights, maxStars, maxForks, maxRecencyDays);
+    }
+
+    /**
+     * Applies the overrides to the configured settings, keeping the configured formula. Weights and
+     * maximums only apply to the weighted sum, so a calculator scoring with a formula rejects them.
+     */
+    public ScoringProperties applyTo(ScoringProperties defaults) {
+        ScoringProperties.Maximums maximums = defaults.maximums();
+        return new ScoringProperties(
+                weights != null ? weights : defaults.weights(),
+                new ScoringProperties.Maximums(
+                        maxStars != null ? maxStars : maximums.stars(),
+                        maxForks != null ? maxForks : maximums.forks(),
+                        maxRecencyDays != null ? maxRecencyDays : maximums.recencyDays()),
+                defaults.normalize(),
+                defaults.formula());
+    }
+}
@@ -1,5 +1,6 @@
 package de.redcare.githubscore.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 @Schema(description = "Allowed fields for sorting the repository results")
@@ -13,4 +14,11 @@ public enum SortBy {
     @Schema(description = "Sort by calculated score")
     SCORE;
 
+    /**
+     * Reads a sort field in any case from a request body, like the query parameter.
+     */
+    @JsonCreator
+    public static SortBy fromJson(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
 }
@@ -1,5 +1,15 @@
 package de.redcare.githubscore.web.dto;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
+
 public enum SortOrder {
-    ASC, DESC
+    ASC, DESC;
+
+    /**
+     * Reads a sort order in any case from a request body, like the query parameter.
+     */
+    @JsonCreator
+    public static SortOrder fromJson(String value) {
+        return valueOf(value.trim().toUpperCase());
+    }
 }
@@ -2,28 +2,38 @@ package de.redcare.githubscore.web.exception;
 
 import de.redcare.githubscore.domain.exceptions.GitHubApiException;
 import de.redcare.githubscore.domain.exceptions.RateLimitExceededException;
+import de.redcare.githubscore.domain.exceptions.UnsupportedScoringException;
 import de.redcare.githubscore.web.exception.error.ErrorResponse;
 import feign.RetryableException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.util.ReflectionUtils;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.ExceptionHandlerMethodResolver;
 import org.springframework.web.method.annotation.HandlerMethodValidationException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.lang.reflect.Method;
 import java.net.ConnectException;
 import java.net.UnknownHostException;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private static final ExceptionHandlerMethodResolver HANDLERS =
+            new ExceptionHandlerMethodResolver(GlobalExceptionHandler.class);
+
     @ExceptionHandler({
             UnknownHostException.class,
             ConnectException.class,
@@ -67,6 +77,16 @@ public class GlobalExceptionHandler {
         );
     }
 
+    @ExceptionHandler(UnsupportedScoringException.class)
+    public ResponseEntity<ErrorResponse> handleUnsupportedScoring(UnsupportedScoringException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, ex.getMessage(), ex);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<ErrorResponse> handleRejectedExecution(RejectedExecutionException ex) {
+        return buildResponse(HttpStatus.SERVICE_UNAVAILABLE, "Too many searches in progress, please try again later", ex);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErrors(MethodArgumentNotValidException ex) {
         List<ErrorResponse.Detail> details = ex.getBindingResult().getFieldErrors()
@@ -121,6 +141,11 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ErrorResponse> handleUnreadableBody(HttpMessageNotReadableException ex) {
+        return buildResponse(HttpStatus.BAD_REQUEST, "Malformed request body", ex);
+    }
+
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     public ResponseEntity<ErrorResponse> handleTypeMismatch(MethodArgumentTypeMismatchException ex) {
         ErrorResponse.Detail detail = new ErrorResponse.Detail(
@@ -139,6 +164,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatus(ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        return buildResponse(status, Objects.requireNonNullElse(ex.getReason(), status.getReasonPhrase()), ex);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleUnexpectedErrors(Exception ex) {
         return buildResponse(
@@ -147,6 +178,18 @@ public class GlobalExceptionHandler {
                 ex
         );
     }
+
+    /**
+     * Maps an exception to the response its handler would send, for failures reported within a
+     * successful response, such as those of the queries of a batch search. The handler is resolved
+     * from the {@link ExceptionHandler} mappings above, the same way Spring MVC resolves it.
+     */
+    @SuppressWarnings("unchecked")
+    public ResponseEntity<ErrorResponse> handle(Exception ex) {
+        Method handler = Objects.requireNonNull(HANDLERS.resolveMethodByThrowable(ex));
+        return (ResponseEntity<ErrorResponse>) ReflectionUtils.invokeMethod(handler, this, ex);
+    }
+
     private ResponseEntity<ErrorResponse> buildResponse(HttpStatus status, String message, Exception ex) {
         return ResponseEntity.status(status).body(
                 new ErrorResponse(status.value(), message, ex.getClass().getSimpleName())
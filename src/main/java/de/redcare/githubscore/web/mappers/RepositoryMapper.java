@@ -4,6 +4,10 @@ package de.redcare.githubscore.web.mappers;
 import de.redcare.githubscore.domain.model.ScoredRepository;
 import de.redcare.githubscore.web.dto.RepositoryResponse;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
 public class RepositoryMapper {
 
     public static RepositoryResponse toResponse(ScoredRepository repository) {
@@ -14,7 +18,7 @@ public class RepositoryMapper {
                 repository.language(),
                 repository.stars(),
                 repository.forks(),
-                repository.lastUpdated(),
+                ZonedDateTime.ofInstant(Instant.ofEpochSecond(repository.lastUpdatedEpochSecond()), ZoneOffset.UTC),
                 Math.round(repository.score()*100) + "%"
         );
     }
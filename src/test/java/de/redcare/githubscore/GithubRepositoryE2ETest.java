@@ -3,30 +3,60 @@ package de.redcare.githubscore;
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import de.redcare.githubscore.domain.cache.CacheStore;
 import de.redcare.githubscore.domain.repository.GithubRepository;
+import de.redcare.githubscore.domain.service.ScoringFormulaEndpoint.Formula;
 import de.redcare.githubscore.web.dto.RepositoryResponse;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.web.client.TestRestTemplate;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("scoring-admin")
 class GithubRepositoryE2ETest {
 
+    /**
+     * Scores against a fixed day shortly after the {@code updated_at} of the stubbed repositories,
+     * so their recency does not decay as time passes.
+     */
+    @TestConfiguration
+    static class FixedClockConfig {
+        @Bean
+        @Primary
+        Clock fixedClock() {
+            return Clock.fixed(Instant.parse("2025-05-26T00:00:00Z"), ZoneOffset.UTC);
+        }
+    }
+
     @Autowired
     private GithubRepository githubRepository;
+    @Autowired
+    private CacheManager cacheManager;
     TestRestTemplate restTemplate = new TestRestTemplate();
     private static WireMockServer wireMockServer;
     @LocalServerPort
@@ -46,6 +76,12 @@ class GithubRepositoryE2ETest {
         System.clearProperty("github.api.base-url");
     }
 
+    @Test
+    void context_shouldLeaveTheDiskTierOffByDefault(@Autowired CacheStore repositoriesDiskStore) {
+        // The test configuration keeps the cache.disk.enabled default the application ships with
+        assertThat(repositoriesDiskStore).isSameAs(CacheStore.NONE);
+    }
+
     @Test
     void fetchRepositories_shouldReturnExpectedResults() {
         // Prepare dynamic query string with date
@@ -74,7 +110,7 @@ class GithubRepositoryE2ETest {
                 .withQueryParam("sort", equalTo("stars"))
                 .withQueryParam("order", equalTo("desc"))
                 .withQueryParam("page", equalTo("1"))
-                .withQueryParam("perPage", equalTo("10"))
+                .withQueryParam("per_page", equalTo("10"))
                 .willReturn(aResponse()
                         .withHeader("Content-Type", "application/json")
                         .withBody(jsonResponse)
@@ -122,7 +158,7 @@ class GithubRepositoryE2ETest {
                 .withQueryParam("sort", equalTo("stars"))
                 .withQueryParam("order", equalTo("desc"))
                 .withQueryParam("page", equalTo("1"))
-                .withQueryParam("perPage", equalTo("10"))
+                .withQueryParam("per_page", equalTo("10"))
                 .willReturn(aResponse()
                         .withHeader("Content-Type", "application/json")
                         .withBody(githubApiResponse)
@@ -154,5 +190,287 @@ class GithubRepositoryE2ETest {
 
 
     }
-}
 
+    @Test
+    void getRepositories_shouldRescoreCachedPageWithOverrides() {
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("override-test"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                  "items": [
+                                    {
+                                      "id": 303,
+                                      "name": "override-repo",
+                                      "url": "https://github.com/user/override-repo",
+                                      "stargazers_count": 42,
+                                      "forks_count": 5,
+                                      "language": "Java",
+                                      "updated_at": "2025-05-23T10:15:30Z"
+                                    }
+                                  ]
+                                }
+                                """)
+                        .withStatus(200)));
+        String url = "http://localhost:" + port + "/api/v1/repos?searchQuery=override-test";
+
+        RepositoryResponse configured = restTemplate.exchange(url, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<RepositoryResponse>>() {
+                }).getBody().getFirst();
+        RepositoryResponse overridden = restTemplate.exchange(
+                url + "&starsWeight=0.1&forksWeight=0.1&recencyWeight=0.8", HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<RepositoryResponse>>() {
+                }).getBody().getFirst();
+        ResponseEntity<String> invalid = restTemplate.getForEntity(
+                url + "&starsWeight=0.5&forksWeight=0.5&recencyWeight=0.5", String.class);
+
+        assertThat(configured.score()).isEqualTo("20%");
+        assertThat(overridden.score()).isEqualTo("80%");
+        assertThat(invalid.getStatusCode().value()).isEqualTo(400);
+        assertThat(invalid.getBody()).contains("Weights must sum to 1.0");
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("override-test")));
+    }
+
+    @Test
+    void getRepositories_shouldStreamNdjson() {
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("ndjson-test"))
+                .withQueryParam("per_page", equalTo("100"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                  "items": [
+                                    {"id": 401, "name": "first", "url": "https://github.com/user/first",
+                                     "stargazers_count": 9, "forks_count": 1, "language": "Java",
+                                     "updated_at": "2025-05-23T10:15:30Z"},
+                                    {"id": 402, "name": "second", "url": "https://github.com/user/second",
+                                     "stargazers_count": 3, "forks_count": 1, "language": "Java",
+                                     "updated_at": "2025-05-23T10:15:30Z"}
+                                  ]
+                                }
+                                """)
+                        .withStatus(200)));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        ResponseEntity<String> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/v1/repos?searchQuery=ndjson-test&pageSize=250",
+                HttpMethod.GET, new HttpEntity<>(headers), String.class);
+
+        assertThat(response.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(response.getBody().split("\n"))
+                .containsExactly(
+                        "{\"id\":401,\"name\":\"first\",\"url\":\"https://github.com/user/first\",\"language\":\"Java\","
+                                + "\"stars\":9,\"forks\":1,\"lastUpdated\":\"2025-05-23T10:15:30Z\",\"score\":\"20%\"}",
+                        "{\"id\":402,\"name\":\"second\",\"url\":\"https://github.com/user/second\",\"language\":\"Java\","
+                                + "\"stars\":3,\"forks\":1,\"lastUpdated\":\"2025-05-23T10:15:30Z\",\"score\":\"20%\"}");
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("ndjson-test")));
+    }
+
+    @Test
+    void getReactiveRepositories_shouldShareCachedPagesWithServletEndpoint() {
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("reactive-test"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                  "items": [
+                                    {"id": 501, "name": "reactive-repo", "url": "https://github.com/user/reactive-repo",
+                                     "stargazers_count": 42, "forks_count": 5, "language": "Java",
+                                     "updated_at": "2025-05-23T10:15:30Z"}
+                                  ]
+                                }
+                                """)
+                        .withStatus(200)));
+        String query = "/repos?searchQuery=reactive-test&pageSize=10";
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_NDJSON));
+
+        List<RepositoryResponse> reactive = restTemplate.exchange(
+                "http://localhost:" + port + "/api/v1/reactive" + query, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<RepositoryResponse>>() {
+                }).getBody();
+        ResponseEntity<String> streamed = restTemplate.exchange(
+                "http://localhost:" + port + "/api/v1/reactive" + query, HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        List<RepositoryResponse> servlet = restTemplate.exchange(
+                "http://localhost:" + port + "/api/v1" + query, HttpMethod.GET, null,
+                new ParameterizedTypeReference<List<RepositoryResponse>>() {
+                }).getBody();
+        ResponseEntity<String> invalid = restTemplate.getForEntity("http://localhost:" + port + "/api/v1/reactive"
+                + query + "&starsWeight=0.5&forksWeight=0.5&recencyWeight=0.5", String.class);
+
+        assertThat(reactive).hasSize(1).isEqualTo(servlet);
+        assertThat(reactive.getFirst().score()).isEqualTo("20%");
+        assertThat(streamed.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+        assertThat(streamed.getBody().trim().split("\n")).hasSize(1);
+        assertThat(invalid.getStatusCode().value()).isEqualTo(400);
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("reactive-test")));
+    }
+
+    @Test
+    void getReactiveRepositories_shouldDecodePagesLargerThanDefaultBuffer() {
+        // Real search pages of 100 repositories carry descriptions, topics and owners well beyond 256 KB
+        String description = "x".repeat(600 * 1024);
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("reactive-large-test"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                  "items": [
+                                    {"id": 502, "name": "large-repo", "url": "https://github.com/user/large-repo",
+                                     "description": "%s",
+                                     "stargazers_count": 42, "forks_count": 5, "language": "Java",
+                                     "updated_at": "2025-05-23T10:15:30Z"}
+                                  ]
+                                }
+                                """.formatted(description))
+                        .withStatus(200)));
+
+        ResponseEntity<List<RepositoryResponse>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/api/v1/reactive/repos?searchQuery=reactive-large-test",
+                HttpMethod.GET, null, new ParameterizedTypeReference<>() {
+                });
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getBody()).extracting(RepositoryResponse::name).containsExactly("large-repo");
+    }
+
+    @Test
+    void searchBatch_shouldDeduplicateQueriesAndReportFailuresPerQuery() {
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("batch-test"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("""
+                                {
+                                  "items": [
+                                    {"id": 601, "name": "batch-repo", "url": "https://github.com/user/batch-repo",
+                                     "stargazers_count": 42, "forks_count": 5, "language": "Java",
+                                     "updated_at": "2025-05-23T10:15:30Z"}
+                                  ]
+                                }
+                                """)
+                        .withStatus(200)));
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("batch-broken"))
+                .willReturn(aResponse().withStatus(422).withBody("{\"message\": \"Validation Failed\"}")));
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        String url = "http://localhost:" + port + "/api/v1/repos/batch";
+
+        ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST, new HttpEntity<>("""
+                [
+                  {"searchQuery": "batch-test"},
+                  {"searchQuery": "batch-broken"},
+                  {"searchQuery": "batch-test", "sortBy": "stars", "pageSize": 10}
+                ]
+                """, headers), String.class);
+        ResponseEntity<String> invalid = restTemplate.exchange(url, HttpMethod.POST,
+                new HttpEntity<>("[{\"searchQuery\": \"\"}]", headers), String.class);
+
+        assertThat(response.getStatusCode().value()).isEqualTo(200);
+        assertThat(response.getBody())
+                .startsWith("[{\"status\":200,\"repositories\":[{\"id\":601,")
+                .contains("\"score\":\"20%\"")
+                .contains("{\"status\":503,\"error\":{\"status\":503,")
+                .endsWith("\"score\":\"20%\"}]}]");
+        assertThat(invalid.getStatusCode().value()).isEqualTo(400);
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("batch-test")));
+    }
+
+    @Test
+    void fetchRepositories_shouldRevalidateExpiredPageWithETag() {
+        String jsonResponse = """
+                {
+                  "items": [
+                    {
+                      "id": 202,
+                      "name": "etag-repo",
+                      "url": "https://github.com/user/etag-repo",
+                      "stargazers_count": 7,
+                      "forks_count": 1,
+                      "language": "Go",
+                      "updated_at": "2025-05-23T10:15:30Z"
+                    }
+                  ]
+                }
+                """;
+
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("etag-test"))
+                .withHeader("If-None-Match", absent())
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("ETag", "\"v1\"")
+                        .withBody(jsonResponse)
+                        .withStatus(200)));
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("etag-test"))
+                .withHeader("If-None-Match", equalTo("\"v1\""))
+                .willReturn(aResponse().withStatus(304)));
+
+        List<?> fetched = githubRepository.fetchRepositories("etag-test", null, "stars", "desc", 1, 10, null);
+        cacheManager.getCache("repositories").clear();
+        List<?> revalidated = githubRepository.fetchRepositories("etag-test", null, "stars", "desc", 1, 10, null);
+
+        assertThat(revalidated).isEqualTo(fetched).hasSize(1);
+        wireMockServer.verify(1, getRequestedFor(urlPathEqualTo("/search/repositories"))
+                .withHeader("If-None-Match", equalTo("\"v1\"")));
+    }
+
+    @Test
+    void actuator_shouldExposeQuotaOfGitHubIdentity() {
+        long reset = Instant.now().plusSeconds(3600).getEpochSecond();
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .withQueryParam("q", equalTo("quota-test"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withHeader("X-RateLimit-Limit", "5000")
+                        .withHeader("X-RateLimit-Remaining", "4321")
+                        .withHeader("X-RateLimit-Reset", String.valueOf(reset))
+                        .withBody("{\"total_count\": 0, \"items\": []}")
+                        .withStatus(200)));
+
+        githubRepository.fetchRepositories("quota-test", null, "stars", "desc", 1, 10, null);
+        ResponseEntity<List<Map<String, Object>>> response = restTemplate.exchange(
+                "http://localhost:" + port + "/actuator/githubtokens",
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<>() {
+                });
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(response.getBody()).singleElement().satisfies(token -> {
+            assertThat(token).containsEntry("label", "anonymous").containsEntry("remaining", 4321);
+        });
+    }
+
+    @Test
+    void actuator_shouldReplaceScoringFormula() {
+        String endpoint = "http://localhost:" + port + "/actuator/scoringformula";
+        try {
+            ResponseEntity<String> invalid = restTemplate.postForEntity(endpoint,
+                    Map.of("expression", "stars * watchers"), String.class);
+            assertThat(invalid.getStatusCode().value()).isEqualTo(400);
+            assertThat(invalid.getBody()).contains("Unknown variable 'watchers'");
+
+            ResponseEntity<Formula> updated = restTemplate.postForEntity(endpoint,
+                    Map.of("expression", "stars + 0.5 * (language == 'Java')"), Formula.class);
+            assertThat(updated.getStatusCode().is2xxSuccessful()).isTrue();
+            assertThat(restTemplate.getForObject(endpoint, Formula.class))
+                    .isEqualTo(new Formula("stars + 0.5 * (language == 'Java')"));
+        } finally {
+            restTemplate.postForEntity(endpoint, Map.of("expression", ""), String.class);
+        }
+        assertThat(restTemplate.getForObject(endpoint, Formula.class)).isEqualTo(new Formula(null));
+    }
+}
@@ -0,0 +1,110 @@
+package de.redcare.githubscore.benchmark;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.model.RepositoryColumns;
+import de.redcare.githubscore.domain.service.ColumnScorer;
+import de.redcare.githubscore.domain.service.DefaultScoringCalculator;
+import de.redcare.githubscore.domain.service.ScalarColumnScorer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares scoring a ranking one {@link Repository} at a time with scoring its columns in a scalar
+ * loop and with the Vector API.
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.class=de.redcare.githubscore.benchmark.BatchScoringBenchmark
+ * </pre>
+ * The {@code vectorColumns} benchmark needs the {@code vector} profile as well, which compiles the
+ * Vector API scorer and passes {@code --add-modules jdk.incubator.vector}:
+ * {@code ./mvnw -Pbenchmark,vector ...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchScoringBenchmark {
+
+    @Param({"1000", "100000"})
+    private int candidates;
+
+    private List<Repository> repositories;
+    private RepositoryColumns columns;
+    private float[] scores;
+    private DefaultScoringCalculator calculator;
+    private ScalarColumnScorer scalar;
+    private ColumnScorer vector;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(BatchScoringBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        ScoringProperties config = new ScoringProperties(new ScoringProperties.Weights(0.5f, 0.3f, 0.2f),
+                new ScoringProperties.Maximums(1000f, 50_000f, 365), true);
+        Random random = new Random(42);
+        ZonedDateTime now = ZonedDateTime.now();
+        repositories = IntStream.range(0, candidates)
+                .mapToObj(i -> new Repository(i, "repo-" + i, "url", random.nextInt(5000), random.nextInt(100_000),
+                        "Java", now.minusMinutes(random.nextInt(600 * 24 * 60)).toEpochSecond()))
+                .toList();
+        columns = RepositoryColumns.of(repositories, now.toInstant());
+        scores = new float[candidates];
+        calculator = new DefaultScoringCalculator(config);
+        scalar = new ScalarColumnScorer(config);
+        vector = ColumnScorer.isVectorSupported() ? ColumnScorer.vector(config) : null;
+    }
+
+    @Benchmark
+    public float[] perRepository() {
+        for (int i = 0; i < candidates; i++) {
+            scores[i] = calculator.calculatePopularityScore(repositories.get(i));
+        }
+        return scores;
+    }
+
+    @Benchmark
+    public float[] batch() {
+        return calculator.calculatePopularityScores(repositories);
+    }
+
+    @Benchmark
+    public float[] scalarColumns() {
+        scalar.score(columns, scores);
+        return scores;
+    }
+
+    @Benchmark
+    public float[] vectorColumns() {
+        if (vector == null) {
+            throw new IllegalStateException("Run with -Pbenchmark,vector");
+        }
+        vector.score(columns, scores);
+        return scores;
+    }
+}
@@ -0,0 +1,104 @@
+package de.redcare.githubscore.benchmark;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.service.DefaultScoringCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares scoring 1000 repositories one at a time with the hand-written weighted sum and with
+ * compiled formulas: the same weighted sum, and one with log-scaled stars, a fork/star ratio and a
+ * language boost.
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.class=de.redcare.githubscore.benchmark.FormulaScoringBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormulaScoringBenchmark {
+
+    private static final int CANDIDATES = 1000;
+    private static final String WEIGHTED_SUM =
+            "0.5 * min(stars / 1000, 1) + 0.3 * min(forks / 50000, 1) + 0.2 * max(1 - days / 365, 0)";
+    private static final String LOG_SCALED =
+            "0.6 * log1p(stars) / log1p(1000) + 0.2 * min(forks / (stars + 1), 1)"
+                    + " + 0.2 * max(1 - days / 365, 0) + 0.1 * (language == 'Rust')";
+
+    private List<Repository> repositories;
+    private Instant now;
+    private float[] scores;
+    private DefaultScoringCalculator handWritten;
+    private DefaultScoringCalculator compiledWeightedSum;
+    private DefaultScoringCalculator compiledLogScaled;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(FormulaScoringBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        ScoringProperties.Weights weights = new ScoringProperties.Weights(0.5f, 0.3f, 0.2f);
+        ScoringProperties.Maximums maximums = new ScoringProperties.Maximums(1000f, 50_000f, 365);
+        Random random = new Random(42);
+        now = Instant.now();
+        ZonedDateTime updated = now.atZone(ZoneOffset.UTC);
+        repositories = IntStream.range(0, CANDIDATES)
+                .mapToObj(i -> new Repository(i, "repo-" + i, "url", random.nextInt(5000), random.nextInt(100_000),
+                        i % 3 == 0 ? "Rust" : "Java", updated.minusMinutes(random.nextInt(600 * 24 * 60)).toEpochSecond()))
+                .toList();
+        scores = new float[CANDIDATES];
+        handWritten = new DefaultScoringCalculator(new ScoringProperties(weights, maximums, true));
+        compiledWeightedSum = new DefaultScoringCalculator(new ScoringProperties(weights, maximums, true, WEIGHTED_SUM));
+        compiledLogScaled = new DefaultScoringCalculator(new ScoringProperties(weights, maximums, true, LOG_SCALED));
+    }
+
+    @Benchmark
+    public float[] handWritten() {
+        return score(handWritten);
+    }
+
+    @Benchmark
+    public float[] compiledWeightedSum() {
+        return score(compiledWeightedSum);
+    }
+
+    @Benchmark
+    public float[] compiledLogScaled() {
+        return score(compiledLogScaled);
+    }
+
+    private float[] score(DefaultScoringCalculator calculator) {
+        for (int i = 0; i < CANDIDATES; i++) {
+            scores[i] = calculator.calculatePopularityScore(repositories.get(i), now);
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,176 @@
+package de.redcare.githubscore.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import de.redcare.githubscore.GitHubScoreServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares latency and memory of the blocking endpoint and the reactive endpoint under high
+ * concurrency while GitHub answers slowly.
+ * <p>
+ * Every request uses a distinct search query, so neither the cache nor request coalescing can absorb
+ * the load. The blocking endpoint holds a Tomcat thread for every call in flight, up to the
+ * {@code server.tomcat.threads.max} of 200, while the reactive one releases it and waits on Reactor
+ * Netty. Each endpoint runs in its own application on platform threads; besides the latencies, the
+ * peak number of live platform threads and the peak heap in use during the measured round are printed.
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.class=de.redcare.githubscore.benchmark.ReactiveLoadBenchmark
+ * </pre>
+ * Optional arguments: {@code <concurrent requests> <upstream delay ms>}, defaulting to 1000 and 500.
+ */
+public class ReactiveLoadBenchmark {
+
+    private static final String EMPTY_SEARCH = "{\"total_count\": 0, \"incomplete_results\": false, \"items\": []}";
+    private static final long HEAP_SAMPLE_INTERVAL_MS = 5;
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int upstreamDelayMs = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        HttpServer gitHub = slowGitHub(upstreamDelayMs, concurrency);
+        gitHub.start();
+
+        try {
+            System.out.printf("%d concurrent requests, upstream delay %d ms%n%n", concurrency, upstreamDelayMs);
+            System.out.printf("%-10s %8s %10s %8s %9s %9s %9s %10s%n",
+                    "endpoint", "ok", "wall (ms)", "req/s", "p50 (ms)", "p99 (ms)", "threads", "heap (MB)");
+            for (String endpoint : new String[]{"/api/v1/repos", "/api/v1/reactive/repos"}) {
+                Result result = run(gitHub.getAddress().getPort(), endpoint, concurrency);
+                System.out.printf("%-10s %8d %10d %8.0f %9d %9d %9d %10d%n",
+                        endpoint.contains("reactive") ? "reactive" : "servlet",
+                        result.succeeded(), result.wallMillis(), result.throughput(), result.p50(), result.p99(),
+                        result.peakThreads(), result.peakHeapBytes() / (1024 * 1024));
+            }
+        } finally {
+            gitHub.stop(0);
+        }
+    }
+
+    /**
+     * A fake GitHub search endpoint that answers every request after a fixed delay. It runs on
+     * virtual threads itself, which are not counted as live threads, so it neither becomes the
+     * bottleneck nor inflates the thread counts of the measurement.
+     */
+    private static HttpServer slowGitHub(int delayMs, int backlog) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), backlog);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/search/repositories", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = EMPTY_SEARCH.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        return server;
+    }
+
+    private static Result run(int gitHubPort, String endpoint, int concurrency) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GitHubScoreServiceApplication.class)
+                .run("--server.port=0",
+                        "--logging.level.root=WARN",
+                        "--github.api.debug=false",
+                        "--github.api.base-url=http://localhost:" + gitHubPort,
+                        "--github.api.max-concurrent-requests=" + (concurrency * 2),
+                        "--spring.threads.virtual.enabled=false");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            String prefix = endpoint.contains("reactive") ? "reactive" : "servlet";
+
+            // Warm-up round with a small load
+            fire(httpClient, clients, port, endpoint, prefix + "-warmup", concurrency / 10);
+            return fire(httpClient, clients, port, endpoint, prefix, concurrency);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result fire(HttpClient httpClient, ExecutorService clients, int port, String endpoint,
+                               String prefix, int requests) throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        long[] latencies = new long[requests];
+        List<Future<?>> calls = new ArrayList<>(requests);
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        threads.resetPeakThreadCount();
+        AtomicLong peakHeap = new AtomicLong();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        sampler.scheduleAtFixedRate(() -> peakHeap.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max),
+                0, HEAP_SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        try {
+            for (int i = 0; i < requests; i++) {
+                final int index = i;
+                URI uri = URI.create("http://localhost:" + port + endpoint + "?searchQuery=" + prefix + "-" + i);
+                calls.add(clients.submit(() -> {
+                    long sent = System.nanoTime();
+                    HttpResponse<Void> response = httpClient.send(
+                            HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(2)).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    latencies[index] = (System.nanoTime() - sent) / 1_000_000;
+                    if (response.statusCode() == 200) {
+                        succeeded.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> call : calls) {
+                call.get();
+            }
+        } finally {
+            sampler.shutdownNow();
+        }
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Arrays.sort(latencies);
+        return new Result(succeeded.get(), wallMillis,
+                requests * 1000.0 / Math.max(wallMillis, 1),
+                latencies[requests / 2],
+                latencies[(int) Math.min(requests - 1, Math.ceil(requests * 0.99) - 1)],
+                threads.getPeakThreadCount(),
+                peakHeap.get());
+    }
+
+    private record Result(int succeeded, long wallMillis, double throughput, long p50, long p99,
+                          int peakThreads, long peakHeapBytes) {
+    }
+}
@@ -0,0 +1,171 @@
+package de.redcare.githubscore.benchmark;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.infrastructure.client.github.client.GitHubSearchResponseDecoder;
+import de.redcare.githubscore.infrastructure.client.github.models.GitHubSearchResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares time and allocation per 100-item search page of the streaming
+ * {@link GitHubSearchResponseDecoder} against full Jackson data binding into DTOs followed by a
+ * mapping to {@link Repository}, which is how search pages were decoded before.
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.class=de.redcare.githubscore.benchmark.SearchResponseDecodingBenchmark
+ * </pre>
+ * Allocation is reported as {@code gc.alloc.rate.norm} (bytes per page).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchResponseDecodingBenchmark {
+
+    private static final int ITEMS_PER_PAGE = 100;
+
+    private ObjectMapper objectMapper;
+    private byte[] page;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(SearchResponseDecodingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        // Configured like the Spring Boot ObjectMapper the Feign decoder used
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        page = searchPage(ITEMS_PER_PAGE).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public List<Repository> dataBinding() throws IOException {
+        BoundSearchResponse response = objectMapper.readValue(new ByteArrayInputStream(page), BoundSearchResponse.class);
+        return response.items().stream()
+                .map(dto -> new Repository(dto.id(), dto.name(), dto.url(), dto.stars(), dto.forksCount(),
+                        dto.language(), dto.updated_at().toEpochSecond()))
+                .toList();
+    }
+
+    @Benchmark
+    public List<Repository> streaming() throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(new ByteArrayInputStream(page))) {
+            GitHubSearchResponse response = GitHubSearchResponseDecoder.readSearchResponse(parser);
+            return response.items();
+        }
+    }
+
+    /**
+     * A search page shaped like a real GitHub answer: every item carries the owner object,
+     * license, topics and the full set of API URLs.
+     */
+    static String searchPage(int items) {
+        StringBuilder json = new StringBuilder("{\"total_count\": 12345, \"incomplete_results\": false, \"items\": [");
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            String repo = "owner-" + i + "/repository-" + i;
+            String api = "https://api.github.com/repos/" + repo;
+            json.append("{\"id\": ").append(100_000 + i)
+                    .append(", \"node_id\": \"R_kgDOOlFh").append(i).append("\"")
+                    .append(", \"name\": \"repository-").append(i).append("\"")
+                    .append(", \"full_name\": \"").append(repo).append("\", \"private\": false")
+                    .append(", \"owner\": {\"login\": \"owner-").append(i).append("\", \"id\": ").append(i)
+                    .append(", \"node_id\": \"U_kgDOBs").append(i).append("\"")
+                    .append(", \"avatar_url\": \"https://avatars.githubusercontent.com/u/").append(i).append("?v=4\"")
+                    .append(", \"gravatar_id\": \"\"");
+            for (String link : new String[]{"url", "html_url", "followers_url", "following_url", "gists_url",
+                    "starred_url", "subscriptions_url", "organizations_url", "repos_url", "events_url",
+                    "received_events_url"}) {
+                json.append(", \"").append(link).append("\": \"https://api.github.com/users/owner-").append(i)
+                        .append('/').append(link).append('"');
+            }
+            json.append(", \"type\": \"User\", \"user_view_type\": \"public\", \"site_admin\": false}")
+                    .append(", \"html_url\": \"https://github.com/").append(repo).append("\"")
+                    .append(", \"description\": \"A sample repository used to measure decoding of search result number ")
+                    .append(i).append("\", \"fork\": false, \"url\": \"").append(api).append('"');
+            for (String link : new String[]{"forks_url", "keys_url", "collaborators_url", "teams_url", "hooks_url",
+                    "issue_events_url", "events_url", "assignees_url", "branches_url", "tags_url", "blobs_url",
+                    "git_tags_url", "git_refs_url", "trees_url", "statuses_url", "languages_url", "stargazers_url",
+                    "contributors_url", "subscribers_url", "subscription_url", "commits_url", "git_commits_url",
+                    "comments_url", "issue_comment_url", "contents_url", "compare_url", "merges_url", "archive_url",
+                    "downloads_url", "issues_url", "pulls_url", "milestones_url", "notifications_url", "labels_url",
+                    "releases_url", "deployments_url"}) {
+                json.append(", \"").append(link).append("\": \"").append(api).append('/').append(link).append('"');
+            }
+            json.append(", \"created_at\": \"2024-01-01T00:00:00Z\"")
+                    .append(", \"updated_at\": \"2025-05-22T08:59:46Z\"")
+                    .append(", \"pushed_at\": \"2025-05-22T08:59:42Z\"")
+                    .append(", \"git_url\": \"git://github.com/").append(repo).append(".git\"")
+                    .append(", \"ssh_url\": \"git@github.com:").append(repo).append(".git\"")
+                    .append(", \"clone_url\": \"https://github.com/").append(repo).append(".git\"")
+                    .append(", \"homepage\": null, \"size\": ").append(1000 + i)
+                    .append(", \"stargazers_count\": ").append(i * 7)
+                    .append(", \"watchers_count\": ").append(i * 7)
+                    .append(", \"language\": \"Java\", \"has_issues\": true, \"has_projects\": true")
+                    .append(", \"has_downloads\": true, \"has_wiki\": true, \"has_pages\": false")
+                    .append(", \"has_discussions\": false, \"forks_count\": ").append(i * 3)
+                    .append(", \"mirror_url\": null, \"archived\": false, \"disabled\": false")
+                    .append(", \"open_issues_count\": ").append(i % 11)
+                    .append(", \"license\": {\"key\": \"mit\", \"name\": \"MIT License\", \"spdx_id\": \"MIT\"")
+                    .append(", \"url\": \"https://api.github.com/licenses/mit\", \"node_id\": \"MDc6TGljZW5zZTEz\"}")
+                    .append(", \"allow_forking\": true, \"is_template\": false, \"web_commit_signoff_required\": false")
+                    .append(", \"topics\": [\"spring\", \"java\", \"github-api\"]")
+                    .append(", \"visibility\": \"public\", \"forks\": ").append(i * 3)
+                    .append(", \"open_issues\": ").append(i % 11)
+                    .append(", \"watchers\": ").append(i * 7)
+                    .append(", \"default_branch\": \"main\", \"score\": 1.0}");
+        }
+        return json.append("]}").toString();
+    }
+
+    record BoundSearchResponse(int total_count, boolean incomplete_results, List<BoundRepository> items) {
+    }
+
+    record BoundRepository(
+            long id,
+            String name,
+            @JsonProperty("full_name")
+            String fullName,
+            String url,
+            String description,
+            String language,
+            @JsonProperty("forks_count")
+            long forksCount,
+            @JsonProperty("stargazers_count")
+            long stars,
+            ZonedDateTime updated_at
+    ) {
+    }
+}
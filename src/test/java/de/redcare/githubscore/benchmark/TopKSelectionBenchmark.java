@@ -0,0 +1,91 @@
+package de.redcare.githubscore.benchmark;
+
+import de.redcare.githubscore.application.mapper.ScoredRepositoryMapper;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.service.TopKSelector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares ordering scored candidates with a full boxed sort, as rankings were ordered before, with
+ * selecting only the best {@code k} (the depth of the requested page) with {@link TopKSelector}.
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.class=de.redcare.githubscore.benchmark.TopKSelectionBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopKSelectionBenchmark {
+
+    @Param({"1000", "100000"})
+    private int candidates;
+
+    @Param({"10", "1000"})
+    private int k;
+
+    private List<Repository> repositories;
+    private float[] scores;
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(TopKSelectionBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        ZonedDateTime now = ZonedDateTime.now();
+        repositories = IntStream.range(0, candidates)
+                .mapToObj(i -> new Repository(i, "repo-" + i, "url", random.nextInt(5000), random.nextInt(100_000),
+                        "Java", now.minusDays(random.nextInt(600)).toEpochSecond()))
+                .toList();
+        scores = new float[candidates];
+        for (int i = 0; i < candidates; i++) {
+            scores[i] = random.nextFloat();
+        }
+    }
+
+    @Benchmark
+    public List<ScoredRepository> fullSort() {
+        return IntStream.range(0, candidates)
+                .mapToObj(i -> ScoredRepositoryMapper.toScoredRepository(repositories.get(i), scores[i]))
+                .sorted(Comparator.comparing(ScoredRepository::score).reversed())
+                .limit(k)
+                .toList();
+    }
+
+    @Benchmark
+    public List<ScoredRepository> topK() {
+        return Arrays.stream(TopKSelector.select(scores, k, true))
+                .mapToObj(i -> ScoredRepositoryMapper.toScoredRepository(repositories.get(i), scores[i]))
+                .toList();
+    }
+}
@@ -0,0 +1,147 @@
+package de.redcare.githubscore.benchmark;
+
+import com.sun.net.httpserver.HttpServer;
+import de.redcare.githubscore.GitHubScoreServiceApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Compares request throughput of the platform-thread and the virtual-thread execution model
+ * while GitHub answers slowly.
+ * <p>
+ * Every request uses a distinct search query, so neither the cache nor request coalescing
+ * can absorb the load and each one holds a server thread for the full upstream round trip.
+ * <pre>
+ * ./mvnw -Pbenchmark test-compile exec:exec -Dbenchmark.class=de.redcare.githubscore.benchmark.VirtualThreadThroughputBenchmark
+ * </pre>
+ * Optional arguments: {@code <concurrent requests> <upstream delay ms>}, defaulting to 1000 and 500.
+ */
+public class VirtualThreadThroughputBenchmark {
+
+    private static final String EMPTY_SEARCH = "{\"total_count\": 0, \"incomplete_results\": false, \"items\": []}";
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int upstreamDelayMs = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        HttpServer gitHub = slowGitHub(upstreamDelayMs, concurrency);
+        gitHub.start();
+
+        try {
+            System.out.printf("%d concurrent requests, upstream delay %d ms%n%n", concurrency, upstreamDelayMs);
+            System.out.printf("%-10s %10s %12s %10s %10s %10s%n", "model", "ok", "wall (ms)", "req/s", "p50 (ms)", "p99 (ms)");
+            for (boolean virtual : new boolean[]{false, true}) {
+                Result result = run(gitHub.getAddress().getPort(), virtual, concurrency);
+                System.out.printf("%-10s %10d %12d %10.0f %10d %10d%n",
+                        virtual ? "virtual" : "platform",
+                        result.succeeded(), result.wallMillis(), result.throughput(), result.p50(), result.p99());
+            }
+        } finally {
+            gitHub.stop(0);
+        }
+    }
+
+    /**
+     * A fake GitHub search endpoint that answers every request after a fixed delay. It runs on
+     * virtual threads itself, so it never becomes the bottleneck of the measurement.
+     */
+    private static HttpServer slowGitHub(int delayMs, int backlog) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), backlog);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/search/repositories", exchange -> {
+            try {
+                Thread.sleep(delayMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = EMPTY_SEARCH.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        return server;
+    }
+
+    private static Result run(int gitHubPort, boolean virtual, int concurrency) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(GitHubScoreServiceApplication.class)
+                .run("--server.port=0",
+                        "--logging.level.root=WARN",
+                        "--github.api.debug=false",
+                        "--github.api.base-url=http://localhost:" + gitHubPort,
+                        "--github.api.max-concurrent-requests=" + (concurrency * 2),
+                        "--spring.threads.virtual.enabled=" + virtual);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient httpClient = HttpClient.newBuilder()
+                    .executor(clients)
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            String prefix = (virtual ? "virtual" : "platform");
+
+            // Warm-up round with a small load
+            fire(httpClient, clients, port, prefix + "-warmup", concurrency / 10);
+            return fire(httpClient, clients, port, prefix, concurrency);
+        } finally {
+            context.close();
+        }
+    }
+
+    private static Result fire(HttpClient httpClient, ExecutorService clients, int port, String prefix, int requests)
+            throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        long[] latencies = new long[requests];
+        List<Future<?>> calls = new ArrayList<>(requests);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            final int index = i;
+            URI uri = URI.create("http://localhost:" + port + "/api/v1/repos?searchQuery=" + prefix + "-" + i);
+            calls.add(clients.submit(() -> {
+                long sent = System.nanoTime();
+                HttpResponse<Void> response = httpClient.send(
+                        HttpRequest.newBuilder(uri).timeout(Duration.ofMinutes(2)).build(),
+                        HttpResponse.BodyHandlers.discarding());
+                latencies[index] = (System.nanoTime() - sent) / 1_000_000;
+                if (response.statusCode() == 200) {
+                    succeeded.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> call : calls) {
+            call.get();
+        }
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Arrays.sort(latencies);
+        return new Result(succeeded.get(), wallMillis,
+                requests * 1000.0 / Math.max(wallMillis, 1),
+                latencies[requests / 2],
+                latencies[(int) Math.min(requests - 1, Math.ceil(requests * 0.99) - 1)]);
+    }
+
+    private record Result(int succeeded, long wallMillis, double throughput, long p50, long p99) {
+    }
+}
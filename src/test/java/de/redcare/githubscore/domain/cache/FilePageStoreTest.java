@@ -0,0 +1,179 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FilePageStoreTest {
+
+    private static final Duration EXPIRE_AFTER = Duration.ofHours(2);
+    private static final Instant NOW = Instant.parse("2025-05-23T10:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    private final List<FilePageStore> stores = new ArrayList<>();
+    private Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+
+    @AfterEach
+    void tearDown() {
+        stores.forEach(FilePageStore::close);
+    }
+
+    @Test
+    void load_shouldAnswerPagesWrittenBeforeRestart() throws Exception {
+        FilePageStore store = open(1024 * 1024);
+        store.store(key(1), page(1, 3));
+        store.store(key(2), page(2, 2));
+        store.flush();
+        store.close();
+
+        clock = Clock.offset(clock, Duration.ofMinutes(10));
+        FilePageStore restarted = open(1024 * 1024);
+        restarted.flush();
+
+        CacheStore.StoredValue stored = restarted.load(key(1));
+        assertThat(stored).isNotNull();
+        assertThat(stored.value()).isEqualTo(page(1, 3));
+        assertThat(stored.age()).isEqualTo(Duration.ofMinutes(10));
+        assertThat(restarted.load(key(2)).value()).isEqualTo(page(2, 2));
+        assertThat(restarted.load(key(3))).isNull();
+    }
+
+    @Test
+    void load_shouldNotAnswerExpiredPages() throws Exception {
+        FilePageStore store = open(1024 * 1024);
+        store.store(key(1), page(1, 1));
+        store.flush();
+
+        clock = Clock.offset(clock, EXPIRE_AFTER);
+
+        assertThat(store.load(key(1))).isNull();
+    }
+
+    @Test
+    void remove_shouldSurviveRestart() throws Exception {
+        FilePageStore store = open(1024 * 1024);
+        store.store(key(1), page(1, 1));
+        store.remove(key(1));
+        store.flush();
+        store.close();
+
+        FilePageStore restarted = open(1024 * 1024);
+        restarted.flush();
+
+        assertThat(restarted.load(key(1))).isNull();
+    }
+
+    @Test
+    void store_shouldIgnoreValuesThatAreNotPages() throws Exception {
+        FilePageStore store = open(1024 * 1024);
+        store.store("rankings-key", page(1, 1));
+        store.store(key(1), List.of("not a repository"));
+        store.flush();
+
+        assertThat(store.load(key(1))).isNull();
+    }
+
+    @Test
+    void store_shouldCompactFileWithinMaximumSize() throws Exception {
+        long maxBytes = 32 * 1024;
+        FilePageStore store = open(maxBytes);
+        for (int i = 0; i < 100; i++) {
+            clock = Clock.offset(clock, Duration.ofSeconds(1));
+            store.store(key(i % 20), page(i, 10));
+        }
+        store.flush();
+
+        assertThat(store.fileSize()).isLessThanOrEqualTo(maxBytes);
+        assertThat(store.load(key(99 % 20)).value()).isEqualTo(page(99, 10));
+        store.close();
+
+        FilePageStore restarted = open(maxBytes);
+        restarted.flush();
+        assertThat(restarted.load(key(99 % 20)).value()).isEqualTo(page(99, 10));
+    }
+
+    @Test
+    void open_shouldCutOffTornRecord() throws Exception {
+        FilePageStore store = open(1024 * 1024);
+        store.store(key(1), page(1, 2));
+        store.flush();
+        store.close();
+        long intact = Files.size(directory.resolve(FilePageStore.FILE_NAME));
+        Files.write(directory.resolve(FilePageStore.FILE_NAME), new byte[]{0, 0, 1, 0, 42, 42}, StandardOpenOption.APPEND);
+
+        FilePageStore restarted = open(1024 * 1024);
+        restarted.flush();
+
+        assertThat(restarted.load(key(1)).value()).isEqualTo(page(1, 2));
+        assertThat(Files.size(directory.resolve(FilePageStore.FILE_NAME))).isEqualTo(intact);
+    }
+
+    @Test
+    void open_shouldStartEmptyOnForeignFile() throws Exception {
+        Files.writeString(directory.resolve(FilePageStore.FILE_NAME), "not a cache file");
+
+        FilePageStore store = open(1024 * 1024);
+        store.store(key(1), page(1, 1));
+        store.flush();
+
+        assertThat(store.load(key(1)).value()).isEqualTo(page(1, 1));
+    }
+
+    /**
+     * Opens a store whose clock follows {@link #clock}.
+     */
+    private FilePageStore open(long maxBytes) {
+        FilePageStore store = new FilePageStore(directory, maxBytes, EXPIRE_AFTER, new SimpleMeterRegistry(),
+                new Clock() {
+                    @Override
+                    public ZoneId getZone() {
+                        return ZoneOffset.UTC;
+                    }
+
+                    @Override
+                    public Clock withZone(ZoneId zone) {
+                        return this;
+                    }
+
+                    @Override
+                    public Instant instant() {
+                        return clock.instant();
+                    }
+                });
+        stores.add(store);
+        return store;
+    }
+
+    private static SearchKey key(int page) {
+        return new SearchKey("spring", "java", "stars", "desc", page, 10, LocalDate.of(2024, 1, 1));
+    }
+
+    private static List<Repository> page(int seed, int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> new Repository(seed * 100L + i, "repo-" + seed + "-" + i,
+                        "https://api.github.com/repos/owner/repo-" + i, 10L * i, i, i % 2 == 0 ? "Java" : null,
+                        ZonedDateTime.parse("2025-05-22T08:59:46Z").toEpochSecond()))
+                .toList();
+    }
+}
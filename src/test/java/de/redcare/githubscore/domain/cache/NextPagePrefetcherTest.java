@@ -0,0 +1,195 @@
+package de.redcare.githubscore.domain.cache;
+
+import com.github.benmanes.caffeine.cache.Scheduler;
+import de.redcare.githubscore.domain.config.CacheProperties;
+import de.redcare.githubscore.domain.exceptions.RateLimitExceededException;
+import de.redcare.githubscore.domain.repository.GithubRepository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import de.redcare.githubscore.infrastructure.client.github.ratelimit.OutboundPriority;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NextPagePrefetcherTest {
+
+    private static final Duration FOLLOW_WINDOW = Duration.ofSeconds(30);
+    private static final int MIN_SAMPLES = 4;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<Runnable> prefetches = new ArrayList<>();
+    private GithubRepository githubRepository;
+    private ConcurrentMapCache repositories;
+    private SimpleMeterRegistry meterRegistry;
+    private NextPagePrefetcher prefetcher;
+
+    @BeforeEach
+    void setUp() {
+        githubRepository = mock(GithubRepository.class);
+        repositories = new ConcurrentMapCache("repositories");
+        meterRegistry = new SimpleMeterRegistry();
+        prefetcher = new NextPagePrefetcher(githubRepository, repositories,
+                new CacheProperties.Prefetch(true, 0.5, MIN_SAMPLES, FOLLOW_WINDOW),
+                prefetches::add, meterRegistry, nanos::get, Scheduler.disabledScheduler());
+    }
+
+    @Test
+    void pageServed_shouldNotPrefetchBeforeShapeHasEnoughSamples() {
+        prefetcher.pageServed(page("spring", 1), 10);
+
+        assertThat(prefetches).isEmpty();
+        assertThat(prefetcher.probability(NextPagePrefetcher.Shape.of(page("spring", 1)))).isEqualTo(-1);
+    }
+
+    @Test
+    void pageServed_shouldPrefetchNextPageOnceClientsUsuallyPageOn() {
+        learnShape(MIN_SAMPLES, true);
+
+        prefetcher.pageServed(page("kotlin", 1), 10);
+
+        assertThat(prefetches).hasSize(1);
+        List<OutboundPriority> priorities = new ArrayList<>();
+        when(githubRepository.fetchRepositories(any(), any(), any(), any(), anyInt(), anyInt(), any()))
+                .thenAnswer(invocation -> {
+                    priorities.add(OutboundPriority.current());
+                    return List.of();
+                });
+        prefetches.getFirst().run();
+
+        verify(githubRepository).fetchRepositories("kotlin", null, "stars", "desc", 2, 10, null);
+        assertThat(priorities).containsExactly(OutboundPriority.BACKGROUND);
+        assertThat(counter("cache.prefetch.issued")).isEqualTo(1);
+
+        prefetcher.pageServed(page("kotlin", 2), 10);
+        assertThat(counter("cache.prefetch.hit")).isEqualTo(1);
+    }
+
+    @Test
+    void pageServed_shouldNotPrefetchWhenClientsRarelyPageOn() {
+        learnShape(MIN_SAMPLES, false);
+
+        prefetcher.pageServed(page("kotlin", 1), 10);
+
+        assertThat(prefetches).isEmpty();
+        assertThat(prefetcher.probability(NextPagePrefetcher.Shape.of(page("kotlin", 1)))).isZero();
+    }
+
+    @Test
+    void pageServed_shouldNotPrefetchAfterLastPage() {
+        learnShape(MIN_SAMPLES, true);
+
+        prefetcher.pageServed(page("kotlin", 1), 7);
+        prefetcher.pageServed(new SearchKey("kotlin", null, "stars", "desc", 10, 100, null), 100);
+
+        assertThat(prefetches).isEmpty();
+    }
+
+    @Test
+    void pageServed_shouldNotPrefetchCachedPage() {
+        learnShape(MIN_SAMPLES, true);
+        repositories.put(page("kotlin", 2), List.of());
+
+        prefetcher.pageServed(page("kotlin", 1), 10);
+
+        assertThat(prefetches).isEmpty();
+    }
+
+    @Test
+    void pageServed_shouldOnlyLookAtTheHeapForTheNextPage() {
+        CacheStore secondLevel = mock(CacheStore.class);
+        StaleWhileRevalidateCache tiered = new StaleWhileRevalidateCache("repositories", Duration.ofMinutes(10),
+                Duration.ofMinutes(5), 1024 * 1024, StaleWhileRevalidateCache.RefreshAhead.DISABLED, Runnable::run,
+                secondLevel, ValueCodec.IDENTITY, meterRegistry);
+        prefetcher = new NextPagePrefetcher(githubRepository, tiered,
+                new CacheProperties.Prefetch(true, 0.5, MIN_SAMPLES, FOLLOW_WINDOW),
+                prefetches::add, meterRegistry, nanos::get, Scheduler.disabledScheduler());
+        learnShape(MIN_SAMPLES, true);
+        tiered.put(page("kotlin", 2), List.of());
+
+        prefetcher.pageServed(page("kotlin", 1), 10);
+        prefetcher.pageServed(page("java", 1), 10);
+
+        assertThat(prefetches).hasSize(1);
+        verify(secondLevel, never()).load(any());
+    }
+
+    @Test
+    void pageServed_shouldCountPrefetchNobodyAskedForAsWasted() {
+        learnShape(MIN_SAMPLES, true);
+        prefetcher.pageServed(page("kotlin", 1), 10);
+        prefetches.getFirst().run();
+
+        nanos.addAndGet(FOLLOW_WINDOW.plusSeconds(1).toNanos());
+        prefetcher.cleanUp();
+
+        assertThat(counter("cache.prefetch.wasted")).isEqualTo(1);
+        assertThat(counter("cache.prefetch.hit")).isZero();
+        assertThat(prefetcher.probability(NextPagePrefetcher.Shape.of(page("kotlin", 1))))
+                .isEqualTo((double) MIN_SAMPLES / (MIN_SAMPLES + 1));
+    }
+
+    @Test
+    void pageServed_shouldCountPrefetchRefusedByRateLimiterAsFailed() {
+        learnShape(MIN_SAMPLES, true);
+        when(githubRepository.fetchRepositories(any(), any(), any(), any(), anyInt(), anyInt(), any()))
+                .thenThrow(new RateLimitExceededException(429, "reserved", "url", null, Map.of(), 0));
+
+        prefetcher.pageServed(page("kotlin", 1), 10);
+        prefetches.getFirst().run();
+        prefetcher.pageServed(page("kotlin", 2), 10);
+
+        assertThat(counter("cache.prefetch.failed")).isEqualTo(1);
+        assertThat(counter("cache.prefetch.hit")).isZero();
+    }
+
+    @Test
+    void pageServed_shouldDoNothingWhenDisabled() {
+        prefetcher = new NextPagePrefetcher(githubRepository, repositories,
+                new CacheProperties.Prefetch(false, 0.0, 1, FOLLOW_WINDOW),
+                prefetches::add, meterRegistry, nanos::get, Scheduler.disabledScheduler());
+
+        prefetcher.pageServed(page("spring", 1), 10);
+        prefetcher.pageServed(page("spring", 2), 10);
+        prefetcher.pageServed(page("spring", 3), 10);
+
+        assertThat(prefetches).isEmpty();
+        verify(githubRepository, never()).fetchRepositories(any(), any(), any(), any(), anyInt(), anyInt(), any());
+    }
+
+    /**
+     * Serves the first page of distinct queries and, if {@code followed}, their second page.
+     */
+    private void learnShape(int samples, boolean followed) {
+        for (int i = 0; i < samples; i++) {
+            prefetcher.pageServed(page("query-" + i, 1), 10);
+            if (followed) {
+                prefetcher.pageServed(page("query-" + i, 2), 3);
+            }
+        }
+        nanos.addAndGet(FOLLOW_WINDOW.plusSeconds(1).toNanos());
+        prefetcher.cleanUp();
+        prefetches.clear();
+    }
+
+    private double counter(String name) {
+        return meterRegistry.get(name).counter().count();
+    }
+
+    private static SearchKey page(String query, int page) {
+        return new SearchKey(query, null, "stars", "desc", page, 10, null);
+    }
+}
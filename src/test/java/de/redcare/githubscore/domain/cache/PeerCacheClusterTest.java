@@ -0,0 +1,176 @@
+package de.redcare.githubscore.domain.cache;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import de.redcare.githubscore.GitHubScoreServiceApplication;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.repository.GithubRepository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two replicas on localhost that share their {@code repositories} cache, with WireMock as GitHub.
+ */
+class PeerCacheClusterTest {
+
+    private static final String SEARCH_RESPONSE = """
+            {"total_count": 1, "incomplete_results": false, "items": [{
+              "id": 303, "name": "peer-repo", "url": "https://github.com/user/peer-repo",
+              "stargazers_count": 12, "forks_count": 3, "language": "Java", "updated_at": "2025-05-23T10:15:30Z"}]}
+            """;
+
+    private static final String SECRET = "cluster-secret";
+
+    private static WireMockServer gitHub;
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+    private static String firstUrl;
+    private static String secondUrl;
+
+    @BeforeAll
+    static void startCluster() throws IOException {
+        gitHub = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        gitHub.start();
+        gitHub.stubFor(get(urlPathEqualTo("/search/repositories")).willReturn(aResponse()
+                .withHeader("Content-Type", "application/json")
+                .withBody(SEARCH_RESPONSE)));
+
+        int firstPort = freePort();
+        int secondPort = freePort();
+        firstUrl = "http://localhost:" + firstPort;
+        secondUrl = "http://localhost:" + secondPort;
+        first = start(firstPort, firstUrl);
+        second = start(secondPort, secondUrl);
+    }
+
+    @AfterAll
+    static void stopCluster() {
+        second.close();
+        first.close();
+        gitHub.stop();
+    }
+
+    @BeforeEach
+    void resetGitHub() {
+        gitHub.resetRequests();
+    }
+
+    @Test
+    void fetchRepositories_shouldBeAnsweredByTheOwningPeer() {
+        String query = queryOwnedBy(firstUrl);
+
+        List<?> fetched = fetch(first, query);
+        List<?> shared = fetch(second, query);
+
+        assertThat(shared).isEqualTo(fetched).hasSize(1);
+        gitHub.verify(1, getRequestedFor(urlPathEqualTo("/search/repositories")));
+        assertThat(counter(second, "cache.peer.hits")).isEqualTo(1);
+    }
+
+    @Test
+    void fetchRepositories_shouldHandPagesFetchedFromGitHubToTheirOwner() throws InterruptedException {
+        String query = queryOwnedBy(secondUrl);
+
+        List<?> fetched = fetch(first, query);
+        StaleWhileRevalidateCache ownerCache = (StaleWhileRevalidateCache) second.getBean(CacheManager.class).getCache("repositories");
+        for (int i = 0; i < 100 && ownerCache.peek(key(query)) == null; i++) {
+            Thread.sleep(50);
+        }
+        List<?> shared = fetch(second, query);
+
+        assertThat(shared).isEqualTo(fetched).hasSize(1);
+        gitHub.verify(1, getRequestedFor(urlPathEqualTo("/search/repositories")));
+    }
+
+    @Test
+    void peerEndpoints_shouldRefuseCallsWithoutTheSharedSecret() throws Exception {
+        SearchKey key = key(queryOwnedBy(firstUrl));
+        byte[] page = PageCodec.encode(new PageCodec.Page(key, Duration.ZERO, List.of(new Repository(
+                666, "planted", "https://github.com/attacker/planted", 1_000_000, 1_000_000, "Java", ZonedDateTime.now().toEpochSecond()))));
+        HttpClient client = HttpClient.newHttpClient();
+
+        int unauthenticated = client.send(HttpRequest.newBuilder(URI.create(firstUrl + PeerCacheStore.PATH))
+                        .header("Content-Type", "application/octet-stream")
+                        .PUT(HttpRequest.BodyPublishers.ofByteArray(page))
+                        .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        int wrongSecret = client.send(HttpRequest.newBuilder(URI.create(firstUrl + PeerCacheStore.PATH))
+                        .header("Content-Type", "application/octet-stream")
+                        .header(PeerCacheStore.SECRET_HEADER, "guessed")
+                        .PUT(HttpRequest.BodyPublishers.ofByteArray(page))
+                        .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+        int lookup = client.send(HttpRequest.newBuilder(URI.create(firstUrl + PeerCacheStore.LOOKUP_PATH))
+                        .header("Content-Type", "application/octet-stream")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(PageCodec.encodeKey(key)))
+                        .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+
+        assertThat(unauthenticated).isEqualTo(403);
+        assertThat(wrongSecret).isEqualTo(403);
+        assertThat(lookup).isEqualTo(403);
+        assertThat(((StaleWhileRevalidateCache) first.getBean(CacheManager.class).getCache("repositories")).peek(key))
+                .isNull();
+    }
+
+    private static ConfigurableApplicationContext start(int port, String self) {
+        return new SpringApplicationBuilder(GitHubScoreServiceApplication.class)
+                .run("--server.port=" + port,
+                        "--logging.level.root=WARN",
+                        "--github.api.base-url=" + gitHub.baseUrl(),
+                        "--cache.prefetch.enabled=false",
+                        "--cache.peers.enabled=true",
+                        "--cache.peers.self=" + self,
+                        "--cache.peers.members=" + firstUrl + "," + secondUrl,
+                        "--cache.peers.secret=" + SECRET,
+                        "--cache.peers.timeout=2s");
+    }
+
+    private static List<?> fetch(ConfigurableApplicationContext replica, String query) {
+        return replica.getBean(GithubRepository.class).fetchRepositories(query, null, "stars", "desc", 1, 10, null);
+    }
+
+    private static String queryOwnedBy(String peer) {
+        PeerRing ring = new PeerRing(List.of(firstUrl, secondUrl));
+        return IntStream.range(0, 100)
+                .mapToObj(i -> peer.substring(peer.lastIndexOf(':') + 1) + "-" + System.nanoTime() + "-" + i)
+                .filter(query -> ring.owner(key(query)).equals(peer))
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static SearchKey key(String query) {
+        return new SearchKey(query, null, "stars", "desc", 1, 10, null);
+    }
+
+    private static double counter(ConfigurableApplicationContext replica, String name) {
+        return replica.getBean(MeterRegistry.class).get(name).counter().count();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
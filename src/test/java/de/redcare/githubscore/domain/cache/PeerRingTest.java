@@ -0,0 +1,55 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.repository.SearchKey;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeerRingTest {
+
+    private static final List<String> THREE = List.of("http://localhost:9090", "http://localhost:9091", "http://localhost:9092");
+
+    @Test
+    void owner_shouldBeTheSameOnEveryReplica() {
+        PeerRing ring = new PeerRing(THREE);
+        PeerRing sameMembers = new PeerRing(THREE);
+
+        IntStream.range(0, 1000).mapToObj(PeerRingTest::key)
+                .forEach(key -> assertThat(sameMembers.owner(key)).isEqualTo(ring.owner(key)));
+    }
+
+    @Test
+    void owner_shouldSpreadKeysOverAllPeers() {
+        PeerRing ring = new PeerRing(THREE);
+
+        Map<String, Long> owned = IntStream.range(0, 3000).mapToObj(PeerRingTest::key)
+                .collect(Collectors.groupingBy(ring::owner, Collectors.counting()));
+
+        assertThat(owned).containsOnlyKeys(THREE);
+        assertThat(owned.values()).allSatisfy(count -> assertThat(count).isBetween(600L, 1400L));
+    }
+
+    @Test
+    void owner_shouldOnlyMoveKeysOfAnAddedPeer() {
+        PeerRing before = new PeerRing(THREE);
+        PeerRing after = new PeerRing(List.of(THREE.get(0), THREE.get(1), THREE.get(2), "http://localhost:9093"));
+
+        List<SearchKey> keys = IntStream.range(0, 4000).mapToObj(PeerRingTest::key).toList();
+        Map<SearchKey, String> moved = keys.stream()
+                .filter(key -> !before.owner(key).equals(after.owner(key)))
+                .collect(Collectors.toMap(Function.identity(), after::owner));
+
+        assertThat(moved.values()).containsOnly("http://localhost:9093");
+        assertThat(moved).hasSizeBetween(600, 1400);
+    }
+
+    private static SearchKey key(int i) {
+        return new SearchKey("query-" + i, i % 2 == 0 ? "Java" : null, "stars", "desc", 1 + i % 5, 10, null);
+    }
+}
@@ -0,0 +1,85 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.model.Repository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RepositoryEntityStoreTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RepositoryEntityStore store;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        store = new RepositoryEntityStore("repositories", meterRegistry);
+    }
+
+    @Test
+    void encode_shouldKeepPageAsIdsAndRepositoriesOnce() {
+        Object first = store.encode(List.of(repository(1, 10), repository(2, 20)));
+        Object second = store.encode(List.of(repository(2, 20), repository(3, 30)));
+
+        assertThat(first).isEqualTo(new RepositoryEntityStore.PageIds(new long[]{1, 2}));
+        assertThat(second).isEqualTo(new RepositoryEntityStore.PageIds(new long[]{2, 3}));
+        assertThat(store.size()).isEqualTo(3);
+        assertThat(meterRegistry.get("cache.entities").gauge().value()).isEqualTo(3);
+        assertThat(store.decode(first)).isEqualTo(List.of(repository(1, 10), repository(2, 20)));
+    }
+
+    @Test
+    void decode_shouldShowLatestDataOfRepositoryOnEveryPage() {
+        Object older = store.encode(List.of(repository(1, 10), repository(2, 20)));
+        store.encode(List.of(repository(2, 25)));
+
+        assertThat(store.decode(older)).isEqualTo(List.of(repository(1, 10), repository(2, 25)));
+    }
+
+    @Test
+    void release_shouldDropRepositoriesOfLastPageReferringToThem() {
+        Object first = store.encode(List.of(repository(1, 10), repository(2, 20)));
+        Object second = store.encode(List.of(repository(2, 20)));
+
+        store.release(first);
+
+        assertThat(store.get(1)).isNull();
+        assertThat(store.get(2)).isEqualTo(repository(2, 20));
+        assertThat(store.decode(second)).isEqualTo(List.of(repository(2, 20)));
+        assertThat(store.decode(first)).isNull();
+
+        store.release(second);
+
+        assertThat(store.size()).isZero();
+        assertThat(store.footprint()).isZero();
+    }
+
+    @Test
+    void weigh_shouldSplitSharedRepositoriesAmongTheirPages() {
+        Object first = store.encode(List.of(repository(1, 10), repository(2, 20)));
+        Object second = store.encode(List.of(repository(2, 20)));
+
+        assertThat(store.weigh(first)).isGreaterThan(store.weigh(second));
+        assertThat(store.weigh(first) + store.weigh(second)).isEqualTo(store.footprint());
+        assertThat(meterRegistry.get("cache.footprint").gauge().value()).isEqualTo(store.footprint());
+    }
+
+    @Test
+    void encode_shouldKeepOtherValuesAsTheyAre() {
+        List<String> ranking = List.of("a", "b");
+
+        assertThat(store.encode(ranking)).isSameAs(ranking);
+        assertThat(store.decode(ranking)).isSameAs(ranking);
+        assertThat(store.decode(store.encode(List.of()))).isEqualTo(List.of());
+    }
+
+    private static Repository repository(long id, long stars) {
+        return new Repository(id, "repo-" + id, "https://api.github.com/repos/owner/repo-" + id, stars, 1, "Java",
+                ZonedDateTime.parse("2025-05-22T08:59:46Z").toEpochSecond());
+    }
+}
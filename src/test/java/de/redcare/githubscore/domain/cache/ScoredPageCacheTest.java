@@ -0,0 +1,112 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ScoredPageCacheTest {
+
+    private static final Instant NOW = Instant.parse("2025-05-23T10:00:00Z");
+    private static final ScoringProperties SCORING = scoring(0.5f, 0.3f, 0.2f);
+    private static final SearchKey PAGE = new SearchKey("spring", "java", null, null, 1, 10, null);
+
+    private final ConcurrentMapCache scores = new ConcurrentMapCache("scores");
+    private final AtomicInteger scored = new AtomicInteger();
+    private final AtomicLong formulaGeneration = new AtomicLong();
+
+    @AfterEach
+    void tearDown() {
+        Staleness.consume();
+    }
+
+    @Test
+    void get_shouldSkipScoringOnTheSameDay() {
+        ScoredPageCache morning = cache(NOW);
+        ScoredPageCache evening = cache(NOW.plus(Duration.ofHours(13)));
+
+        List<ScoredRepository> first = morning.get(PAGE, "desc", SCORING, scorer(0.4f));
+        List<ScoredRepository> second = evening.get(PAGE, "desc", SCORING, scorer(0.9f));
+
+        assertThat(second).isSameAs(first);
+        assertThat(scored).hasValue(1);
+    }
+
+    @Test
+    void get_shouldRescoreOnTheNextDay() {
+        cache(NOW).get(PAGE, "desc", SCORING, scorer(0.4f));
+
+        List<ScoredRepository> nextDay = cache(NOW.plus(Duration.ofDays(1))).get(PAGE, "desc", SCORING, scorer(0.3f));
+
+        assertThat(nextDay.getFirst().score()).isEqualTo(0.3f);
+        assertThat(scored).hasValue(2);
+    }
+
+    @Test
+    void get_shouldRescoreWithAnotherConfigurationOrOrder() {
+        cache(NOW).get(PAGE, "desc", SCORING, scorer(0.4f));
+
+        cache(NOW).get(PAGE, "desc", scoring(0.2f, 0.3f, 0.5f), scorer(0.6f));
+        cache(NOW).get(PAGE, "asc", SCORING, scorer(0.4f));
+        cache(NOW).get(PAGE, null, SCORING, scorer(0.4f));
+
+        assertThat(scored).hasValue(4);
+    }
+
+    @Test
+    void get_shouldRescoreOnceTheFormulaWasReplaced() {
+        ScoredPageCache cache = cache(NOW);
+        cache.get(PAGE, "desc", SCORING, scorer(0.4f));
+
+        formulaGeneration.incrementAndGet();
+        List<ScoredRepository> rescored = cache.get(PAGE, "desc", SCORING, scorer(0.7f));
+
+        assertThat(rescored.getFirst().score()).isEqualTo(0.7f);
+        assertThat(scored).hasValue(2);
+    }
+
+    @Test
+    void get_shouldNotKeepPagesScoredFromStaleData() {
+        ScoredPageCache cache = cache(NOW);
+
+        cache.get(PAGE, "desc", SCORING, () -> {
+            Staleness.markStale();
+            return scorer(0.4f).get();
+        });
+        Staleness.consume();
+        cache.get(PAGE, "desc", SCORING, scorer(0.5f));
+
+        assertThat(scored).hasValue(2);
+        assertThat(cache.get(PAGE, "desc", SCORING, scorer(0.6f)).getFirst().score()).isEqualTo(0.5f);
+    }
+
+    private ScoredPageCache cache(Instant now) {
+        return new ScoredPageCache(scores, Clock.fixed(now, ZoneOffset.UTC), formulaGeneration::get);
+    }
+
+    private Supplier<List<ScoredRepository>> scorer(float score) {
+        return () -> {
+            scored.incrementAndGet();
+            return List.of(new ScoredRepository(1, "spring-boot", "https://github.com/spring/spring-boot", "Java",
+                    100, 10, NOW.getEpochSecond(), score));
+        };
+    }
+
+    private static ScoringProperties scoring(float stars, float forks, float recency) {
+        return new ScoringProperties(new ScoringProperties.Weights(stars, forks, recency),
+                new ScoringProperties.Maximums(1000, 50000, 365), true);
+    }
+}
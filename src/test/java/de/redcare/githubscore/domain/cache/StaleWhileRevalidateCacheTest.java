@@ -0,0 +1,331 @@
+package de.redcare.githubscore.domain.cache;
+
+import de.redcare.githubscore.domain.model.Repository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StaleWhileRevalidateCacheTest {
+
+    private static final Duration TTL = Duration.ofMinutes(10);
+    private static final Duration GRACE = Duration.ofMinutes(5);
+    private static final long HEAP_BUDGET = 1024 * 1024;
+    private static final StaleWhileRevalidateCache.RefreshAhead REFRESH_AHEAD =
+            new StaleWhileRevalidateCache.RefreshAhead(Duration.ofMinutes(8), Duration.ofMinutes(3));
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private StaleWhileRevalidateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new StaleWhileRevalidateCache("repositories", TTL, GRACE, HEAP_BUDGET, REFRESH_AHEAD, refreshes::add,
+                CacheStore.NONE, ValueCodec.IDENTITY, meterRegistry, nanos::get);
+        Staleness.consume();
+    }
+
+    @Test
+    void get_shouldServeFreshEntryWithoutLoading() {
+        cache.put("key", "v1");
+        advance(TTL.minusSeconds(1));
+
+        assertThat(cache.get("key", () -> "v2")).isEqualTo("v1");
+        assertThat(refreshes).isEmpty();
+        assertThat(Staleness.consume()).isFalse();
+    }
+
+    @Test
+    void get_shouldServeStaleEntryAndRefreshInBackground() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.put("key", "v1");
+        advance(TTL.plusSeconds(1));
+
+        assertThat(cache.get("key", () -> "v" + (loads.incrementAndGet() + 1))).isEqualTo("v1");
+        assertThat(cache.get("key", () -> "v" + (loads.incrementAndGet() + 1))).isEqualTo("v1");
+        assertThat(Staleness.consume()).isTrue();
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.getFirst().run();
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.get("key", () -> "unused")).isEqualTo("v2");
+        assertThat(Staleness.consume()).isFalse();
+        assertThat(meterRegistry.get("cache.stale.served").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void get_shouldKeepStaleEntryWhenRefreshFails() {
+        cache.put("key", "v1");
+        advance(TTL.plusSeconds(1));
+
+        cache.get("key", () -> {
+            throw new IllegalStateException("GitHub unavailable");
+        });
+        refreshes.getFirst().run();
+
+        assertThat(cache.get("key", () -> "v2")).isEqualTo("v1");
+        assertThat(Staleness.consume()).isTrue();
+        assertThat(meterRegistry.get("cache.stale.refresh.failed").counter().count()).isEqualTo(1);
+        assertThat(refreshes).hasSize(2);
+    }
+
+    @Test
+    void get_shouldLoadSynchronouslyOnceGraceWindowHasPassed() {
+        cache.put("key", "v1");
+        advance(TTL.plus(GRACE).plusSeconds(1));
+
+        assertThatThrownBy(() -> cache.get("key", () -> {
+            throw new IllegalStateException("GitHub unavailable");
+        })).isInstanceOf(Cache.ValueRetrievalException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(cache.get("key", () -> "v2")).isEqualTo("v2");
+        assertThat(Staleness.consume()).isFalse();
+    }
+
+    @Test
+    void refreshAhead_shouldReloadHotEntriesBeforeTheyTurnStale() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get("hot", () -> "hot-v" + loads.incrementAndGet());
+        cache.get("cold", () -> "cold-v1");
+        cache.get("young", () -> "young-v1");
+
+        advance(Duration.ofMinutes(6));
+        cache.get("hot", () -> "hot-v" + loads.incrementAndGet());
+        advance(Duration.ofMinutes(2));
+        cache.put("young", "young-v2");
+        cache.get("young", () -> "unused");
+
+        assertThat(cache.refreshAhead(key -> key + "-v" + loads.incrementAndGet())).isEqualTo(1);
+        assertThat(refreshes).hasSize(1);
+        refreshes.getFirst().run();
+
+        assertThat(cache.get("hot", () -> "unused")).isEqualTo("hot-v2");
+        assertThat(Staleness.consume()).isFalse();
+        assertThat(meterRegistry.get("cache.refresh.ahead").counter().count()).isEqualTo(1);
+        assertThat(cache.refreshAhead(key -> "unused")).isZero();
+    }
+
+    @Test
+    void refreshAhead_shouldForgetEvictedEntries() {
+        cache.get("key", () -> "v1");
+        cache.evict("key");
+        advance(Duration.ofMinutes(9));
+
+        assertThat(cache.refreshAhead(key -> "unused")).isZero();
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    void lookup_shouldIgnoreStaleEntries() {
+        cache.put("key", "v1");
+        assertThat(cache.get("key")).isNotNull();
+
+        advance(TTL.plusSeconds(1));
+
+        assertThat(cache.get("key")).isNull();
+    }
+
+    @Test
+    void get_shouldAnswerMissFromSecondLevelStoreWithItsAge() {
+        Map<Object, CacheStore.StoredValue> disk = new HashMap<>();
+        cache = new StaleWhileRevalidateCache("repositories", TTL, GRACE, HEAP_BUDGET,
+                StaleWhileRevalidateCache.RefreshAhead.DISABLED, refreshes::add,
+                new MapStore(disk), ValueCodec.IDENTITY, meterRegistry, nanos::get);
+        disk.put("fresh", new CacheStore.StoredValue("v1", TTL.minusSeconds(1)));
+        disk.put("stale", new CacheStore.StoredValue("v1", TTL.plusSeconds(1)));
+
+        assertThat(cache.get("fresh", () -> "v2")).isEqualTo("v1");
+        assertThat(Staleness.consume()).isFalse();
+        assertThat(cache.get("stale", () -> "v2")).isEqualTo("v1");
+        assertThat(Staleness.consume()).isTrue();
+        assertThat(refreshes).hasSize(1);
+
+        refreshes.getFirst().run();
+
+        assertThat(disk.get("stale").value()).isEqualTo("v2");
+        cache.evict("fresh");
+        assertThat(disk).doesNotContainKey("fresh");
+    }
+
+    @Test
+    void get_shouldLoadConcurrentMissesFromSecondLevelStoreOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        cache = new StaleWhileRevalidateCache("repositories", TTL, GRACE, HEAP_BUDGET,
+                StaleWhileRevalidateCache.RefreshAhead.DISABLED, refreshes::add,
+                new MapStore(new HashMap<>()) {
+                    @Override
+                    public StoredValue load(Object key) {
+                        loads.incrementAndGet();
+                        loading.countDown();
+                        await(release);
+                        return new StoredValue("v1", Duration.ZERO);
+                    }
+                }, ValueCodec.IDENTITY, meterRegistry, nanos::get);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<Object> first = executor.submit(() -> cache.get("key", () -> "v2"));
+            loading.await();
+            Future<Object> second = executor.submit(() -> cache.get("key", () -> "v2"));
+            while (meterRegistry.get("cache.second.level.loads.coalesced").counter().count() < 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertThat(first.get()).isEqualTo("v1");
+            assertThat(second.get()).isEqualTo("v1");
+        }
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void get_shouldExpireSecondLevelEntryAtEndOfItsGraceWindow() {
+        Map<Object, CacheStore.StoredValue> disk = new HashMap<>();
+        cache = new StaleWhileRevalidateCache("repositories", TTL, GRACE, HEAP_BUDGET,
+                StaleWhileRevalidateCache.RefreshAhead.DISABLED, refreshes::add,
+                new MapStore(disk), ValueCodec.IDENTITY, meterRegistry, nanos::get);
+        disk.put("key", new CacheStore.StoredValue("v1", TTL.plus(GRACE).minusSeconds(1)));
+        assertThat(cache.get("key", () -> "unused")).isEqualTo("v1");
+        disk.clear();
+
+        advance(Duration.ofSeconds(2));
+
+        assertThat(cache.get("key", () -> "v2")).isEqualTo("v2");
+    }
+
+    @Test
+    void put_shouldKeepPagesNormalizedAndReleaseEvictedOnes() {
+        RepositoryEntityStore entities = new RepositoryEntityStore("repositories", meterRegistry);
+        cache = new StaleWhileRevalidateCache("repositories", TTL, GRACE, HEAP_BUDGET,
+                StaleWhileRevalidateCache.RefreshAhead.DISABLED, refreshes::add,
+                CacheStore.NONE, entities, meterRegistry, nanos::get);
+        Repository spring = new Repository(1, "spring", "url", 10, 1, "Java", 0);
+        Repository springUpdated = new Repository(1, "spring", "url", 11, 1, "Java", 0);
+
+        cache.put("page-1", List.of(spring));
+        cache.put("page-2", List.of(springUpdated));
+
+        assertThat(cache.getNativeCache().getIfPresent("page-1").value())
+                .isEqualTo(new RepositoryEntityStore.PageIds(new long[]{1}));
+        assertThat(cache.get("page-1", () -> List.of())).isEqualTo(List.of(springUpdated));
+
+        cache.evict("page-1");
+        cache.evict("page-2");
+
+        assertThat(entities.get(1)).isNull();
+    }
+
+    @Test
+    void put_shouldEvictPagesBeyondHeapBudget() {
+        meterRegistry = new SimpleMeterRegistry();
+        RepositoryEntityStore entities = new RepositoryEntityStore("repositories", meterRegistry);
+        cache = new StaleWhileRevalidateCache("repositories", TTL, GRACE, 64 * 1024,
+                StaleWhileRevalidateCache.RefreshAhead.DISABLED, refreshes::add,
+                CacheStore.NONE, entities, meterRegistry, nanos::get);
+
+        for (int page = 0; page < 20; page++) {
+            int first = page * 100;
+            cache.put("page-" + page, IntStream.range(first, first + 20)
+                    .mapToObj(id -> new Repository(id, "repository-" + id, "https://api.github.com/repos/owner/repository-" + id,
+                            id, id, "Java", ZonedDateTime.parse("2025-05-22T08:59:46Z").toEpochSecond()))
+                    .toList());
+        }
+        cache.getNativeCache().cleanUp();
+
+        double weight = meterRegistry.get("cache.weight").gauge().value();
+        assertThat(weight).isPositive().isLessThanOrEqualTo(64 * 1024);
+        assertThat(cache.getNativeCache().estimatedSize()).isLessThan(20);
+        assertThat(cache.getNativeCache().stats().evictionCount()).isPositive();
+        assertThat(meterRegistry.get("cache.footprint").gauge().value()).isEqualTo(entities.footprint()).isPositive();
+    }
+
+    @Test
+    void put_shouldFitOverlappingPagesThatCountedInFullWouldExceedTheBudget() {
+        meterRegistry = new SimpleMeterRegistry();
+        RepositoryEntityStore entities = new RepositoryEntityStore("repositories", meterRegistry);
+        cache = new StaleWhileRevalidateCache("repositories", TTL, GRACE, 64 * 1024,
+                StaleWhileRevalidateCache.RefreshAhead.DISABLED, refreshes::add,
+                CacheStore.NONE, entities, meterRegistry, nanos::get);
+        List<Repository> repositories = IntStream.range(0, 20)
+                .mapToObj(id -> new Repository(id, "repository-" + id, "https://api.github.com/repos/owner/repository-" + id,
+                        id, id, "Java", ZonedDateTime.parse("2025-05-22T08:59:46Z").toEpochSecond()))
+                .toList();
+
+        cache.put("page-0", repositories);
+        long fullWeight = entities.weigh(cache.getNativeCache().getIfPresent("page-0").value());
+        for (int page = 1; page < 20; page++) {
+            cache.put("page-" + page, repositories);
+        }
+        cache.getNativeCache().cleanUp();
+
+        assertThat(20 * fullWeight).isGreaterThan(64 * 1024);
+        assertThat(cache.getNativeCache().estimatedSize()).isEqualTo(20);
+        assertThat(cache.getNativeCache().stats().evictionCount()).isZero();
+    }
+
+    private void advance(Duration duration) {
+        nanos.addAndGet(duration.toNanos());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * A second-level store on a map that keeps every value with age zero.
+     */
+    private static class MapStore implements CacheStore {
+
+        private final Map<Object, StoredValue> values;
+
+        MapStore(Map<Object, StoredValue> values) {
+            this.values = values;
+        }
+
+        @Override
+        public StoredValue load(Object key) {
+            return values.get(key);
+        }
+
+        @Override
+        public void store(Object key, Object value) {
+            values.put(key, new StoredValue(value, Duration.ZERO));
+        }
+
+        @Override
+        public void remove(Object key) {
+            values.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package de.redcare.githubscore.domain.services;
+
+import de.redcare.githubscore.application.service.ScoringService;
+import de.redcare.githubscore.domain.config.BatchProperties;
+import de.redcare.githubscore.domain.exceptions.GitHubApiException;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.service.BatchScoringService;
+import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import de.redcare.githubscore.web.dto.SortBy;
+import de.redcare.githubscore.web.dto.SortOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchScoringServiceTest {
+
+    @Mock
+    private ScoringService scoringService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void fetchRepositoriesScores_shouldSearchIdenticalQueriesOnce() {
+        // Given
+        BatchScoringService batchScoringService = new BatchScoringService(
+                scoringService, new BatchProperties(50, 4, 16, 16), Runnable::run, meterRegistry);
+        when(scoringService.fetchRepositoriesScores(request("java")))
+                .thenReturn(List.of(createScoredRepository("java-repo")));
+        when(scoringService.fetchRepositoriesScores(request("go")))
+                .thenReturn(List.of(createScoredRepository("go-repo")));
+
+        // When
+        List<CompletableFuture<List<ScoredRepository>>> results = batchScoringService.fetchRepositoriesScores(
+                List.of(request("java"), request("go"), request("java")));
+
+        // Then
+        assertEquals(List.of("java-repo", "go-repo", "java-repo"),
+                results.stream().map(result -> result.join().getFirst().name()).toList());
+        verify(scoringService, times(1)).fetchRepositoriesScores(request("java"));
+        assertEquals(1.0, meterRegistry.counter("batch.queries.deduplicated").count());
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldFailQueriesOnTheirOwn() {
+        // Given
+        BatchScoringService batchScoringService = new BatchScoringService(
+                scoringService, new BatchProperties(50, 4, 16, 16), Runnable::run, meterRegistry);
+        when(scoringService.fetchRepositoriesScores(request("broken")))
+                .thenThrow(new GitHubApiException(500, "GitHub API error", "/search/repositories", null, null));
+        when(scoringService.fetchRepositoriesScores(request("java")))
+                .thenReturn(List.of(createScoredRepository("java-repo")));
+
+        // When
+        List<CompletableFuture<List<ScoredRepository>>> results = batchScoringService.fetchRepositoriesScores(
+                List.of(request("broken"), request("java")));
+
+        // Then
+        CompletionException failure = assertThrows(CompletionException.class, () -> results.getFirst().join());
+        assertInstanceOf(GitHubApiException.class, failure.getCause());
+        assertEquals("java-repo", results.getLast().join().getFirst().name());
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldBoundConcurrentQueries() {
+        // Given
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(scoringService.fetchRepositoriesScores(any())).thenAnswer(invocation -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+            return List.of();
+        });
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            BatchScoringService batchScoringService = new BatchScoringService(
+                    scoringService, new BatchProperties(50, 3, 16, 16), executor, meterRegistry);
+
+            // When
+            List<CompletableFuture<List<ScoredRepository>>> results = batchScoringService.fetchRepositoriesScores(
+                    IntStream.range(0, 12).mapToObj(i -> request("query-" + i)).toList());
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        }
+
+        // Then
+        assertEquals(3, maxRunning.get());
+        verify(scoringService, times(12)).fetchRepositoriesScores(any());
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldFailQueriesWhenNoWorkerIsAccepted() {
+        // Given
+        BatchScoringService batchScoringService = new BatchScoringService(
+                scoringService, new BatchProperties(50, 4, 16, 16),
+                task -> {
+                    throw new RejectedExecutionException("Batch executor is full");
+                },
+                meterRegistry);
+
+        // When
+        List<CompletableFuture<List<ScoredRepository>>> results = batchScoringService.fetchRepositoriesScores(
+                List.of(request("java"), request("go")));
+
+        // Then
+        results.forEach(result -> {
+            CompletionException e = assertThrows(CompletionException.class, result::join);
+            assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        });
+        verifyNoInteractions(scoringService);
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldRunWithTheWorkersAccepted() {
+        // Given
+        AtomicInteger accepted = new AtomicInteger();
+        BatchScoringService batchScoringService = new BatchScoringService(
+                scoringService, new BatchProperties(50, 4, 16, 16),
+                task -> {
+                    if (accepted.incrementAndGet() > 1) {
+                        throw new RejectedExecutionException("Batch executor is full");
+                    }
+                    task.run();
+                },
+                meterRegistry);
+        when(scoringService.fetchRepositoriesScores(any())).thenReturn(List.of());
+
+        // When
+        List<CompletableFuture<List<ScoredRepository>>> results = batchScoringService.fetchRepositoriesScores(
+                IntStream.range(0, 5).mapToObj(i -> request("query-" + i)).toList());
+
+        // Then
+        results.forEach(result -> assertEquals(List.of(), result.join()));
+        verify(scoringService, times(5)).fetchRepositoriesScores(any());
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldRejectTooManyQueries() {
+        BatchScoringService batchScoringService = new BatchScoringService(
+                scoringService, new BatchProperties(2, 4, 16, 16), Runnable::run, meterRegistry);
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> batchScoringService.fetchRepositoriesScores(
+                        List.of(request("a"), request("b"), request("c"))));
+
+        assertEquals("A batch takes at most 2 queries, got 3", exception.getMessage());
+        verifyNoInteractions(scoringService);
+    }
+
+    private RepositorySearchRequest request(String query) {
+        return new RepositorySearchRequest(query, null, SortBy.STARS, SortOrder.DESC, 1, 10, null);
+    }
+
+    private ScoredRepository createScoredRepository(String name) {
+        return new ScoredRepository(1, name, "https://github.com/test/" + name, "Java", 10, 1,
+                ZonedDateTime.now().toEpochSecond(), 0.5f);
+    }
+}
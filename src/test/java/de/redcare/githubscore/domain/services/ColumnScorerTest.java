@@ -0,0 +1,89 @@
+package de.redcare.githubscore.domain.services;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.model.RepositoryColumns;
+import de.redcare.githubscore.domain.service.ColumnScorer;
+import de.redcare.githubscore.domain.service.DefaultScoringCalculator;
+import de.redcare.githubscore.domain.service.ScalarColumnScorer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Clock;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ColumnScorerTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.of(2025, 5, 23, 10, 0, 0, 0, ZoneOffset.UTC);
+
+    @ParameterizedTest
+    @ValueSource(booleans = {true, false})
+    void vectorScorer_shouldGiveTheScoresOfTheScalarScorer(boolean normalize) {
+        assumeTrue(ColumnScorer.isVectorSupported(), "runs with -Pvector");
+        ScoringProperties config = config(normalize);
+        Random random = new Random(42);
+
+        for (int size = 0; size <= 67; size++) {
+            RepositoryColumns columns = RepositoryColumns.of(repositories(random, size), NOW.toInstant());
+            float[] scalar = new float[size];
+            float[] vector = new float[size];
+
+            new ScalarColumnScorer(config).score(columns, scalar);
+            ColumnScorer.vector(config).score(columns, vector);
+
+            assertThat(vector).as("%d repositories", size).containsExactly(scalar);
+        }
+    }
+
+    @Test
+    void calculatePopularityScores_shouldGiveTheScoresOfSingleRepositories() {
+        DefaultScoringCalculator calculator = new DefaultScoringCalculator(config(true),
+                Clock.fixed(NOW.toInstant(), ZoneOffset.UTC));
+        List<Repository> repositories = repositories(new Random(7), 250);
+
+        float[] batch = calculator.calculatePopularityScores(repositories);
+
+        float[] single = new float[repositories.size()];
+        for (int i = 0; i < single.length; i++) {
+            single[i] = calculator.calculatePopularityScore(repositories.get(i));
+        }
+        assertThat(batch).containsExactly(single);
+    }
+
+    @Test
+    void repositoryColumns_shouldCountWholeDaysSinceUpdate() {
+        List<Repository> repositories = List.of(
+                repository(NOW.minusDays(3)),
+                repository(NOW.minusDays(3).plusSeconds(1)),
+                repository(NOW.minusDays(400).minusHours(23)),
+                repository(NOW.plusDays(2)));
+
+        RepositoryColumns columns = RepositoryColumns.of(repositories, NOW.toInstant());
+
+        assertThat(columns.daysSinceUpdate()).containsExactly(3, 2, 400, -2);
+    }
+
+    private static List<Repository> repositories(Random random, int size) {
+        return IntStream.range(0, size)
+                .mapToObj(i -> new Repository(i, "repo-" + i, "url", random.nextInt(3000), random.nextInt(100_000),
+                        "Java", NOW.minusSeconds(random.nextLong(600L * 86_400)).toEpochSecond()))
+                .toList();
+    }
+
+    private static Repository repository(ZonedDateTime lastUpdated) {
+        return new Repository(1, "repo", "url", 10, 1, "Java", lastUpdated.toEpochSecond());
+    }
+
+    private static ScoringProperties config(boolean normalize) {
+        return new ScoringProperties(new ScoringProperties.Weights(0.5f, 0.3f, 0.2f),
+                new ScoringProperties.Maximums(1000f, 50_000f, 365), normalize);
+    }
+}
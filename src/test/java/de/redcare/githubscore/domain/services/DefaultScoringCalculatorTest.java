@@ -1,18 +1,33 @@
 package de.redcare.githubscore.domain.services;
 
+import com.sun.management.ThreadMXBean;
 import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.exceptions.UnsupportedScoringException;
 import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.service.ColumnScorer;
 import de.redcare.githubscore.domain.service.DefaultScoringCalculator;
+import de.redcare.githubscore.web.dto.ScoringOverrides;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
 
 public class DefaultScoringCalculatorTest {
 
+    private ScoringProperties config;
     private DefaultScoringCalculator scoringCalculator;
 
     @BeforeEach
@@ -29,13 +44,13 @@ public class DefaultScoringCalculatorTest {
                 365    // max recency days
         );
 
-        ScoringProperties config = new ScoringProperties(weights, maximums, true);
+        config = new ScoringProperties(weights, maximums, true);
         scoringCalculator = new DefaultScoringCalculator(config);
     }
 
     @Test
     public void testCalculatePopularityScore() {
-        ZonedDateTime lastUpdated = OffsetDateTime.now().minusDays(100).toZonedDateTime();
+        long lastUpdated = OffsetDateTime.now().minusDays(100).toEpochSecond();
         Repository repo = new Repository(
                 500, "test", "url", 500, 250, "Java", lastUpdated
         );
@@ -52,7 +67,7 @@ public class DefaultScoringCalculatorTest {
     @Test
     public void testFullScore() {
         Repository repo = new Repository(1, "repo", "url", 1000, 500, "Java",
-                ZonedDateTime.now());
+                ZonedDateTime.now().toEpochSecond());
         float expectedScore = 0.4f + 0.3f + 0.3f;
         assertEquals(expectedScore, scoringCalculator.calculatePopularityScore(repo), 0.001f);
     }
@@ -60,7 +75,7 @@ public class DefaultScoringCalculatorTest {
     @Test
     public void testZeroStarsForksRecent() {
         Repository repo = new Repository(1, "repo", "url", 0, 0, "Java",
-                ZonedDateTime.now());
+                ZonedDateTime.now().toEpochSecond());
         float expectedScore = 0 + 0 + 0.3f;
         assertEquals(expectedScore, scoringCalculator.calculatePopularityScore(repo), 0.001f);
     }
@@ -68,7 +83,7 @@ public class DefaultScoringCalculatorTest {
     @Test
     public void testOldRepository() {
         Repository repo = new Repository(1, "repo", "url", 500, 250, "Java",
-                ZonedDateTime.now().minusDays(365));
+                ZonedDateTime.now().minusDays(365).toEpochSecond());
         float stars = (500f / 1000f) * 0.4f;  // 0.2
         float forks = (250f / 500f) * 0.3f;   // 0.15
         float recency = 0.0f;                // too old
@@ -78,7 +93,7 @@ public class DefaultScoringCalculatorTest {
     @Test
     public void testRecentRepositoryLowStats() {
         Repository repo = new Repository(1, "repo", "url", 10, 5, "Java",
-                ZonedDateTime.now().minusDays(1));
+                ZonedDateTime.now().minusDays(1).toEpochSecond());
         float stars = (10f / 1000f) * 0.4f;   // 0.004
         float forks = (5f / 500f) * 0.3f;     // 0.003
         float recency = ((365f - 1f) / 365f) * 0.3f; // ~0.299
@@ -96,7 +111,7 @@ public class DefaultScoringCalculatorTest {
         scoringCalculator = new DefaultScoringCalculator(properties);
 
         Repository repo = new Repository(1, "repo", "url", 50, 50, "Java",
-                ZonedDateTime.now());
+                ZonedDateTime.now().toEpochSecond());
 
         float stars = 50f * 0.5f; // 25
         float forks = 50f * 0.3f; // 15
@@ -104,4 +119,99 @@ public class DefaultScoringCalculatorTest {
         float expected = stars + forks + recency;
         assertEquals(expected, scoringCalculator.calculatePopularityScore(repo), 0.001f);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFixedClock() {
+        Instant now = Instant.parse("2025-05-26T12:00:00Z");
+        scoringCalculator = new DefaultScoringCalculator(config, Clock.fixed(now, ZoneOffset.UTC));
+        Repository repo = new Repository(1, "repo", "url", 500, 250, "Java",
+                ZonedDateTime.parse("2025-02-15T13:00:00Z").toEpochSecond());
+        float recency = (1 - 99f / 365f) * 0.3f; // 99 full days, one hour short of 100
+        assertEquals(0.2f + 0.15f + recency, scoringCalculator.calculatePopularityScore(repo), 0.0001f);
+        assertEquals(scoringCalculator.calculatePopularityScore(repo, now),
+                scoringCalculator.calculatePopularityScore(repo));
+    }
+
+    @Test
+    public void testWithConfig() {
+        Instant now = Instant.parse("2025-05-26T12:00:00Z");
+        scoringCalculator = new DefaultScoringCalculator(config, Clock.fixed(now, ZoneOffset.UTC));
+        ScoringProperties starsOnly = new ScoringProperties(
+                new ScoringProperties.Weights(1f, 0f, 0f), config.maximums(), true);
+        Repository repo = new Repository(1, "repo", "url", 500, 250, "Java", now.getEpochSecond());
+
+        DefaultScoringCalculator variant = scoringCalculator.withConfig(starsOnly);
+
+        assertEquals(0.5f, variant.calculatePopularityScore(repo), 0.0001f);
+        assertEquals(0.2f + 0.15f + 0.3f, scoringCalculator.calculatePopularityScore(repo), 0.0001f);
+        assertSame(variant, scoringCalculator.withConfig(starsOnly));
+        assertSame(scoringCalculator, scoringCalculator.withConfig(config));
+    }
+
+    @Test
+    public void testWithConfigWhileScoringWithFormula() {
+        Instant now = Instant.parse("2025-05-26T12:00:00Z");
+        ScoringProperties withFormula = new ScoringProperties(config.weights(), config.maximums(), true, "stars");
+        scoringCalculator = new DefaultScoringCalculator(withFormula, Clock.fixed(now, ZoneOffset.UTC));
+        ScoringProperties maxStarsOnly = new ScoringOverrides(null, 2000f, null, null).applyTo(withFormula);
+        Repository repo = new Repository(1, "repo", "url", 500, 250, "Java", now.getEpochSecond());
+
+        assertEquals("stars", maxStarsOnly.formula());
+        assertSame(scoringCalculator, scoringCalculator.withConfig(withFormula));
+        assertThrows(UnsupportedScoringException.class, () -> scoringCalculator.withConfig(maxStarsOnly));
+
+        scoringCalculator.useFormula("");
+
+        assertEquals(0.1f + 0.15f + 0.3f, scoringCalculator.withConfig(maxStarsOnly).calculatePopularityScore(repo), 0.0001f);
+    }
+
+    @Test
+    public void testScoringDoesNotAllocate() {
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        Instant now = Instant.now();
+        Repository repo = new Repository(1, "repo", "url", 500, 250, "Java", ZonedDateTime.now().minusDays(42).toEpochSecond());
+        float sum = 0;
+        for (int i = 0; i < 50_000; i++) {
+            sum += scoringCalculator.calculatePopularityScore(repo, now);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 100_000; i++) {
+            sum += scoringCalculator.calculatePopularityScore(repo, now);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        assertTrue(sum > 0);
+        // a single allocation per call would be at least 1.6 MB; allow for the measurement itself
+        assertTrue(allocated < 64 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    public void testBatchScoringAllocatesPerBatch() {
+        // Vector API objects are only scalarized once C2 has compiled the loop, so warming up is not enough
+        assumeFalse(ColumnScorer.isVectorSupported(), "measures the scalar column scorer");
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        int size = 1000;
+        long lastUpdated = Instant.now().minusSeconds(42 * 86_400).getEpochSecond();
+        List<Repository> repositories = IntStream.range(0, size)
+                .mapToObj(i -> new Repository(i, "repo-" + i, "url", i, i / 2, "Java", lastUpdated))
+                .toList();
+        float sum = 0;
+        for (int i = 0; i < 2_000; i++) {
+            sum += scoringCalculator.calculatePopularityScores(repositories)[i % size];
+        }
+
+        int batches = 1_000;
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < batches; i++) {
+            sum += scoringCalculator.calculatePopularityScores(repositories)[i % size];
+        }
+        long perBatch = (threads.getCurrentThreadAllocatedBytes() - before) / batches;
+
+        assertTrue(sum > 0);
+        // the three columns and the scores, 4 bytes per repository each; an object per repository would
+        // add at least 16 bytes per repository
+        long columnsAndScores = 4 * (16 + 4L * size);
+        assertTrue(perBatch < columnsAndScores + 1024, "allocated " + perBatch + " bytes per batch");
+    }
+}
@@ -0,0 +1,138 @@
+package de.redcare.githubscore.domain.services;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.service.CompiledFormula;
+import de.redcare.githubscore.domain.service.DefaultScoringCalculator;
+import de.redcare.githubscore.domain.service.FormulaCompiler;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class FormulaCompilerTest {
+
+    private static final Instant NOW = Instant.parse("2025-06-01T12:00:00Z");
+    private static final ScoringProperties WEIGHTED_SUM = new ScoringProperties(
+            new ScoringProperties.Weights(0.5f, 0.3f, 0.2f),
+            new ScoringProperties.Maximums(1000f, 50_000f, 365), true);
+
+    @Test
+    void compile_shouldFollowOperatorPrecedence() {
+        assertThat(score("1 + 2 * 3 - 4 / 2")).isEqualTo(5f);
+        assertThat(score("(1 + 2) * 3")).isEqualTo(9f);
+        assertThat(score("-2 ^ 2")).isEqualTo(-4f);
+        assertThat(score("2 ^ 3 ^ 2")).isEqualTo(512f);
+        assertThat(score("1.5e2 + .5")).isEqualTo(150.5f);
+    }
+
+    @Test
+    void compile_shouldBindVariablesAndFunctions() {
+        CompiledFormula formula = FormulaCompiler.compile(
+                "log1p(stars) + sqrt(forks) + max(1 - days / 10, 0) + min(stars, 1) + abs(-1)");
+
+        assertThat(formula.score(9f, 16f, 5f, null))
+                .isCloseTo((float) (Math.log1p(9) + 4 + 0.5 + 1 + 1), within(1e-6f));
+        assertThat(formula.expression())
+                .isEqualTo("log1p(stars) + sqrt(forks) + max(1 - days / 10, 0) + min(stars, 1) + abs(-1)");
+    }
+
+    @Test
+    void compile_shouldTurnComparisonsIntoZeroOrOne() {
+        CompiledFormula formula = FormulaCompiler.compile("(stars >= 100) + (forks < 10) * 2 + (days != 0) * 4");
+
+        assertThat(formula.score(100f, 10f, 0f, null)).isEqualTo(1f);
+        assertThat(formula.score(99f, 9f, 3f, null)).isEqualTo(6f);
+    }
+
+    @Test
+    void compile_shouldBoostLanguagesIgnoringCase() {
+        CompiledFormula formula = FormulaCompiler.compile("1 + 0.5 * (language == 'Rust') + (\"java\" != language)");
+
+        assertThat(formula.score(0f, 0f, 0f, "rust")).isEqualTo(2.5f);
+        assertThat(formula.score(0f, 0f, 0f, "Java")).isEqualTo(1f);
+        assertThat(formula.score(0f, 0f, 0f, null)).isEqualTo(2f);
+    }
+
+    @Test
+    void compile_shouldRejectInvalidFormulas() {
+        assertThatThrownBy(() -> FormulaCompiler.compile("stars * watchers"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown variable 'watchers' at position 9 of formula 'stars * watchers'");
+        assertThatThrownBy(() -> FormulaCompiler.compile("cbrt(stars)"))
+                .hasMessageStartingWith("Unknown function 'cbrt'");
+        assertThatThrownBy(() -> FormulaCompiler.compile("min(stars)"))
+                .hasMessageStartingWith("'min' takes 2 argument(s), not 1");
+        assertThatThrownBy(() -> FormulaCompiler.compile("(stars + 1"))
+                .hasMessageStartingWith("Expected ')'");
+        assertThatThrownBy(() -> FormulaCompiler.compile("stars forks"))
+                .hasMessageStartingWith("Unexpected 'f' at position 7");
+        assertThatThrownBy(() -> FormulaCompiler.compile("stars *"))
+                .hasMessageStartingWith("Unexpected end of formula");
+        assertThatThrownBy(() -> FormulaCompiler.compile("language + 1"))
+                .hasMessageStartingWith("'language' can only be compared to a string");
+        assertThatThrownBy(() -> FormulaCompiler.compile("language < 'Java'"))
+                .hasMessageStartingWith("'language' can only be compared to a string");
+        assertThatThrownBy(() -> FormulaCompiler.compile("stars == 'Java'"))
+                .hasMessageStartingWith("'language' can only be compared to a string");
+        assertThatThrownBy(() -> FormulaCompiler.compile("language == 'Java"))
+                .hasMessageStartingWith("Unterminated string");
+    }
+
+    @Test
+    void formula_shouldScoreLikeTheWeightedSum() {
+        DefaultScoringCalculator weightedSum = new DefaultScoringCalculator(WEIGHTED_SUM);
+        DefaultScoringCalculator formula = new DefaultScoringCalculator(new ScoringProperties(
+                WEIGHTED_SUM.weights(), WEIGHTED_SUM.maximums(), true,
+                "0.5 * min(stars / 1000, 1) + 0.3 * min(forks / 50000, 1) + 0.2 * max(1 - days / 365, 0)"));
+
+        for (Repository repository : repositories(500)) {
+            assertThat(formula.calculatePopularityScore(repository, NOW))
+                    .isCloseTo(weightedSum.calculatePopularityScore(repository, NOW), within(1e-6f));
+        }
+    }
+
+    @Test
+    void useFormula_shouldSwapTheFormulaAtRuntime() {
+        DefaultScoringCalculator calculator = new DefaultScoringCalculator(WEIGHTED_SUM, Clock.fixed(NOW, ZoneOffset.UTC));
+        List<Repository> repositories = repositories(10);
+        float weighted = calculator.calculatePopularityScore(repositories.get(0));
+
+        calculator.useFormula("stars + forks");
+        assertThat(calculator.formula()).isEqualTo("stars + forks");
+        assertThat(calculator.formulaGeneration()).isEqualTo(1);
+        float[] scores = calculator.calculatePopularityScores(repositories);
+        for (int i = 0; i < scores.length; i++) {
+            assertThat(scores[i]).isEqualTo(repositories.get(i).stars() + repositories.get(i).forks());
+        }
+
+        assertThatThrownBy(() -> calculator.useFormula("stars +")).isInstanceOf(IllegalArgumentException.class);
+        assertThat(calculator.formula()).isEqualTo("stars + forks");
+        assertThat(calculator.formulaGeneration()).isEqualTo(1);
+
+        calculator.useFormula(" ");
+        assertThat(calculator.formula()).isNull();
+        assertThat(calculator.formulaGeneration()).isEqualTo(2);
+        assertThat(calculator.calculatePopularityScore(repositories.get(0))).isEqualTo(weighted);
+    }
+
+    private static float score(String expression) {
+        return FormulaCompiler.compile(expression).score(0f, 0f, 0f, null);
+    }
+
+    private static List<Repository> repositories(int count) {
+        Random random = new Random(11);
+        return IntStream.range(0, count)
+                .mapToObj(i -> new Repository(i, "repo-" + i, "url", random.nextInt(2000), random.nextInt(80_000),
+                        "Java", NOW.getEpochSecond() - random.nextInt(500 * 24 * 60) * 60L))
+                .toList();
+    }
+}
@@ -1,16 +1,25 @@
 package de.redcare.githubscore.domain.services;
 
 import de.redcare.githubscore.application.service.ScoringCalculator;
+import de.redcare.githubscore.domain.cache.NextPagePrefetcher;
+import de.redcare.githubscore.domain.cache.ScoredPageCache;
+import de.redcare.githubscore.domain.config.RankingProperties;
+import de.redcare.githubscore.domain.config.ScoringProperties;
 import de.redcare.githubscore.domain.model.Repository;
 import de.redcare.githubscore.domain.model.ScoredRepository;
 import de.redcare.githubscore.domain.repository.GithubRepository;
+import de.redcare.githubscore.domain.repository.SearchKey;
 import de.redcare.githubscore.domain.service.GithubScoringService;
+import de.redcare.githubscore.domain.service.GlobalRankingService;
+import de.redcare.githubscore.domain.service.Ranking;
 import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import de.redcare.githubscore.web.dto.ScoringOverrides;
 import de.redcare.githubscore.web.dto.SortBy;
 import de.redcare.githubscore.web.dto.SortOrder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -18,7 +27,11 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -29,17 +42,33 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class GithubScoringServiceTest {
 
+    private static final ScoringProperties SCORING = new ScoringProperties(
+            new ScoringProperties.Weights(0.5f, 0.3f, 0.2f),
+            new ScoringProperties.Maximums(1000f, 50_000f, 365), true);
+
     @MockBean
     private GithubRepository githubApiClient;
 
-    @Mock
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
     private ScoringCalculator scoringService;
 
+    @Mock
+    private GlobalRankingService globalRankingService;
+
+    @Mock
+    private NextPagePrefetcher nextPagePrefetcher;
+
+    @Mock
+    private ScoredPageCache scoredPageCache;
+
     private GithubScoringService githubScoringService;
 
     @BeforeEach
     public void setUp() {
-        githubScoringService = new GithubScoringService(githubApiClient, scoringService);
+        lenient().when(scoredPageCache.get(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+        githubScoringService = new GithubScoringService(githubApiClient, scoringService,
+                globalRankingService, new RankingProperties(false, 1000, 4), nextPagePrefetcher, scoredPageCache, SCORING, Runnable::run);
     }
 
     @Test
@@ -74,6 +103,8 @@ class GithubScoringServiceTest {
 
         verify(githubApiClient).fetchRepositories(
                 "spring", "java", "stars", "desc", 1, 10, LocalDate.of(2023, 1, 1));
+        verify(nextPagePrefetcher).pageServed(
+                new SearchKey("spring", "java", "stars", "desc", 1, 10, LocalDate.of(2023, 1, 1)), 2);
     }
 
     @Test
@@ -192,11 +223,184 @@ class GithubScoringServiceTest {
         verify(scoringService, times(3)).calculatePopularityScore(any());
     }
 
+    @Test
+    void fetchRepositoriesScores_shouldSliceGlobalRankingWhenEnabled() {
+        // Given
+        githubScoringService = new GithubScoringService(githubApiClient, scoringService,
+                globalRankingService, new RankingProperties(true, 1000, 4), nextPagePrefetcher, scoredPageCache, SCORING, Runnable::run);
+        RepositorySearchRequest request = new RepositorySearchRequest(
+                "spring", "java", SortBy.SCORE, SortOrder.DESC, 2, 2, null);
+
+        when(globalRankingService.rank("spring", "java", null, null)).thenReturn(createRanking(
+                List.of("first", "second", "third", "fourth", "fifth"), 0.9f, 0.7f, 0.5f, 0.3f, 0.1f));
+
+        // When
+        List<ScoredRepository> result = githubScoringService.fetchRepositoriesScores(request);
+
+        // Then
+        assertEquals(List.of("third", "fourth"), result.stream().map(ScoredRepository::name).toList());
+        verifyNoInteractions(githubApiClient, scoringService);
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldSliceGlobalRankingInAscendingOrder() {
+        // Given
+        githubScoringService = new GithubScoringService(githubApiClient, scoringService,
+                globalRankingService, new RankingProperties(true, 1000, 4), nextPagePrefetcher, scoredPageCache, SCORING, Runnable::run);
+        RepositorySearchRequest request = new RepositorySearchRequest(
+                "spring", null, SortBy.SCORE, SortOrder.ASC, 1, 2, null);
+
+        when(globalRankingService.rank("spring", null, null, null)).thenReturn(createRanking(
+                List.of("second", "first", "third"), 0.7f, 0.9f, 0.5f));
+
+        // When
+        List<ScoredRepository> result = githubScoringService.fetchRepositoriesScores(request);
+
+        // Then
+        assertEquals(List.of("third", "second"), result.stream().map(ScoredRepository::name).toList());
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldReturnEmptyPageBeyondGlobalRanking() {
+        // Given
+        githubScoringService = new GithubScoringService(githubApiClient, scoringService,
+                globalRankingService, new RankingProperties(true, 1000, 4), nextPagePrefetcher, scoredPageCache, SCORING, Runnable::run);
+        RepositorySearchRequest request = new RepositorySearchRequest(
+                "spring", null, SortBy.SCORE, SortOrder.DESC, 3, 10, null);
+
+        when(globalRankingService.rank("spring", null, null, null))
+                .thenReturn(createRanking(List.of("only"), 0.9f));
+
+        // When
+        List<ScoredRepository> result = githubScoringService.fetchRepositoriesScores(request);
+
+        // Then
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldRescorePageWithOverrides() {
+        // Given
+        ScoringOverrides overrides = new ScoringOverrides(new ScoringProperties.Weights(0.2f, 0.2f, 0.6f), 10f, null, null);
+        ScoringProperties overridden = overrides.applyTo(SCORING);
+        RepositorySearchRequest request = new RepositorySearchRequest(
+                "spring", null, SortBy.SCORE, SortOrder.DESC, 1, 10, null, overrides);
+        Repository low = createMockRepository("low", 100, 50);
+        Repository high = createMockRepository("high", 200, 100);
+        ScoringCalculator variant = mock(ScoringCalculator.class, Answers.CALLS_REAL_METHODS);
+        doReturn(variant).when(scoringService).withConfig(overridden);
+        when(variant.calculatePopularityScore(low)).thenReturn(0.4f);
+        when(variant.calculatePopularityScore(high)).thenReturn(0.8f);
+        when(githubApiClient.fetchRepositories(any(), any(), any(), any(), anyInt(), anyInt(), any()))
+                .thenReturn(List.of(low, high));
+
+        // When
+        List<ScoredRepository> result = githubScoringService.fetchRepositoriesScores(request);
+
+        // Then
+        assertEquals(List.of("high", "low"), result.stream().map(ScoredRepository::name).toList());
+        verify(scoredPageCache).get(any(), eq("desc"), eq(overridden), any());
+        verify(scoringService, never()).calculatePopularityScore(any());
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldRankWithOverridesWhenEnabled() {
+        // Given
+        githubScoringService = new GithubScoringService(githubApiClient, scoringService,
+                globalRankingService, new RankingProperties(true, 1000, 4), nextPagePrefetcher, scoredPageCache, SCORING, Runnable::run);
+        ScoringOverrides overrides = new ScoringOverrides(null, null, null, 30);
+        RepositorySearchRequest request = new RepositorySearchRequest(
+                "spring", null, SortBy.SCORE, SortOrder.DESC, 1, 10, null, overrides);
+        when(globalRankingService.rank("spring", null, null, overrides.applyTo(SCORING)))
+                .thenReturn(createRanking(List.of("only"), 0.9f));
+
+        // When
+        List<ScoredRepository> result = githubScoringService.fetchRepositoriesScores(request);
+
+        // Then
+        assertEquals(List.of("only"), result.stream().map(ScoredRepository::name).toList());
+    }
+
+    @Test
+    void streamRepositoriesScores_shouldHandOverGitHubPagesOfLargePageInOrder() {
+        // Given
+        RepositorySearchRequest request = new RepositorySearchRequest(
+                "spring", null, SortBy.STARS, SortOrder.DESC, 2, 150, null);
+        when(githubApiClient.fetchRepositories("spring", null, "stars", "desc", 2, 100, null))
+                .thenReturn(createMockRepositories("second", 100));
+        when(githubApiClient.fetchRepositories("spring", null, "stars", "desc", 3, 100, null))
+                .thenReturn(createMockRepositories("third", 60));
+
+        // When
+        Stream<List<ScoredRepository>> stream = githubScoringService.streamRepositoriesScores(request);
+        verify(githubApiClient).fetchRepositories("spring", null, "stars", "desc", 2, 100, null);
+        List<List<ScoredRepository>> chunks = stream.toList();
+
+        // Then
+        assertEquals(List.of(50, 60), chunks.stream().map(List::size).toList());
+        assertEquals("second-50", chunks.getFirst().getFirst().name());
+        assertEquals("third-59", chunks.getLast().getLast().name());
+        verify(githubApiClient, times(2)).fetchRepositories(any(), any(), any(), any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void streamRepositoriesScores_shouldOrderLargePageByScoreBeforeHandingItOver() {
+        // Given
+        RepositorySearchRequest request = new RepositorySearchRequest(
+                "spring", null, SortBy.SCORE, SortOrder.ASC, 1, 120, null);
+        when(githubApiClient.fetchRepositories("spring", null, null, null, 1, 100, null))
+                .thenReturn(createMockRepositories("first", 100));
+        when(githubApiClient.fetchRepositories("spring", null, null, null, 2, 100, null))
+                .thenReturn(createMockRepositories("second", 100));
+        doAnswer(invocation -> (float) invocation.<Repository>getArgument(0).stars())
+                .when(scoringService).calculatePopularityScore(any());
+
+        // When
+        List<List<ScoredRepository>> chunks = githubScoringService.streamRepositoriesScores(request).toList();
+
+        // Then
+        assertEquals(1, chunks.size());
+        assertEquals(120, chunks.getFirst().size());
+        assertEquals(List.of("first-0", "second-0"),
+                chunks.getFirst().subList(0, 2).stream().map(ScoredRepository::name).toList());
+    }
+
+    @Test
+    void streamRepositoriesScores_shouldSliceGlobalRankingIntoChunks() {
+        // Given
+        githubScoringService = new GithubScoringService(githubApiClient, scoringService,
+                globalRankingService, new RankingProperties(true, 1000, 4), nextPagePrefetcher, scoredPageCache,
+                SCORING, Runnable::run);
+        RepositorySearchRequest request = new RepositorySearchRequest(
+                "spring", null, SortBy.SCORE, SortOrder.DESC, 1, 500, null);
+        float[] scores = new float[250];
+        Arrays.fill(scores, 0.5f);
+        when(globalRankingService.rank("spring", null, null, null)).thenReturn(new Ranking(
+                createMockRepositories("ranked", 250), scores));
+
+        // When
+        List<List<ScoredRepository>> chunks = githubScoringService.streamRepositoriesScores(request).toList();
+
+        // Then
+        assertEquals(List.of(100, 100, 50), chunks.stream().map(List::size).toList());
+        assertEquals("ranked-249", chunks.getLast().getLast().name());
+    }
+
+    private Ranking createRanking(List<String> names, float... scores) {
+        return new Ranking(names.stream().map(name -> createMockRepository(name, 100, 50)).toList(), scores);
+    }
+
+    private List<Repository> createMockRepositories(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> createMockRepository(prefix + "-" + i, i, 0))
+                .toList();
+    }
+
     private Repository createMockRepository(String name, int stars, int forks) {
 
         return new Repository(1, name, "https://github.com/test/" + name,
                 stars, forks, "Java",
-                ZonedDateTime.now());
+                ZonedDateTime.now().toEpochSecond());
 
     }
 }
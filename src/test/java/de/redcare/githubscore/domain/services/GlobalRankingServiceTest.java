@@ -0,0 +1,137 @@
+package de.redcare.githubscore.domain.services;
+
+import de.redcare.githubscore.application.service.ScoringCalculator;
+import de.redcare.githubscore.domain.config.RankingProperties;
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.repository.GithubRepository;
+import de.redcare.githubscore.domain.service.GlobalRankingService;
+import de.redcare.githubscore.domain.service.Ranking;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class GlobalRankingServiceTest {
+
+    private GithubRepository githubRepository;
+    private ExecutorService executor;
+    private GlobalRankingService rankingService;
+
+    @BeforeEach
+    void setUp() {
+        githubRepository = mock(GithubRepository.class);
+        ScoringCalculator scoringCalculator = new ScoringCalculator() {
+            @Override
+            public float calculatePopularityScore(Repository repo) {
+                return repo.stars();
+            }
+
+            @Override
+            public ScoringCalculator withConfig(ScoringProperties config) {
+                return this;
+            }
+        };
+        executor = Executors.newFixedThreadPool(2);
+        rankingService = new GlobalRankingService(githubRepository, scoringCalculator,
+                new RankingProperties(true, 300, 2), executor, Clock.fixed(Instant.parse("2025-05-26T23:59:59Z"), ZoneOffset.UTC));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void rank_shouldFetchRemainingPagesAndSortAllCandidatesByScore() {
+        // Given
+        when(githubRepository.fetchRepositories("q", "java", null, null, 1, 100, null))
+                .thenReturn(repositories(1, 100));
+        when(githubRepository.fetchRepositories("q", "java", null, null, 2, 100, null))
+                .thenReturn(repositories(101, 200));
+        when(githubRepository.fetchRepositories("q", "java", null, null, 3, 100, null))
+                .thenReturn(repositories(201, 250));
+
+        // When
+        Ranking ranking = rankingService.rank("q", "java", null, null);
+
+        // Then
+        assertEquals(250, ranking.size());
+        List<ScoredRepository> ordered = ranking.page(0, 250, true);
+        assertEquals(250L, ordered.getFirst().id());
+        assertEquals(1L, ordered.getLast().id());
+        assertEquals(List.of(1L, 2L), ranking.page(0, 2, false).stream().map(ScoredRepository::id).toList());
+    }
+
+    @Test
+    void rank_shouldStopAfterFirstPageWhenItIsNotFull() {
+        // Given
+        when(githubRepository.fetchRepositories("q", null, null, null, 1, 100, null))
+                .thenReturn(repositories(1, 42));
+
+        // When
+        Ranking ranking = rankingService.rank("q", null, null, null);
+
+        // Then
+        assertEquals(42, ranking.size());
+        verify(githubRepository, times(1))
+                .fetchRepositories(any(), any(), any(), any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void rank_shouldDropRepositoriesRepeatedOnLaterPages() {
+        // Given
+        when(githubRepository.fetchRepositories("q", null, null, null, 1, 100, null))
+                .thenReturn(repositories(1, 100));
+        when(githubRepository.fetchRepositories("q", null, null, null, 2, 100, null))
+                .thenReturn(repositories(91, 150));
+        when(githubRepository.fetchRepositories("q", null, null, null, 3, 100, null))
+                .thenReturn(List.of());
+
+        // When
+        Ranking ranking = rankingService.rank("q", null, null, null);
+
+        // Then
+        assertEquals(150, ranking.size());
+    }
+
+    @Test
+    void rank_shouldPropagatePageFailures() {
+        // Given
+        when(githubRepository.fetchRepositories("q", null, null, null, 1, 100, null))
+                .thenReturn(repositories(1, 100));
+        when(githubRepository.fetchRepositories("q", null, null, null, 2, 100, null))
+                .thenThrow(new IllegalStateException("boom"));
+        when(githubRepository.fetchRepositories("q", null, null, null, 3, 100, null))
+                .thenReturn(List.of());
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> rankingService.rank("q", null, null, null));
+    }
+
+    @Test
+    void scoringDay_shouldBeTheUtcEpochDayOfTheClock() {
+        assertEquals(LocalDate.of(2025, 5, 26).toEpochDay(), rankingService.scoringDay());
+    }
+
+    private static List<Repository> repositories(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> new Repository(id, "repo-" + id, "url", id, 0, "Java", ZonedDateTime.now().toEpochSecond()))
+                .toList();
+    }
+}
@@ -0,0 +1,141 @@
+package de.redcare.githubscore.domain.services;
+
+import de.redcare.githubscore.application.service.ScoringCalculator;
+import de.redcare.githubscore.domain.config.RankingProperties;
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.repository.ReactiveGithubRepository;
+import de.redcare.githubscore.domain.service.GlobalRankingService;
+import de.redcare.githubscore.domain.service.Ranking;
+import de.redcare.githubscore.domain.service.ReactiveScoringService;
+import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import de.redcare.githubscore.web.dto.SortBy;
+import de.redcare.githubscore.web.dto.SortOrder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveScoringServiceTest {
+
+    private static final ScoringProperties SCORING = new ScoringProperties(
+            new ScoringProperties.Weights(0.5f, 0.3f, 0.2f),
+            new ScoringProperties.Maximums(1000f, 50_000f, 365), true);
+
+    @Mock
+    private ReactiveGithubRepository githubRepository;
+
+    @Mock(answer = Answers.CALLS_REAL_METHODS)
+    private ScoringCalculator scoringCalculator;
+
+    @Mock
+    private GlobalRankingService globalRankingService;
+
+    private ReactiveScoringService reactiveScoringService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> (float) invocation.<Repository>getArgument(0).stars())
+                .when(scoringCalculator).calculatePopularityScore(any());
+        reactiveScoringService = new ReactiveScoringService(githubRepository, scoringCalculator,
+                globalRankingService, new RankingProperties(false, 1000, 4), SCORING);
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldScoreSinglePage() {
+        // Given
+        when(githubRepository.fetchRepositories("spring", "java", "stars", "desc", 2, 10, null))
+                .thenReturn(Mono.just(createMockRepositories("spring", 2)));
+
+        // When / Then
+        StepVerifier.create(reactiveScoringService.fetchRepositoriesScores(
+                        request(SortBy.STARS, SortOrder.DESC, 2, 10)).map(ScoredRepository::name))
+                .expectNext("spring-0", "spring-1")
+                .verifyComplete();
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldSliceLargePageFromGitHubPagesInOrder() {
+        // Given
+        when(githubRepository.fetchRepositories(eq("spring"), eq("java"), eq("stars"), eq("desc"), anyInt(), eq(100), isNull()))
+                .thenAnswer(invocation -> Mono.just(createMockRepositories(
+                        "page" + invocation.getArgument(4), (int) invocation.getArgument(4) == 4 ? 30 : 100)));
+
+        // When / Then: repositories 250 to 499 are the second half of page 3 and all of the short page 4
+        StepVerifier.create(reactiveScoringService.fetchRepositoriesScores(
+                        request(SortBy.STARS, SortOrder.DESC, 2, 250)).map(ScoredRepository::name).collectList())
+                .assertNext(names -> assertThat(names).hasSize(80).startsWith("page3-50").endsWith("page4-29"))
+                .verifyComplete();
+        verify(githubRepository, never()).fetchRepositories(any(), any(), any(), any(), eq(5), anyInt(), any());
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldNotFanOutAfterShortFirstPage() {
+        // Given
+        when(githubRepository.fetchRepositories("spring", "java", "stars", "desc", 1, 100, null))
+                .thenReturn(Mono.just(createMockRepositories("spring", 3)));
+
+        // When / Then
+        StepVerifier.create(reactiveScoringService.fetchRepositoriesScores(request(SortBy.STARS, SortOrder.DESC, 1, 250)))
+                .expectNextCount(3)
+                .verifyComplete();
+        verify(githubRepository, times(1)).fetchRepositories(any(), any(), any(), any(), anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldOrderPageByScore() {
+        // Given
+        when(githubRepository.fetchRepositories("spring", "java", null, null, 1, 10, null))
+                .thenReturn(Mono.just(List.of(createMockRepository("low", 1), createMockRepository("high", 9))));
+
+        // When / Then
+        StepVerifier.create(reactiveScoringService.fetchRepositoriesScores(
+                        request(SortBy.SCORE, SortOrder.DESC, 1, 10)).map(ScoredRepository::name))
+                .expectNext("high", "low")
+                .verifyComplete();
+    }
+
+    @Test
+    void fetchRepositoriesScores_shouldCutPageFromGlobalRanking() {
+        // Given
+        reactiveScoringService = new ReactiveScoringService(githubRepository, scoringCalculator,
+                globalRankingService, new RankingProperties(true, 1000, 4), SCORING);
+        when(globalRankingService.rank("spring", "java", null, null)).thenReturn(new Ranking(
+                List.of(createMockRepository("low", 1), createMockRepository("high", 9)), new float[]{1f, 9f}));
+
+        // When / Then
+        StepVerifier.create(reactiveScoringService.fetchRepositoriesScores(
+                        request(SortBy.SCORE, SortOrder.ASC, 1, 1)).map(ScoredRepository::name))
+                .expectNext("low")
+                .verifyComplete();
+        verifyNoInteractions(githubRepository);
+    }
+
+    private RepositorySearchRequest request(SortBy sortBy, SortOrder sortOrder, int pageNumber, int pageSize) {
+        return new RepositorySearchRequest("spring", "java", sortBy, sortOrder, pageNumber, pageSize, null);
+    }
+
+    private List<Repository> createMockRepositories(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> createMockRepository(prefix + "-" + i, i))
+                .toList();
+    }
+
+    private Repository createMockRepository(String name, int stars) {
+        return new Repository(1, name, "https://github.com/test/" + name, stars, 0, "Java", ZonedDateTime.now().toEpochSecond());
+    }
+}
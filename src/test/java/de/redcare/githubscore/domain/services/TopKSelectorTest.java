@@ -0,0 +1,88 @@
+package de.redcare.githubscore.domain.services;
+
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.service.Ranking;
+import de.redcare.githubscore.domain.service.TopKSelector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.ZonedDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TopKSelectorTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 7, 100, 999, 1000, 5000})
+    void select_shouldMatchStableFullSort(int k) {
+        // Few distinct scores, so ties are common
+        Random random = new Random(k);
+        float[] scores = new float[1000];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = random.nextInt(50) / 10f;
+        }
+
+        for (boolean descending : new boolean[]{true, false}) {
+            Comparator<Integer> byScore = Comparator.comparing(i -> scores[i]);
+            int[] sorted = IntStream.range(0, scores.length).boxed()
+                    .sorted(descending ? byScore.reversed() : byScore)
+                    .limit(k)
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+
+            assertThat(TopKSelector.select(scores, k, descending)).containsExactly(sorted);
+        }
+    }
+
+    @Test
+    void select_shouldOrderSpecialValuesLikeFloatCompare() {
+        float[] scores = {0f, -0f, Float.NaN, -1.5f, Float.NEGATIVE_INFINITY, 2f, Float.POSITIVE_INFINITY, -0f};
+
+        assertThat(TopKSelector.select(scores, scores.length, true)).containsExactly(2, 6, 5, 0, 1, 7, 3, 4);
+        assertThat(TopKSelector.select(scores, scores.length, false)).containsExactly(4, 3, 1, 7, 0, 5, 6, 2);
+        assertThat(TopKSelector.select(scores, 1, false)).containsExactly(4);
+    }
+
+    @Test
+    void select_shouldHandleEmptyScores() {
+        assertThat(TopKSelector.select(new float[0], 10, true)).isEmpty();
+    }
+
+    @Test
+    void ranking_shouldServePagesInBothOrders() {
+        List<Repository> candidates = LongStream.rangeClosed(1, 250)
+                .mapToObj(id -> new Repository(id, "repo-" + id, "url", id, 0, "Java", ZonedDateTime.now().toEpochSecond()))
+                .toList();
+        float[] scores = new float[candidates.size()];
+        for (int i = 0; i < scores.length; i++) {
+            scores[i] = (i * 37) % 250;
+        }
+        Ranking ranking = new Ranking(candidates, scores);
+
+        List<ScoredRepository> all = IntStream.range(0, 25)
+                .mapToObj(page -> ranking.page(page * 10L, 10, true))
+                .flatMap(List::stream)
+                .toList();
+        assertThat(all).extracting(ScoredRepository::score)
+                .isSortedAccordingTo(Comparator.reverseOrder())
+                .hasSize(250);
+        assertThat(ranking.page(0, 3, false)).extracting(ScoredRepository::score).containsExactly(0f, 1f, 2f);
+        assertThat(ranking.page(245, 10, false)).extracting(ScoredRepository::score)
+                .containsExactly(245f, 246f, 247f, 248f, 249f);
+        assertThat(ranking.page(250, 10, true)).isEmpty();
+    }
+
+    @Test
+    void ranking_shouldRejectMismatchedScores() {
+        assertThatThrownBy(() -> new Ranking(List.of(), new float[1]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
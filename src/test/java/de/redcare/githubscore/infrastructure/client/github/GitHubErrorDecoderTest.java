@@ -2,6 +2,7 @@ package de.redcare.githubscore.infrastructure.client.github;
 
 
 import de.redcare.githubscore.domain.exceptions.GitHubApiException;
+import de.redcare.githubscore.domain.exceptions.NotModifiedException;
 import de.redcare.githubscore.domain.exceptions.RateLimitExceededException;
 import de.redcare.githubscore.infrastructure.client.github.client.GitHubErrorDecoder;
 import feign.Request;
@@ -82,4 +83,13 @@ class GitHubErrorDecoderTest {
 
         assertInstanceOf(RateLimitExceededException.class, ex);
     }
+
+    @Test
+    void shouldDecodeNotModifiedWithoutTreatingItAsError() {
+        Response response = createResponse(304, "", Map.of("etag", "\"abc\""));
+
+        Exception ex = decoder.decode("testMethod", response);
+
+        assertInstanceOf(NotModifiedException.class, ex);
+    }
 }
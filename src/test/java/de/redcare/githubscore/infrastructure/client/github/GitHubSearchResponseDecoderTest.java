@@ -0,0 +1,96 @@
+package de.redcare.githubscore.infrastructure.client.github;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.infrastructure.client.github.client.GitHubSearchResponseDecoder;
+import de.redcare.githubscore.infrastructure.client.github.models.GitHubSearchResponse;
+import feign.Request;
+import feign.Response;
+import feign.codec.DecodeException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubSearchResponseDecoderTest {
+
+    private final GitHubSearchResponseDecoder decoder =
+            new GitHubSearchResponseDecoder(new JsonFactory(), (response, type) -> "delegated");
+
+    @Test
+    void decode_shouldReadScoredFieldsAndSkipNestedObjects() throws Exception {
+        String body = """
+                {
+                  "total_count": 2,
+                  "incomplete_results": true,
+                  "items": [
+                    {
+                      "id": 978406357,
+                      "node_id": "R_kgDOOlFh1Q",
+                      "name": "Discord-Token-Login",
+                      "owner": {"login": "xPOURY4", "id": 1, "url": "https://api.github.com/users/xPOURY4"},
+                      "url": "https://api.github.com/repos/xPOURY4/Discord-Token-Login",
+                      "topics": ["discord", {"nested": [1, 2]}],
+                      "license": null,
+                      "updated_at": "2025-05-22T08:59:46Z",
+                      "stargazers_count": 46,
+                      "language": "CSS",
+                      "forks_count": 38,
+                      "score": 1.0
+                    },
+                    {
+                      "id": 42,
+                      "name": "no-language",
+                      "url": "https://api.github.com/repos/a/b",
+                      "language": null,
+                      "updated_at": null
+                    }
+                  ]
+                }
+                """;
+
+        GitHubSearchResponse response = (GitHubSearchResponse) decoder.decode(response(body), GitHubSearchResponse.class);
+
+        assertThat(response.total_count()).isEqualTo(2);
+        assertThat(response.incomplete_results()).isTrue();
+        assertThat(response.items()).containsExactly(
+                new Repository(978406357L, "Discord-Token-Login",
+                        "https://api.github.com/repos/xPOURY4/Discord-Token-Login", 46, 38, "CSS",
+                        ZonedDateTime.parse("2025-05-22T08:59:46Z").toEpochSecond()),
+                new Repository(42L, "no-language", "https://api.github.com/repos/a/b", 0, 0, null, 0));
+    }
+
+    @Test
+    void decode_shouldReturnEmptyItemsWhenMissing() throws Exception {
+        GitHubSearchResponse response = (GitHubSearchResponse) decoder.decode(
+                response("{\"total_count\": 0}"), GitHubSearchResponse.class);
+
+        assertThat(response.items()).isEmpty();
+    }
+
+    @Test
+    void decode_shouldFailOnMalformedTimestamp() {
+        String body = "{\"items\": [{\"id\": 1, \"updated_at\": \"yesterday\"}]}";
+
+        assertThatThrownBy(() -> decoder.decode(response(body), GitHubSearchResponse.class))
+                .isInstanceOf(DecodeException.class);
+    }
+
+    @Test
+    void decode_shouldDelegateOtherTypes() throws Exception {
+        assertThat(decoder.decode(response("{}"), String.class)).isEqualTo("delegated");
+    }
+
+    private static Response response(String body) {
+        return Response.builder()
+                .status(200)
+                .request(Request.create(Request.HttpMethod.GET, "https://api.github.com/search/repositories",
+                        Map.of(), null, StandardCharsets.UTF_8, null))
+                .body(body, StandardCharsets.UTF_8)
+                .build();
+    }
+}
@@ -1,54 +1,77 @@
 package de.redcare.githubscore.infrastructure.client.github;
 
 
+import de.redcare.githubscore.domain.cache.Footprint;
+import de.redcare.githubscore.domain.cache.RepositoryEntityStore;
 import de.redcare.githubscore.domain.model.Repository;
+import de.redcare.githubscore.domain.exceptions.NotModifiedException;
 import de.redcare.githubscore.domain.repository.GithubRepository;
+import de.redcare.githubscore.domain.repository.RevalidationStore;
+import de.redcare.githubscore.domain.repository.SearchKey;
+import de.redcare.githubscore.domain.repository.SingleFlight;
 import de.redcare.githubscore.infrastructure.client.github.client.GitHubFeignClient;
-import de.redcare.githubscore.infrastructure.client.github.models.GitHubRepositoryDto;
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
 import de.redcare.githubscore.infrastructure.client.github.models.GitHubSearchResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 class GithubRepositoryTest {
 
     private GitHubFeignClient gitHubFeignClient;
+    private SimpleMeterRegistry meterRegistry;
+    private RepositoryEntityStore entityStore;
     private GithubRepository githubRepository;
 
     @BeforeEach
     void setUp() {
         gitHubFeignClient = Mockito.mock(GitHubFeignClient.class);
-        githubRepository = new GithubRepository(gitHubFeignClient);
+        meterRegistry = new SimpleMeterRegistry();
+        entityStore = new RepositoryEntityStore("repositories", meterRegistry);
+        RevalidationStore revalidationStore = new RevalidationStore(properties(), entityStore);
+        githubRepository = new GithubRepository(gitHubFeignClient, revalidationStore,
+                new SingleFlight<>(meterRegistry, "github.search"), meterRegistry);
     }
 
     @Test
     void fetchRepositories_shouldReturnMappedRepositories_whenFeignClientReturnsResponse() {
         // Arrange
-        GitHubRepositoryDto dto = new GitHubRepositoryDto(
+        Repository dto = new Repository(
                 123L,
                 "repo-name",
-                "fullname",
                 "https://github.com/repo",
-                "my-org/my-repo",
-                "Java",
-                10,
                 2,
-                OffsetDateTime.parse("2025-05-23T10:15:30+00:00").toZonedDateTime()
+                10,
+                "Java",
+                OffsetDateTime.parse("2025-05-23T10:15:30+00:00").toEpochSecond()
         );
         GitHubSearchResponse response = new GitHubSearchResponse(100, false, List.of(dto));
 
-        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt()))
-                .thenReturn(response);
+        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt(), any(), any()))
+                .thenReturn(ResponseEntity.ok(response));
 
         // Act
         List<Repository> repositories = githubRepository.fetchRepositories("test-query", "Java", "stars", "desc", 1, 10, LocalDate.now());
@@ -69,8 +92,8 @@ class GithubRepositoryTest {
     void fetchRepositories_shouldAppendLanguageAndCreatedQueryParts() {
         // Arrange
         GitHubSearchResponse response = new GitHubSearchResponse(1, true, Collections.emptyList());
-        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt()))
-                .thenReturn(response);
+        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt(), any(), any()))
+                .thenReturn(ResponseEntity.ok(response));
         final var localDateNow = LocalDate.now();
         // Act
         githubRepository.fetchRepositories("test", "Kotlin", "stars", "desc", 1, 10, localDateNow);
@@ -82,8 +105,195 @@ class GithubRepositoryTest {
                 eq("stars"),
                 eq("desc"),
                 eq(1),
-                eq(10)
+                eq(10),
+                isNull(),
+                isNull()
         );
     }
-}
 
+    @Test
+    void reload_shouldSearchThePageOfTheKey() {
+        // Arrange
+        Repository dto = new Repository(123L, "repo-name", "https://github.com/repo", 2, 10, "Java",
+                OffsetDateTime.parse("2025-05-23T10:15:30+00:00").toEpochSecond());
+        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt(), any(), any()))
+                .thenReturn(ResponseEntity.ok(new GitHubSearchResponse(1, false, List.of(dto))));
+
+        // Act
+        List<Repository> result = githubRepository.reload(new SearchKey("test", "Go", "stars", "asc", 2, 30, null));
+
+        // Assert
+        assertThat(result).containsExactly(dto);
+        verify(gitHubFeignClient).searchRepositories(
+                argThat(query -> query.equals("test language:Go")),
+                eq("stars"),
+                eq("asc"),
+                eq(2),
+                eq(30),
+                isNull(),
+                isNull()
+        );
+    }
+
+    @Test
+    void fetchRepositories_shouldCoalesceConcurrentIdenticalSearches() throws Exception {
+        // Arrange
+        int callers = 8;
+        CountDownLatch upstreamEntered = new CountDownLatch(1);
+        CountDownLatch releaseUpstream = new CountDownLatch(1);
+        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt(), any(), any()))
+                .thenAnswer(invocation -> {
+                    upstreamEntered.countDown();
+                    releaseUpstream.await(5, TimeUnit.SECONDS);
+                    return ResponseEntity.ok(new GitHubSearchResponse(0, false, Collections.emptyList()));
+                });
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // Act
+            CompletableFuture<?> leader = CompletableFuture.runAsync(() ->
+                    githubRepository.fetchRepositories("hot", "Java", "stars", "desc", 1, 10, null), executor);
+            assertThat(upstreamEntered.await(5, TimeUnit.SECONDS)).isTrue();
+            List<CompletableFuture<List<Repository>>> followers = new ArrayList<>();
+            for (int i = 1; i < callers; i++) {
+                followers.add(CompletableFuture.supplyAsync(() ->
+                        githubRepository.fetchRepositories("hot", "Java", "stars", "desc", 1, 10, null), executor));
+            }
+            awaitCoalesced(callers - 1);
+            releaseUpstream.countDown();
+            leader.get(5, TimeUnit.SECONDS);
+            for (CompletableFuture<List<Repository>> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS)).isEmpty();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Assert
+        verify(gitHubFeignClient, times(1))
+                .searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt(), any(), any());
+        assertThat(meterRegistry.counter("github.search.executed").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("github.search.coalesced").count()).isEqualTo(callers - 1);
+    }
+
+    @Test
+    void fetchRepositories_shouldShareUpstreamErrorWithWaiters() throws Exception {
+        // Arrange
+        CountDownLatch upstreamEntered = new CountDownLatch(1);
+        CountDownLatch releaseUpstream = new CountDownLatch(1);
+        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt(), any(), any()))
+                .thenAnswer(invocation -> {
+                    upstreamEntered.countDown();
+                    releaseUpstream.await(5, TimeUnit.SECONDS);
+                    throw new IllegalStateException("upstream failed");
+                });
+
+        // Act
+        CompletableFuture<List<Repository>> leader = CompletableFuture.supplyAsync(() ->
+                githubRepository.fetchRepositories("hot", "Java", "stars", "desc", 1, 10, null));
+        assertThat(upstreamEntered.await(5, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<List<Repository>> follower = CompletableFuture.supplyAsync(() ->
+                githubRepository.fetchRepositories("hot", "Java", "stars", "desc", 1, 10, null));
+        awaitCoalesced(1);
+        releaseUpstream.countDown();
+
+        // Assert
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private void awaitCoalesced(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.counter("github.search.coalesced").count() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void fetchRepositories_shouldRevalidateWithETagAndReusePageOnNotModified() {
+        // Arrange
+        Repository dto = new Repository(123L, "repo-name", "https://github.com/repo", 2, 10, "Java",
+                OffsetDateTime.parse("2025-05-23T10:15:30+00:00").toEpochSecond());
+        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt(), isNull(), isNull()))
+                .thenReturn(ResponseEntity.ok()
+                        .header(HttpHeaders.ETAG, "\"abc\"")
+                        .header(HttpHeaders.LAST_MODIFIED, "Fri, 23 May 2025 10:15:30 GMT")
+                        .body(new GitHubSearchResponse(1, false, List.of(dto))));
+        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt(),
+                eq("\"abc\""), eq("Fri, 23 May 2025 10:15:30 GMT")))
+                .thenThrow(new NotModifiedException("https://api.github.com/search/repositories"));
+
+        // Act
+        List<Repository> first = githubRepository.fetchRepositories("test", "Java", "stars", "desc", 1, 10, null);
+        List<Repository> revalidated = githubRepository.fetchRepositories("test", "Java", "stars", "desc", 1, 10, null);
+
+        // Assert
+        assertThat(revalidated).isEqualTo(first);
+        assertThat(revalidated.getFirst()).isSameAs(first.getFirst());
+        assertThat(meterRegistry.counter("github.search.not-modified").count()).isEqualTo(1);
+    }
+
+    @Test
+    void fetchRepositories_shouldNotSendValidatorsWhenNoneWereReturned() {
+        // Arrange
+        when(gitHubFeignClient.searchRepositories(anyString(), anyString(), anyString(), anyInt(), anyInt(), any(), any()))
+                .thenReturn(ResponseEntity.ok(new GitHubSearchResponse(0, false, Collections.emptyList())));
+
+        // Act
+        githubRepository.fetchRepositories("test", "Java", "stars", "desc", 1, 10, null);
+        githubRepository.fetchRepositories("test", "Java", "stars", "desc", 1, 10, null);
+
+        // Assert
+        verify(gitHubFeignClient, times(2)).searchRepositories(
+                anyString(), anyString(), anyString(), anyInt(), anyInt(), isNull(), isNull());
+    }
+
+    @Test
+    void revalidationStore_shouldKeepPagesAsIdsOfSharedRepositories() {
+        // Arrange
+        RevalidationStore store = new RevalidationStore(properties(), entityStore);
+        SearchKey first = new SearchKey("test", "Java", "stars", "desc", 1, 10, null);
+        SearchKey second = new SearchKey("test", "Java", "stars", "desc", 2, 10, null);
+        Repository repository = new Repository(7L, "repo", "https://github.com/repo", 1, 1, "Java", 0);
+
+        // Act
+        store.put(first, new RevalidationStore.ValidatedPage("\"a\"", null, List.of(repository)));
+        store.put(second, new RevalidationStore.ValidatedPage("\"b\"", null, List.of(repository)));
+
+        // Assert
+        assertThat(store.get(first).repositories()).containsExactly(repository);
+        assertThat(store.get(second).etag()).isEqualTo("\"b\"");
+        assertThat(entityStore.get(7L)).isSameAs(repository);
+        assertThat(entityStore.footprint()).isLessThan(2 * Footprint.of(List.of(repository)));
+    }
+
+    @Test
+    void revalidationStore_shouldReleaseRepositoriesOfPagesBeyondTheHeapBudget() {
+        // Arrange
+        GitHubApiProperties properties = properties();
+        GitHubApiProperties tight = new GitHubApiProperties(false, "http://localhost", 1000, 1000, 10,
+                properties.retry(), new GitHubApiProperties.Revalidation(Duration.ofHours(1), DataSize.ofBytes(1)),
+                properties.rateLimit(), properties.transport(), properties.hedging(), List.of());
+        RevalidationStore store = new RevalidationStore(tight, entityStore);
+        SearchKey key = new SearchKey("test", "Java", "stars", "desc", 1, 10, null);
+        Repository repository = new Repository(7L, "repo", "https://github.com/repo", 1, 1, "Java", 0);
+
+        // Act
+        store.put(key, new RevalidationStore.ValidatedPage("\"a\"", null, List.of(repository)));
+
+        // Assert
+        assertThat(store.get(key)).isNull();
+        assertThat(entityStore.get(7L)).isNull();
+        assertThat(entityStore.footprint()).isZero();
+    }
+
+    private static GitHubApiProperties properties() {
+        return new GitHubApiProperties(false, "http://localhost", 1000, 1000, 10,
+                new GitHubApiProperties.Retry(1, 10),
+                new GitHubApiProperties.Revalidation(Duration.ofHours(1), DataSize.ofMegabytes(1)),
+                new GitHubApiProperties.RateLimit(0.2, 0.5, Duration.ofSeconds(1)),
+                new GitHubApiProperties.Transport(GitHubApiProperties.Transport.Type.HTTP_CLIENT, true, 5, Duration.ofSeconds(30)),
+                new GitHubApiProperties.Hedging(false, 0.95, Duration.ofMillis(50), 0.05),
+                List.of());
+    }
+}
@@ -0,0 +1,123 @@
+package de.redcare.githubscore.infrastructure.client.github;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import de.redcare.githubscore.infrastructure.client.github.client.JdkHttpClient;
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JdkHttpClientTest {
+
+    private static final Request.Options OPTIONS = new Request.Options(1, TimeUnit.SECONDS, 2, TimeUnit.SECONDS, true);
+
+    private WireMockServer wireMockServer;
+    private SimpleMeterRegistry meterRegistry;
+    private JdkHttpClient client;
+
+    @BeforeEach
+    void setUp() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        wireMockServer.start();
+        meterRegistry = new SimpleMeterRegistry();
+        client = new JdkHttpClient(properties(), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        wireMockServer.stop();
+    }
+
+    @Test
+    void execute_shouldSendHeadersAndReturnResponse() throws IOException {
+        wireMockServer.stubFor(get(urlEqualTo("/search/repositories?q=test"))
+                .withHeader("If-None-Match", equalTo("\"abc\""))
+                .willReturn(aResponse().withStatus(200).withHeader("ETag", "\"def\"").withBody("{\"total_count\": 0}")));
+
+        Response response = client.execute(request("/search/repositories?q=test",
+                Map.of("If-None-Match", List.of("\"abc\""), "Host", List.of("ignored"))), OPTIONS);
+
+        assertThat(response.status()).isEqualTo(200);
+        assertThat(response.headers().get("etag")).containsExactly("\"def\"");
+        assertThat(read(response)).isEqualTo("{\"total_count\": 0}");
+        assertThat(meterRegistry.get("github.http.client.requests").tag("status", "200").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldDecompressGzipBody() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write("{\"items\": []}".getBytes(StandardCharsets.UTF_8));
+        }
+        wireMockServer.stubFor(get(urlEqualTo("/search/repositories"))
+                .willReturn(aResponse().withStatus(200).withHeader("Content-Encoding", "gzip").withBody(compressed.toByteArray())));
+
+        Response response = client.execute(request("/search/repositories", Map.of()), OPTIONS);
+
+        assertThat(read(response)).isEqualTo("{\"items\": []}");
+    }
+
+    @Test
+    void execute_shouldPassErrorStatusToFeign() throws IOException {
+        wireMockServer.stubFor(get(urlEqualTo("/search/repositories"))
+                .willReturn(aResponse().withStatus(304)));
+
+        Response response = client.execute(request("/search/repositories", Map.of()), OPTIONS);
+
+        assertThat(response.status()).isEqualTo(304);
+    }
+
+    @Test
+    void constructor_shouldKeepJvmWidePoolSettingsAlreadySet() {
+        String poolSize = System.getProperty("jdk.httpclient.connectionPoolSize");
+
+        new JdkHttpClient(properties(poolSize.equals("7") ? 8 : 7), meterRegistry).close();
+
+        assertThat(System.getProperty("jdk.httpclient.connectionPoolSize")).isEqualTo(poolSize);
+    }
+
+    private Request request(String path, Map<String, Collection<String>> headers) {
+        return Request.create(Request.HttpMethod.GET, "http://localhost:" + wireMockServer.port() + path,
+                headers, null, StandardCharsets.UTF_8, null);
+    }
+
+    private static String read(Response response) throws IOException {
+        try (InputStream body = response.body().asInputStream()) {
+            return new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static GitHubApiProperties properties() {
+        return properties(5);
+    }
+
+    private static GitHubApiProperties properties(int maxIdleConnections) {
+        return new GitHubApiProperties(false, "http://localhost", 1000, 1000, 10,
+                new GitHubApiProperties.Retry(1, 10),
+                new GitHubApiProperties.Revalidation(Duration.ofHours(1), DataSize.ofMegabytes(1)),
+                new GitHubApiProperties.RateLimit(0.2, 0.5, Duration.ofSeconds(1)),
+                new GitHubApiProperties.Transport(GitHubApiProperties.Transport.Type.HTTP_CLIENT, true, maxIdleConnections, Duration.ofSeconds(30)),
+                new GitHubApiProperties.Hedging(false, 0.95, Duration.ofMillis(50), 0.05),
+                List.of());
+    }
+}
@@ -0,0 +1,84 @@
+package de.redcare.githubscore.infrastructure.client.github;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import de.redcare.githubscore.domain.repository.GithubRepository;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Guards the outbound GitHub path against carrier-thread pinning: Feign, the HTTP transport,
+ * the retryer and the coalescing/caching layers must park virtual threads, never pin them.
+ */
+@SpringBootTest(properties = "spring.threads.virtual.enabled=true")
+class VirtualThreadPinningTest {
+
+    private static final int CALLS = 50;
+
+    @Autowired
+    private GithubRepository githubRepository;
+    private static WireMockServer wireMockServer;
+
+    @BeforeAll
+    static void setup() {
+        wireMockServer = new WireMockServer(WireMockConfiguration.options().dynamicPort());
+        wireMockServer.start();
+        System.setProperty("github.api.base-url", "http://localhost:" + wireMockServer.port());
+        wireMockServer.stubFor(get(urlPathEqualTo("/search/repositories"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "application/json")
+                        .withBody("{\"total_count\": 0, \"incomplete_results\": false, \"items\": []}")
+                        .withFixedDelay(100)
+                        .withStatus(200)));
+    }
+
+    @AfterAll
+    static void tearDown() {
+        wireMockServer.stop();
+        System.clearProperty("github.api.base-url");
+    }
+
+    @Test
+    void fetchRepositories_shouldNotPinCarrierThreads() throws Exception {
+        List<RecordedEvent> pinnedEvents = new CopyOnWriteArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", pinnedEvents::add);
+            recording.startAsync();
+
+            List<Future<?>> calls = new java.util.ArrayList<>();
+            for (int page = 1; page <= CALLS; page++) {
+                final int pageNumber = page;
+                calls.add(executor.submit(() ->
+                        githubRepository.fetchRepositories("pinning", "Java", "stars", "desc", pageNumber, 10, null)));
+            }
+            for (Future<?> call : calls) {
+                call.get(30, TimeUnit.SECONDS);
+            }
+            // Let the stream deliver buffered events before closing it
+            Thread.sleep(1500);
+        }
+
+        assertThat(pinnedEvents)
+                .as("pinned virtual threads: %s", pinnedEvents)
+                .isEmpty();
+    }
+}
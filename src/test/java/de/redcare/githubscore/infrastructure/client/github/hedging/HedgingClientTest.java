@@ -0,0 +1,177 @@
+package de.redcare.githubscore.infrastructure.client.github.hedging;
+
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
+import de.redcare.githubscore.infrastructure.client.github.ratelimit.OutboundPriority;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgingClientTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET,
+            "https://api.github.com/search/repositories?q=test", Map.of(), null, StandardCharsets.UTF_8, null);
+    private static final Request.Options OPTIONS = new Request.Options();
+
+    private SimpleMeterRegistry meterRegistry;
+    private HedgingPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        policy = new HedgingPolicy(new GitHubApiProperties.Hedging(true, 0.95, Duration.ofMillis(20), 0.5), meterRegistry);
+    }
+
+    @Test
+    void execute_shouldNotHedgeBeforeEnoughLatenciesAreKnown() throws IOException {
+        ScriptedClient gitHub = new ScriptedClient(List.of(100L));
+
+        try (Response response = new HedgingClient(gitHub, policy).execute(REQUEST, OPTIONS)) {
+            assertThat(response.reason()).isEqualTo("call-0");
+        }
+        assertThat(gitHub.calls).hasValue(1);
+        assertThat(policy.delayNanos()).isEqualTo(-1);
+    }
+
+    @Test
+    void execute_shouldAnswerFromHedgeAndCancelSlowCall() throws Exception {
+        learnDelay(Duration.ofMillis(20));
+        ScriptedClient gitHub = new ScriptedClient(List.of(5_000L, 0L));
+
+        long start = System.nanoTime();
+        try (Response response = new HedgingClient(gitHub, policy).execute(REQUEST, OPTIONS)) {
+            assertThat(response.reason()).isEqualTo("call-1");
+        }
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(gitHub.calls).hasValue(2);
+        assertThat(gitHub.interrupted.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(meterRegistry.get("github.hedge.sent").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("github.hedge.won").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldNotHedgeCallsFasterThanDelay() throws IOException {
+        learnDelay(Duration.ofMillis(500));
+        ScriptedClient gitHub = new ScriptedClient(List.of(0L));
+
+        try (Response response = new HedgingClient(gitHub, policy).execute(REQUEST, OPTIONS)) {
+            assertThat(response.reason()).isEqualTo("call-0");
+        }
+        assertThat(gitHub.calls).hasValue(1);
+        assertThat(meterRegistry.get("github.hedge.sent").counter().count()).isZero();
+    }
+
+    @Test
+    void execute_shouldStopHedgingOnceBudgetIsUsedUp() throws IOException {
+        policy = new HedgingPolicy(new GitHubApiProperties.Hedging(true, 0.95, Duration.ofMillis(20), 0.0), meterRegistry);
+        learnDelay(Duration.ofMillis(20));
+        ScriptedClient gitHub = new ScriptedClient(List.of(200L));
+
+        try (Response response = new HedgingClient(gitHub, policy).execute(REQUEST, OPTIONS)) {
+            assertThat(response.reason()).isEqualTo("call-0");
+        }
+        assertThat(gitHub.calls).hasValue(1);
+        assertThat(meterRegistry.get("github.hedge.budget-exhausted").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldFailWithFirstErrorWhenBothAttemptsFail() {
+        learnDelay(Duration.ofMillis(20));
+        Client gitHub = (request, options) -> {
+            sleep(100);
+            throw new IOException("GitHub unreachable");
+        };
+
+        assertThatThrownBy(() -> new HedgingClient(gitHub, policy).execute(REQUEST, OPTIONS))
+                .isInstanceOf(IOException.class)
+                .hasMessage("GitHub unreachable");
+        assertThat(meterRegistry.get("github.hedge.sent").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void execute_shouldSendHedgeWithPriorityOfCaller() throws Exception {
+        learnDelay(Duration.ofMillis(20));
+        List<OutboundPriority> priorities = new CopyOnWriteArrayList<>();
+        Client gitHub = (request, options) -> {
+            priorities.add(OutboundPriority.current());
+            sleep(200);
+            return response(request, "ok");
+        };
+
+        OutboundPriority.BACKGROUND.run(() -> {
+            try (Response ignored = new HedgingClient(gitHub, policy).execute(REQUEST, OPTIONS)) {
+                return null;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(priorities).containsExactly(OutboundPriority.BACKGROUND, OutboundPriority.BACKGROUND);
+    }
+
+    private void learnDelay(Duration delay) {
+        for (int i = 0; i < HedgingPolicy.MIN_SAMPLES; i++) {
+            policy.admit();
+            policy.record(delay.toNanos());
+        }
+    }
+
+    private static Response response(Request request, String reason) {
+        return Response.builder()
+                .status(200)
+                .reason(reason)
+                .request(request)
+                .headers(Map.of())
+                .body("{}", StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Answers the n-th call after the n-th delay and records interrupted calls.
+     */
+    private static final class ScriptedClient implements Client {
+        private final List<Long> delaysMillis;
+        private final AtomicInteger calls = new AtomicInteger();
+        private final CountDownLatch interrupted = new CountDownLatch(1);
+
+        private ScriptedClient(List<Long> delaysMillis) {
+            this.delaysMillis = delaysMillis;
+        }
+
+        @Override
+        public Response execute(Request request, Request.Options options) throws IOException {
+            int call = calls.getAndIncrement();
+            try {
+                Thread.sleep(delaysMillis.get(call));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw new IOException("interrupted", e);
+            }
+            return response(request, "call-" + call);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package de.redcare.githubscore.infrastructure.client.github.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GitHubCredentialPoolTest {
+
+    private static final Instant NOW = Instant.parse("2025-05-23T10:00:00Z");
+
+    private GitHubCredentialPool pool;
+
+    @BeforeEach
+    void setUp() {
+        pool = new GitHubCredentialPool(List.of("first-secret", " ", "second-secret"), Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void lease_shouldUseAnonymousIdentityWithoutTokens() {
+        GitHubCredentialPool anonymous = new GitHubCredentialPool(List.of(), Clock.fixed(NOW, ZoneOffset.UTC));
+
+        GitHubCredentialPool.Credential credential = anonymous.lease();
+
+        assertThat(credential.label()).isEqualTo("anonymous");
+        assertThat(credential.token()).isNull();
+    }
+
+    @Test
+    void lease_shouldRouteToTokenWithMostHeadroom() {
+        respond(pool.lease(), 200, 5000, 100, NOW.plusSeconds(600));
+        respond(pool.lease(), 200, 5000, 4000, NOW.plusSeconds(600));
+
+        assertThat(pool.lease().token()).isEqualTo("second-secret");
+        assertThat(pool.quota()).isEqualTo(new GitHubCredentialPool.Quota(10000, 4100, 1, NOW.plusSeconds(600).getEpochSecond()));
+    }
+
+    @Test
+    void lease_shouldProbeUnusedTokensFirst() {
+        GitHubCredentialPool.Credential first = pool.lease();
+        respond(first, 200, 5000, 4999, NOW.plusSeconds(600));
+
+        assertThat(pool.quota().isKnown()).isFalse();
+        assertThat(pool.lease()).isNotSameAs(first);
+    }
+
+    @Test
+    void update_shouldQuarantineExhaustedTokenUntilReset() {
+        GitHubCredentialPool.Credential exhausted = pool.lease();
+        respond(exhausted, 403, 5000, 0, NOW.plusSeconds(120));
+        respond(pool.lease(), 200, 5000, 10, NOW.plusSeconds(600));
+
+        assertThat(pool.lease()).isNotSameAs(exhausted);
+        assertThat(pool.quota().limit()).isEqualTo(5000);
+        assertThat(pool.quota().resetEpochSecond()).isEqualTo(NOW.plusSeconds(120).getEpochSecond());
+        assertThat(pool.status())
+                .filteredOn(status -> status.quarantinedUntil() != null)
+                .singleElement()
+                .satisfies(status -> {
+                    assertThat(status.label()).isEqualTo(exhausted.label());
+                    assertThat(status.quarantinedUntil()).isEqualTo(NOW.plusSeconds(120));
+                });
+    }
+
+    @Test
+    void update_shouldQuarantineTokenForRetryAfter() {
+        GitHubCredentialPool.Credential limited = pool.lease();
+        pool.update(limited, 429, Map.of("retry-after", List.of("30")));
+
+        assertThat(pool.status())
+                .filteredOn(status -> status.label().equals(limited.label()))
+                .singleElement()
+                .satisfies(status -> assertThat(status.quarantinedUntil()).isEqualTo(NOW.plusSeconds(30)));
+    }
+
+    @Test
+    void status_shouldNotExposeTokens() {
+        assertThat(pool.status())
+                .extracting(GitHubCredentialPool.CredentialStatus::label)
+                .containsExactly("token-1", "token-2");
+        assertThat(pool.status().toString()).doesNotContain("secret");
+    }
+
+    private void respond(GitHubCredentialPool.Credential credential, int status, long limit, long remaining, Instant reset) {
+        Map<String, Collection<String>> headers = Map.of(
+                "x-ratelimit-limit", List.of(String.valueOf(limit)),
+                "x-ratelimit-remaining", List.of(String.valueOf(remaining)),
+                "x-ratelimit-reset", List.of(String.valueOf(reset.getEpochSecond())));
+        pool.update(credential, status, headers);
+    }
+}
@@ -0,0 +1,130 @@
+package de.redcare.githubscore.infrastructure.client.github.ratelimit;
+
+import de.redcare.githubscore.domain.exceptions.RateLimitExceededException;
+import de.redcare.githubscore.infrastructure.client.github.config.GitHubApiProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GitHubRateLimiterTest {
+
+    private static final Instant NOW = Instant.parse("2025-05-23T10:00:00Z");
+    private static final String URL = "https://api.github.com/search/repositories";
+
+    private SimpleMeterRegistry meterRegistry;
+    private GitHubRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(NOW, ZoneOffset.UTC);
+        rateLimiter = new GitHubRateLimiter(
+                new GitHubCredentialPool(List.of(), clock),
+                new GitHubApiProperties.RateLimit(0.2, 0.5, Duration.ofSeconds(1)),
+                meterRegistry,
+                clock);
+    }
+
+    @Test
+    void acquire_shouldLetCallsThroughWhileBudgetIsUnknown() {
+        rateLimiter.acquire(URL);
+        OutboundPriority.BACKGROUND.run(() -> {
+            rateLimiter.acquire(URL);
+            return null;
+        });
+
+        assertThat(rateLimiter.remaining()).isEqualTo(-1);
+    }
+
+    @Test
+    void update_shouldTrackRemainingBudgetFromHeaders() {
+        observe(30, 17, NOW.plusSeconds(60));
+
+        assertThat(rateLimiter.remaining()).isEqualTo(17);
+        assertThat(meterRegistry.get("github.ratelimit.remaining").gauge().value()).isEqualTo(17);
+        assertThat(meterRegistry.get("github.ratelimit.limit").gauge().value()).isEqualTo(30);
+    }
+
+    @Test
+    void acquire_shouldRejectBackgroundCallsOnceBudgetReachesReserve() {
+        observe(30, 6, NOW.plusSeconds(60));
+
+        assertThatThrownBy(() -> OutboundPriority.BACKGROUND.run(() -> {
+            rateLimiter.acquire(URL);
+            return null;
+        })).isInstanceOf(RateLimitExceededException.class);
+
+        rateLimiter.acquire(URL);
+        assertThat(meterRegistry.get("github.ratelimit.rejected").tag("priority", "background").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void acquire_shouldRejectInteractiveCallWhenResetIsBeyondMaxWait() {
+        observe(30, 0, NOW.plusSeconds(60));
+
+        assertThatThrownBy(() -> rateLimiter.acquire(URL))
+                .isInstanceOf(RateLimitExceededException.class)
+                .satisfies(ex -> assertThat(((RateLimitExceededException) ex).getResetTime())
+                        .isEqualTo(NOW.plusSeconds(60).getEpochSecond()));
+        assertThat(meterRegistry.get("github.ratelimit.rejected").tag("priority", "interactive").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void acquire_shouldPaceInteractiveCallsBelowThreshold() {
+        // 10 of 100 left, 1s until reset: calls are spaced 100ms apart
+        observe(100, 10, NOW.plusSeconds(1));
+
+        long start = System.nanoTime();
+        rateLimiter.acquire(URL);
+        rateLimiter.acquire(URL);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(elapsedMillis).isGreaterThanOrEqualTo(90);
+        assertThat(meterRegistry.get("github.ratelimit.delayed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void acquire_shouldRejectBackgroundCallsWhileInteractiveCallsArePaced() {
+        observe(100, 40, NOW.plusSeconds(60));
+        rateLimiter.acquire(URL);
+
+        assertThatThrownBy(() -> OutboundPriority.BACKGROUND.run(() -> {
+            rateLimiter.acquire(URL);
+            return null;
+        })).isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void acquire_shouldRefillBudgetOnceResetHasPassed() {
+        observe(30, 0, NOW.minusSeconds(1));
+
+        OutboundPriority.BACKGROUND.run(() -> {
+            rateLimiter.acquire(URL);
+            return null;
+        });
+
+        assertThat(rateLimiter.remaining()).isEqualTo(30);
+    }
+
+    private void observe(long limit, long remaining, Instant reset) {
+        GitHubCredentialPool.Credential credential = rateLimiter.acquire(URL);
+        Map<String, Collection<String>> headers = Map.of(
+                "x-ratelimit-limit", List.of(String.valueOf(limit)),
+                "x-ratelimit-remaining", List.of(String.valueOf(remaining)),
+                "x-ratelimit-reset", List.of(String.valueOf(reset.getEpochSecond())));
+        rateLimiter.update(credential, 200, headers);
+    }
+}
@@ -0,0 +1,103 @@
+package de.redcare.githubscore.web.controller;
+
+import de.redcare.githubscore.domain.exceptions.RateLimitExceededException;
+import de.redcare.githubscore.domain.model.ScoredRepository;
+import de.redcare.githubscore.domain.service.BatchScoringService;
+import de.redcare.githubscore.web.dto.BatchSearchQuery;
+import de.redcare.githubscore.web.dto.BatchSearchResult;
+import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import de.redcare.githubscore.web.dto.SortBy;
+import de.redcare.githubscore.web.dto.SortOrder;
+import de.redcare.githubscore.web.exception.GlobalExceptionHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RepositoryBatchControllerTest {
+
+    @Mock
+    private BatchScoringService batchScoringService;
+
+    private RepositoryBatchController controller;
+
+    @BeforeEach
+    void setUp() {
+        controller = new RepositoryBatchController(batchScoringService, new GlobalExceptionHandler());
+    }
+
+    @Test
+    void searchBatch_shouldApplyDefaultsAndReportFailuresPerQuery() {
+        // Given
+        when(batchScoringService.fetchRepositoriesScores(List.of(
+                new RepositorySearchRequest("java", null, SortBy.STARS, SortOrder.DESC, 1, 10, null),
+                new RepositorySearchRequest("go", "Go", SortBy.SCORE, SortOrder.ASC, 2, 5, null))))
+                .thenReturn(List.of(
+                        CompletableFuture.completedFuture(List.of(createScoredRepository("java-repo"))),
+                        CompletableFuture.failedFuture(new RateLimitExceededException(
+                                403, "rate limited", "/search/repositories", null, Map.of(),
+                                System.currentTimeMillis() + 60_000))));
+
+        // When
+        List<BatchSearchResult> results = controller.searchBatch(List.of(
+                query("java", null, null, null, null, null, null),
+                query("go", "Go", SortBy.SCORE, SortOrder.ASC, 2, 5, null)));
+
+        // Then
+        assertEquals(200, results.getFirst().status());
+        assertEquals("java-repo", results.getFirst().repositories().getFirst().name());
+        assertNull(results.getFirst().error());
+        assertEquals(429, results.getLast().status());
+        assertNull(results.getLast().repositories());
+        assertEquals("RateLimitExceededException", results.getLast().error().errorType());
+    }
+
+    @Test
+    void searchBatch_shouldRejectBatchWithInvalidWeights() {
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> controller.searchBatch(List.of(
+                        query("java", null, null, null, null, null, null),
+                        query("go", null, null, null, null, null, 0.6f))));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+        assertTrue(exception.getReason().startsWith("Query 1: "));
+        verifyNoInteractions(batchScoringService);
+    }
+
+    @Test
+    void searchBatch_shouldRejectTooLargeBatch() {
+        when(batchScoringService.fetchRepositoriesScores(any()))
+                .thenThrow(new IllegalArgumentException("A batch takes at most 1 queries, got 2"));
+
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> controller.searchBatch(List.of(
+                        query("java", null, null, null, null, null, null),
+                        query("go", null, null, null, null, null, null))));
+
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    private BatchSearchQuery query(String searchQuery, String language, SortBy sortBy, SortOrder sortOrder,
+                                   Integer pageNumber, Integer pageSize, Float starsWeight) {
+        return new BatchSearchQuery(searchQuery, language, sortBy, sortOrder, pageNumber, pageSize, null,
+                starsWeight, null, null, null, null, null);
+    }
+
+    private ScoredRepository createScoredRepository(String name) {
+        return new ScoredRepository(1, name, "https://github.com/test/" + name, "Java", 10, 1,
+                ZonedDateTime.now().toEpochSecond(), 0.5f);
+    }
+}
@@ -1,21 +1,27 @@
 package de.redcare.githubscore.web.controller;
 
 import de.redcare.githubscore.application.service.ScoringService;
+import de.redcare.githubscore.domain.cache.Staleness;
 import de.redcare.githubscore.domain.model.ScoredRepository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -45,7 +51,7 @@ class RepositoryRankingControllerSpringTest {
                                         4,
                                         1,
                                         0, 0, 0, 0,
-                                        ZonedDateTime.now().getZone()),
+                                        ZonedDateTime.now().getZone()).toEpochSecond(),
                                 0.955f
                         )
                 ));
@@ -115,4 +121,48 @@ class RepositoryRankingControllerSpringTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType("application/json"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getRepositories_shouldMarkResponseBuiltFromStaleData() throws Exception {
+        when(scoringService.fetchRepositoriesScores(any())).thenAnswer(invocation -> {
+            Staleness.markStale();
+            return List.of();
+        });
+
+        mockMvc.perform(get("/api/v1/repos").param("searchQuery", "spring"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Cache", "STALE"));
+
+        doReturn(List.of()).when(scoringService).fetchRepositoriesScores(any());
+        mockMvc.perform(get("/api/v1/repos").param("searchQuery", "spring"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Cache"));
+    }
+
+    @Test
+    void streamRepositories_shouldMarkResponseWhoseFirstChunkIsStale() throws Exception {
+        when(scoringService.streamRepositoriesScores(any())).thenAnswer(invocation -> {
+            Staleness.markStale();
+            return Stream.of(List.of());
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/v1/repos")
+                        .param("searchQuery", "spring")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Cache", "STALE"));
+
+        doReturn(Stream.of(List.of())).when(scoringService).streamRepositoriesScores(any());
+        result = mockMvc.perform(get("/api/v1/repos")
+                        .param("searchQuery", "spring")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Cache"));
+    }
+}
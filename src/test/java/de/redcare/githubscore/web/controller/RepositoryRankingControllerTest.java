@@ -2,9 +2,11 @@ package de.redcare.githubscore.web.controller;
 
 
 import de.redcare.githubscore.application.service.ScoringService;
+import de.redcare.githubscore.domain.config.ScoringProperties;
 import de.redcare.githubscore.domain.model.ScoredRepository;
 import de.redcare.githubscore.web.dto.RepositoryResponse;
 import de.redcare.githubscore.web.dto.RepositorySearchRequest;
+import de.redcare.githubscore.web.dto.ScoringOverrides;
 import de.redcare.githubscore.web.dto.SortBy;
 import de.redcare.githubscore.web.dto.SortOrder;
 import org.junit.jupiter.api.Test;
@@ -12,14 +14,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -58,7 +64,8 @@ class RepositoryRankingControllerTest {
                 SortOrder.DESC,
                 1,
                 10,
-                LocalDate.of(2023, 1, 1));
+                LocalDate.of(2023, 1, 1),
+                null, null, null, null, null, null);
 
         // Then
         assertEquals(3, result.size());
@@ -74,7 +81,7 @@ class RepositoryRankingControllerTest {
 
         // When
         List<RepositoryResponse> result = controller.getRepositories(
-                null, null, null, null, null, null, null);
+                null, null, null, null, null, null, null, null, null, null, null, null, null);
 
         // Then
         assertEquals(1, result.size());
@@ -94,7 +101,8 @@ class RepositoryRankingControllerTest {
                 SortOrder.ASC,
                 1,
                 10,
-                LocalDate.now());
+                LocalDate.now(),
+                null, null, null, null, null, null);
 
         // Then
         assertTrue(result.isEmpty());
@@ -123,7 +131,8 @@ class RepositoryRankingControllerTest {
                 SortOrder.ASC,
                 2,
                 20,
-                LocalDate.of(2022, 1, 1));
+                LocalDate.of(2022, 1, 1),
+                null, null, null, null, null, null);
 
         // Then
         assertEquals(1, result.size());
@@ -132,6 +141,39 @@ class RepositoryRankingControllerTest {
         assertEquals(75 + "%", response.score());
     }
 
+    @Test
+    void getRepositories_shouldPassScoringOverrides() {
+        // Given
+        RepositorySearchRequest expectedRequest = new RepositorySearchRequest(
+                "query", null, SortBy.SCORE, SortOrder.DESC, 1, 10, null,
+                new ScoringOverrides(new ScoringProperties.Weights(0.6f, 0.2f, 0.2f), null, 200f, null));
+
+        when(scoringService.fetchRepositoriesScores(expectedRequest))
+                .thenReturn(List.of(createMockRepository(0.75f, "sample-repo")));
+
+        // When
+        List<RepositoryResponse> result = controller.getRepositories(
+                "query", null, SortBy.SCORE, SortOrder.DESC, 1, 10, null,
+                0.6f, 0.2f, 0.2f, null, 200f, null);
+
+        // Then
+        assertEquals(1, result.size());
+    }
+
+    @Test
+    void getRepositories_shouldRejectInvalidWeights() {
+        ResponseStatusException partial = assertThrows(ResponseStatusException.class, () -> controller.getRepositories(
+                "query", null, SortBy.SCORE, SortOrder.DESC, 1, 10, null,
+                0.6f, 0.4f, null, null, null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, partial.getStatusCode());
+
+        ResponseStatusException sum = assertThrows(ResponseStatusException.class, () -> controller.getRepositories(
+                "query", null, SortBy.SCORE, SortOrder.DESC, 1, 10, null,
+                0.6f, 0.4f, 0.4f, null, null, null));
+        assertEquals(HttpStatus.BAD_REQUEST, sum.getStatusCode());
+        verifyNoInteractions(scoringService);
+    }
+
     private ScoredRepository createMockRepository(float score, String name) {
         return new ScoredRepository(
                 1,
@@ -140,7 +182,7 @@ class RepositoryRankingControllerTest {
                 "Java",
                 100, // stars
                 50,  // forks
-                ZonedDateTime.now(),
+                ZonedDateTime.now().toEpochSecond(),
                 score
         );
     }
@@ -3,6 +3,7 @@ package de.redcare.githubscore.web.controller.exception;
 
 import de.redcare.githubscore.domain.exceptions.GitHubApiException;
 import de.redcare.githubscore.domain.exceptions.RateLimitExceededException;
+import de.redcare.githubscore.domain.exceptions.UnsupportedScoringException;
 import de.redcare.githubscore.web.exception.GlobalExceptionHandler;
 import de.redcare.githubscore.web.exception.error.ErrorResponse;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import java.net.ConnectException;
 import java.net.UnknownHostException;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -53,6 +55,42 @@ class GlobalExceptionHandlerTest {
     }
 
 
+    @Test
+    void handleUnsupportedScoring_shouldReturnBadRequest() {
+        UnsupportedScoringException ex = new UnsupportedScoringException("Scoring settings cannot be overridden");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handle(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().message()).isEqualTo("Scoring settings cannot be overridden");
+        assertThat(response.getBody().errorType()).isEqualTo("UnsupportedScoringException");
+    }
+
+    @Test
+    void handle_shouldUseTheHandlerMappedToTheException() {
+        ResponseEntity<ErrorResponse> network = exceptionHandler.handle(new ConnectException("Connection refused"));
+        ResponseEntity<ErrorResponse> unexpected = exceptionHandler.handle(new IllegalStateException("Boom"));
+
+        assertThat(network.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(network.getBody()).isNotNull();
+        assertThat(network.getBody().message()).isEqualTo("Connection to external service failed");
+        assertThat(unexpected.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+        assertThat(unexpected.getBody()).isNotNull();
+        assertThat(unexpected.getBody().errorType()).isEqualTo("IllegalStateException");
+    }
+
+    @Test
+    void handleRejectedExecution_shouldReturnServiceUnavailable() {
+        RejectedExecutionException ex = new RejectedExecutionException("Batch executor is full");
+
+        ResponseEntity<ErrorResponse> response = exceptionHandler.handle(ex);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(response.getBody()).isNotNull();
+        assertThat(response.getBody().errorType()).isEqualTo("RejectedExecutionException");
+    }
+
     @Test
     void handleRateLimitExceeded_shouldReturnTooManyRequestsWithHeaders() {
         long resetTime = (System.currentTimeMillis() / 1000) + 60; // reset in 60 seconds
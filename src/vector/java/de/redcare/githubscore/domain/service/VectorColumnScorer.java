@@ -0,0 +1,65 @@
+package de.redcare.githubscore.domain.service;
+
+import de.redcare.githubscore.domain.config.ScoringProperties;
+import de.redcare.githubscore.domain.model.RepositoryColumns;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Scores columns with the incubating Vector API, as many repositories per step as the CPU has float
+ * lanes; the remaining tail is scored by a {@link ScalarColumnScorer}. Every lane performs the same
+ * operations in the same order as the scalar loop and no fused multiply-add is used, so the scores
+ * are identical.
+ * <p>
+ * Only compiled with the {@code vector} Maven profile and only usable when the JVM runs with
+ * {@code --add-modules jdk.incubator.vector}, see {@link ColumnScorer#isVectorSupported()}; before,
+ * this class must not even be loaded.
+ */
+public final class VectorColumnScorer implements ColumnScorer {
+
+    private final VectorSpecies<Float> floats = FloatVector.SPECIES_PREFERRED;
+    private final VectorSpecies<Integer> ints = VectorSpecies.of(int.class, floats.vectorShape());
+    private final ScoringFormula formula;
+    private final ScalarColumnScorer tail;
+
+    public VectorColumnScorer(ScoringProperties config) {
+        this(new ScoringFormula(config));
+    }
+
+    VectorColumnScorer(ScoringFormula formula) {
+        this.formula = formula;
+        this.tail = new ScalarColumnScorer(formula);
+    }
+
+    /**
+     * @return the number of repositories scored per step
+     */
+    public int lanes() {
+        return floats.length();
+    }
+
+    @Override
+    public void score(RepositoryColumns columns, float[] scores) {
+        float[] stars = columns.stars();
+        float[] forks = columns.forks();
+        int[] days = columns.daysSinceUpdate();
+        int bound = floats.loopBound(columns.size());
+        int i = 0;
+        for (; i < bound; i += floats.length()) {
+            FloatVector starsScore = ratio(FloatVector.fromArray(floats, stars, i), formula.maxStars).mul(formula.starsWeight);
+            FloatVector forksScore = ratio(FloatVector.fromArray(floats, forks, i), formula.maxForks).mul(formula.forksWeight);
+            FloatVector age = (FloatVector) IntVector.fromArray(ints, days, i).convert(VectorOperators.I2F, 0);
+            FloatVector recencyScore = FloatVector.broadcast(floats, 1.0f)
+                    .sub(age.div(formula.recencyDays).min(1.0f))
+                    .mul(formula.recencyWeight);
+            starsScore.add(forksScore).add(recencyScore).intoArray(scores, i);
+        }
+        tail.score(columns, scores, i);
+    }
+
+    private FloatVector ratio(FloatVector values, float max) {
+        return formula.normalize ? values.div(max).min(1.0f) : values;
+    }
+}